@@ -65,7 +65,7 @@ public final class Triple implements Comparable<Triple> {
 			result=
 				Objects.equals(this.subject, that.subject) &&
 				Objects.equals(this.predicate, that.predicate) &&
-				Objects.equals(this.object, that.predicate);
+				Objects.equals(this.object, that.object);
 		}
 		return result;
 	}
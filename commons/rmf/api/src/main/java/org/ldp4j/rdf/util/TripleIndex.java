@@ -0,0 +1,183 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.commons.rmf:rmf-api:0.2.2
+ *   Bundle      : rmf-api-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.rdf.util;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.ldp4j.rdf.Node;
+import org.ldp4j.rdf.Resource;
+import org.ldp4j.rdf.Triple;
+import org.ldp4j.rdf.URIRef;
+
+/**
+ * Hash based indexes over a set of triples. Three permutations are kept
+ * (subject-predicate-object, predicate-object-subject, and
+ * object-subject-predicate), so that any triple pattern can be answered by
+ * looking up at most two keys in one of them, without visiting triples that
+ * do not match the pattern.
+ */
+final class TripleIndex {
+
+	private static final class Permutation<A,B> {
+
+		private final Map<A,Map<B,SortedSet<Triple>>> entries=new HashMap<A,Map<B,SortedSet<Triple>>>();
+
+		void add(A first, B second, Triple triple) {
+			Map<B,SortedSet<Triple>> level=this.entries.get(first);
+			if(level==null) {
+				level=new HashMap<B,SortedSet<Triple>>();
+				this.entries.put(first,level);
+			}
+			SortedSet<Triple> triples=level.get(second);
+			if(triples==null) {
+				triples=new TreeSet<Triple>();
+				level.put(second,triples);
+			}
+			triples.add(triple);
+		}
+
+		void remove(A first, B second, Triple triple) {
+			Map<B,SortedSet<Triple>> level=this.entries.get(first);
+			if(level==null) {
+				return;
+			}
+			SortedSet<Triple> triples=level.get(second);
+			if(triples==null) {
+				return;
+			}
+			triples.remove(triple);
+			if(triples.isEmpty()) {
+				level.remove(second);
+				if(level.isEmpty()) {
+					this.entries.remove(first);
+				}
+			}
+		}
+
+		boolean contains(A first, B second, Triple triple) {
+			Map<B,SortedSet<Triple>> level=this.entries.get(first);
+			if(level==null) {
+				return false;
+			}
+			SortedSet<Triple> triples=level.get(second);
+			return triples!=null && triples.contains(triple);
+		}
+
+		void collect(A first, B second, Collection<? super Triple> result) {
+			Map<B,SortedSet<Triple>> level=this.entries.get(first);
+			if(level==null) {
+				return;
+			}
+			SortedSet<Triple> triples=level.get(second);
+			if(triples!=null) {
+				result.addAll(triples);
+			}
+		}
+
+		void collect(A first, Collection<? super Triple> result) {
+			Map<B,SortedSet<Triple>> level=this.entries.get(first);
+			if(level==null) {
+				return;
+			}
+			for(SortedSet<Triple> triples:level.values()) {
+				result.addAll(triples);
+			}
+		}
+
+	}
+
+	private final Permutation<Resource<?>,URIRef> spo=new Permutation<Resource<?>,URIRef>();
+	private final Permutation<URIRef,Node> pos=new Permutation<URIRef,Node>();
+	private final Permutation<Node,Resource<?>> osp=new Permutation<Node,Resource<?>>();
+
+	TripleIndex(Iterable<Triple> triples) {
+		for(Triple triple:triples) {
+			add(triple);
+		}
+	}
+
+	void add(Triple triple) {
+		this.spo.add(triple.getSubject(),triple.getPredicate(),triple);
+		this.pos.add(triple.getPredicate(),triple.getObject(),triple);
+		this.osp.add(triple.getObject(),triple.getSubject(),triple);
+	}
+
+	void remove(Triple triple) {
+		this.spo.remove(triple.getSubject(),triple.getPredicate(),triple);
+		this.pos.remove(triple.getPredicate(),triple.getObject(),triple);
+		this.osp.remove(triple.getObject(),triple.getSubject(),triple);
+	}
+
+	/**
+	 * Add the indexed triples that match a given pattern to a collection.
+	 * At least one of the components of the pattern must be bound. The
+	 * matches are added straight from the index, so that no intermediate
+	 * collection is built.
+	 *
+	 * @param subject
+	 *            the subject to match, or {@code null} for any subject
+	 * @param predicate
+	 *            the predicate to match, or {@code null} for any predicate
+	 * @param object
+	 *            the object to match, or {@code null} for any object
+	 * @param result
+	 *            the collection where the matching triples have to be added
+	 */
+	void match(Resource<?> subject, URIRef predicate, Node object, Collection<? super Triple> result) {
+		if(subject!=null) {
+			if(predicate!=null) {
+				if(object!=null) {
+					Triple triple=new Triple(subject,predicate,object);
+					if(this.spo.contains(subject,predicate,triple)) {
+						result.add(triple);
+					}
+				} else {
+					this.spo.collect(subject,predicate,result);
+				}
+			} else if(object!=null) {
+				this.osp.collect(object,subject,result);
+			} else {
+				this.spo.collect(subject,result);
+			}
+		} else if(predicate!=null) {
+			if(object!=null) {
+				this.pos.collect(predicate,object,result);
+			} else {
+				this.pos.collect(predicate,result);
+			}
+		} else if(object!=null) {
+			this.osp.collect(object,result);
+		} else {
+			throw new IllegalArgumentException("At least one of the components of the pattern must be bound");
+		}
+	}
+
+}
@@ -72,16 +72,39 @@ public final class TriplePatternMatcher implements ITripleMatcher {
 		}
 	}
 
+	private final Resource<?> subject;
+	private final URIRef predicate;
+	private final Node object;
+
 	private final ITripleMatcher subjectFilter;
 	private final ITripleMatcher predicateFilter;
 	private final ITripleMatcher objectFilter;
 
 	public TriplePatternMatcher(Resource<?> subject, URIRef predicate, Node object) {
+		this.subject = subject;
+		this.predicate = predicate;
+		this.object = object;
 		subjectFilter = new SubjectMatcher(subject);
 		predicateFilter = new PredicateMatcher(predicate);
 		objectFilter = new ObjectMatcher(object);
 	}
 
+	Resource<?> subject() {
+		return this.subject;
+	}
+
+	URIRef predicate() {
+		return this.predicate;
+	}
+
+	Node object() {
+		return this.object;
+	}
+
+	boolean isUnbound() {
+		return this.subject==null && this.predicate==null && this.object==null;
+	}
+
 	@Override
 	public boolean accept(Triple t) {
 		return 
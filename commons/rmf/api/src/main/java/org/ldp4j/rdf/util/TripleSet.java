@@ -26,12 +26,12 @@
  */
 package org.ldp4j.rdf.util;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
@@ -40,6 +40,12 @@ import org.ldp4j.rdf.Resource;
 import org.ldp4j.rdf.Triple;
 import org.ldp4j.rdf.URIRef;
 
+/**
+ * Mutable set of triples. Triples are kept in their natural order. Pattern
+ * lookups are answered using hash indexes that are built upon the first
+ * lookup and maintained incrementally afterwards, so that sets that are
+ * never queried do not pay for them.
+ */
 public final class TripleSet implements ITripleSet {
 
 	private static final String TRIPLE_MATCHER_PARAM = "Triple matcher cannot be null";
@@ -73,6 +79,39 @@ public final class TripleSet implements ITripleSet {
 
 	private final SortedSet<Triple> triples=new TreeSet<Triple>();
 
+	private TripleIndex index;
+
+	private TripleIndex index() {
+		if(this.index==null) {
+			this.index=new TripleIndex(this.triples);
+		}
+		return this.index;
+	}
+
+	private boolean addTriple(Triple triple) {
+		boolean added=this.triples.add(triple);
+		if(added && this.index!=null) {
+			this.index.add(triple);
+		}
+		return added;
+	}
+
+	private boolean removeTriple(Triple triple) {
+		boolean removed=this.triples.remove(triple);
+		if(removed && this.index!=null) {
+			this.index.remove(triple);
+		}
+		return removed;
+	}
+
+	private void match(TriplePatternMatcher pattern, Collection<Triple> result) {
+		if(pattern.isUnbound()) {
+			result.addAll(this.triples);
+		} else {
+			index().match(pattern.subject(),pattern.predicate(),pattern.object(),result);
+		}
+	}
+
 	@Override
 	public TripleSet get(Resource<?> subject, URIRef predicate, Node object) {
 		return get(new TriplePatternMatcher(subject, predicate, object));
@@ -82,9 +121,13 @@ public final class TripleSet implements ITripleSet {
 	public TripleSet get(ITripleMatcher tripleMatcher) {
 		Objects.requireNonNull(tripleMatcher, TRIPLE_MATCHER_PARAM);
 		TripleSet result=new TripleSet();
-		for(Triple t:triples) {
-			if(tripleMatcher.accept(t)) {
-				result.add(t);
+		if(tripleMatcher instanceof TriplePatternMatcher) {
+			match((TriplePatternMatcher)tripleMatcher,result.triples);
+		} else {
+			for(Triple t:triples) {
+				if(tripleMatcher.accept(t)) {
+					result.triples.add(t);
+				}
 			}
 		}
 		return result;
@@ -127,17 +170,19 @@ public final class TripleSet implements ITripleSet {
 
 	public void add(Triple... triples) {
 		if(triples!=null && triples.length>0) {
-			this.triples.addAll(Arrays.asList(triples));
+			for(Triple t:triples) {
+				addTriple(t);
+			}
 		}
 	}
 
 	public <T extends Iterable<Triple>> void add(T triples) {
 		if(triples!=null) {
-			if(triples instanceof TripleSet) {
+			if(triples instanceof TripleSet && this.index==null) {
 				this.triples.addAll(((TripleSet)triples).triples);
 			} else {
 				for(Triple t:triples) {
-					this.triples.add(t);
+					addTriple(t);
 				}
 			}
 		}
@@ -152,18 +197,16 @@ public final class TripleSet implements ITripleSet {
 
 	public void remove(Triple... triples) {
 		if(triples!=null && triples.length>0) {
-			this.triples.removeAll(Arrays.asList(triples));
+			for(Triple t:triples) {
+				removeTriple(t);
+			}
 		}
 	}
 
 	public <T extends Iterable<Triple>> void remove(T triples) {
 		if(triples!=null) {
-			if(triples instanceof TripleSet) {
-				this.triples.removeAll(((TripleSet)triples).triples);
-			} else {
-				for(Triple t:triples) {
-					this.triples.remove(t);
-				}
+			for(Triple t:triples) {
+				removeTriple(t);
 			}
 		}
 	}
@@ -174,17 +217,24 @@ public final class TripleSet implements ITripleSet {
 
 	public void remove(ITripleMatcher tripleMatcher) {
 		Objects.requireNonNull(tripleMatcher, TRIPLE_MATCHER_PARAM);
-		Set<Triple> result=new HashSet<Triple>();
-		for(Triple t:triples) {
-			if(!tripleMatcher.accept(t)) {
-				result.add(t);
+		List<Triple> matches=new ArrayList<Triple>();
+		if(tripleMatcher instanceof TriplePatternMatcher) {
+			match((TriplePatternMatcher)tripleMatcher,matches);
+		} else {
+			for(Triple t:triples) {
+				if(tripleMatcher.accept(t)) {
+					matches.add(t);
+				}
 			}
 		}
-		triples.removeAll(result);
+		for(Triple t:matches) {
+			removeTriple(t);
+		}
 	}
 
 	public void clear() {
 		this.triples.clear();
+		this.index=null;
 	}
 
 	@Override
@@ -0,0 +1,145 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.commons.rmf:rmf-api:0.2.2
+ *   Bundle      : rmf-api-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.rdf.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.ldp4j.rdf.util.RDFModelDSL.literal;
+import static org.ldp4j.rdf.util.RDFModelDSL.triple;
+import static org.ldp4j.rdf.util.RDFModelDSL.uriRef;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ldp4j.rdf.Node;
+import org.ldp4j.rdf.Resource;
+import org.ldp4j.rdf.Triple;
+import org.ldp4j.rdf.URIRef;
+
+public class TripleSetTest {
+
+	private static final int NODES = 8;
+
+	private List<URIRef> resources;
+	private List<Node> objects;
+	private TripleSet sut;
+
+	@Before
+	public void setUp() {
+		this.resources=new ArrayList<URIRef>();
+		this.objects=new ArrayList<Node>();
+		for(int i=0;i<NODES;i++) {
+			URIRef resource=uriRef("http://www.example.org/resource/"+i);
+			this.resources.add(resource);
+			this.objects.add(resource);
+			this.objects.add(literal("value "+i));
+		}
+		this.sut=new TripleSet();
+		Random random=new Random(12345);
+		for(int i=0;i<500;i++) {
+			this.sut.add(
+				triple(
+					this.resources.get(random.nextInt(NODES)),
+					this.resources.get(random.nextInt(NODES)),
+					this.objects.get(random.nextInt(this.objects.size()))));
+		}
+	}
+
+	private List<Triple> scan(final Resource<?> subject, final URIRef predicate, final Node object) {
+		List<Triple> result=new ArrayList<Triple>();
+		TriplePatternMatcher matcher=new TriplePatternMatcher(subject,predicate,object);
+		for(Triple triple:this.sut) {
+			if(matcher.accept(triple)) {
+				result.add(triple);
+			}
+		}
+		return result;
+	}
+
+	private void verifyPattern(Resource<?> subject, URIRef predicate, Node object) {
+		List<Triple> expected=scan(subject,predicate,object);
+		TripleSet result=this.sut.get(subject,predicate,object);
+		assertThat(Arrays.asList(result.toArray()),equalTo(expected));
+	}
+
+	@Test
+	public void testPatternLookupsMatchLinearScan() {
+		for(int i=0;i<NODES;i++) {
+			URIRef node=this.resources.get(i);
+			Node value=this.objects.get(2*i+1);
+			verifyPattern(node,null,null);
+			verifyPattern(null,node,null);
+			verifyPattern(null,null,node);
+			verifyPattern(null,null,value);
+			verifyPattern(node,node,null);
+			verifyPattern(node,null,value);
+			verifyPattern(null,node,value);
+			verifyPattern(node,this.resources.get((i+1)%NODES),value);
+		}
+		verifyPattern(null,null,null);
+	}
+
+	@Test
+	public void testIndexesAreMaintainedOnMutation() {
+		URIRef subject=this.resources.get(0);
+		verifyPattern(subject,null,null);
+		Triple newTriple=triple(subject,uriRef("http://www.example.org/new"),literal("new"));
+		this.sut.add(newTriple);
+		verifyPattern(subject,null,null);
+		assertThat(this.sut.get(null,null,literal("new")).contains(newTriple),equalTo(true));
+		this.sut.remove(newTriple);
+		verifyPattern(subject,null,null);
+		assertThat(this.sut.get(null,null,literal("new")).isEmpty(),equalTo(true));
+	}
+
+	@Test
+	public void testRemovePatternRemovesMatchingTriples() {
+		URIRef subject=this.resources.get(1);
+		int matching=scan(subject,null,null).size();
+		int size=this.sut.size();
+		this.sut.remove(subject,null,null);
+		assertThat(this.sut.size(),equalTo(size-matching));
+		assertThat(this.sut.get(subject,null,null).isEmpty(),equalTo(true));
+		verifyPattern(null,null,subject);
+	}
+
+	@Test
+	public void testClearDiscardsIndexes() {
+		URIRef subject=this.resources.get(2);
+		verifyPattern(subject,null,null);
+		this.sut.clear();
+		assertThat(this.sut.get(subject,null,null).isEmpty(),equalTo(true));
+		Triple newTriple=triple(subject,subject,subject);
+		this.sut.add(newTriple);
+		assertThat(this.sut.get(subject,null,null).size(),equalTo(1));
+	}
+
+}
@@ -28,15 +28,16 @@ package org.ldp4j.rdf.impl;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
 
-import org.apache.commons.io.IOUtils;
 import org.ldp4j.rdf.Triple;
 
 final class InputStreamUnmarshaller extends AbstractUnmarshaller<InputStream> {
 
 	@Override
 	public Iterable<Triple> unmarshall(InputStream source) throws IOException {
-		return getParser().parse(IOUtils.toString(source));
+		return getParser().parse(new InputStreamReader(source,Charset.defaultCharset()));
 	}
 	
 }
\ No newline at end of file
@@ -204,9 +204,13 @@ final class RDFModelFormater {
 
 	public String format(Iterable<Triple> triples) throws IOException {
 		StringWriter writer=new StringWriter();
+		format(triples,writer);
+		return writer.toString();
+	}
+
+	public void format(Iterable<Triple> triples, Writer writer) throws IOException {
 		try {
 			exportTriples(triples, createWriter(writer));
-			return writer.toString();
 		} catch (RDFHandlerException e) {
 			throw new IOException(e);
 		}
@@ -239,7 +243,7 @@ final class RDFModelFormater {
 		}
 	}
 
-	private RDFWriter createWriter(StringWriter writer) {
+	private RDFWriter createWriter(Writer writer) {
 		RDFWriter result=null;
 		if(format.equals(Format.TURTLE)) {
 			result=new TurtlePrettyPrinter(new MemValueFactory().createURI(baseURI.toString()),writer);
@@ -27,6 +27,7 @@
 package org.ldp4j.rdf.impl;
 
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.net.URI;
 import java.util.ArrayList;
@@ -102,11 +103,11 @@ final class RDFModelParser {
 	}
 
 	private static final class RepositoryBasedTripleProducer implements TripleProducer {
-		private final String content;
+		private final Reader content;
 		private final RDFFormat format;
 		private final String base;
 
-		private RepositoryBasedTripleProducer(String content, RDFFormat format, String base) {
+		private RepositoryBasedTripleProducer(Reader content, RDFFormat format, String base) {
 			this.content = content;
 			this.format = format;
 			this.base = base;
@@ -161,8 +162,8 @@ final class RDFModelParser {
 			}
 		}
 
-		private void populateRepository(String content, RepositoryConnection connection) throws IOException, RDFParseException, RepositoryException {
-			connection.add(new StringReader(content), this.base, this.format);
+		private void populateRepository(Reader content, RepositoryConnection connection) throws IOException, RDFParseException, RepositoryException {
+			connection.add(content, this.base, this.format);
 		}
 
 		private Namespaces getNamespaces(RepositoryConnection connection) throws RepositoryException {
@@ -201,14 +202,22 @@ final class RDFModelParser {
 
 	private static final class ParserBasedTripleProducer implements TripleProducer {
 
+		/**
+		 * Translates the statements as soon as they are parsed, so that no
+		 * intermediate collection of statements has to be kept. The
+		 * namespaces are shared with the translator, and are thus available
+		 * as soon as they are declared.
+		 */
 		private static final class Collector implements RDFHandler {
 
-			private final List<Statement> statements;
+			private final TripleSink sink;
 			private final Namespaces namespaces;
+			private final SesameModelParser tripleParser;
 
-			private Collector() {
+			private Collector(TripleSink sink) {
+				this.sink = sink;
 				this.namespaces = new Namespaces();
-				this.statements=new ArrayList<Statement>();
+				this.tripleParser=new SesameModelParser(this.namespaces);
 			}
 
 			@Override
@@ -228,7 +237,7 @@ final class RDFModelParser {
 
 			@Override
 			public void handleStatement(Statement st) throws RDFHandlerException {
-				this.getStatements().add(st);
+				this.sink.addTriple(this.tripleParser.parseStatement(st));
 			}
 
 			@Override
@@ -240,16 +249,13 @@ final class RDFModelParser {
 				return this.namespaces;
 			}
 
-			List<Statement> getStatements() {
-				return this.statements;
-			}
 		}
 
-		private final String content;
+		private final Reader content;
 		private final RDFFormat format;
 		private final String base;
 
-		private ParserBasedTripleProducer(String content, RDFFormat format, String base) {
+		private ParserBasedTripleProducer(Reader content, RDFFormat format, String base) {
 			this.content = content;
 			this.format = format;
 			this.base = base;
@@ -258,14 +264,10 @@ final class RDFModelParser {
 		@Override
 		public void injectTriples(TripleSink sink) throws IOException {
 			try {
-				Collector collector = new Collector();
+				Collector collector = new Collector(sink);
 				RDFParser parser =Rio.createParser(this.format);
 				parser.setRDFHandler(collector);
-				parser.parse(new StringReader(this.content), this.base);
-				SesameModelParser tripleParser=new SesameModelParser(collector.getNamespaces());
-				for(Statement st:collector.getStatements()) {
-					sink.addTriple(tripleParser.parseStatement(st));
-				}
+				parser.parse(this.content, this.base);
 			} catch (OpenRDFException e) {
 				throw new IOException(e);
 			}
@@ -288,7 +290,7 @@ final class RDFModelParser {
 		this.ordering = ordering;
 	}
 
-	private TripleProducer getProducer(String content) {
+	private TripleProducer getProducer(Reader content) {
 		RDFFormat sesameFormat =
 			Rio.
 				getParserFormatForMIMEType(
@@ -324,6 +326,10 @@ final class RDFModelParser {
 	}
 
 	public Iterable<Triple> parse(final String content) throws IOException {
+		return parse(new StringReader(content));
+	}
+
+	public Iterable<Triple> parse(final Reader content) throws IOException {
 		TripleSink sink = getTripleSink();
 		TripleProducer producer = getProducer(content);
 		producer.injectTriples(sink);
@@ -29,15 +29,13 @@ package org.ldp4j.rdf.impl;
 import java.io.IOException;
 import java.io.Reader;
 
-import org.apache.commons.io.IOUtils;
 import org.ldp4j.rdf.Triple;
 
 final class ReaderUnmarshaller extends AbstractUnmarshaller<Reader> {
 
 	@Override
 	public Iterable<Triple> unmarshall(Reader source) throws IOException {
-		String content=IOUtils.toString(source);
-		return getParser().parse(content);
+		return getParser().parse(source);
 	}
 	
 }
\ No newline at end of file
@@ -27,53 +27,90 @@
 package org.ldp4j.application.data;
 
 import java.io.Serializable;
-import java.util.ArrayList;
+import java.net.URI;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
-import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Maps;
+import com.google.common.collect.SetMultimap;
 
 
+/**
+ * Single-writer data set. Individuals are kept in insertion order and the
+ * references between them are tracked in a reverse index, so that removing an
+ * individual only visits the properties that actually point to it.
+ * Iteration works on an immutable snapshot of the individuals that is only
+ * rebuilt after the set of individuals changes, so callers may add or remove
+ * individuals while iterating.
+ */
 final class MutableDataSet implements DataSet {
 
-	private final class IndividualRemover implements ValueVisitor {
+	private static final class Reference {
 
-		private final Property property;
-		private final Individual<?, ?> src;
-		private final Individual<?, ?> individual;
+		private final Individual<?,?> referrer;
+		private final URI predicate;
 
-		private IndividualRemover(Property property, Individual<?, ?> src, Individual<?, ?> individual) {
-			this.property = property;
-			this.src = src;
-			this.individual = individual;
+		private Reference(Individual<?,?> referrer, URI predicate) {
+			this.referrer=referrer;
+			this.predicate=predicate;
 		}
 
 		@Override
-		public void visitLiteral(Literal<?> value) {
-			// Nothing to do
+		public int hashCode() {
+			return Objects.hashCode(System.identityHashCode(this.referrer),this.predicate);
 		}
 
 		@Override
-		public void visitIndividual(Individual<?, ?> value) {
-			if(value==this.src) {
-				this.individual.removeValue(this.property.predicate(), value);
+		public boolean equals(Object obj) {
+			if(this==obj) {
+				return true;
 			}
+			if(!(obj instanceof Reference)) {
+				return false;
+			}
+			Reference that=(Reference)obj;
+			return
+				this.referrer==that.referrer &&
+				this.predicate.equals(that.predicate);
 		}
+
 	}
 
 	private final Name<?> name;
 	private final Map<Serializable,Individual<?,?>> individuals;
+	private final SetMultimap<Individual<?,?>,Reference> references;
 	private final IndividualFactory factory;
 
+	private ImmutableList<Individual<?,?>> snapshot;
+
 	MutableDataSet(Name<?> name) {
 		this.name = name;
 		this.individuals=Maps.newLinkedHashMap();
+		this.references=LinkedHashMultimap.create();
 		this.factory=new IndividualFactory(this);
 	}
 
+	private ImmutableList<Individual<?,?>> snapshot() {
+		if(this.snapshot==null) {
+			this.snapshot=ImmutableList.copyOf(this.individuals.values());
+		}
+		return this.snapshot;
+	}
+
+	void addReference(Individual<?,?> target, Individual<?,?> referrer, URI predicate) {
+		this.references.put(target,new Reference(referrer,predicate));
+	}
+
+	void removeReference(Individual<?,?> target, Individual<?,?> referrer, URI predicate) {
+		this.references.remove(target,new Reference(referrer,predicate));
+	}
+
 	@Override
 	public Name<?> name() {
 		return this.name;
@@ -91,12 +128,12 @@ final class MutableDataSet implements DataSet {
 
 	@Override
 	public Collection<Individual<?, ?>> individuals() {
-		return new ArrayList<Individual<?,?>>(this.individuals.values());
+		return snapshot();
 	}
 
 	@Override
 	public Set<Serializable> individualIds() {
-		return new LinkedHashSet<Serializable>(this.individuals.keySet());
+		return Collections.unmodifiableSet(this.individuals.keySet());
 	}
 
 	@Override
@@ -116,6 +153,7 @@ final class MutableDataSet implements DataSet {
 		if(result==null) {
 			result=factory.newIndividual(clazz,id);
 			this.individuals.put(id,result);
+			this.snapshot=null;
 		} else if (!clazz.isInstance(result)) {
 			throw new IllegalStateException("Existing individual '"+id+"' is not compatible with '"+clazz.getCanonicalName()+"' ("+result.getClass().getCanonicalName()+")");
 		}
@@ -124,7 +162,7 @@ final class MutableDataSet implements DataSet {
 
 	@Override
 	public Iterator<Individual<?, ?>> iterator() {
-		return individuals().iterator();
+		return snapshot().iterator();
 	}
 
 	@Override
@@ -144,14 +182,15 @@ final class MutableDataSet implements DataSet {
 		if(this!=src.dataSet()) {
 			return;
 		}
-		for(Individual<?,?> individual:this) {
-			for(Property property:individual) {
-				for(Value value:property) {
-					value.accept(new IndividualRemover(property,src,individual));
-				}
+		Reference[] refs=this.references.removeAll(src).toArray(new Reference[0]);
+		for(Reference ref:refs) {
+			if(this.individuals.get(ref.referrer.id())==ref.referrer) {
+				ref.referrer.removeValue(ref.predicate,src);
 			}
 		}
-		this.individuals.remove(src.id());
+		if(this.individuals.remove(src.id())!=null) {
+			this.snapshot=null;
+		}
 	}
 
 	@Override
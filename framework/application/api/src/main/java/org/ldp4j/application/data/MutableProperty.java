@@ -27,11 +27,11 @@
 package org.ldp4j.application.data;
 
 import java.net.URI;
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
 
 
 final class MutableProperty implements Property {
@@ -94,12 +94,16 @@ final class MutableProperty implements Property {
 		this.individual = individual;
 		this.dataSet = dataSet;
 		this.predicate = predicate;
-		this.values=new CopyOnWriteArraySet<Value>();
+		this.values=new LinkedHashSet<Value>();
 	}
 
+	/**
+	 * Snapshot constructor: the copy is detached from the data set's
+	 * reference index.
+	 */
 	MutableProperty(MutableProperty property) {
 		this(property.individual,property.dataSet,property.predicate);
-		this.values.addAll(property.values());
+		this.values.addAll(property.values);
 	}
 
 	void addValue(Value value) {
@@ -107,7 +111,9 @@ final class MutableProperty implements Property {
 	}
 
 	void removeValue(Value value) {
-		this.values.remove(value);
+		if(this.values.remove(value) && value instanceof Individual<?,?>) {
+			dataSet().removeReference((Individual<?,?>)value,this.individual,this.predicate);
+		}
 	}
 
 	private void addLiteral(Literal<?> value) {
@@ -132,7 +138,9 @@ final class MutableProperty implements Property {
 		if(target!=value) {
 			mergeIndividuals(value,target);
 		}
-		this.values.add(target);
+		if(this.values.add(target)) {
+			dataSet().addReference(target,this.individual,this.predicate);
+		}
 	}
 
 	private Individual<?, ?> addIndividualToDataset(Individual<?, ?> value) {
@@ -166,7 +174,7 @@ final class MutableProperty implements Property {
 
 	@Override
 	public Collection<Value> values() {
-		return new ArrayList<Value>(this.values);
+		return Collections.unmodifiableSet(this.values);
 	}
 
 	@Override
@@ -181,7 +189,7 @@ final class MutableProperty implements Property {
 
 	@Override
 	public void accept(ValueVisitor visitor) {
-		for(Value value:values()) {
+		for(Value value:this.values) {
 			value.accept(visitor);
 		}
 	}
@@ -0,0 +1,62 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-api:0.2.2
+ *   Bundle      : ldp4j-application-api-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.ext;
+
+import org.ldp4j.application.data.DataSet;
+import org.ldp4j.application.session.ContainerSnapshot;
+import org.ldp4j.application.session.ResourceSnapshot;
+import org.ldp4j.application.session.WriteSession;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Interface to be implemented by {@link ContainerHandler} implementations
+ * that create the members of their containers asynchronously. When a handler
+ * implements this interface, the application engine uses this method instead
+ * of
+ * {@link ContainerHandler#create(ContainerSnapshot, DataSet, WriteSession)}.
+ */
+public interface AsyncContainerHandler {
+
+	/**
+	 * Creates a member of a container managed by the container handler.
+	 *
+	 * @param container
+	 *            the container to which a member will be added.
+	 * @param representation
+	 *            the representation of the member that will be created.
+	 * @param session
+	 *            the session to use for registering the side effects of the
+	 *            operation. The session cannot be used once the future is
+	 *            completed.
+	 * @return a future that will provide the resource created, or that will
+	 *         fail with the exceptions documented in
+	 *         {@link ContainerHandler#create(ContainerSnapshot, DataSet, WriteSession)}.
+	 */
+	ListenableFuture<ResourceSnapshot> createAsync(ContainerSnapshot container, DataSet representation, WriteSession session);
+
+}
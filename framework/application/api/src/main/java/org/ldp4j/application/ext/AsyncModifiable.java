@@ -0,0 +1,60 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-api:0.2.2
+ *   Bundle      : ldp4j-application-api-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.ext;
+
+import org.ldp4j.application.data.DataSet;
+import org.ldp4j.application.session.ResourceSnapshot;
+import org.ldp4j.application.session.WriteSession;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Interface to be implemented by {@link ResourceHandler} implementations that
+ * also support resource modification, carrying it out asynchronously. A
+ * handler implementing this interface does not need to implement
+ * {@link Modifiable}.
+ */
+public interface AsyncModifiable {
+
+	/**
+	 * Update the state of a resource managed by a handler.
+	 *
+	 * @param resource
+	 *            the resource whose state is to be updated.
+	 * @param content
+	 *            the new content for the resource.
+	 * @param session
+	 *            the session to use for registering the side effects of the
+	 *            operation. The session cannot be used once the future is
+	 *            completed.
+	 * @return a future that will be completed once the resource has been
+	 *         updated, or that will fail with the exceptions documented in
+	 *         {@link Modifiable#update(ResourceSnapshot, DataSet, WriteSession)}.
+	 */
+	ListenableFuture<Void> updateAsync(ResourceSnapshot resource, DataSet content, WriteSession session);
+
+}
@@ -0,0 +1,55 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-api:0.2.2
+ *   Bundle      : ldp4j-application-api-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.ext;
+
+import org.ldp4j.application.data.DataSet;
+import org.ldp4j.application.session.ResourceSnapshot;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+/**
+ * Interface to be implemented by {@link ResourceHandler} implementations that
+ * retrieve the representation of their resources asynchronously. When a
+ * handler implements this interface, the application engine uses this method
+ * instead of {@link ResourceHandler#get(ResourceSnapshot)}, both for serving
+ * the representations of the resources and for deriving the entity tags of
+ * the resources changed by a write session.
+ */
+public interface AsyncResourceHandler {
+
+	/**
+	 * Get a representation of a resource managed by the resource handler.
+	 *
+	 * @param resource
+	 *            the resource whose representation is to be retrieved.
+	 * @return a future that will provide the data set that represents the
+	 *         specified resource, or that will fail with the exceptions
+	 *         documented in {@link ResourceHandler#get(ResourceSnapshot)}.
+	 */
+	ListenableFuture<DataSet> getAsync(ResourceSnapshot resource);
+
+}
@@ -27,7 +27,9 @@
 package org.ldp4j.application.data;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.fail;
 
@@ -124,4 +126,60 @@ public class MutableDataSetTest {
 		assertThat(sut.individual(URI.create("urn:individual"), ExternalIndividual.class),sameInstance(individual));
 	}
 
+	@Test
+	public void testIndividualsCanBeAddedWhileIterating() throws Exception {
+		ExternalIndividual first=sut.individual(URI.create("urn:first"), ExternalIndividual.class);
+		for(Individual<?,?> individual:sut) {
+			assertThat((Object)individual,sameInstance((Object)first));
+			sut.individual(URI.create("urn:second"), ExternalIndividual.class);
+		}
+		assertThat(sut.numberOfIndividuals(),equalTo(2));
+		assertThat(sut.individualIds(),contains((Object)URI.create("urn:first"),URI.create("urn:second")));
+	}
+
+	@Test
+	public void testPropertyValuesKeepInsertionOrderWithoutDuplicates() throws Exception {
+		URI property=URI.create("urn:property");
+		ExternalIndividual individual=sut.individual(URI.create("urn:individual"), ExternalIndividual.class);
+		individual.addValue(property, Literals.newLiteral("b"));
+		individual.addValue(property, Literals.newLiteral("a"));
+		individual.addValue(property, Literals.newLiteral("b"));
+		assertThat(individual.property(property).numberOfValues(),equalTo(2));
+		assertThat(individual.property(property).values(),contains((Value)Literals.newLiteral("b"),Literals.newLiteral("a")));
+	}
+
+	@Test
+	public void testRemoveDropsIncomingReferences() throws Exception {
+		URI p1=URI.create("urn:p1");
+		URI p2=URI.create("urn:p2");
+		ExternalIndividual target=sut.individual(URI.create("urn:target"), ExternalIndividual.class);
+		ExternalIndividual one=sut.individual(URI.create("urn:one"), ExternalIndividual.class);
+		ExternalIndividual two=sut.individual(URI.create("urn:two"), ExternalIndividual.class);
+		one.addValue(p1, target);
+		one.addValue(p1, Literals.newLiteral("data"));
+		two.addValue(p1, target);
+		two.addValue(p2, target);
+		sut.remove(target);
+		assertThat(sut.hasIndividual(target.id()),equalTo(false));
+		assertThat(one.property(p1).numberOfValues(),equalTo(1));
+		assertThat(one.property(p1).hasIdentifiedIndividual(target.id()),equalTo(false));
+		assertThat(two.hasProperty(p1),equalTo(false));
+		assertThat(two.property(p2),nullValue());
+	}
+
+	@Test
+	public void testRemoveIgnoresReferencesAlreadyRetracted() throws Exception {
+		URI p1=URI.create("urn:p1");
+		ExternalIndividual target=sut.individual(URI.create("urn:target"), ExternalIndividual.class);
+		ExternalIndividual one=sut.individual(URI.create("urn:one"), ExternalIndividual.class);
+		ExternalIndividual two=sut.individual(URI.create("urn:two"), ExternalIndividual.class);
+		one.addValue(p1, target);
+		two.addValue(p1, target);
+		one.removeValue(p1, target);
+		two.addValue(p1, Literals.newLiteral("data"));
+		sut.remove(target);
+		assertThat(one.hasProperty(p1),equalTo(false));
+		assertThat(two.property(p1).numberOfValues(),equalTo(1));
+	}
+
 }
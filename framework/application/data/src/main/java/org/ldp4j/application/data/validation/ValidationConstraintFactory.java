@@ -36,6 +36,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.ldp4j.application.data.DataSetUtils;
 import org.ldp4j.application.data.FormatUtils;
@@ -47,6 +48,7 @@ import org.ldp4j.application.data.ValueVisitor;
 
 import com.google.common.base.MoreObjects;
 import com.google.common.base.MoreObjects.ToStringHelper;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
@@ -121,7 +123,7 @@ public final class ValidationConstraintFactory {
 
 	}
 
-	private static class MandatoryPropertyValuesValidationConstraint implements ValidationConstraint<Property> {
+	private static class MandatoryPropertyValuesValidationConstraint implements ValidationConstraint<Property>, PropertyConstraintScope {
 
 		private final Object individualId;
 		private final URI predicate;
@@ -142,6 +144,16 @@ public final class ValidationConstraintFactory {
 			return this.individualId!=null && !this.values.isEmpty();
 		}
 
+		@Override
+		public Object individualId() {
+			return this.individualId;
+		}
+
+		@Override
+		public URI predicate() {
+			return this.predicate;
+		}
+
 		@Override
 		public final ValidationLog validate(Property property) {
 			final ValidationLogImpl log = new ValidationLogImpl();
@@ -268,6 +280,85 @@ public final class ValidationConstraintFactory {
 
 	}
 
+	/**
+	 * Constraint that restricts which individuals can refer to a given
+	 * individual using a given predicate. The references of any other
+	 * individual are rejected.
+	 */
+	private static final class ReadOnlyReferencesValidationConstraint implements ValidationConstraint<Property>, PropertyConstraintScope {
+
+		private final Object targetId;
+		private final URI predicate;
+		private final Set<Object> individualIds;
+
+		private ReadOnlyReferencesValidationConstraint(Object targetId, URI predicate, Collection<?> individualIds) {
+			this.targetId=targetId;
+			this.predicate=predicate;
+			this.individualIds=ImmutableSet.copyOf(individualIds);
+		}
+
+		@Override
+		public boolean mustBeChecked() {
+			return false;
+		}
+
+		@Override
+		public Object individualId() {
+			return null;
+		}
+
+		@Override
+		public URI predicate() {
+			return this.predicate;
+		}
+
+		@Override
+		public ValidationLog validate(Property property) {
+			ValidationLogImpl log=new ValidationLogImpl();
+			if(this.predicate.equals(property.predicate())) {
+				log.markChecked();
+				if(!this.individualIds.contains(property.individual().id())) {
+					checkReferences(property,log);
+				}
+			}
+			return log;
+		}
+
+		private void checkReferences(Property property, ValidationLogImpl log) {
+			for(Value value:property) {
+				if(value instanceof Individual<?,?> && this.targetId.equals(((Individual<?,?>)value).id())) {
+					log.addAddedValue(property,value);
+				}
+			}
+		}
+
+		@Override
+		public ValidationFailure uncheckedFailure() {
+			return new ValidationFailure() {
+				@Override
+				public String toString() {
+					return "Could not check references to individual "+FormatUtils.formatId(targetId)+" using property '"+predicate+"'";
+				}
+			};
+		}
+
+		@Override
+		public String toString() {
+			List<String> rawIds=Lists.newArrayList();
+			for(Object individualId:this.individualIds) {
+				rawIds.add(FormatUtils.formatId(individualId));
+			}
+			return
+				MoreObjects.
+					toStringHelper("ReadOnlyReferences").
+						add("target",FormatUtils.formatId(this.targetId)).
+						add("predicate",this.predicate).
+						add("referrers",rawIds).
+						toString();
+		}
+
+	}
+
 	private ValidationConstraintFactory() {
 	}
 
@@ -287,6 +378,27 @@ public final class ValidationConstraintFactory {
 		return new ReadOnlyPropertyValidationConstraint(null, predicate, values);
 	}
 
+	/**
+	 * Create a constraint that only allows the specified individuals to
+	 * refer to an individual using a given predicate.
+	 *
+	 * @param targetId
+	 *            the identifier of the referred individual
+	 * @param predicate
+	 *            the predicate of the references
+	 * @param individualIds
+	 *            the identifiers of the individuals that can refer to the
+	 *            target individual
+	 * @return a constraint that rejects the references of any other
+	 *         individual
+	 */
+	public static ValidationConstraint<Property> readOnlyReferences(Object targetId, URI predicate, Collection<?> individualIds) {
+		checkNotNull(targetId,INDIVIDUAL_IDENTIFIER_CANNOT_BE_NULL);
+		checkNotNull(predicate,PREDICATE_CANNOT_BE_NULL);
+		checkNotNull(individualIds,"Individual identifiers cannot be null");
+		return new ReadOnlyReferencesValidationConstraint(targetId,predicate,individualIds);
+	}
+
 	public static ValidationConstraint<Property> mandatoryPropertyValues(Property property) {
 		checkNotNull(property,INDIVIDUAL_IDENTIFIER_CANNOT_BE_NULL);
 		return new MandatoryPropertyValuesValidationConstraint(property.individual().id(), property.predicate(), property.values());
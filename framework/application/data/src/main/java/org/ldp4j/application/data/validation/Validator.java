@@ -26,7 +26,7 @@
  */
 package org.ldp4j.application.data.validation;
 
-import java.util.Arrays;
+import java.net.URI;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -39,69 +39,173 @@ import org.ldp4j.application.data.Property;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
 import static com.google.common.base.Preconditions.*;
 
+/**
+ * Validates data sets against a set of validation constraints. The
+ * constraints are compiled when the validator is built: the property
+ * constraints that declare their scope are indexed by individual and
+ * predicate, so that each property is only verified against the constraints
+ * that apply to it. Validators are immutable and can be safely reused for
+ * validating any number of data sets, even concurrently.
+ */
 public final class Validator {
 
 	private static final Logger LOGGER=LoggerFactory.getLogger(Validator.class);
 
 	private static final class ValidationReportImpl implements ValidationReport {
 
-		private final List<ValidationLog> logs;
+		private final List<ValidationLog> failures;
+		private final Set<ValidationConstraint<?>> checked;
 		private final List<ValidationConstraint<?>> unchecked;
-		private boolean valid;
 
 		private ValidationReportImpl() {
-			this.logs=Lists.newArrayList();
+			this.failures=Lists.newArrayList();
+			this.checked=Sets.newIdentityHashSet();
 			this.unchecked=Lists.newArrayList();
-			this.valid=true;
 		}
 
 		@Override
 		public Collection<ValidationFailure> validationFailures() {
-			List<ValidationFailure> failures=Lists.newArrayList();
-			for(ValidationLog log:this.logs) {
-				failures.add(log.validationFailure());
+			if(isValid()) {
+				return Collections.emptyList();
+			}
+			List<ValidationFailure> result=Lists.newArrayListWithCapacity(failureCount());
+			for(ValidationLog log:this.failures) {
+				result.add(log.validationFailure());
 			}
 			for(ValidationConstraint<?> constraint:this.unchecked) {
-				failures.add(constraint.uncheckedFailure());
+				result.add(constraint.uncheckedFailure());
 			}
-			return Collections.unmodifiableList(failures);
+			return Collections.unmodifiableList(result);
 		}
 
-		private void addValidationLog(ValidationLog log) {
+		private void addValidationLog(ValidationConstraint<?> constraint, ValidationLog log) {
 			checkNotNull(log,"Validation log cannot be null");
-			this.logs.add(log);
-			this.valid=this.valid && log.success();
+			if(!log.success()) {
+				this.failures.add(log);
+			}
+			if(constraint.mustBeChecked()) {
+				this.checked.add(constraint);
+			}
+		}
+
+		private boolean isChecked(ValidationConstraint<?> constraint) {
+			return this.checked.contains(constraint);
 		}
 
 		private void addUncheckedValidationConstraint(ValidationConstraint<?> constraint) {
 			checkNotNull(constraint,"Validation constraint cannot be null");
 			this.unchecked.add(constraint);
-			this.valid=false;
+		}
+
+		private int failureCount() {
+			return this.failures.size()+this.unchecked.size();
 		}
 
 		@Override
 		public boolean isValid() {
-			return this.valid;
+			return this.failures.isEmpty() && this.unchecked.isEmpty();
 		}
 
 	}
 
-	private final Collection<ValidationConstraint<DataSet>> dataSetVC;
-	private final Collection<ValidationConstraint<Individual<?,?>>> individualVC;
-	private final Collection<ValidationConstraint<Property>> propertyVC;
+	private static final class PropertyKey {
+
+		private final Object individualId;
+		private final URI predicate;
+
+		private PropertyKey(Object individualId, URI predicate) {
+			this.individualId=individualId;
+			this.predicate=predicate;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(this.individualId,this.predicate);
+		}
 
-	private final Set<ValidationConstraint<?>> checkedVC;
+		@Override
+		public boolean equals(Object obj) {
+			boolean result=false;
+			if(obj instanceof PropertyKey) {
+				PropertyKey that=(PropertyKey)obj;
+				result=
+					Objects.equal(this.individualId,that.individualId) &&
+					Objects.equal(this.predicate,that.predicate);
+			}
+			return result;
+		}
+
+	}
+
+	private final List<ValidationConstraint<DataSet>> dataSetVC;
+	private final List<ValidationConstraint<Individual<?,?>>> individualVC;
+
+	/**
+	 * Property constraints that apply to a given property of a given
+	 * individual.
+	 */
+	private final ListMultimap<PropertyKey,ValidationConstraint<Property>> individualPropertyVC;
+
+	/**
+	 * Property constraints that apply to a given property of any individual.
+	 */
+	private final ListMultimap<URI,ValidationConstraint<Property>> predicatePropertyVC;
+
+	/**
+	 * Property constraints whose scope is unknown, which have to be verified
+	 * against every property.
+	 */
+	private final List<ValidationConstraint<Property>> propertyVC;
+
+	/**
+	 * Constraints that must be checked at least once for the validation to
+	 * succeed.
+	 */
+	private final List<ValidationConstraint<?>> requiredVC;
+
+	private Validator(ValidatorBuilder builder) {
+		this.dataSetVC=ImmutableList.copyOf(builder.dataSetVC);
+		this.individualVC=ImmutableList.copyOf(builder.individualVC);
+		ImmutableListMultimap.Builder<PropertyKey,ValidationConstraint<Property>> individualProperty=ImmutableListMultimap.builder();
+		ImmutableListMultimap.Builder<URI,ValidationConstraint<Property>> predicateProperty=ImmutableListMultimap.builder();
+		ImmutableList.Builder<ValidationConstraint<Property>> property=ImmutableList.builder();
+		for(ValidationConstraint<Property> constraint:builder.propertyVC) {
+			if(!(constraint instanceof PropertyConstraintScope)) {
+				property.add(constraint);
+			} else {
+				PropertyConstraintScope scope=(PropertyConstraintScope)constraint;
+				if(scope.individualId()==null) {
+					predicateProperty.put(scope.predicate(),constraint);
+				} else {
+					individualProperty.put(new PropertyKey(scope.individualId(),scope.predicate()),constraint);
+				}
+			}
+		}
+		this.individualPropertyVC=individualProperty.build();
+		this.predicatePropertyVC=predicateProperty.build();
+		this.propertyVC=property.build();
+		ImmutableList.Builder<ValidationConstraint<?>> required=ImmutableList.builder();
+		addRequired(required,this.dataSetVC);
+		addRequired(required,this.individualVC);
+		addRequired(required,builder.propertyVC);
+		this.requiredVC=required.build();
+	}
 
-	private Validator() {
-		this.dataSetVC=Lists.newArrayList();
-		this.individualVC=Lists.newArrayList();
-		this.propertyVC=Lists.newArrayList();
-		this.checkedVC=Sets.newIdentityHashSet();
+	private static <T> void addRequired(ImmutableList.Builder<ValidationConstraint<?>> required, Collection<ValidationConstraint<T>> constraints) {
+		for(ValidationConstraint<T> constraint:constraints) {
+			if(constraint.mustBeChecked()) {
+				required.add(constraint);
+			}
+		}
 	}
 
 	public ValidationReport validate(DataSet dataSet) {
@@ -109,65 +213,51 @@ public final class Validator {
 		ValidationReportImpl report=new ValidationReportImpl();
 		processValidationConstraints(dataSet, report);
 		verifyValidationConstraints(report);
-		if(LOGGER.isInfoEnabled()) {
+		if(LOGGER.isDebugEnabled()) {
 			if(report.isValid()) {
-				LOGGER.info("Validation completed succesfully");
+				LOGGER.debug("Validation completed succesfully");
 			} else {
-				LOGGER.info("Validation failed: {} violations found",report.validationFailures().size());
+				LOGGER.debug("Validation failed: {} violations found",report.failureCount());
 			}
 		}
 		return report;
 	}
 
 	private void processValidationConstraints(DataSet dataSet, ValidationReportImpl report) {
-		if(LOGGER.isDebugEnabled()) {
-			LOGGER.debug("Started processing validation constraints...");
-		}
 		verifyConstraints(dataSet,this.dataSetVC,report);
+		boolean checkIndividuals=!this.individualVC.isEmpty();
+		boolean checkIndividualProperties=!this.individualPropertyVC.isEmpty();
 		for(Individual<?,?> individual:dataSet) {
-			verifyConstraints(individual,this.individualVC,report);
+			if(checkIndividuals) {
+				verifyConstraints(individual,this.individualVC,report);
+			}
 			for(Property property:individual) {
+				if(checkIndividualProperties) {
+					verifyConstraints(property,this.individualPropertyVC.get(new PropertyKey(individual.id(),property.predicate())),report);
+				}
+				verifyConstraints(property,this.predicatePropertyVC.get(property.predicate()),report);
 				verifyConstraints(property,this.propertyVC,report);
 			}
 		}
 	}
 
 	private void verifyValidationConstraints(ValidationReportImpl report) {
-		if(LOGGER.isDebugEnabled()) {
-			LOGGER.debug("Started verifying validation constraints...");
-		}
-		verifyCheckedConstraints(this.dataSetVC,report);
-		verifyCheckedConstraints(this.individualVC,report);
-		verifyCheckedConstraints(this.propertyVC,report);
-	}
-
-	private <T> void verifyCheckedConstraints(Collection<ValidationConstraint<T>> constraints, ValidationReportImpl report) {
-		for(ValidationConstraint<T> constraint:constraints) {
-			if(constraint.mustBeChecked() && !isChecked(constraint)) {
+		for(ValidationConstraint<?> constraint:this.requiredVC) {
+			if(!report.isChecked(constraint)) {
 				report.addUncheckedValidationConstraint(constraint);
 				if(LOGGER.isTraceEnabled()) {
-					LOGGER.trace("Validation constraint '{}' has not been checked"+constraint);
+					LOGGER.trace("Validation constraint '{}' has not been checked",constraint);
 				}
 			}
 		}
 	}
 
-	private <T> boolean isChecked(ValidationConstraint<T> constraint) {
-		return this.checkedVC.contains(constraint);
-	}
-
-	private <T> void markChecked(ValidationConstraint<T> constraint) {
-		if(constraint.mustBeChecked()) {
-			this.checkedVC.add(constraint);
-		}
-	}
-
-	private <T> void verifyConstraints(T item, Collection<ValidationConstraint<T>> constraints, ValidationReportImpl report) {
-		for(ValidationConstraint<T> constraint:constraints) {
+	private <T> void verifyConstraints(T item, List<ValidationConstraint<T>> constraints, ValidationReportImpl report) {
+		for(int i=0;i<constraints.size();i++) {
+			ValidationConstraint<T> constraint=constraints.get(i);
 			ValidationLog log = constraint.validate(item);
 			if(log.checked()) {
-				report.addValidationLog(log);
-				markChecked(constraint);
+				report.addValidationLog(constraint,log);
 			}
 			if(LOGGER.isTraceEnabled()) {
 				if(!log.checked()) {
@@ -193,47 +283,43 @@ public final class Validator {
 		return result;
 	}
 
-	private void setDataSetValidationConstraints(Collection<ValidationConstraint<DataSet>> constraints) {
-		this.dataSetVC.addAll(constraints);
-	}
-
-	private void setIndividualValidationConstraints(Collection<ValidationConstraint<Individual<?,?>>> constraints) {
-		this.individualVC.addAll(constraints);
-	}
-
-	private void setPropertyValidationConstraints(Collection<ValidationConstraint<Property>> constraints) {
-		this.propertyVC.addAll(constraints);
-	}
-
 	public static ValidatorBuilder builder() {
 		return new ValidatorBuilder();
 	}
 
 	public static final class ValidatorBuilder {
 
-		private final Validator helper;
+		private final List<ValidationConstraint<DataSet>> dataSetVC;
+		private final List<ValidationConstraint<Individual<?,?>>> individualVC;
+		private final List<ValidationConstraint<Property>> propertyVC;
 
 		private ValidatorBuilder() {
-			this.helper=new Validator();
+			this.dataSetVC=Lists.newArrayList();
+			this.individualVC=Lists.newArrayList();
+			this.propertyVC=Lists.newArrayList();
 		}
 
 		public ValidatorBuilder withDataSetConstraint(ValidationConstraint<DataSet> constraints) {
-			this.helper.setDataSetValidationConstraints(Arrays.asList(constraints));
+			this.dataSetVC.add(constraints);
 			return this;
 		}
 
 		public ValidatorBuilder withIndividualConstraint(ValidationConstraint<Individual<?,?>> constraints) {
-			this.helper.setIndividualValidationConstraints(Arrays.asList(constraints));
+			this.individualVC.add(constraints);
 			return this;
 		}
 
 		public ValidatorBuilder withPropertyConstraint(ValidationConstraint<Property> constraints) {
-			this.helper.setPropertyValidationConstraints(Arrays.asList(constraints));
+			this.propertyVC.add(constraints);
 			return this;
 		}
 
+		/**
+		 * Compile the constraints into a validator. The builder can still be
+		 * used afterwards without affecting the validators already built.
+		 */
 		public Validator build() {
-			return this.helper;
+			return new Validator(this);
 		}
 
 	}
@@ -0,0 +1,200 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-data:0.2.2
+ *   Bundle      : ldp4j-application-data-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.data.validation;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.ldp4j.application.data.IndividualReference.managed;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.ldp4j.application.data.DataDSL;
+import org.ldp4j.application.data.DataSet;
+import org.ldp4j.application.data.Literals;
+import org.ldp4j.application.data.ManagedIndividualId;
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.application.data.Property;
+
+public class ValidatorTest {
+
+	private static final String TITLE = "http://www.ldp4j.org/example#title";
+	private static final String LABEL = "http://www.ldp4j.org/example#label";
+	private static final String MEMBER_OF = "http://www.ldp4j.org/example#memberOf";
+
+	private static final ManagedIndividualId ONE=ManagedIndividualId.createId(NamingScheme.getDefault().name("one"),"manager");
+	private static final ManagedIndividualId OTHER=ManagedIndividualId.createId(NamingScheme.getDefault().name("other"),"manager");
+	private static final ManagedIndividualId GROUP=ManagedIndividualId.createId(NamingScheme.getDefault().name("group"),"manager");
+
+	private static final class CountingConstraint implements ValidationConstraint<Property> {
+
+		private final AtomicInteger invocations=new AtomicInteger();
+
+		@Override
+		public ValidationLog validate(Property item) {
+			this.invocations.incrementAndGet();
+			return new ValidationLog() {
+				@Override
+				public boolean checked() {
+					return true;
+				}
+				@Override
+				public boolean success() {
+					return true;
+				}
+				@Override
+				public ValidationFailure validationFailure() {
+					return null;
+				}
+			};
+		}
+
+		@Override
+		public boolean mustBeChecked() {
+			return false;
+		}
+
+		@Override
+		public ValidationFailure uncheckedFailure() {
+			return null;
+		}
+
+	}
+
+	private DataSet dataSet(String oneTitle, String otherTitle) {
+		return
+			DataDSL.
+				dataSet().
+					individual(managed(ONE)).
+						hasProperty(TITLE).
+							withValue(oneTitle).
+						hasProperty(LABEL).
+							withValue("label").
+					individual(managed(OTHER)).
+						hasProperty(TITLE).
+							withValue(otherTitle).
+					build();
+	}
+
+	private Validator readOnlyTitle() {
+		return
+			Validator.
+				builder().
+					withPropertyConstraint(ValidationConstraintFactory.readOnlyProperty(ONE,URI.create(TITLE),Literals.of("title"))).
+					build();
+	}
+
+	@Test
+	public void testIndividualConstraintsOnlyApplyToTheirIndividual() {
+		Validator validator=readOnlyTitle();
+		assertThat(validator.validate(dataSet("title","changed")).isValid(),equalTo(true));
+		ValidationReport report=validator.validate(dataSet("changed","title"));
+		assertThat(report.isValid(),equalTo(false));
+		assertThat(report.validationFailures(),hasSize(1));
+	}
+
+	@Test
+	public void testPredicateConstraintsApplyToEveryIndividual() {
+		Validator validator=
+			Validator.
+				builder().
+					withPropertyConstraint(ValidationConstraintFactory.readOnlyProperty(URI.create(TITLE),Literals.of("title"))).
+					build();
+		assertThat(validator.validate(dataSet("title","title")).isValid(),equalTo(true));
+		assertThat(validator.validate(dataSet("title","changed")).validationFailures(),hasSize(1));
+	}
+
+	@Test
+	public void testValidatorsCanBeReused() {
+		Validator validator=readOnlyTitle();
+		assertThat(validator.validate(dataSet("title","title")).isValid(),equalTo(true));
+		DataSet missing=
+			DataDSL.
+				dataSet().
+					individual(managed(OTHER)).
+						hasProperty(TITLE).
+							withValue("title").
+					build();
+		ValidationReport report=validator.validate(missing);
+		assertThat(report.isValid(),equalTo(false));
+		assertThat(report.validationFailures(),hasSize(1));
+		assertThat(validator.validate(dataSet("title","title")).isValid(),equalTo(true));
+	}
+
+	@Test
+	public void testUnscopedConstraintsApplyToEveryProperty() {
+		CountingConstraint constraint=new CountingConstraint();
+		Validator validator=
+			Validator.
+				builder().
+					withPropertyConstraint(constraint).
+					build();
+		assertThat(validator.validate(dataSet("title","title")).isValid(),equalTo(true));
+		assertThat(constraint.invocations.get(),equalTo(3));
+	}
+
+	@Test
+	public void testReferencesAreRestrictedToTheSpecifiedIndividuals() {
+		DataSet dataSet=
+			DataDSL.
+				dataSet().
+					individual(managed(ONE)).
+						hasLink(MEMBER_OF).
+							referringTo(managed(GROUP)).
+					individual(managed(OTHER)).
+						hasLink(MEMBER_OF).
+							referringTo(managed(ONE)).
+						hasLink(MEMBER_OF).
+							referringTo(managed(GROUP)).
+					build();
+		Validator restricted=
+			Validator.
+				builder().
+					withPropertyConstraint(ValidationConstraintFactory.readOnlyReferences(GROUP,URI.create(MEMBER_OF),Arrays.asList(ONE))).
+					build();
+		assertThat(restricted.validate(dataSet).validationFailures(),hasSize(1));
+		Validator allowed=
+			Validator.
+				builder().
+					withPropertyConstraint(ValidationConstraintFactory.readOnlyReferences(GROUP,URI.create(MEMBER_OF),Arrays.asList(ONE,OTHER))).
+					build();
+		assertThat(allowed.validate(dataSet).isValid(),equalTo(true));
+	}
+
+	@Test
+	public void testBuilderChangesDoNotAffectBuiltValidators() {
+		Validator.ValidatorBuilder builder=Validator.builder();
+		Validator validator=builder.build();
+		builder.withPropertyConstraint(ValidationConstraintFactory.readOnlyProperty(ONE,URI.create(TITLE),Literals.of("title")));
+		assertThat(validator.validate(dataSet("changed","changed")).isValid(),equalTo(true));
+		assertThat(builder.build().validate(dataSet("changed","changed")).isValid(),equalTo(false));
+	}
+
+}
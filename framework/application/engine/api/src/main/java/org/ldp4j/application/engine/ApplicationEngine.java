@@ -259,6 +259,7 @@ public abstract class ApplicationEngine {
 			cleanUp();
 		} finally {
 			setState(ApplicationEngineState.SHUTDOWN);
+			ListenerManager.shutdownDelivery();
 		}
 	}
 
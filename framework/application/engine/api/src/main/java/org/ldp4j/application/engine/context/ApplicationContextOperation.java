@@ -26,6 +26,9 @@
  */
 package org.ldp4j.application.engine.context;
 
+import java.util.Collection;
+import java.util.Map;
+
 import org.ldp4j.application.data.ManagedIndividualId;
 
 public interface ApplicationContextOperation {
@@ -38,6 +41,13 @@ public interface ApplicationContextOperation {
 
 	PublicResource resolveResource(ManagedIndividualId id);
 
+	/**
+	 * Batch version of {@link #resolveResource(ManagedIndividualId)}. The
+	 * result only includes entries for those individuals that could be
+	 * resolved.
+	 */
+	Map<ManagedIndividualId,PublicResource> resolveResources(Collection<ManagedIndividualId> ids);
+
 	void dispose();
 
 }
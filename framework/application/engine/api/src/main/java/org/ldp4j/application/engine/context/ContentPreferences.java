@@ -67,10 +67,14 @@ public final class ContentPreferences {
 	
 	private final Set<Preference> include;
 	private final Set<Preference> omit;
+	private int maxMemberCount;
+	private long memberCursor;
 	
 	private ContentPreferences() {
 		this.include=Sets.newTreeSet();
 		this.omit=Sets.newTreeSet();
+		this.maxMemberCount=0;
+		this.memberCursor=0;
 	}
 	
 	public Set<Preference> includes() {
@@ -103,6 +107,36 @@ public final class ContentPreferences {
 		}
 	}
 	
+	/**
+	 * Get the maximum number of members of a container to be included in the
+	 * representation (see LDP Paging 1.0, section 7.1).
+	 *
+	 * @return the maximum number of members, or {@code 0} if the
+	 *         representation should include all the members.
+	 */
+	public int maxMemberCount() {
+		return this.maxMemberCount;
+	}
+
+	/**
+	 * Get the number of the first member to be included in the representation
+	 * of a paged container.
+	 *
+	 * @return the member cursor
+	 */
+	public long memberCursor() {
+		return this.memberCursor;
+	}
+
+	public boolean isPagingRequired() {
+		return this.maxMemberCount>0;
+	}
+
+	public void paginate(long memberCursor, int maxMemberCount) {
+		this.memberCursor=Math.max(0,memberCursor);
+		this.maxMemberCount=Math.max(0,maxMemberCount);
+	}
+
 	public boolean isMinimalInclusionRequired() {
 		return this.include.contains(Preference.MINIMAL_CONTAINER);
 	}
@@ -118,7 +152,7 @@ public final class ContentPreferences {
 
 	@Override
 	public int hashCode() {
-		return Objects.hashCode(this.include,this.omit);
+		return Objects.hashCode(this.include,this.omit,this.maxMemberCount,this.memberCursor);
 	}
 
 	@Override
@@ -128,7 +162,9 @@ public final class ContentPreferences {
 			ContentPreferences that=(ContentPreferences)obj;
 			result=
 				Objects.equal(this.include,that.include) &&
-				Objects.equal(this.omit,that.omit);
+				Objects.equal(this.omit,that.omit) &&
+				this.maxMemberCount==that.maxMemberCount &&
+				this.memberCursor==that.memberCursor;
 		}
 		return result;
 	}
@@ -139,6 +175,11 @@ public final class ContentPreferences {
 		builder.append("ContentPreferences [");
 		builder.append("include=").append(this.include).append(", ");
 		builder.append("omit=").append(this.omit);
+		if(isPagingRequired()) {
+			builder.append(", ");
+			builder.append("maxMemberCount=").append(this.maxMemberCount).append(", ");
+			builder.append("memberCursor=").append(this.memberCursor);
+		}
 		builder.append("]");
 		return builder.toString();
 	}
@@ -179,6 +220,16 @@ public final class ContentPreferences {
 			this.contentPreferences.omit(normalize(preference));
 			return this;
 		}
+
+		public ContentPreferencesBuilder withMaxMemberCount(int maxMemberCount) {
+			this.contentPreferences.paginate(this.contentPreferences.memberCursor(),maxMemberCount);
+			return this;
+		}
+
+		public ContentPreferencesBuilder withMemberCursor(long memberCursor) {
+			this.contentPreferences.paginate(memberCursor,this.contentPreferences.maxMemberCount());
+			return this;
+		}
 		
 		public ContentPreferences build() {
 			return this.contentPreferences;
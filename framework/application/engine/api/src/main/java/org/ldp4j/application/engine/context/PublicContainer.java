@@ -34,6 +34,28 @@ public interface PublicContainer extends PublicRDFSource {
 
 	Collection<PublicResource> members();
 
+	/**
+	 * Get the cursor of the page of members that follows the one selected by
+	 * the specified content preferences.
+	 *
+	 * @param contentPreferences
+	 *            the preferences that select the current page of members
+	 * @return the member cursor of the next page, or {@code null} if paging
+	 *         is not required or there are no more members.
+	 */
+	Long nextMemberCursor(ContentPreferences contentPreferences);
+
+	/**
+	 * Get the cursor of the page of members that precedes the one selected by
+	 * the specified content preferences.
+	 *
+	 * @param contentPreferences
+	 *            the preferences that select the current page of members
+	 * @return the member cursor of the previous page, or {@code null} if
+	 *         paging is not required or there are no previous members.
+	 */
+	Long previousMemberCursor(ContentPreferences contentPreferences);
+
 	/**
 	 * Create a resource using the specified data set and preferences.
 	 *
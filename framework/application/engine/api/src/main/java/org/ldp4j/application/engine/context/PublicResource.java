@@ -44,6 +44,21 @@ public interface PublicResource extends PublicEndpoint {
 
 	void modify(DataSet dataSet) throws ApplicationExecutionException;
 
+	/**
+	 * Apply a partial modification to the resource. Only the changed values
+	 * are processed, so the cost of the operation depends on the size of the
+	 * changes and not on the size of the resource.
+	 *
+	 * @param additions
+	 *            the values to add to the resource.
+	 * @param removals
+	 *            the values to remove from the resource, which are removed
+	 *            before the additions are applied.
+	 * @throws ApplicationExecutionException
+	 *             if the modification fails.
+	 */
+	void patch(DataSet additions, DataSet removals) throws ApplicationExecutionException;
+
 	void delete() throws ApplicationExecutionException;
 
 	DataSet getConstraintReport(String constraintsId) throws ApplicationExecutionException;
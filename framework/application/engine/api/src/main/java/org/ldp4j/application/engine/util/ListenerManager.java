@@ -26,83 +26,330 @@
  */
 package org.ldp4j.application.engine.util;
 
-import java.util.ArrayList;
-import java.util.List;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
 import java.util.Locale;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
+/**
+ * Registry of listeners that propagates notifications to them. The registry
+ * is copy-on-write, so raising a notification does not require any locking.
+ * <br>
+ * <br>
+ * Each listener is registered with a {@link DeliveryPolicy}. Listeners using
+ * an asynchronous policy have their own bounded queue, which is drained in
+ * order by a shared and bounded pool of daemon threads, so that slow
+ * listeners do not delay the thread raising the notification. The pool is
+ * shut down together with the {@code ApplicationEngine}.
+ */
 public final class ListenerManager<T> {
 
+	private final class Registration implements Runnable {
+
+		private final T listener;
+		private final DeliveryPolicy policy;
+		private final BlockingQueue<Notification<T>> queue;
+		private final AtomicBoolean scheduled;
+		private final AtomicLong dropped;
+		private final AtomicLong lastReport;
+
+		private Registration(T listener, DeliveryPolicy policy) {
+			this.listener=listener;
+			this.policy=policy;
+			this.queue=
+				DeliveryPolicy.SYNCHRONOUS.equals(policy)?
+					null:
+					new ArrayBlockingQueue<Notification<T>>(ListenerManager.this.queueCapacity);
+			this.scheduled=new AtomicBoolean();
+			this.dropped=new AtomicLong();
+			this.lastReport=new AtomicLong(System.nanoTime()-DROP_REPORT_INTERVAL);
+		}
+
+		private void schedule() {
+			if(this.scheduled.compareAndSet(false,true)) {
+				try {
+					executor().execute(this);
+				} catch (RejectedExecutionException e) {
+					this.scheduled.set(false);
+					LOGGER.debug("Could not schedule the delivery of notifications for {}: {}",id(this.listener),e.getMessage());
+				}
+			}
+		}
+
+		private void enqueue(Notification<T> notification) {
+			if(DeliveryPolicy.BLOCK.equals(this.policy)) {
+				try {
+					this.queue.put(notification);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					discard();
+					return;
+				}
+			} else if(!this.queue.offer(notification)) {
+				discard();
+				return;
+			}
+			schedule();
+		}
+
+		/**
+		 * Count the discarded notification, and report the number of
+		 * notifications discarded so far at most once per
+		 * {@link #DROP_REPORT_INTERVAL}.
+		 */
+		private void discard() {
+			long discarded=this.dropped.incrementAndGet();
+			long now=System.nanoTime();
+			long last=this.lastReport.get();
+			if(now-last>=DROP_REPORT_INTERVAL && this.lastReport.compareAndSet(last,now)) {
+				LOGGER.warn(
+					"Discarded notifications for {} ({}) [{} discarded so far]",
+					id(this.listener),
+					this.listener.getClass().getName(),
+					discarded);
+			}
+		}
+
+		void notify(Notification<T> notification) {
+			if(this.queue==null) {
+				propagate(this.listener,notification);
+			} else {
+				enqueue(notification);
+			}
+		}
+
+		long pending() {
+			return this.queue==null?0:this.queue.size();
+		}
+
+		long dropped() {
+			return this.dropped.get();
+		}
+
+		@Override
+		public void run() {
+			try {
+				Notification<T> notification;
+				while((notification=this.queue.poll())!=null) {
+					propagate(this.listener,notification);
+				}
+			} finally {
+				this.scheduled.set(false);
+				if(!this.queue.isEmpty()) {
+					schedule();
+				}
+			}
+		}
+
+	}
+
 	private static final Logger LOGGER=LoggerFactory.getLogger(ListenerManager.class);
 
-	private final ReadWriteLock lock;
-	private final List<T> listeners;
+	/**
+	 * Default capacity of the queues of the listeners that use an
+	 * asynchronous delivery policy.
+	 */
+	public static final int DEFAULT_QUEUE_CAPACITY=1024;
+
+	/**
+	 * Maximum number of threads used for delivering notifications
+	 * asynchronously.
+	 */
+	private static final int DELIVERY_THREADS=Math.max(2,Runtime.getRuntime().availableProcessors());
+
+	private static final long DELIVERY_THREAD_KEEP_ALIVE_SECONDS=60;
+
+	private static final long TERMINATION_TIMEOUT_SECONDS=5;
+
+	private static final long DROP_REPORT_INTERVAL=TimeUnit.MINUTES.toNanos(1);
+
+	/**
+	 * Each registration has at most one delivery task scheduled, so the
+	 * work queue of the executor is bounded by the number of registrations.
+	 */
+	private static ThreadPoolExecutor executor;
+
+	private final int queueCapacity;
+	private final CopyOnWriteArrayList<Registration> registrations;
 
-	private ListenerManager() {
-		this.lock=new ReentrantReadWriteLock();
-		this.listeners=Lists.newArrayList();
+	private ListenerManager(int queueCapacity) {
+		this.queueCapacity=queueCapacity;
+		this.registrations=new CopyOnWriteArrayList<Registration>();
 	}
 
-	private void logListenerLifecycle(T listener, String action) {
-		if(LOGGER.isDebugEnabled()) {
-			LOGGER.debug(String.format("%s %08X (%s)",action,listener.hashCode(),listener.getClass().getName()));
+	private static synchronized Executor executor() {
+		if(executor==null) {
+			executor=
+				new ThreadPoolExecutor(
+					DELIVERY_THREADS,
+					DELIVERY_THREADS,
+					DELIVERY_THREAD_KEEP_ALIVE_SECONDS,TimeUnit.SECONDS,
+					new LinkedBlockingQueue<Runnable>(),
+					new ThreadFactoryBuilder().
+						setNameFormat("ldp4j-notification-%d").
+						setDaemon(true).
+						build());
+			executor.allowCoreThreadTimeOut(true);
 		}
+		return executor;
 	}
 
-	public void registerListener(T listener) {
-		this.lock.writeLock().lock();
+	/**
+	 * Stop the threads used for delivering notifications asynchronously,
+	 * waiting for a while for the delivery of the notifications already
+	 * queued. Notifications raised afterwards are delivered using a new pool
+	 * of threads.
+	 */
+	public static void shutdownDelivery() {
+		ThreadPoolExecutor current;
+		synchronized(ListenerManager.class) {
+			current=executor;
+			executor=null;
+		}
+		if(current==null) {
+			return;
+		}
+		current.shutdown();
 		try {
-			if(!this.listeners.contains(listener)) {
-				this.listeners.add(listener);
-				logListenerLifecycle(listener, "Registered");
+			if(!current.awaitTermination(TERMINATION_TIMEOUT_SECONDS,TimeUnit.SECONDS)) {
+				LOGGER.warn("Notification delivery did not finish in {} seconds",TERMINATION_TIMEOUT_SECONDS);
+				current.shutdownNow();
 			}
-		} finally {
-			this.lock.writeLock().unlock();
+		} catch (InterruptedException e) {
+			current.shutdownNow();
+			Thread.currentThread().interrupt();
 		}
 	}
 
-	public void deregisterListener(T listener) {
-		this.lock.writeLock().lock();
+	private static String id(Object listener) {
+		return Integer.toHexString(listener.hashCode()).toUpperCase(Locale.ENGLISH);
+	}
+
+	private static <T> void propagate(T listener, Notification<T> notification) {
 		try {
-			if(this.listeners.remove(listener)) {
-				logListenerLifecycle(listener,"Deregistered");
-			}
-		} finally {
-			this.lock.writeLock().unlock();
+			notification.propagate(listener);
+		} catch (Exception e) {
+			LOGGER.warn(
+				"Propagation failure {} ({})",
+				id(listener),
+				listener.getClass().getName(),e);
 		}
 	}
 
-	public void notify(Notification<T> notification) {
-		List<T> currentListeners=new ArrayList<T>();
-		this.lock.readLock().lock();
-		try {
-			currentListeners.addAll(this.listeners);
-		} finally {
-			this.lock.readLock().unlock();
+	private void logListenerLifecycle(T listener, String action) {
+		if(LOGGER.isDebugEnabled()) {
+			LOGGER.debug(String.format("%s %08X (%s)",action,listener.hashCode(),listener.getClass().getName()));
 		}
+	}
 
-		// TODO: What about using a thread pool to propagate the notifications?
-		// Maybe a configurable option
-		for(T listener:currentListeners) {
-			try {
-				notification.propagate(listener);
-			} catch (Exception e) {
-				LOGGER.warn(
-					"Propagation failure {} ({})",
-					Integer.toHexString(listener.hashCode()).toUpperCase(Locale.ENGLISH),
-					listener.getClass().getName(),e);
+	private Registration find(T listener) {
+		for(Registration registration:this.registrations) {
+			if(registration.listener.equals(listener)) {
+				return registration;
 			}
 		}
+		return null;
+	}
+
+	/**
+	 * Register a listener whose notifications are delivered synchronously.
+	 *
+	 * @param listener
+	 *            the listener to register.
+	 */
+	public void registerListener(T listener) {
+		registerListener(listener,DeliveryPolicy.SYNCHRONOUS);
+	}
+
+	/**
+	 * Register a listener with a given delivery policy. Registering an
+	 * already registered listener has no effect.
+	 *
+	 * @param listener
+	 *            the listener to register.
+	 * @param policy
+	 *            the policy to use for delivering the notifications to the
+	 *            listener.
+	 */
+	public synchronized void registerListener(T listener, DeliveryPolicy policy) {
+		checkNotNull(policy,"Delivery policy cannot be null");
+		if(find(listener)==null) {
+			this.registrations.add(new Registration(listener,policy));
+			logListenerLifecycle(listener, "Registered");
+		}
+	}
+
+	/**
+	 * Deregister a listener. Notifications already queued for the listener
+	 * are still delivered.
+	 *
+	 * @param listener
+	 *            the listener to deregister.
+	 */
+	public synchronized void deregisterListener(T listener) {
+		Registration registration=find(listener);
+		if(registration!=null) {
+			this.registrations.remove(registration);
+			logListenerLifecycle(listener,"Deregistered");
+		}
+	}
+
+	public void notify(Notification<T> notification) {
+		for(Registration registration:this.registrations) {
+			registration.notify(notification);
+		}
+	}
+
+	/**
+	 * Get the number of notifications queued for a listener.
+	 *
+	 * @param listener
+	 *            the listener.
+	 * @return the number of notifications waiting to be delivered to the
+	 *         listener, or {@code 0} if the listener is not registered or
+	 *         its notifications are delivered synchronously.
+	 */
+	public long pendingNotifications(T listener) {
+		Registration registration=find(listener);
+		return registration==null?0:registration.pending();
+	}
+
+	/**
+	 * Get the number of notifications discarded for a listener because its
+	 * queue was full.
+	 *
+	 * @param listener
+	 *            the listener.
+	 * @return the number of notifications discarded for the listener, or
+	 *         {@code 0} if the listener is not registered.
+	 */
+	public long droppedNotifications(T listener) {
+		Registration registration=find(listener);
+		return registration==null?0:registration.dropped();
 	}
 
 	public static <T> ListenerManager<T> newInstance() {
-		return new ListenerManager<T>();
+		return newInstance(DEFAULT_QUEUE_CAPACITY);
+	}
+
+	public static <T> ListenerManager<T> newInstance(int queueCapacity) {
+		checkArgument(queueCapacity>0,"Queue capacity must be greater than zero (%s)",queueCapacity);
+		return new ListenerManager<T>(queueCapacity);
 	}
 
 }
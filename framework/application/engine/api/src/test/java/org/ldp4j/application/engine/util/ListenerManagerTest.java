@@ -0,0 +1,176 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-engine-api:0.2.2
+ *   Bundle      : ldp4j-application-engine-api-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.engine.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ListenerManagerTest {
+
+	private static class Listener {
+
+		private final List<Integer> received=new CopyOnWriteArrayList<Integer>();
+		private final CountDownLatch release;
+		private final CountDownLatch done;
+		private volatile Thread thread;
+
+		private Listener(int expected) {
+			this(expected,new CountDownLatch(0));
+		}
+
+		private Listener(int expected, CountDownLatch release) {
+			this.done=new CountDownLatch(expected);
+			this.release=release;
+		}
+
+		void onEvent(int event) throws InterruptedException {
+			this.release.await();
+			this.thread=Thread.currentThread();
+			this.received.add(event);
+			this.done.countDown();
+		}
+
+		void await() throws InterruptedException {
+			assertThat(this.done.await(5,TimeUnit.SECONDS),equalTo(true));
+		}
+
+	}
+
+	private static Notification<Listener> event(final int event) {
+		return new Notification<Listener>() {
+			@Override
+			public void propagate(Listener listener) {
+				try {
+					listener.onEvent(event);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+	}
+
+	@Test
+	public void testSynchronousDeliveryUsesNotifyingThread() throws Exception {
+		ListenerManager<Listener> sut=ListenerManager.newInstance();
+		Listener listener=new Listener(1);
+		sut.registerListener(listener);
+		sut.notify(event(1));
+		assertThat(listener.received,contains(1));
+		assertThat(listener.thread,sameInstance(Thread.currentThread()));
+	}
+
+	@Test
+	public void testAsynchronousDeliveryPreservesOrder() throws Exception {
+		ListenerManager<Listener> sut=ListenerManager.newInstance();
+		Listener listener=new Listener(100);
+		sut.registerListener(listener,DeliveryPolicy.BLOCK);
+		Integer[] expected=new Integer[100];
+		for(int i=0;i<100;i++) {
+			sut.notify(event(i));
+			expected[i]=i;
+		}
+		listener.await();
+		assertThat(listener.received,contains(expected));
+		assertThat(listener.thread,not(sameInstance(Thread.currentThread())));
+	}
+
+	@Test
+	public void testSlowListenersDoNotDelayOtherListeners() throws Exception {
+		ListenerManager<Listener> sut=ListenerManager.newInstance();
+		CountDownLatch release=new CountDownLatch(1);
+		Listener slow=new Listener(1,release);
+		Listener fast=new Listener(1);
+		sut.registerListener(slow,DeliveryPolicy.DROP);
+		sut.registerListener(fast);
+		sut.notify(event(1));
+		assertThat(fast.received,contains(1));
+		release.countDown();
+		slow.await();
+		assertThat(slow.received,contains(1));
+	}
+
+	@Test
+	public void testDropPolicyDiscardsOverflowingNotifications() throws Exception {
+		ListenerManager<Listener> sut=ListenerManager.newInstance(2);
+		CountDownLatch release=new CountDownLatch(1);
+		Listener listener=new Listener(1,release);
+		sut.registerListener(listener,DeliveryPolicy.DROP);
+		for(int i=0;i<10;i++) {
+			sut.notify(event(i));
+		}
+		assertThat(sut.pendingNotifications(listener),lessThan(3L));
+		release.countDown();
+		listener.await();
+		assertThat(listener.received.size(),lessThan(4));
+		assertThat(listener.received.get(0),equalTo(0));
+		assertThat(sut.droppedNotifications(listener),greaterThan(6L));
+	}
+
+	@Test
+	public void testDeliveryCanBeResumedAfterShutdown() throws Exception {
+		ListenerManager<Listener> sut=ListenerManager.newInstance();
+		Listener before=new Listener(1);
+		sut.registerListener(before,DeliveryPolicy.BLOCK);
+		sut.notify(event(1));
+		before.await();
+		ListenerManager.shutdownDelivery();
+		Listener after=new Listener(1);
+		sut.registerListener(after,DeliveryPolicy.BLOCK);
+		sut.notify(event(2));
+		after.await();
+		assertThat(after.received,contains(2));
+		assertThat(after.thread,not(sameInstance(before.thread)));
+	}
+
+	@Test
+	public void testDeregisteredListenersAreNotNotified() throws Exception {
+		ListenerManager<Listener> sut=ListenerManager.newInstance();
+		Listener listener=new Listener(1);
+		sut.registerListener(listener);
+		sut.deregisterListener(listener);
+		sut.notify(event(1));
+		assertThat(listener.received.isEmpty(),equalTo(true));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testQueueCapacityMustBePositive() {
+		ListenerManager.newInstance(0);
+	}
+
+}
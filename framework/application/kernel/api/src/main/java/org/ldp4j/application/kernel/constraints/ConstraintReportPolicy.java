@@ -0,0 +1,260 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-kernel-api:0.2.2
+ *   Bundle      : ldp4j-application-kernel-api-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.constraints;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.ldp4j.application.engine.context.HttpRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.hash.Hashing;
+
+/**
+ * Bounds that constraint report repositories must enforce: the maximum
+ * number of reports retained, how long a report is retained, and how much of
+ * the body of the request that caused the failure is kept with the report.
+ */
+public final class ConstraintReportPolicy {
+
+	public enum BodyRetention {
+		/**
+		 * Keep the complete body.
+		 */
+		FULL,
+		/**
+		 * Keep at most {@link ConstraintReportPolicy#maxBodySize()}
+		 * characters of the body.
+		 */
+		TRUNCATED,
+		/**
+		 * Keep a SHA-256 digest of the body instead of the body itself.
+		 */
+		DIGEST,
+		/**
+		 * Do not keep the body.
+		 */
+		NONE,
+	}
+
+	/**
+	 * Source of the time used for deciding whether reports are expired.
+	 */
+	public interface Clock {
+
+		/**
+		 * Get the current time, in milliseconds since the epoch.
+		 */
+		long currentTimeMillis();
+
+	}
+
+	private static final Clock SYSTEM_CLOCK=
+		new Clock() {
+			@Override
+			public long currentTimeMillis() {
+				return System.currentTimeMillis();
+			}
+		};
+
+	public static final String MAX_REPORTS="org.ldp4j.application.kernel.constraints.maxReports";
+	public static final String TIME_TO_LIVE="org.ldp4j.application.kernel.constraints.timeToLive";
+	public static final String BODY_RETENTION="org.ldp4j.application.kernel.constraints.bodyRetention";
+	public static final String MAX_BODY_SIZE="org.ldp4j.application.kernel.constraints.maxBodySize";
+
+	private static final Logger LOGGER=LoggerFactory.getLogger(ConstraintReportPolicy.class);
+
+	private static final int    DEFAULT_MAX_REPORTS=1024;
+	private static final long   DEFAULT_TIME_TO_LIVE=3600;
+	private static final int    DEFAULT_MAX_BODY_SIZE=4096;
+	private static final BodyRetention DEFAULT_BODY_RETENTION=BodyRetention.TRUNCATED;
+
+	private static final String DIGEST_PREFIX="sha-256:";
+
+	private final int maxReports;
+	private final long timeToLive;
+	private final BodyRetention bodyRetention;
+	private final int maxBodySize;
+	private final Clock clock;
+
+	private ConstraintReportPolicy(int maxReports, long timeToLive, BodyRetention bodyRetention, int maxBodySize, Clock clock) {
+		this.maxReports=maxReports;
+		this.timeToLive=timeToLive;
+		this.bodyRetention=bodyRetention;
+		this.maxBodySize=maxBodySize;
+		this.clock=clock;
+	}
+
+	/**
+	 * Maximum number of constraint reports retained. When exceeded, the
+	 * oldest reports are evicted first.
+	 */
+	public int maxReports() {
+		return this.maxReports;
+	}
+
+	/**
+	 * Time after which a constraint report is evicted.
+	 */
+	public long timeToLive(TimeUnit unit) {
+		return unit.convert(this.timeToLive,TimeUnit.MILLISECONDS);
+	}
+
+	public BodyRetention bodyRetention() {
+		return this.bodyRetention;
+	}
+
+	public int maxBodySize() {
+		return this.maxBodySize;
+	}
+
+	/**
+	 * Current time according to the clock of the policy, in milliseconds
+	 * since the epoch.
+	 */
+	public long now() {
+		return this.clock.currentTimeMillis();
+	}
+
+	public boolean isExpired(ConstraintReport report, long now) {
+		return now-report.getDate().getTime()>this.timeToLive;
+	}
+
+	/**
+	 * Get a copy of the policy that uses a given clock.
+	 */
+	public ConstraintReportPolicy withClock(Clock clock) {
+		checkNotNull(clock,"Clock cannot be null");
+		return new ConstraintReportPolicy(this.maxReports,this.timeToLive,this.bodyRetention,this.maxBodySize,clock);
+	}
+
+	/**
+	 * Get the version of a request that should be kept in a constraint
+	 * report according to the body retention policy.
+	 */
+	public HttpRequest retain(HttpRequest request) {
+		if(request==null) {
+			return null;
+		}
+		final String body=request.body();
+		if(body==null) {
+			return request;
+		}
+		switch(this.bodyRetention) {
+		case FULL:
+			return request;
+		case TRUNCATED:
+			if(body.length()<=this.maxBodySize) {
+				return request;
+			}
+			return new RetainedHttpRequest(request,body.substring(0,this.maxBodySize));
+		case DIGEST:
+			return new RetainedHttpRequest(request,DIGEST_PREFIX+Hashing.sha256().hashString(body,StandardCharsets.UTF_8));
+		case NONE:
+			return new RetainedHttpRequest(request,null);
+		default:
+			throw new IllegalStateException("Unsupported body retention policy "+this.bodyRetention);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return
+			MoreObjects.
+				toStringHelper(getClass()).
+					add("maxReports",this.maxReports).
+					add("timeToLive",this.timeToLive).
+					add("bodyRetention",this.bodyRetention).
+					add("maxBodySize",this.maxBodySize).
+					toString();
+	}
+
+	private static long positiveLong(String property, long defaultValue) {
+		final String value=System.getProperty(property);
+		if(value==null) {
+			return defaultValue;
+		}
+		try {
+			final long result=Long.parseLong(value.trim());
+			if(result>0) {
+				return result;
+			}
+		} catch (NumberFormatException e) {
+			LOGGER.trace("Could not parse {} value '{}'",property,value,e);
+		}
+		LOGGER.warn("Invalid {} value '{}': it must be a positive integer. Using default ({}) instead.",property,value,defaultValue);
+		return defaultValue;
+	}
+
+	private static BodyRetention bodyRetention(String property, BodyRetention defaultValue) {
+		final String value=System.getProperty(property);
+		if(value==null) {
+			return defaultValue;
+		}
+		try {
+			return BodyRetention.valueOf(value.trim().toUpperCase(Locale.ENGLISH));
+		} catch (IllegalArgumentException e) {
+			LOGGER.trace("Could not parse {} value '{}'",property,value,e);
+			LOGGER.warn("Invalid {} value '{}': it must be one of {}. Using default ({}) instead.",property,value,BodyRetention.values(),defaultValue);
+			return defaultValue;
+		}
+	}
+
+	public static ConstraintReportPolicy create(int maxReports, long timeToLive, TimeUnit unit, BodyRetention bodyRetention, int maxBodySize) {
+		checkArgument(maxReports>0,"Maximum number of reports must be positive (%s)",maxReports);
+		checkArgument(timeToLive>0,"Time to live must be positive (%s)",timeToLive);
+		checkNotNull(unit,"Time unit cannot be null");
+		checkNotNull(bodyRetention,"Body retention policy cannot be null");
+		checkArgument(maxBodySize>0,"Maximum body size must be positive (%s)",maxBodySize);
+		return new ConstraintReportPolicy(maxReports,unit.toMillis(timeToLive),bodyRetention,maxBodySize,SYSTEM_CLOCK);
+	}
+
+	/**
+	 * Create a policy from the system properties {@value #MAX_REPORTS},
+	 * {@value #TIME_TO_LIVE} (in seconds), {@value #BODY_RETENTION} and
+	 * {@value #MAX_BODY_SIZE} (in characters), using the defaults for those
+	 * not defined.
+	 */
+	public static ConstraintReportPolicy fromSystemProperties() {
+		final ConstraintReportPolicy policy=
+			create(
+				(int)Math.min(Integer.MAX_VALUE,positiveLong(MAX_REPORTS,DEFAULT_MAX_REPORTS)),
+				positiveLong(TIME_TO_LIVE,DEFAULT_TIME_TO_LIVE),
+				TimeUnit.SECONDS,
+				bodyRetention(BODY_RETENTION,DEFAULT_BODY_RETENTION),
+				(int)Math.min(Integer.MAX_VALUE,positiveLong(MAX_BODY_SIZE,DEFAULT_MAX_BODY_SIZE)));
+		LOGGER.debug("Using constraint report policy {}",policy);
+		return policy;
+	}
+
+}
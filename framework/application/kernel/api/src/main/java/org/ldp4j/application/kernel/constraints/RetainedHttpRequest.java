@@ -0,0 +1,122 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-kernel-api:0.2.2
+ *   Bundle      : ldp4j-application-kernel-api-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.constraints;
+
+import java.util.Date;
+import java.util.List;
+
+import org.ldp4j.application.engine.context.HttpRequest;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Copy of a request whose body has been replaced according to the body
+ * retention policy of the {@link ConstraintReportPolicy}.
+ */
+final class RetainedHttpRequest implements HttpRequest {
+
+	private static final long serialVersionUID = 7297040926006525349L;
+
+	private final HttpMethod method;
+	private final String absolutePath;
+	private final String host;
+	private final ProtocolVersion protocolVersion;
+	private final List<Header> headers;
+	private final String body;
+	private final Date serverDate;
+	private final Date clientDate;
+
+	RetainedHttpRequest(HttpRequest request, String body) {
+		this.method=request.method();
+		this.absolutePath=request.absolutePath();
+		this.host=request.host();
+		this.protocolVersion=request.protocolVersion();
+		this.headers=ImmutableList.copyOf(request.headers());
+		this.body=body;
+		this.serverDate=request.serverDate();
+		this.clientDate=request.clientDate();
+	}
+
+	@Override
+	public HttpMethod method() {
+		return this.method;
+	}
+
+	@Override
+	public String absolutePath() {
+		return this.absolutePath;
+	}
+
+	@Override
+	public String host() {
+		return this.host;
+	}
+
+	@Override
+	public ProtocolVersion protocolVersion() {
+		return this.protocolVersion;
+	}
+
+	@Override
+	public List<Header> headers() {
+		return this.headers;
+	}
+
+	@Override
+	public String body() {
+		return this.body;
+	}
+
+	@Override
+	public Date serverDate() {
+		return this.serverDate;
+	}
+
+	@Override
+	public Date clientDate() {
+		return this.clientDate;
+	}
+
+	@Override
+	public String toString() {
+		return
+			MoreObjects.
+				toStringHelper(getClass()).
+					omitNullValues().
+					add("method",this.method).
+					add("absolutePath",this.absolutePath).
+					add("host",this.host).
+					add("protocolVersion",this.protocolVersion).
+					add("headers",this.headers).
+					add("body",this.body).
+					add("serverDate",this.serverDate).
+					add("clientDate",this.clientDate).
+					toString();
+	}
+
+}
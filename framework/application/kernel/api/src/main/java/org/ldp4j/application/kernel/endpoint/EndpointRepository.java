@@ -26,6 +26,9 @@
  */
 package org.ldp4j.application.kernel.endpoint;
 
+import java.util.Collection;
+import java.util.Map;
+
 import org.ldp4j.application.kernel.resource.ResourceId;
 
 public interface EndpointRepository {
@@ -34,6 +37,12 @@ public interface EndpointRepository {
 
 	Endpoint endpointOfResource(ResourceId id);
 
+	/**
+	 * Batch version of {@link #endpointOfResource(ResourceId)}. The result
+	 * only includes entries for those resources that have an endpoint.
+	 */
+	Map<ResourceId,Endpoint> endpointsOfResources(Collection<ResourceId> ids);
+
 	void add(Endpoint endpoint);
 
 }
\ No newline at end of file
@@ -26,6 +26,7 @@
  */
 package org.ldp4j.application.kernel.resource;
 
+import java.util.List;
 import java.util.Set;
 
 public interface Container extends Resource {
@@ -34,6 +35,34 @@ public interface Container extends Resource {
 
 	Set<Member> members();
 
+	/**
+	 * Get a range of the members of the container. Members are sorted using
+	 * their number, which is assigned upon addition and never reused, so that
+	 * the number of a member can be used as a stable cursor for iterating
+	 * over the members of the container.
+	 *
+	 * @param from
+	 *            the minimum number of the members to retrieve
+	 * @param limit
+	 *            the maximum number of members to retrieve
+	 * @return the members of the container whose number is greater or equal
+	 *         than {@code from}, sorted by number
+	 */
+	List<Member> members(long from, int limit);
+
+	/**
+	 * Get a range of the members of the container that precede a given
+	 * member number, closest first.
+	 *
+	 * @param to
+	 *            the number of the members that the retrieved members precede
+	 * @param limit
+	 *            the maximum number of members to retrieve
+	 * @return the members of the container whose number is lower than
+	 *         {@code to}, sorted by number in descending order
+	 */
+	List<Member> membersBefore(long to, int limit);
+
 	boolean hasMember(ResourceId resourceId);
 
 	Member findMember(ResourceId resourceId);
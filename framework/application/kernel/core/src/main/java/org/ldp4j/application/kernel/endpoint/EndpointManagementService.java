@@ -31,6 +31,7 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.util.Date;
 
 import org.ldp4j.application.engine.context.EntityTag;
+import org.ldp4j.application.engine.util.DeliveryPolicy;
 import org.ldp4j.application.engine.util.ListenerManager;
 import org.ldp4j.application.engine.util.Notification;
 import org.ldp4j.application.kernel.endpoint.Endpoint;
@@ -236,6 +237,21 @@ public final class EndpointManagementService implements Service {
 		this.listenerManager.registerListener(listener);
 	}
 
+	/**
+	 * Register an endpoint lifecycle listener that will be notified using
+	 * the specified policy. Listeners that carry out costly work (i.e., cache
+	 * invalidation or auditing) should use an asynchronous policy so that
+	 * they do not delay the requests that create or delete endpoints.
+	 *
+	 * @param listener
+	 *            the listener to register.
+	 * @param policy
+	 *            the notification delivery policy of the listener.
+	 */
+	public void registerEndpointLifecycleListener(EndpointLifecycleListener listener, DeliveryPolicy policy) {
+		this.listenerManager.registerListener(listener,policy);
+	}
+
 	public void deregisterEndpointLifecycleListener(EndpointLifecycleListener listener) {
 		this.listenerManager.deregisterListener(listener);
 	}
@@ -28,7 +28,12 @@ package org.ldp4j.application.kernel.engine;
 
 import static com.google.common.base.Preconditions.checkState;
 
+import java.net.URI;
+import java.util.Collection;
 import java.util.Date;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentMap;
 
 import org.ldp4j.application.data.DataSet;
 import org.ldp4j.application.data.ManagedIndividualId;
@@ -40,20 +45,26 @@ import org.ldp4j.application.engine.context.ApplicationExecutionException;
 import org.ldp4j.application.engine.context.Capabilities;
 import org.ldp4j.application.engine.context.HttpRequest;
 import org.ldp4j.application.engine.context.InvalidIndirectIdentifierException;
+import org.ldp4j.application.engine.context.OperationConflictException;
 import org.ldp4j.application.engine.context.PublicResource;
 import org.ldp4j.application.engine.lifecycle.ApplicationLifecycleListener;
 import org.ldp4j.application.ext.Application;
 import org.ldp4j.application.ext.ApplicationRuntimeException;
+import org.ldp4j.application.ext.AsyncDeletable;
+import org.ldp4j.application.ext.AsyncModifiable;
+import org.ldp4j.application.ext.AsyncQueryable;
 import org.ldp4j.application.ext.Configuration;
 import org.ldp4j.application.ext.Deletable;
 import org.ldp4j.application.ext.InvalidContentException;
 import org.ldp4j.application.ext.Modifiable;
 import org.ldp4j.application.ext.Namespaces;
+import org.ldp4j.application.ext.Patchable;
 import org.ldp4j.application.ext.Query;
 import org.ldp4j.application.ext.Queryable;
 import org.ldp4j.application.ext.ResourceHandler;
 import org.ldp4j.application.kernel.constraints.ConstraintReport;
 import org.ldp4j.application.kernel.constraints.ConstraintReportId;
+import org.ldp4j.application.kernel.constraints.ConstraintReportPolicy;
 import org.ldp4j.application.kernel.constraints.ConstraintReportRepository;
 import org.ldp4j.application.kernel.constraints.ConstraintReportTransformer;
 import org.ldp4j.application.kernel.endpoint.Endpoint;
@@ -66,13 +77,21 @@ import org.ldp4j.application.kernel.resource.ResourceId;
 import org.ldp4j.application.kernel.resource.ResourceRepository;
 import org.ldp4j.application.kernel.session.WriteSessionConfiguration;
 import org.ldp4j.application.kernel.spi.RuntimeDelegate;
+import org.ldp4j.application.kernel.template.AttachedTemplate;
 import org.ldp4j.application.kernel.template.ResourceTemplate;
 import org.ldp4j.application.kernel.template.TemplateIntrospector;
 import org.ldp4j.application.kernel.transaction.Transaction;
+import org.ldp4j.application.kernel.transaction.TransactionConflictException;
 import org.ldp4j.application.kernel.transaction.TransactionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Maps;
+
 public final class DefaultApplicationContext implements ApplicationContext {
 
 	private final class DefaultApplicationOperation implements ApplicationContextOperation {
@@ -109,6 +128,11 @@ public final class DefaultApplicationContext implements ApplicationContext {
 			return DefaultApplicationContext.this.resolveResource(id);
 		}
 
+		@Override
+		public Map<ManagedIndividualId,PublicResource> resolveResources(Collection<ManagedIndividualId> ids) {
+			return DefaultApplicationContext.this.resolveResources(ids);
+		}
+
 		@Override
 		public void dispose() {
 			try {
@@ -177,16 +201,20 @@ public final class DefaultApplicationContext implements ApplicationContext {
 	private final ResourceRepository resourceRepository;
 	private final EndpointRepository endpointRepository;
 	private final ConstraintReportRepository constraintReportRepository;
+	private final ConstraintReportPolicy constraintReportPolicy;
 
+	private final ConcurrentMap<String,ListMultimap<URI,AttachedTemplate>> attachmentPredicates;
 
 	DefaultApplicationContext(DefaultApplicationEngine engine) {
 		this.engine=engine;
 		this.resourceRepository=RuntimeDelegate.getInstance().getResourceRepository();
 		this.endpointRepository=RuntimeDelegate.getInstance().getEndpointRepository();
 		this.constraintReportRepository=RuntimeDelegate.getInstance().getConstraintReportRepository();
+		this.constraintReportPolicy=ConstraintReportPolicy.fromSystemProperties();
 		this.factory=DefaultPublicResourceFactory.newInstance(this);
 		this.operationController=new ApplicationContextOperationController();
 		this.currentOperation=new ThreadLocal<DefaultApplicationOperation>();
+		this.attachmentPredicates=Maps.newConcurrentMap();
 	}
 
 	private static <T> T checkNotNull(T object, String message) {
@@ -205,6 +233,10 @@ public final class DefaultApplicationContext implements ApplicationContext {
 	}
 
 	private ApplicationExecutionException createException(String errorMessage, Exception e) {
+		if(!Iterables.isEmpty(Iterables.filter(Throwables.getCausalChain(e),TransactionConflictException.class))) {
+			LOGGER.warn("{}: {}",errorMessage,e.getMessage());
+			throw new OperationConflictException(errorMessage,e);
+		}
 		LOGGER.error(errorMessage,e);
 		if(e instanceof FeatureExecutionException) {
 			return new ApplicationExecutionException(errorMessage,e.getCause());
@@ -232,6 +264,23 @@ public final class DefaultApplicationContext implements ApplicationContext {
 		return this.factory.createResource(resolveResource(ResourceId.createId(id.name(), id.managerId())));
 	}
 
+	private Map<ManagedIndividualId,PublicResource> resolveResources(Collection<ManagedIndividualId> ids) {
+		checkNotNull(ids,"Individual identifiers cannot be null");
+		Map<ManagedIndividualId,ResourceId> resourceIds=Maps.newLinkedHashMap();
+		for(ManagedIndividualId id:ids) {
+			resourceIds.put(id,ResourceId.createId(id.name(),id.managerId()));
+		}
+		Map<ResourceId,Endpoint> endpoints=this.endpointRepository.endpointsOfResources(resourceIds.values());
+		Map<ManagedIndividualId,PublicResource> result=Maps.newLinkedHashMap();
+		for(Entry<ManagedIndividualId,ResourceId> entry:resourceIds.entrySet()) {
+			PublicResource resource=this.factory.createResource(endpoints.get(entry.getValue()));
+			if(resource!=null) {
+				result.put(entry.getKey(),resource);
+			}
+		}
+		return result;
+	}
+
 	private void processConstraintValidationFailure(Resource resource, Throwable failure) {
 		if(failure.getCause() instanceof InvalidContentException) {
 			InvalidContentException cause=(InvalidContentException)failure.getCause();
@@ -246,7 +295,7 @@ public final class DefaultApplicationContext implements ApplicationContext {
 				addConstraintReport(
 					error.getConstraints(),
 					new Date(),
-					currentRequest());
+					this.constraintReportPolicy.retain(currentRequest()));
 		this.constraintReportRepository.add(report);
 		LOGGER.debug("Constraint validation failed. Registered constraint report {}",report.id());
 		error.setConstraintsId(report.id().failureId());
@@ -401,6 +450,30 @@ public final class DefaultApplicationContext implements ApplicationContext {
 		}
 	}
 
+	void patchResource(Endpoint endpoint, DataSet additions, DataSet removals) throws ApplicationExecutionException {
+		ResourceId resourceId=endpoint.resourceId();
+		Resource resource = loadResource(resourceId);
+		if(resource==null) {
+			String errorMessage = applicationFailureMessage(COULD_NOT_FIND_RESOURCE_FOR_ENDPOINT,endpoint);
+			LOGGER.error(errorMessage);
+			throw new ApplicationExecutionException(errorMessage);
+		}
+		try {
+			WriteSessionConfiguration config=
+				DefaultApplicationContextHelper.
+					create(this.engine().templateManagementService()).
+						createConfiguration(resource,lastModified());
+			this.engine().resourceControllerService().patchResource(resource,additions,removals,config);
+		} catch (FeatureExecutionException e) {
+			processConstraintValidationFailure(resource, e);
+			String errorMessage = applicationFailureMessage(RESOURCE_MODIFICATION_FAILED,endpoint);
+			throw createException(errorMessage,e);
+		} catch (Exception e) {
+			String errorMessage = applicationFailureMessage(RESOURCE_MODIFICATION_FAILED,endpoint);
+			throw createException(errorMessage,e);
+		}
+	}
+
 	DataSet getConstraintReport(Endpoint endpoint, String constraintsId) throws ApplicationExecutionException {
 		ResourceId resourceId=endpoint.resourceId();
 		// TODO: Check if it is really necessary
@@ -427,16 +500,19 @@ public final class DefaultApplicationContext implements ApplicationContext {
 	}
 
 
+	private static boolean supports(Class<?> handlerClass, Class<?> feature, Class<?> asyncFeature) {
+		return feature.isAssignableFrom(handlerClass) || asyncFeature.isAssignableFrom(handlerClass);
+	}
+
 	Capabilities endpointCapabilities(Endpoint endpoint) {
 		MutableCapabilities result=new MutableCapabilities();
 		Resource resource = resolveResource(endpoint);
 		ResourceTemplate template=resourceTemplate(resource);
 		Class<? extends ResourceHandler> handlerClass = template.handlerClass();
-		result.setQueryable(Queryable.class.isAssignableFrom(handlerClass));
-		result.setModifiable(Modifiable.class.isAssignableFrom(handlerClass));
-		result.setDeletable(Deletable.class.isAssignableFrom(handlerClass) && !resource.isRoot());
-		// TODO: Analyze how to provide patch support
-		result.setPatchable(false);
+		result.setQueryable(supports(handlerClass,Queryable.class,AsyncQueryable.class));
+		result.setModifiable(supports(handlerClass,Modifiable.class,AsyncModifiable.class));
+		result.setDeletable(supports(handlerClass,Deletable.class,AsyncDeletable.class) && !resource.isRoot());
+		result.setPatchable(Patchable.class.isAssignableFrom(handlerClass));
 		TemplateIntrospector introspector = TemplateIntrospector.newInstance(template);
 		result.setFactory(introspector.isContainer());
 		return result;
@@ -446,6 +522,25 @@ public final class DefaultApplicationContext implements ApplicationContext {
 		return this.engine().templateManagementService().templateOfId(resource.id().templateId());
 	}
 
+	/**
+	 * Get the attached templates of a template grouped by the predicate that
+	 * links the attachments to the resources of the template. The grouping
+	 * only depends on the template, so it is calculated once and then shared
+	 * by every resource of the template.
+	 */
+	ListMultimap<URI,AttachedTemplate> attachmentPredicates(ResourceTemplate template, URI defaultPredicate) {
+		ListMultimap<URI,AttachedTemplate> result=this.attachmentPredicates.get(template.id());
+		if(result==null) {
+			ImmutableListMultimap.Builder<URI,AttachedTemplate> builder=ImmutableListMultimap.builder();
+			for(AttachedTemplate attachedTemplate:template.attachedTemplates()) {
+				builder.put(attachedTemplate.predicate().or(defaultPredicate),attachedTemplate);
+			}
+			result=builder.build();
+			this.attachmentPredicates.putIfAbsent(template.id(),result);
+		}
+		return result;
+	}
+
 	void initialize(String applicationClassName) throws ApplicationContextCreationException {
 		try {
 			this.application=this.engine().applicationLifecycleService().initialize(applicationClassName);
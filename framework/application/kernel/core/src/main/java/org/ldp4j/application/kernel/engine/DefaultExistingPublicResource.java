@@ -31,19 +31,25 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.ldp4j.application.data.DataSet;
 import org.ldp4j.application.data.DataSets;
 import org.ldp4j.application.data.Individual;
+import org.ldp4j.application.data.Literal;
 import org.ldp4j.application.data.ManagedIndividualId;
 import org.ldp4j.application.data.Property;
+import org.ldp4j.application.data.Value;
 import org.ldp4j.application.data.constraints.Constraints;
+import org.ldp4j.application.data.constraints.Constraints.PropertyConstraint;
+import org.ldp4j.application.data.constraints.Constraints.Shape;
 import org.ldp4j.application.data.validation.ValidationConstraintFactory;
 import org.ldp4j.application.data.validation.ValidationReport;
 import org.ldp4j.application.data.validation.Validator;
 import org.ldp4j.application.data.validation.Validator.ValidatorBuilder;
 import org.ldp4j.application.engine.context.ApplicationExecutionException;
 import org.ldp4j.application.engine.context.ContentPreferences;
+import org.ldp4j.application.engine.context.ContentPreferences.Preference;
 import org.ldp4j.application.engine.context.PublicBasicContainer;
 import org.ldp4j.application.engine.context.PublicDirectContainer;
 import org.ldp4j.application.engine.context.PublicIndirectContainer;
@@ -61,8 +67,8 @@ import org.ldp4j.application.kernel.template.AttachedTemplate;
 import org.ldp4j.application.vocabulary.LDP;
 import org.ldp4j.application.vocabulary.RDF;
 
-import com.google.common.collect.LinkedHashMultimap;
-import com.google.common.collect.Multimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Sets;
 
 abstract class DefaultExistingPublicResource extends DefaultPublicResource {
 
@@ -104,6 +110,39 @@ abstract class DefaultExistingPublicResource extends DefaultPublicResource {
 		}
 	}
 
+	private static final class MembershipPredicateCollector implements PublicResourceVisitor<Void> {
+
+		private final Set<URI> predicates;
+
+		private MembershipPredicateCollector(Set<URI> predicates) {
+			this.predicates = predicates;
+		}
+
+		@Override
+		public Void visitRDFSource(PublicRDFSource resource) {
+			// Nothing to do
+			return null;
+		}
+
+		@Override
+		public Void visitBasicContainer(PublicBasicContainer resource) {
+			// Nothing to do
+			return null;
+		}
+
+		@Override
+		public Void visitDirectContainer(PublicDirectContainer resource) {
+			this.predicates.add(((DefaultPublicDirectContainer)resource).membershipPredicate());
+			return null;
+		}
+
+		@Override
+		public Void visitIndirectContainer(PublicIndirectContainer resource) {
+			this.predicates.add(((DefaultPublicIndirectContainer)resource).membershipPredicate());
+			return null;
+		}
+	}
+
 	private static final class AdditionalMetadataPopulator implements PublicResourceVisitor<Void> {
 
 		private final Context ctx;
@@ -143,8 +182,59 @@ abstract class DefaultExistingPublicResource extends DefaultPublicResource {
 		}
 	}
 
+	private static final class SuppliedMetadataPopulator implements PublicResourceVisitor<Void> {
+
+		private final Context ctx;
+		private final DataSet representation;
+		private final Individual<?, ?> individual;
+
+		private SuppliedMetadataPopulator(Context ctx,
+				DataSet representation,
+				Individual<?, ?> individual) {
+			this.ctx = ctx;
+			this.representation = representation;
+			this.individual = individual;
+		}
+
+		@Override
+		public Void visitRDFSource(PublicRDFSource resource) {
+			// Nothing to do
+			return null;
+		}
+
+		@Override
+		public Void visitBasicContainer(PublicBasicContainer resource) {
+			// Nothing to do
+			return null;
+		}
+
+		@Override
+		public Void visitDirectContainer(PublicDirectContainer resource) {
+			((DefaultPublicDirectContainer)resource).fillInSuppliedMemberMetadata(representation,individual,ctx);
+			return null;
+		}
+
+		@Override
+		public Void visitIndirectContainer(PublicIndirectContainer resource) {
+			((DefaultPublicIndirectContainer)resource).fillInSuppliedMemberMetadata(representation,individual,ctx);
+			return null;
+		}
+	}
+
 	private static final URI HAS_ATTACHMENT = URI.create("http://www.ldp4j.org/ns/application#hasAttachment");
 
+	/**
+	 * Preferences used for building the metadata required for validating
+	 * changes: the containment and membership triples are not calculated, as
+	 * that would require enumerating all the members of the containers.
+	 */
+	private static final ContentPreferences VALIDATION_PREFERENCES=
+		ContentPreferences.
+			builder().
+				withOmit(Preference.CONTAINMENT_TRIPLES).
+				withOmit(Preference.MEMBERSHIP_TRIPLES).
+				build();
+
 	private final ManagedIndividualId individualId;
 
 	protected DefaultExistingPublicResource(DefaultApplicationContext applicationContext, Endpoint endpoint) {
@@ -198,7 +288,7 @@ abstract class DefaultExistingPublicResource extends DefaultPublicResource {
 
 	@Override
 	public final void modify(DataSet dataSet) throws ApplicationExecutionException {
-		DataSet metadata = metadata();
+		DataSet metadata = validationMetadata(dataSet);
 		try {
 			// First check that the framework/protocol metadata has not been messed
 			// around
@@ -216,6 +306,28 @@ abstract class DefaultExistingPublicResource extends DefaultPublicResource {
 		}
 	}
 
+	@Override
+	public final void patch(DataSet additions, DataSet removals) throws ApplicationExecutionException {
+		// Membership and containment triples are not needed for validating
+		// the changes, so they are not calculated
+		DataSet metadata = metadata(VALIDATION_PREFERENCES);
+		try {
+			// First check that the changes do not affect the
+			// framework/protocol metadata
+			validatePatch(additions, removals, metadata);
+
+			// Second, remove the framework/protocol metadata that might be
+			// added again
+			DataSets.remove(metadata, additions);
+
+			// Third, request the modification using the validated changes
+			applicationContext().patchResource(endpoint(),additions,removals);
+		} catch (InvalidContentException error) {
+			applicationContext().registerContentFailure(endpoint(),error);
+			throw new ApplicationExecutionException("Protocol/framework managed metadata validation failure",error);
+		}
+	}
+
 	@Override
 	public DataSet getConstraintReport(String constraintsId) throws ApplicationExecutionException {
 		return applicationContext().getConstraintReport(endpoint(),constraintsId);
@@ -223,6 +335,10 @@ abstract class DefaultExistingPublicResource extends DefaultPublicResource {
 
 	@Override
 	protected DataSet metadata() {
+		return metadata(ContentPreferences.defaultPreferences());
+	}
+
+	private DataSet metadata(ContentPreferences contentPreferences) {
 		DataSet metadata =
 			DataSets.
 				createDataSet(id().name());
@@ -231,12 +347,50 @@ abstract class DefaultExistingPublicResource extends DefaultPublicResource {
 		ManagedIndividualId id = individualId();
 
 		fillInMetadata(
-			ContentPreferences.defaultPreferences(),
+			contentPreferences,
 			ctx.newIndividual(id),
 			ctx);
 		return metadata;
 	}
 
+	/**
+	 * Build the metadata required for validating a representation of the
+	 * resource. Instead of calculating every containment and membership
+	 * triple, only those included in the representation that are consistent
+	 * with the current state of the containers are added, so that the cost
+	 * does not depend on the number of members of the containers.
+	 */
+	private DataSet validationMetadata(DataSet representation) {
+		DataSet metadata =
+			DataSets.
+				createDataSet(id().name());
+
+		Context ctx = new Context(metadata);
+		Individual<?,?> individual=ctx.newIndividual(individualId());
+
+		fillInMetadata(VALIDATION_PREFERENCES,individual,ctx);
+		fillInSuppliedMetadata(representation,individual,ctx);
+		return metadata;
+	}
+
+	/**
+	 * Add to the metadata of the resource the containment and membership
+	 * triples included in a representation that match the current state of
+	 * the containers.
+	 *
+	 * @param representation
+	 *            the representation supplied by the client
+	 * @param individual
+	 *            the individual of the resource in the metadata
+	 * @param ctx
+	 *            the context used for populating the metadata
+	 */
+	protected void fillInSuppliedMetadata(DataSet representation, Individual<?, ?> individual, Context ctx) {
+		for(PublicResource attachment:attachments().values()) {
+			attachment.accept(new SuppliedMetadataPopulator(ctx,representation,individual));
+		}
+	}
+
 	@Override
 	protected DataSet resourceData(ContentPreferences contentPreferences) throws ApplicationExecutionException {
 		return applicationContext().getResource(endpoint());
@@ -269,11 +423,7 @@ abstract class DefaultExistingPublicResource extends DefaultPublicResource {
 	@Override
 	protected void configureValidationConstraints(ValidatorBuilder builder, Individual<?,?> individual, DataSet metadata) {
 		builder.withPropertyConstraint(ValidationConstraintFactory.mandatoryPropertyValues(individual.property(RDF.TYPE.as(URI.class))));
-		Multimap<URI,AttachedTemplate> attachmentMap=LinkedHashMultimap.create();
-		for(AttachedTemplate attachedTemplate:template().attachedTemplates()) {
-			URI propertyId = attachedTemplate.predicate().or(HAS_ATTACHMENT);
-			attachmentMap.put(propertyId, attachedTemplate);
-		}
+		ListMultimap<URI,AttachedTemplate> attachmentMap=applicationContext().attachmentPredicates(template(),HAS_ATTACHMENT);
 		for(Entry<URI, Collection<AttachedTemplate>> entry:attachmentMap.asMap().entrySet()) {
 			URI propertyId=entry.getKey();
 			Property property = individual.property(propertyId);
@@ -304,6 +454,14 @@ abstract class DefaultExistingPublicResource extends DefaultPublicResource {
 		resource.accept(new AdditionalValidationConstraintConfigurator(metadata,individual,builder));
 	}
 
+	/**
+	 * Validate a representation against the metadata of the resource. The
+	 * constraints pin the values of the metadata, which depend on the state
+	 * of the resource and on the representation itself, so the validator
+	 * cannot be shared between validations. The part that only depends on
+	 * the template, i.e., the grouping of the attachments by predicate, is
+	 * shared by the application context.
+	 */
 	private void validate(DataSet dataSet, DataSet metadata) throws InvalidContentException {
 		ManagedIndividualId id = individualId();
 		Individual<?,?> individual=metadata.individualOfId(id);
@@ -322,6 +480,121 @@ abstract class DefaultExistingPublicResource extends DefaultPublicResource {
 		}
 	}
 
+	/**
+	 * Collect the predicates whose values are managed by the framework, and
+	 * thus cannot be changed using a patch, in addition to those included in
+	 * the metadata of the resource. By default these are the membership
+	 * predicates of the attached containers, as the resource is their
+	 * membership resource.
+	 *
+	 * @param predicates
+	 *            the set where the predicates have to be added
+	 */
+	protected void collectReadOnlyPredicates(Set<URI> predicates) {
+		for(PublicResource attachment:attachments().values()) {
+			attachment.accept(new MembershipPredicateCollector(predicates));
+		}
+	}
+
+	private static boolean hasValue(Property property, Value value) {
+		if(value instanceof Literal<?>) {
+			return property.hasLiteralValue((Literal<?>)value);
+		}
+		return
+			value instanceof Individual<?,?> &&
+			property.hasIdentifiedIndividual(((Individual<?,?>)value).id());
+	}
+
+	/**
+	 * Record that a property of a patched individual cannot be changed, both
+	 * as a failure and as a constraint of the node shape of the individual.
+	 */
+	private static void reject(Individual<?,?> individual, PropertyConstraint constraint, String failure, Set<String> failures, Constraints constraints) {
+		if(!failures.add(failure)) {
+			return;
+		}
+		Shape shape=constraints.nodeShape(individual);
+		if(shape==null) {
+			shape=
+				Constraints.
+					shape().
+						withLabel("Patched individual").
+						withComment("Framework/protocol managed properties of the individual cannot be patched");
+			constraints.withNodeShape(individual,shape);
+		}
+		shape.withPropertyConstraint(constraint);
+	}
+
+	private static void checkReadOnlyPredicates(DataSet changes, Set<URI> readOnly, Set<String> failures, Constraints constraints) {
+		for(Individual<?,?> individual:changes) {
+			for(Property property:individual) {
+				if(property.hasValues() && readOnly.contains(property.predicate())) {
+					reject(
+						individual,
+						Constraints.
+							propertyConstraint(property.predicate()).
+								withComment("Read only property"),
+						"Property '"+property.predicate()+"' of individual '"+individual.id()+"' is read only",
+						failures,
+						constraints);
+				}
+			}
+		}
+	}
+
+	private static void checkManagedValues(DataSet removals, DataSet metadata, Set<String> failures, Constraints constraints) {
+		for(Individual<?,?> individual:removals) {
+			Individual<?,?> managed=metadata.individualOfId(individual.id());
+			if(managed==null) {
+				continue;
+			}
+			for(Property property:individual) {
+				Property managedProperty=managed.property(property.predicate());
+				if(managedProperty==null) {
+					continue;
+				}
+				for(Value value:property) {
+					if(hasValue(managedProperty,value)) {
+						reject(
+							individual,
+							Constraints.
+								propertyConstraint(property.predicate()).
+									withComment("Managed value that cannot be removed").
+									withValue(value),
+							"Value '"+value+"' of property '"+property.predicate()+"' of individual '"+individual.id()+"' cannot be removed",
+							failures,
+							constraints);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Validate the changes of a patch. The cost of the validation depends on
+	 * the size of the changes: it is only verified that the removals do not
+	 * include framework/protocol managed values, and that neither the
+	 * additions nor the removals use read only properties.
+	 */
+	private void validatePatch(DataSet additions, DataSet removals, DataSet metadata) throws InvalidContentException {
+		Set<URI> readOnly=Sets.newHashSet();
+		Individual<?,?> individual=metadata.individualOfId(individualId());
+		if(individual!=null) {
+			readOnly.addAll(individual.propertyIds());
+		}
+		readOnly.remove(RDF.TYPE.as(URI.class));
+		collectReadOnlyPredicates(readOnly);
+
+		Set<String> failures=Sets.newLinkedHashSet();
+		Constraints constraints=Constraints.constraints();
+		checkReadOnlyPredicates(additions,readOnly,failures,constraints);
+		checkReadOnlyPredicates(removals,readOnly,failures,constraints);
+		checkManagedValues(removals,metadata,failures,constraints);
+		if(!failures.isEmpty()) {
+			throw new InconsistentContentException("Protocol/framework managed metadata validation failed: "+failures,constraints);
+		}
+	}
+
 	@Override
 	protected final ManagedIndividualId indirectIndividualId() {
 		ManagedIndividualId result=this.individualId;
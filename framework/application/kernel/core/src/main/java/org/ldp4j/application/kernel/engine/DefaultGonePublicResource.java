@@ -84,6 +84,11 @@ final class DefaultGonePublicResource extends DefaultPublicResource {
 		throw new UnsupportedOperationException(THE_ENDPOINT_IS_GONE);
 	}
 
+	@Override
+	public void patch(DataSet additions, DataSet removals) throws ApplicationExecutionException {
+		throw new UnsupportedOperationException(THE_ENDPOINT_IS_GONE);
+	}
+
 	@Override
 	public DataSet getConstraintReport(String failureId) {
 		throw new UnsupportedOperationException(THE_ENDPOINT_IS_GONE);
@@ -189,7 +189,7 @@ abstract class DefaultPublicContainer<T extends ContainerTemplate> extends Defau
 				ctx.property(RDF.TYPE),
 				ctx.reference(LDP.CONTAINER));
 		if(contentPreferences.mayInclude(Preference.CONTAINMENT_TRIPLES)) {
-			for(PublicResource member:members()) {
+			for(PublicResource member:members(contentPreferences)) {
 				individual.addValue(
 					ctx.property(LDP.CONTAINS),
 					ctx.newIndividual(member));
@@ -197,6 +197,52 @@ abstract class DefaultPublicContainer<T extends ContainerTemplate> extends Defau
 		}
 	}
 
+	@Override
+	protected void fillInSuppliedMetadata(DataSet representation, Individual<?, ?> individual, Context ctx) {
+		super.fillInSuppliedMetadata(representation, individual, ctx);
+		Individual<?,?> supplied=representation.individualOfId(individual.id());
+		if(supplied==null) {
+			return;
+		}
+		Property property=supplied.property(LDP.CONTAINS.as(URI.class));
+		if(property==null) {
+			return;
+		}
+		for(Value value:property) {
+			if(value instanceof ManagedIndividual) {
+				ManagedIndividualId memberId=((ManagedIndividual)value).id();
+				if(memberId.indirectId()==null && memberResourceId(memberId)!=null) {
+					individual.addValue(
+						ctx.property(LDP.CONTAINS),
+						ctx.newIndividual(memberId));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Get the identifier of the resource identified by a given individual
+	 * identifier, provided that the resource is a member of the container.
+	 * The membership is verified using the state of the container, without
+	 * enumerating its members.
+	 *
+	 * @return the identifier of the member resource, or {@code null} if the
+	 *         individual does not identify a member of the container.
+	 */
+	protected final ResourceId memberResourceId(ManagedIndividualId individualId) {
+		ResourceId resourceId=ResourceId.createId(individualId.name(),individualId.managerId());
+		if(!resolveAs(Container.class).hasMember(resourceId)) {
+			return null;
+		}
+		return resourceId;
+	}
+
+	@Override
+	protected void collectReadOnlyPredicates(Set<URI> predicates) {
+		super.collectReadOnlyPredicates(predicates);
+		predicates.add(LDP.CONTAINS.as(URI.class));
+	}
+
 	@Override
 	protected void configureValidationConstraints(ValidatorBuilder builder, Individual<?, ?> individual, DataSet metadata) {
 		super.configureValidationConstraints(builder, individual, metadata);
@@ -223,6 +269,78 @@ abstract class DefaultPublicContainer<T extends ContainerTemplate> extends Defau
 		return Collections.unmodifiableList(members);
 	}
 
+	/**
+	 * Get the members of the container that are to be included in a
+	 * representation built using the specified content preferences. If
+	 * paging is required, only the selected page of members is resolved.
+	 */
+	protected final Collection<PublicResource> members(ContentPreferences contentPreferences) {
+		if(!contentPreferences.isPagingRequired()) {
+			return members();
+		}
+		List<PublicResource> members=Lists.newArrayList();
+		List<Member> page=
+			resolveAs(Container.class).
+				members(
+					contentPreferences.memberCursor(),
+					contentPreferences.maxMemberCount());
+		for(Member member:page) {
+			members.add(createResource(member.memberId()));
+		}
+		return Collections.unmodifiableList(members);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public final Long nextMemberCursor(ContentPreferences contentPreferences) {
+		if(!contentPreferences.isPagingRequired()) {
+			return null;
+		}
+		int pageSize=contentPreferences.maxMemberCount();
+		if(pageSize==Integer.MAX_VALUE) {
+			return null;
+		}
+		// Look one member ahead to find out if there is a next page
+		List<Member> page=
+			resolveAs(Container.class).
+				members(
+					contentPreferences.memberCursor(),
+					pageSize+1);
+		Long result=null;
+		if(page.size()>pageSize) {
+			result=page.get(pageSize).number();
+		}
+		return result;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public final Long previousMemberCursor(ContentPreferences contentPreferences) {
+		if(!contentPreferences.isPagingRequired()) {
+			return null;
+		}
+		int pageSize=contentPreferences.maxMemberCount();
+		if(pageSize==Integer.MAX_VALUE) {
+			return null;
+		}
+		// The previous page starts at the farthest of the members that
+		// precede the current page
+		List<Member> previous=
+			resolveAs(Container.class).
+				membersBefore(
+					contentPreferences.memberCursor(),
+					pageSize);
+		Long result=null;
+		if(!previous.isEmpty()) {
+			result=previous.get(previous.size()-1).number();
+		}
+		return result;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
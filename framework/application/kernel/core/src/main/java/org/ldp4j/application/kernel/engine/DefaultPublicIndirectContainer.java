@@ -30,7 +30,7 @@ import java.net.URI;
 
 import org.ldp4j.application.data.DataSet;
 import org.ldp4j.application.data.Individual;
-import org.ldp4j.application.data.ManagedIndividual;
+import org.ldp4j.application.data.ManagedIndividualId;
 import org.ldp4j.application.data.validation.ValidationConstraintFactory;
 import org.ldp4j.application.data.validation.Validator.ValidatorBuilder;
 import org.ldp4j.application.engine.context.ContentPreferences;
@@ -74,8 +74,8 @@ final class DefaultPublicIndirectContainer extends DefaultPublicMembershipAwareC
 	}
 
 	@Override
-	protected ManagedIndividual createMemberIndividual(Context ctx, PublicResource member) {
-		return ctx.newIndividual(((DefaultPublicResource)member).indirectIndividualId());
+	protected ManagedIndividualId memberIndividualId(PublicResource member) {
+		return ((DefaultPublicResource)member).indirectIndividualId();
 	}
 
 }
@@ -27,11 +27,15 @@
 package org.ldp4j.application.kernel.engine;
 
 import java.net.URI;
+import java.util.List;
+import java.util.Set;
 
 import org.ldp4j.application.data.DataSet;
 import org.ldp4j.application.data.Individual;
 import org.ldp4j.application.data.ManagedIndividual;
+import org.ldp4j.application.data.ManagedIndividualId;
 import org.ldp4j.application.data.Property;
+import org.ldp4j.application.data.Value;
 import org.ldp4j.application.data.validation.ValidationConstraint;
 import org.ldp4j.application.data.validation.ValidationConstraintFactory;
 import org.ldp4j.application.data.validation.Validator.ValidatorBuilder;
@@ -40,11 +44,14 @@ import org.ldp4j.application.engine.context.PublicMembershipAwareContainer;
 import org.ldp4j.application.engine.context.PublicResource;
 import org.ldp4j.application.engine.context.ContentPreferences.Preference;
 import org.ldp4j.application.kernel.endpoint.Endpoint;
+import org.ldp4j.application.kernel.resource.ResourceId;
 import org.ldp4j.application.kernel.template.MembershipAwareContainerTemplate;
 import org.ldp4j.application.vocabulary.LDP;
 import org.ldp4j.application.vocabulary.RDF;
 import org.ldp4j.application.vocabulary.Term;
 
+import com.google.common.collect.Lists;
+
 abstract class DefaultPublicMembershipAwareContainer<T extends MembershipAwareContainerTemplate> extends DefaultPublicContainer<T> implements PublicMembershipAwareContainer {
 
 	protected DefaultPublicMembershipAwareContainer(DefaultApplicationContext applicationContext, Endpoint endpoint, Class<? extends T> templateClass) {
@@ -53,6 +60,10 @@ abstract class DefaultPublicMembershipAwareContainer<T extends MembershipAwareCo
 
 	protected abstract Term containerType();
 
+	final URI membershipPredicate() {
+		return containerTemplate().membershipPredicate();
+	}
+
 	final void fillInMemberMetadata(ContentPreferences contentPreferences, Individual<?,?> individual, Context ctx) {
 		if(!contentPreferences.mayInclude(Preference.MEMBERSHIP_TRIPLES)) {
 			return;
@@ -61,18 +72,88 @@ abstract class DefaultPublicMembershipAwareContainer<T extends MembershipAwareCo
 		URI predicate = containerTemplate().membershipPredicate();
 		switch(containerTemplate().membershipRelation()) {
 			case HAS_MEMBER:
-				populateHasMember(individual, ctx, predicate);
+				populateHasMember(contentPreferences, individual, ctx, predicate);
+				break;
+			case IS_MEMBER_OF:
+				populateIsMemberOf(contentPreferences, individual, ctx, predicate);
+				break;
+			default:
+				throw new IllegalStateException("Unsupported membership relation "+containerTemplate().membershipRelation());
+		}
+	}
+
+	/**
+	 * Add to the metadata the membership triples included in a
+	 * representation that match the current state of the container. Only the
+	 * triples of the representation that use the membership predicate are
+	 * checked.
+	 */
+	final void fillInSuppliedMemberMetadata(DataSet representation, Individual<?,?> individual, Context ctx) {
+		URI predicate = containerTemplate().membershipPredicate();
+		switch(containerTemplate().membershipRelation()) {
+			case HAS_MEMBER:
+				populateSuppliedHasMember(representation, individual, ctx, predicate);
 				break;
 			case IS_MEMBER_OF:
-				populateIsMemberOf(individual, ctx, predicate);
+				populateSuppliedIsMemberOf(representation, individual, ctx, predicate);
 				break;
 			default:
 				throw new IllegalStateException("Unsupported membership relation "+containerTemplate().membershipRelation());
 		}
 	}
 
-	private void populateIsMemberOf(Individual<?, ?> individual, Context ctx, URI predicate) {
-		for(PublicResource member:members()) {
+	private void populateSuppliedHasMember(DataSet representation, Individual<?, ?> individual, Context ctx, URI predicate) {
+		Individual<?,?> supplied=representation.individualOfId(individual.id());
+		if(supplied==null) {
+			return;
+		}
+		Property property=supplied.property(predicate);
+		if(property==null) {
+			return;
+		}
+		for(Value value:property) {
+			ManagedIndividualId memberId=suppliedMemberId(value);
+			if(memberId!=null) {
+				individual.addValue(
+					predicate,
+					ctx.newIndividual(memberId));
+			}
+		}
+	}
+
+	private void populateSuppliedIsMemberOf(DataSet representation, Individual<?, ?> individual, Context ctx, URI predicate) {
+		for(Individual<?,?> supplied:representation) {
+			Property property=supplied.property(predicate);
+			if(property!=null && property.hasIdentifiedIndividual(individual.id())) {
+				ManagedIndividualId memberId=suppliedMemberId(supplied);
+				if(memberId!=null) {
+					ctx.newIndividual(memberId).
+						addValue(
+							predicate,
+							individual);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Get the identifier of the individual used for representing a member of
+	 * the container, provided that the value is such an individual.
+	 */
+	private ManagedIndividualId suppliedMemberId(Value value) {
+		if(!(value instanceof ManagedIndividual)) {
+			return null;
+		}
+		ManagedIndividualId id=((ManagedIndividual)value).id();
+		ResourceId resourceId=memberResourceId(id);
+		if(resourceId==null || !id.equals(memberIndividualId(createResource(resourceId)))) {
+			return null;
+		}
+		return id;
+	}
+
+	private void populateIsMemberOf(ContentPreferences contentPreferences, Individual<?, ?> individual, Context ctx, URI predicate) {
+		for(PublicResource member:members(contentPreferences)) {
 			ManagedIndividual tmp=createMemberIndividual(ctx, member);
 			tmp.addValue(
 				predicate,
@@ -80,10 +161,14 @@ abstract class DefaultPublicMembershipAwareContainer<T extends MembershipAwareCo
 		}
 	}
 
-	protected abstract ManagedIndividual createMemberIndividual(Context ctx, PublicResource member);
+	protected abstract ManagedIndividualId memberIndividualId(PublicResource member);
 
-	private void populateHasMember(Individual<?, ?> individual, Context ctx, URI predicate) {
-		for(PublicResource member:members()) {
+	private ManagedIndividual createMemberIndividual(Context ctx, PublicResource member) {
+		return ctx.newIndividual(memberIndividualId(member));
+	}
+
+	private void populateHasMember(ContentPreferences contentPreferences, Individual<?, ?> individual, Context ctx, URI predicate) {
+		for(PublicResource member:members(contentPreferences)) {
 			individual.addValue(
 				predicate,
 				createMemberIndividual(ctx, member));
@@ -101,12 +186,7 @@ abstract class DefaultPublicMembershipAwareContainer<T extends MembershipAwareCo
 			addValue(
 				ctx.property(template.membershipRelation().term()),
 				ctx.reference(template.membershipPredicate()));
-		Individual<?, ?> membershipResource=null;
-		if(!isRoot()) {
-			membershipResource = ctx.newIndividual(parent());
-		} else {
-			membershipResource = ctx.reference(LDP.MEMBER_SUBJECT);
-		}
+		Individual<?, ?> membershipResource=membershipResource(ctx);
 		individual.
 			addValue(
 				ctx.property(LDP.MEMBERSHIP_RESOURCE),
@@ -116,6 +196,22 @@ abstract class DefaultPublicMembershipAwareContainer<T extends MembershipAwareCo
 		}
 	}
 
+	private Individual<?,?> membershipResource(Context ctx) {
+		Individual<?, ?> membershipResource=null;
+		if(!isRoot()) {
+			membershipResource = ctx.newIndividual(parent());
+		} else {
+			membershipResource = ctx.reference(LDP.MEMBER_SUBJECT);
+		}
+		return membershipResource;
+	}
+
+	@Override
+	protected void fillInSuppliedMetadata(DataSet representation, Individual<?, ?> individual, Context ctx) {
+		super.fillInSuppliedMetadata(representation, individual, ctx);
+		fillInSuppliedMemberMetadata(representation,membershipResource(ctx),ctx);
+	}
+
 	final void configureMemberValidationConstraints(ValidatorBuilder builder, Individual<?, ?> individual, DataSet metadata) {
 		URI predicate = containerTemplate().membershipPredicate();
 		switch(containerTemplate().membershipRelation()) {
@@ -130,15 +226,23 @@ abstract class DefaultPublicMembershipAwareContainer<T extends MembershipAwareCo
 		}
 	}
 
+	/**
+	 * The metadata only includes the membership triples supplied by the
+	 * client that match the state of the container, so only the members
+	 * included in the representation are constrained. Any other individual
+	 * of the representation that refers to the membership resource using the
+	 * membership predicate is rejected.
+	 */
 	private void configureIsMemberOfValidationConstraints(ValidatorBuilder builder, Individual<?, ?> individual, DataSet metadata, URI predicate) { // NOSONAR
-		if(members().isEmpty()) {
-			builder.withPropertyConstraint(ValidationConstraintFactory.readOnlyProperty(predicate));
-		} else {
-			for(PublicResource member:members()) {
-				Individual<?,?> tmp=metadata.individualOfId(member.individualId());
-				builder.withPropertyConstraint(ValidationConstraintFactory.readOnlyProperty(tmp.property(predicate)));
+		List<Object> members=Lists.newArrayList();
+		for(Individual<?,?> member:metadata) {
+			Property property=member.property(predicate);
+			if(property!=null && property.hasIdentifiedIndividual(individual.id())) {
+				builder.withPropertyConstraint(ValidationConstraintFactory.readOnlyProperty(property));
+				members.add(member.id());
 			}
 		}
+		builder.withPropertyConstraint(ValidationConstraintFactory.readOnlyReferences(individual.id(),predicate,members));
 	}
 
 	private void configureHasMemberValidationConstraints(ValidatorBuilder builder, Individual<?, ?> individual, DataSet metadata, URI predicate) { // NOSONAR
@@ -152,6 +256,12 @@ abstract class DefaultPublicMembershipAwareContainer<T extends MembershipAwareCo
 		builder.withPropertyConstraint(constraint);
 	}
 
+	@Override
+	protected void collectReadOnlyPredicates(Set<URI> predicates) {
+		super.collectReadOnlyPredicates(predicates);
+		predicates.add(membershipPredicate());
+	}
+
 	@Override
 	protected void configureValidationConstraints(ValidatorBuilder builder, Individual<?, ?> individual, DataSet metadata) {
 		super.configureValidationConstraints(builder, individual, metadata);
@@ -159,6 +269,11 @@ abstract class DefaultPublicMembershipAwareContainer<T extends MembershipAwareCo
 		Property rootProperty = individual.property(LDP.MEMBERSHIP_RESOURCE.as(URI.class));
 		if(rootProperty!=null) {
 			builder.withPropertyConstraint(ValidationConstraintFactory.readOnlyProperty(rootProperty));
+			for(Value value:rootProperty) {
+				if(value instanceof Individual<?,?>) {
+					configureMemberValidationConstraints(builder,(Individual<?,?>)value,metadata);
+				}
+			}
 		} else {
 			builder.withPropertyConstraint(ValidationConstraintFactory.readOnlyProperty(LDP.MEMBERSHIP_RESOURCE.as(URI.class)));
 		}
@@ -41,6 +41,8 @@ interface Adapter {
 
 	void update(DataSet content) throws FeatureException;
 
+	void patch(DataSet additions, DataSet removals) throws FeatureException;
+
 	void delete() throws FeatureException;
 
 	Resource create(DataSet content) throws FeatureException;
@@ -26,12 +26,21 @@
  */
 package org.ldp4j.application.kernel.resource;
 
+import java.util.concurrent.ExecutionException;
+
 import org.ldp4j.application.ApplicationApiRuntimeException;
 import org.ldp4j.application.data.DataSet;
 import org.ldp4j.application.ext.ApplicationException;
+import org.ldp4j.application.ext.ApplicationRuntimeException;
+import org.ldp4j.application.ext.AsyncContainerHandler;
+import org.ldp4j.application.ext.AsyncDeletable;
+import org.ldp4j.application.ext.AsyncModifiable;
+import org.ldp4j.application.ext.AsyncQueryable;
+import org.ldp4j.application.ext.AsyncResourceHandler;
 import org.ldp4j.application.ext.ContainerHandler;
 import org.ldp4j.application.ext.Deletable;
 import org.ldp4j.application.ext.Modifiable;
+import org.ldp4j.application.ext.Patchable;
 import org.ldp4j.application.ext.Query;
 import org.ldp4j.application.ext.Queryable;
 import org.ldp4j.application.ext.ResourceHandler;
@@ -43,6 +52,10 @@ import org.ldp4j.application.session.SessionTerminationException;
 import org.ldp4j.application.session.SnapshotVisitor;
 import org.ldp4j.application.session.WriteSession;
 
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+
 final class AdapterFactory {
 
 	private static class ResourceAdapter<T extends ResourceSnapshot> implements Adapter {
@@ -65,8 +78,12 @@ final class AdapterFactory {
 			return this.session;
 		}
 
+		protected final boolean supports(Class<?> clazz) {
+			return clazz.isInstance(this.delegate);
+		}
+
 		protected final <S> S as(Class<? extends S> clazz) throws UnsupportedFeatureException {
-			if(clazz.isInstance(this.delegate)) {
+			if(supports(clazz)) {
 				return clazz.cast(this.delegate);
 			}
 			throw new UnsupportedFeatureException(resource(),clazz);
@@ -92,6 +109,27 @@ final class AdapterFactory {
 			return this.service.detach(this.session, snapshot);
 		}
 
+		/**
+		 * Wait for the completion of an asynchronous handler invocation. The
+		 * write session of the adapter and the kernel transaction are bound to
+		 * the calling thread, thus the result has to be consumed here. When
+		 * served by the server frontend, this is a servlet container thread,
+		 * unless the request processing executor is enabled. Failures are
+		 * reported as if
+		 * the synchronous variant of the feature had thrown them.
+		 */
+		protected final <V> V await(ListenableFuture<V> future, Class<?> feature, String violation) throws ApplicationException, FeaturePostconditionException {
+			checkResponseNotNull(future,feature,violation);
+			try {
+				return Uninterruptibles.getUninterruptibly(future);
+			} catch (ExecutionException e) {
+				Throwable cause=e.getCause();
+				Throwables.propagateIfInstanceOf(cause,ApplicationException.class);
+				Throwables.propagateIfPossible(cause);
+				throw new ApplicationRuntimeException(cause);
+			}
+		}
+
 		protected final void checkResponseNotNull(Object response, Class<?> feature, String violation) throws FeaturePostconditionException {
 			if(response==null) {
 				throw new FeaturePostconditionException(resource(),feature,violation);
@@ -106,7 +144,12 @@ final class AdapterFactory {
 		@Override
 		public final DataSet get() throws FeatureException {
 			try {
-				DataSet dataSet = this.delegate.get(resource());
+				DataSet dataSet;
+				if(supports(AsyncResourceHandler.class)) {
+					dataSet=await(((AsyncResourceHandler)this.delegate).getAsync(resource()),AsyncResourceHandler.class,"No future returned");
+				} else {
+					dataSet=this.delegate.get(resource());
+				}
 				checkResponseNotNull(dataSet,ResourceHandler.class,"No data set returned");
 				return dataSet;
 			} catch (ApplicationException | ApplicationApiRuntimeException e) {
@@ -119,7 +162,12 @@ final class AdapterFactory {
 		@Override
 		public final DataSet query(Query query) throws FeatureException {
 			try {
-				DataSet dataSet = as(Queryable.class).query(resource(), query, writeSession());
+				DataSet dataSet;
+				if(supports(AsyncQueryable.class)) {
+					dataSet=await(as(AsyncQueryable.class).queryAsync(resource(),query,writeSession()),AsyncQueryable.class,"No future returned");
+				} else {
+					dataSet=as(Queryable.class).query(resource(), query, writeSession());
+				}
 				checkResponseNotNull(dataSet,Queryable.class,"No data set returned");
 				return dataSet;
 			} catch (ApplicationException | ApplicationApiRuntimeException e) {
@@ -132,7 +180,11 @@ final class AdapterFactory {
 		@Override
 		public final void update(DataSet content) throws FeatureException {
 			try {
-				as(Modifiable.class).update(resource(), content, writeSession());
+				if(supports(AsyncModifiable.class)) {
+					await(as(AsyncModifiable.class).updateAsync(resource(),content,writeSession()),AsyncModifiable.class,"No future returned");
+				} else {
+					as(Modifiable.class).update(resource(), content, writeSession());
+				}
 			} catch (ApplicationException | ApplicationApiRuntimeException e) {
 				throw featureException(e,Modifiable.class);
 			} finally {
@@ -140,10 +192,25 @@ final class AdapterFactory {
 			}
 		}
 
+		@Override
+		public final void patch(DataSet additions, DataSet removals) throws FeatureException {
+			try {
+				as(Patchable.class).patch(resource(), additions, removals, writeSession());
+			} catch (ApplicationException | ApplicationApiRuntimeException e) {
+				throw featureException(e,Patchable.class);
+			} finally {
+				finalizeSession();
+			}
+		}
+
 		@Override
 		public final void delete() throws FeatureException {
 			try {
-				as(Deletable.class).delete(resource(),writeSession());
+				if(supports(AsyncDeletable.class)) {
+					await(as(AsyncDeletable.class).deleteAsync(resource(),writeSession()),AsyncDeletable.class,"No future returned");
+				} else {
+					as(Deletable.class).delete(resource(),writeSession());
+				}
 			} catch (ApplicationException | ApplicationApiRuntimeException e) {
 				throw featureException(e,Deletable.class);
 			} finally {
@@ -168,7 +235,12 @@ final class AdapterFactory {
 		@Override
 		public Resource create(DataSet content) throws FeatureException {
 			try {
-				ResourceSnapshot create = as(ContainerHandler.class).create(resource(),content,writeSession());
+				ResourceSnapshot create;
+				if(supports(AsyncContainerHandler.class)) {
+					create=await(as(AsyncContainerHandler.class).createAsync(resource(),content,writeSession()),AsyncContainerHandler.class,"No future returned");
+				} else {
+					create=as(ContainerHandler.class).create(resource(),content,writeSession());
+				}
 				checkResponseNotNull(create, ContainerHandler.class, "No resource created");
 				return detach(create);
 			} catch (ApplicationException | ApplicationApiRuntimeException e) {
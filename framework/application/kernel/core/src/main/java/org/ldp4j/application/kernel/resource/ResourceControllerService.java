@@ -83,6 +83,10 @@ public class ResourceControllerService implements Service {
 		adapter(resource, configuration).update(dataSet);
 	}
 
+	public void patchResource(Resource resource, DataSet additions, DataSet removals, WriteSessionConfiguration configuration) throws FeatureException {
+		adapter(resource, configuration).patch(additions,removals);
+	}
+
 	public void deleteResource(Resource resource, WriteSessionConfiguration configuration) throws FeatureException {
 		adapter(resource, configuration).delete();
 	}
@@ -0,0 +1,291 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-kernel-core:0.2.2
+ *   Bundle      : ldp4j-application-kernel-core-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.session;
+
+import java.nio.charset.StandardCharsets;
+
+import org.ldp4j.application.data.DataSet;
+import org.ldp4j.application.data.Individual;
+import org.ldp4j.application.data.LanguageLiteral;
+import org.ldp4j.application.data.Literal;
+import org.ldp4j.application.data.LiteralVisitor;
+import org.ldp4j.application.data.Property;
+import org.ldp4j.application.data.TypedLiteral;
+import org.ldp4j.application.data.Value;
+import org.ldp4j.application.data.ValueVisitor;
+import org.ldp4j.application.engine.context.EntityTag;
+import org.ldp4j.application.kernel.resource.Attachment;
+import org.ldp4j.application.kernel.resource.Container;
+import org.ldp4j.application.kernel.resource.Member;
+import org.ldp4j.application.kernel.resource.Resource;
+import org.ldp4j.application.kernel.resource.ResourceId;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.primitives.UnsignedLongs;
+
+/**
+ * Order-independent digest of the state of a resource, used for deriving
+ * its entity tag. Each statement is hashed on its own and the statement
+ * hashes are summed, so that the result does not depend on the order in
+ * which the statements are enumerated (no canonical sorting is needed) and
+ * can be updated incrementally by {@link #add(Object, Object, Object) adding}
+ * or {@link #remove(Object, Object, Object) removing} statements without
+ * re-hashing the rest of the content.
+ * <br>
+ * Entity tags keep the digest of the content returned by the resource
+ * handler apart from the digest of the server-managed state of the resource,
+ * so that the latter can be recovered from the current entity tag of a
+ * resource and updated with the changes of a session instead of enumerating
+ * all the members of a container again.
+ */
+final class ContentDigest {
+
+	private static final HashFunction HASH_FUNCTION=Hashing.murmur3_128();
+
+	private static final char SEPARATOR='\u0000';
+
+	private static final char STATE_SEPARATOR='.';
+
+	private static final String DIGEST_FORMAT="%016x%016x-%x";
+
+	private final class ValueDigester implements ValueVisitor {
+
+		private final class LiteralDigester implements LiteralVisitor {
+
+			@Override
+			public void visitLiteral(final Literal<?> literal) {
+				digest(literal.get(),literal.get().getClass().getName());
+			}
+
+			@Override
+			public void visitTypedLiteral(final TypedLiteral<?> literal) {
+				digest(literal.get(),literal.type());
+			}
+
+			@Override
+			public void visitLanguageLiteral(final LanguageLiteral literal) {
+				digest(literal.get(),literal.language());
+			}
+
+		}
+
+		private final LiteralDigester literalDigester=new LiteralDigester();
+
+		private Object subject;
+		private Object predicate;
+		private int sign;
+
+		private void digest(final Property property, final int sign) {
+			this.subject=property.individual().id();
+			this.predicate=property.predicate();
+			this.sign=sign;
+			for(final Value value:property.values()) {
+				value.accept(this);
+			}
+		}
+
+		private void digest(final Object value, final Object qualifier) {
+			update(this.sign,this.subject,this.predicate,value,qualifier);
+		}
+
+		@Override
+		public void visitIndividual(final Individual<?,?> value) {
+			update(this.sign,this.subject,this.predicate,value.id());
+		}
+
+		@Override
+		public void visitLiteral(final Literal<?> value) {
+			value.accept(this.literalDigester);
+		}
+
+	}
+
+	private long high;
+	private long low;
+	private long statements;
+
+	private ContentDigest() {
+	}
+
+	private void update(final int sign, final Object... terms) {
+		final Hasher hasher=HASH_FUNCTION.newHasher();
+		for(final Object term:terms) {
+			hasher.
+				putString(String.valueOf(term),StandardCharsets.UTF_8).
+				putChar(SEPARATOR);
+		}
+		final HashCode hash=hasher.hash();
+		final byte[] bytes=hash.asBytes();
+		long first=0;
+		long second=0;
+		for(int i=0;i<8;i++) {
+			first=(first<<8)|(bytes[i]&0xFF);
+			second=(second<<8)|(bytes[i+8]&0xFF);
+		}
+		this.high+=sign*first;
+		this.low+=sign*second;
+		this.statements+=sign;
+	}
+
+	ContentDigest add(final Object subject, final Object predicate, final Object object) {
+		update(1,subject,predicate,object);
+		return this;
+	}
+
+	ContentDigest remove(final Object subject, final Object predicate, final Object object) {
+		update(-1,subject,predicate,object);
+		return this;
+	}
+
+	ContentDigest addProperty(final Property property) {
+		new ValueDigester().digest(property,1);
+		return this;
+	}
+
+	ContentDigest removeProperty(final Property property) {
+		new ValueDigester().digest(property,-1);
+		return this;
+	}
+
+	/**
+	 * Add the statements digested by another digest, which may include both
+	 * additions and removals.
+	 */
+	ContentDigest merge(final ContentDigest digest) {
+		this.high+=digest.high;
+		this.low+=digest.low;
+		this.statements+=digest.statements;
+		return this;
+	}
+
+	ContentDigest addDataSet(final DataSet dataSet) {
+		final ValueDigester digester=new ValueDigester();
+		for(final Individual<?,?> individual:dataSet) {
+			for(final Property property:individual) {
+				digester.digest(property,1);
+			}
+		}
+		return this;
+	}
+
+	/**
+	 * Digest the server-managed state of the resource that is surfaced in its
+	 * representation (i.e., attachments and, for containers, members), which
+	 * is not part of the content returned by the resource handler.
+	 */
+	ContentDigest addResource(final Resource resource) {
+		final ResourceId id=resource.id();
+		add(id,"templateId",id.templateId());
+		add(id,"indirectId",resource.indirectId());
+		for(final Attachment attachment:resource.attachments()) {
+			add(id,attachment.id(),attachment.resourceId());
+		}
+		if(resource instanceof Container) {
+			for(final Member member:((Container)resource).members()) {
+				add(id,"member",member.memberId());
+			}
+		}
+		return this;
+	}
+
+	private String encode() {
+		return String.format(DIGEST_FORMAT,this.high,this.low,this.statements);
+	}
+
+	EntityTag toEntityTag() {
+		return EntityTag.createStrong(encode());
+	}
+
+	/**
+	 * Create an entity tag that combines the digest of the content of a
+	 * resource with the digest of its server-managed state.
+	 */
+	EntityTag toEntityTag(final ContentDigest state) {
+		return EntityTag.createStrong(encode()+STATE_SEPARATOR+state.encode());
+	}
+
+	static ContentDigest create() {
+		return new ContentDigest();
+	}
+
+	/**
+	 * Recover the digest of the server-managed state of a resource from an
+	 * entity tag created using {@link #toEntityTag(ContentDigest)}.
+	 *
+	 * @return the digest of the server-managed state, or {@code null} if the
+	 *         entity tag was not created from a digest
+	 */
+	static ContentDigest stateOf(final EntityTag entityTag) {
+		final int separator=separator(entityTag);
+		if(separator<0) {
+			return null;
+		}
+		return decode(entityTag.getValue().substring(separator+1));
+	}
+
+	/**
+	 * Recover the digest of the content of a resource from an entity tag
+	 * created using {@link #toEntityTag(ContentDigest)}.
+	 *
+	 * @return the digest of the content, or {@code null} if the entity tag
+	 *         was not created from a digest
+	 */
+	static ContentDigest contentOf(final EntityTag entityTag) {
+		final int separator=separator(entityTag);
+		if(separator<0) {
+			return null;
+		}
+		return decode(entityTag.getValue().substring(0,separator));
+	}
+
+	private static int separator(final EntityTag entityTag) {
+		if(entityTag==null) {
+			return -1;
+		}
+		return entityTag.getValue().indexOf(STATE_SEPARATOR);
+	}
+
+	private static ContentDigest decode(final String digest) {
+		final int counter=digest.indexOf('-');
+		if(counter!=32 || digest.length()==counter+1) {
+			return null;
+		}
+		try {
+			final ContentDigest result=new ContentDigest();
+			result.high=UnsignedLongs.parseUnsignedLong(digest.substring(0,16),16);
+			result.low=UnsignedLongs.parseUnsignedLong(digest.substring(16,32),16);
+			result.statements=UnsignedLongs.parseUnsignedLong(digest.substring(counter+1),16);
+			return result;
+		} catch (final NumberFormatException e) {
+			return null;
+		}
+	}
+
+}
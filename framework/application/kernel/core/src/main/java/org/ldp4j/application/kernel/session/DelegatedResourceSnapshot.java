@@ -102,6 +102,12 @@ class DelegatedResourceSnapshot implements ResourceSnapshot {
 
 	private final Class<? extends ResourceHandler> handlerClass;
 
+	/**
+	 * Whether or not the application has modified the content of the
+	 * resource, as opposed to just its server-managed state.
+	 */
+	private boolean contentModified;
+
 	protected DelegatedResourceSnapshot(ResourceId resourceId, Class<? extends ResourceHandler> handlerClass) {
 		this.resourceId = resourceId;
 		this.handlerClass = handlerClass;
@@ -218,9 +224,14 @@ class DelegatedResourceSnapshot implements ResourceSnapshot {
 	}
 
 	final void modify() {
+		this.contentModified=true;
 		markDirty();
 	}
 
+	final boolean isContentModified() {
+		return this.contentModified;
+	}
+
 	final void delete() {
 		deleteResource();
 	}
@@ -229,6 +240,10 @@ class DelegatedResourceSnapshot implements ResourceSnapshot {
 		this.persistencyState.saveChanges(this);
 	}
 
+	final ContentDigest stateChanges() {
+		return this.persistencyState.stateChanges();
+	}
+
 	void accept(DelegatedSnapshotVisitor visitor) {
 		visitor.visitDelegatedResourceSnapshot(this);
 	}
@@ -295,17 +295,29 @@ abstract class PersistencyState {
 
 	private static final class PersistentResourceState extends BasePersistencyState {
 
+		/**
+		 * Applies the changes to the resource, recording them in the digest
+		 * of the server-managed state changes of the resource.
+		 */
 		private final class ResourceSaver implements ResourceVisitor {
 
+			private final ContentDigest changes;
+
+			private ResourceSaver(ContentDigest changes) {
+				this.changes=changes;
+			}
+
 			@Override
 			public void visitResource(Resource resource) {
 				for(DelegatedAttachmentSnapshot deleted:PersistentResourceState.this.deletedAttachments.values()) {
 					Attachment attachment = resource.findAttachment(deleted.resource().resourceId());
+					this.changes.remove(resource.id(),attachment.id(),attachment.resourceId());
 					resource.detach(attachment);
 				}
 				for(DelegatedAttachmentSnapshot attachment:PersistentResourceState.this.newAttachments.values()) {
 					DelegatedResourceSnapshot attachedResource = attachment.resource();
 					Resource attach = resource.attach(attachment.id(), attachedResource.resourceId());
+					this.changes.add(resource.id(),attachment.id(),attachedResource.resourceId());
 					attachedResource.setDelegate(attach);
 				}
 			}
@@ -315,10 +327,12 @@ abstract class PersistencyState {
 				visitResource(resource);
 				for(ResourceId id:PersistentResourceState.this.deletedMembers.keySet()) {
 					Member member=resource.findMember(id);
+					this.changes.remove(resource.id(),"member",member.memberId());
 					resource.removeMember(member);
 				}
 				for(DelegatedResourceSnapshot member:PersistentResourceState.this.newMembers.values()) {
 					Resource addedResource = resource.addMember(member.resourceId());
+					this.changes.add(resource.id(),"member",member.resourceId());
 					member.setDelegate(addedResource);
 				}
 			}
@@ -329,6 +343,7 @@ abstract class PersistencyState {
 		private final Map<String,DelegatedAttachmentSnapshot> deletedAttachments;
 		private final Map<ResourceId,DelegatedResourceSnapshot> newMembers;
 		private final Map<ResourceId,DelegatedResourceSnapshot> deletedMembers;
+		private ContentDigest stateChanges;
 
 		private PersistentResourceState(Resource delegate, ResourceTemplate template, AttachmentSnapshotCollection attachmentRepository, MemberCollection memberRepository) {
 			super(delegate.id(),template,attachmentRepository,memberRepository);
@@ -421,13 +436,19 @@ abstract class PersistencyState {
 
 		@Override
 		void saveChanges(final DelegatedResourceSnapshot ctx) {
-			delegate(ctx).accept(new ResourceSaver());
+			this.stateChanges=ContentDigest.create();
+			delegate(ctx).accept(new ResourceSaver(this.stateChanges));
 			this.deletedAttachments.clear();
 			this.newAttachments.clear();
 			this.deletedMembers.clear();
 			this.newMembers.clear();
 		}
 
+		@Override
+		ContentDigest stateChanges() {
+			return this.stateChanges;
+		}
+
 		@Override
 		protected void toString(ToStringHelper helper) {
 			super.toString(helper);
@@ -621,6 +642,17 @@ abstract class PersistencyState {
 
 	abstract void saveChanges(DelegatedResourceSnapshot ctx);
 
+	/**
+	 * Get the digest of the changes of the server-managed state of the
+	 * resource applied when saving the changes of the session.
+	 *
+	 * @return the digest of the changes, or {@code null} if the changes are
+	 *         not known
+	 */
+	ContentDigest stateChanges() {
+		return null;
+	}
+
 	abstract boolean softDetach(DelegatedAttachmentSnapshot attachment, DelegatedResourceSnapshot delegatedResourceSnapshot);
 
 	abstract boolean softRemoveMember(DelegatedResourceSnapshot snapshot, DelegatedResourceSnapshot ctx);
@@ -30,10 +30,13 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 import java.net.URI;
 import java.util.Date;
-import java.util.UUID;
+import java.util.concurrent.ExecutionException;
 
+import org.ldp4j.application.data.DataSet;
 import org.ldp4j.application.engine.context.EntityTag;
+import org.ldp4j.application.ext.AsyncResourceHandler;
 import org.ldp4j.application.ext.ResourceHandler;
+import org.ldp4j.application.ext.UnknownResourceException;
 import org.ldp4j.application.kernel.endpoint.Endpoint;
 import org.ldp4j.application.kernel.endpoint.EndpointCreationException;
 import org.ldp4j.application.kernel.endpoint.EndpointManagementService;
@@ -52,6 +55,10 @@ import org.ldp4j.application.session.WriteSessionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+
 public final class WriteSessionService implements Service {
 
 	private static class WriteSessionServiceBuilder extends ServiceBuilder<WriteSessionService> {
@@ -82,12 +89,12 @@ public final class WriteSessionService implements Service {
 
 		@Override
 		public void visitNew(final DelegatedResourceSnapshot obj) {
-			createResource(obj.delegate(),this.lastModified,this.session.getDesiredPath(obj),this.session.getIndirectId(obj));
+			createResource(obj,this.lastModified,this.session.getDesiredPath(obj),this.session.getIndirectId(obj));
 		}
 
 		@Override
 		public void visitDirty(final DelegatedResourceSnapshot obj) {
-			modifyResource(obj.delegate(),this.lastModified);
+			modifyResource(obj,this.lastModified);
 		}
 
 		@Override
@@ -203,14 +210,97 @@ public final class WriteSessionService implements Service {
 	}
 
 	/**
-	 * TODO: Devise a mechanism for generating the entity tags using meaningful
-	 * information from the client
+	 * Retrieve the content of a resource from its handler, using the
+	 * asynchronous variant of the feature when the handler supports it. The
+	 * result is awaited, as the session is bound to the calling thread.
+	 */
+	private DataSet retrieveContent(final ResourceHandler handler, final ResourceSnapshot snapshot) throws UnknownResourceException {
+		if(!(handler instanceof AsyncResourceHandler)) {
+			return handler.get(snapshot);
+		}
+		final ListenableFuture<DataSet> future=((AsyncResourceHandler)handler).getAsync(snapshot);
+		if(future==null) {
+			throw new IllegalStateException("No future returned by handler "+handler.getClass().getName());
+		}
+		try {
+			return Uninterruptibles.getUninterruptibly(future);
+		} catch (final ExecutionException e) {
+			final Throwable cause=e.getCause();
+			Throwables.propagateIfInstanceOf(cause,UnknownResourceException.class);
+			throw Throwables.propagate(cause);
+		}
+	}
+
+	/**
+	 * Calculate the digest of the content that the handler of a resource
+	 * returns for it once the changes have been applied.
+	 * <br>
+	 * Handlers usually register the content of new resources once the
+	 * session has been saved, so if the content of a resource is not
+	 * available the entity tag is derived just from its server-managed state.
+	 * This is only expected for new resources, so it is reported otherwise.
+	 * Failures of the handler are reported too, but do not prevent the
+	 * changes of the session, which the application has already applied,
+	 * from being committed.
+	 */
+	private ContentDigest digestContent(final DelegatedResourceSnapshot snapshot, final boolean created) {
+		final Resource resource=snapshot.delegate();
+		final ResourceHandler handler=this.templateManagementService.getHandler(snapshot.handlerClass());
+		final ContentDigest digest=ContentDigest.create();
+		try {
+			final DataSet content=retrieveContent(handler,snapshot);
+			if(content!=null) {
+				digest.addDataSet(content);
+			}
+		} catch (final UnknownResourceException e) {
+			if(created) {
+				LOGGER.debug("Content of new resource {} is not available yet. Deriving entity tag from its server-managed state",resource.id());
+			} else {
+				LOGGER.warn("Could not retrieve the content of resource {}. Deriving entity tag from its server-managed state",resource.id(),e);
+			}
+		} catch (final RuntimeException e) {
+			LOGGER.warn("Handler failed to retrieve the content of resource {}. Deriving entity tag from its server-managed state",resource.id(),e);
+		}
+		return digest;
+	}
+
+	/**
+	 * Derive the entity tag of a resource from the content that its handler
+	 * returns for it once the changes have been applied, so that equal
+	 * representations always get the same entity tag. The handler is only
+	 * asked for the content of the resources that have been created or
+	 * modified by the application: if just the server-managed state of the
+	 * resource has changed, the digest of the content is recovered from the
+	 * previous entity tag. The digest of the server-managed state of the
+	 * resource (i.e., attachments and members) is updated with the changes
+	 * applied by the session when the digest of the previous state is
+	 * available, and only computed from scratch otherwise.
 	 */
-	private EntityTag generateEntityTag(final Resource resource) { // NOSONAR
-		return EntityTag.createStrong(UUID.randomUUID().toString());
+	private EntityTag generateEntityTag(final DelegatedResourceSnapshot snapshot, final EntityTag previous, final boolean created) {
+		final Resource resource=snapshot.delegate();
+		ContentDigest digest=null;
+		if(!created && !snapshot.isContentModified()) {
+			digest=ContentDigest.contentOf(previous);
+		}
+		if(digest==null) {
+			digest=digestContent(snapshot,created);
+		}
+		ContentDigest state=null;
+		final ContentDigest changes=snapshot.stateChanges();
+		if(changes!=null) {
+			state=ContentDigest.stateOf(previous);
+		}
+		if(state!=null) {
+			state.merge(changes);
+		} else {
+			LOGGER.trace("Computing digest of the state of resource {} from scratch",resource.id());
+			state=ContentDigest.create().addResource(resource);
+		}
+		return digest.toEntityTag(state);
 	}
 
-	private void createResource(final Resource resource, final Date lastModified, final String relativePath, final URI indirectId) {
+	private void createResource(final DelegatedResourceSnapshot snapshot, final Date lastModified, final String relativePath, final URI indirectId) {
+		final Resource resource=snapshot.delegate();
 		try {
 			resource.setIndirectId(indirectId);
 			this.resourceRepository.add(resource);
@@ -219,7 +309,7 @@ public final class WriteSessionService implements Service {
 					createEndpointForResource(
 						resource,
 						relativePath,
-						generateEntityTag(resource),
+						generateEntityTag(snapshot,null,true),
 						lastModified);
 			if(LOGGER.isTraceEnabled()) {
 				LOGGER.trace("Created "+resource);
@@ -230,13 +320,18 @@ public final class WriteSessionService implements Service {
 		}
 	}
 
-	private void modifyResource(final Resource resource, final Date lastModified) {
+	private void modifyResource(final DelegatedResourceSnapshot snapshot, final Date lastModified) {
+		final Resource resource=snapshot.delegate();
 		try {
+			final EntityTag previous=
+				this.endpointManagementService.
+					getResourceEndpoint(resource.id()).
+						entityTag();
 			final Endpoint endpoint =
 				this.endpointManagementService.
 					modifyResourceEndpoint(
 						resource,
-						generateEntityTag(resource),
+						generateEntityTag(snapshot,previous,false),
 						lastModified);
 			if(LOGGER.isTraceEnabled()) {
 				LOGGER.trace("Modified "+resource);
@@ -0,0 +1,172 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-kernel-core:0.2.2
+ *   Bundle      : ldp4j-application-kernel-core-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.constraints;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.startsWith;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.ldp4j.application.data.constraints.Constraints;
+import org.ldp4j.application.engine.context.HttpRequest;
+import org.ldp4j.application.engine.context.HttpRequest.HttpMethod;
+import org.ldp4j.application.kernel.constraints.ConstraintReportPolicy.BodyRetention;
+import org.ldp4j.application.sdk.HttpRequestBuilder;
+
+public class ConstraintReportPolicyTest {
+
+	private static final String BODY="0123456789";
+
+	private HttpRequest request() {
+		return
+			HttpRequestBuilder.
+				newInstance().
+					withMethod(HttpMethod.PUT).
+					withHost("www.example.org").
+					withAbsolutePath("service/resource/").
+					withBody(BODY).
+					withHeader("accept","text/turtle").
+					build();
+	}
+
+	private ConstraintReport report(final Date date) {
+		return new ConstraintReport() {
+			@Override
+			public ConstraintReportId id() {
+				return null;
+			}
+			@Override
+			public Date getDate() {
+				return date;
+			}
+			@Override
+			public HttpRequest getRequest() {
+				return null;
+			}
+			@Override
+			public Constraints getConstraints() {
+				return null;
+			}
+		};
+	}
+
+	private ConstraintReportPolicy policy(BodyRetention retention, int maxBodySize) {
+		return ConstraintReportPolicy.create(10,1,TimeUnit.MINUTES,retention,maxBodySize);
+	}
+
+	private void verifyRequestIsPreserved(HttpRequest original, HttpRequest retained) {
+		assertThat(retained.method(),equalTo(original.method()));
+		assertThat(retained.host(),equalTo(original.host()));
+		assertThat(retained.absolutePath(),equalTo(original.absolutePath()));
+		assertThat(retained.headers(),hasSize(original.headers().size()));
+	}
+
+	@Test
+	public void fullRetentionKeepsRequest() throws Exception {
+		HttpRequest request=request();
+		assertThat(policy(BodyRetention.FULL,4).retain(request),sameInstance(request));
+	}
+
+	@Test
+	public void truncatedRetentionKeepsSmallBodies() throws Exception {
+		HttpRequest request=request();
+		assertThat(policy(BodyRetention.TRUNCATED,BODY.length()).retain(request),sameInstance(request));
+	}
+
+	@Test
+	public void truncatedRetentionTruncatesLargeBodies() throws Exception {
+		HttpRequest request=request();
+		HttpRequest retained=policy(BodyRetention.TRUNCATED,4).retain(request);
+		assertThat(retained.body(),equalTo("0123"));
+		verifyRequestIsPreserved(request,retained);
+	}
+
+	@Test
+	public void digestRetentionReplacesBody() throws Exception {
+		HttpRequest request=request();
+		HttpRequest retained=policy(BodyRetention.DIGEST,4).retain(request);
+		assertThat(retained.body(),startsWith("sha-256:"));
+		assertThat(retained.body(),not(equalTo(BODY)));
+		assertThat(retained.body(),equalTo(policy(BodyRetention.DIGEST,4).retain(request()).body()));
+		verifyRequestIsPreserved(request,retained);
+	}
+
+	@Test
+	public void noRetentionDropsBody() throws Exception {
+		HttpRequest request=request();
+		HttpRequest retained=policy(BodyRetention.NONE,4).retain(request);
+		assertThat(retained.body(),nullValue());
+		verifyRequestIsPreserved(request,retained);
+	}
+
+	@Test
+	public void reportsExpireAfterTimeToLive() throws Exception {
+		long now=System.currentTimeMillis();
+		long timeToLive=TimeUnit.MINUTES.toMillis(1);
+		ConstraintReportPolicy policy=policy(BodyRetention.FULL,4);
+		assertThat(policy.isExpired(report(new Date(now-timeToLive)),now),equalTo(false));
+		assertThat(policy.isExpired(report(new Date(now-timeToLive-1)),now),equalTo(true));
+	}
+
+	@Test
+	public void timeIsTakenFromTheClockOfThePolicy() throws Exception {
+		ConstraintReportPolicy policy=
+			policy(BodyRetention.FULL,4).
+				withClock(
+					new ConstraintReportPolicy.Clock() {
+						@Override
+						public long currentTimeMillis() {
+							return 1000;
+						}
+					});
+		assertThat(policy.now(),equalTo(1000L));
+		assertThat(policy.maxBodySize(),equalTo(4));
+		assertThat(policy.bodyRetention(),equalTo(BodyRetention.FULL));
+	}
+
+	@Test
+	public void invalidSystemPropertiesAreIgnored() throws Exception {
+		System.setProperty(ConstraintReportPolicy.MAX_REPORTS,"-1");
+		System.setProperty(ConstraintReportPolicy.BODY_RETENTION,"digest");
+		try {
+			ConstraintReportPolicy policy=ConstraintReportPolicy.fromSystemProperties();
+			assertThat(policy.maxReports(),equalTo(1024));
+			assertThat(policy.bodyRetention(),equalTo(BodyRetention.DIGEST));
+		} finally {
+			System.clearProperty(ConstraintReportPolicy.MAX_REPORTS);
+			System.clearProperty(ConstraintReportPolicy.BODY_RETENTION);
+		}
+	}
+
+}
@@ -0,0 +1,397 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-kernel-core:0.2.2
+ *   Bundle      : ldp4j-application-kernel-core-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.engine;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.junit.Assert.fail;
+import static org.ldp4j.application.kernel.engine.MetadataFixture.*;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.ldp4j.application.data.DataSet;
+import org.ldp4j.application.data.DataSets;
+import org.ldp4j.application.data.ExternalIndividual;
+import org.ldp4j.application.data.Individual;
+import org.ldp4j.application.data.Literals;
+import org.ldp4j.application.data.ManagedIndividual;
+import org.ldp4j.application.data.ManagedIndividualId;
+import org.ldp4j.application.data.Name;
+import org.ldp4j.application.data.Property;
+import org.ldp4j.application.data.Value;
+import org.ldp4j.application.data.constraints.Constraints;
+import org.ldp4j.application.data.constraints.Constraints.PropertyConstraint;
+import org.ldp4j.application.data.constraints.Constraints.Shape;
+import org.ldp4j.application.engine.ApplicationEngine;
+import org.ldp4j.application.engine.context.ApplicationContext;
+import org.ldp4j.application.engine.context.ApplicationContextOperation;
+import org.ldp4j.application.engine.context.ApplicationExecutionException;
+import org.ldp4j.application.engine.context.ContentPreferences;
+import org.ldp4j.application.engine.context.HttpRequest.HttpMethod;
+import org.ldp4j.application.engine.context.PublicResource;
+import org.ldp4j.application.ext.InconsistentContentException;
+import org.ldp4j.application.sdk.HttpRequestBuilder;
+import org.ldp4j.application.vocabulary.LDP;
+import org.ldp4j.application.vocabulary.RDF;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+public class DefaultExistingPublicResourceTest {
+
+	private static final String CONTEXT_PATH="/ldp4j";
+
+	private static ApplicationEngine engine;
+	private static ApplicationContext context;
+
+	@BeforeClass
+	public static void setUpBefore() throws Exception {
+		File temporalDirectory=Files.createTempDirectory("ldp4j-kernel").toFile();
+		engine=
+			ApplicationEngine.
+				engine().
+					withContextPath(CONTEXT_PATH).
+					withTemporalDirectory(temporalDirectory);
+		engine.start();
+		context=engine.load(MetadataApplication.class.getName());
+	}
+
+	@AfterClass
+	public static void tearDownAfter() throws Exception {
+		engine.dispose(context);
+		engine.shutdown();
+	}
+
+	private static ApplicationContextOperation operation(HttpMethod method, String path) {
+		return
+			context.
+				createOperation(
+					HttpRequestBuilder.
+						newInstance().
+							withMethod(method).
+							withHost("localhost:8080").
+							withAbsolutePath(CONTEXT_PATH+"/"+path).
+							build());
+	}
+
+	private static void patch(String path, DataSet additions, DataSet removals) throws ApplicationExecutionException {
+		ApplicationContextOperation operation=operation(HttpMethod.PATCH,path);
+		try {
+			operation.findResource(path).patch(additions,removals);
+		} finally {
+			operation.dispose();
+		}
+	}
+
+	private static Constraints verifyPatchRejected(String path, DataSet additions, DataSet removals) {
+		try {
+			patch(path,additions,removals);
+			fail("The patch should have been rejected");
+			return null;
+		} catch (ApplicationExecutionException e) {
+			assertThat(e.getCause(),instanceOf(InconsistentContentException.class));
+			return ((InconsistentContentException)e.getCause()).getConstraints();
+		}
+	}
+
+	private static List<URI> constrainedPredicates(Constraints constraints, DataSet changes, ManagedIndividualId id) {
+		Shape shape=constraints.nodeShape(changes.individualOfId(id));
+		assertThat(shape,notNullValue());
+		List<URI> predicates=Lists.newArrayList();
+		for(PropertyConstraint constraint:shape.propertyConstraints()) {
+			predicates.add(constraint.predicate());
+		}
+		return predicates;
+	}
+
+	private static DataSet representation(String path) throws ApplicationExecutionException {
+		ApplicationContextOperation operation=operation(HttpMethod.GET,path);
+		try {
+			return operation.findResource(path).entity(ContentPreferences.defaultPreferences());
+		} finally {
+			operation.dispose();
+		}
+	}
+
+	private static void put(String path, DataSet dataSet) throws ApplicationExecutionException {
+		ApplicationContextOperation operation=operation(HttpMethod.PUT,path);
+		try {
+			operation.findResource(path).modify(dataSet);
+		} finally {
+			operation.dispose();
+		}
+	}
+
+	private static void verifyPutRejected(String path, DataSet dataSet) {
+		try {
+			put(path,dataSet);
+			fail("The representation should have been rejected");
+		} catch (ApplicationExecutionException e) {
+			assertThat(e.getCause(),instanceOf(InconsistentContentException.class));
+		}
+	}
+
+	private static boolean hasValues(DataSet dataSet, ManagedIndividualId id, URI predicate) {
+		Individual<?,?> individual=dataSet.individualOfId(id);
+		if(individual==null) {
+			return false;
+		}
+		Property property=individual.property(predicate);
+		return property!=null && property.hasValues();
+	}
+
+	private static void removeValues(DataSet dataSet, ManagedIndividualId id, URI predicate) {
+		Individual<?,?> individual=dataSet.individualOfId(id);
+		for(Value value:ImmutableList.copyOf(individual.property(predicate))) {
+			individual.removeValue(predicate,value);
+		}
+	}
+
+	private static DataSet lastUpdate(Class<? extends StoreHandler> handlerClass) {
+		List<DataSet> updates=MetadataApplication.handler(handlerClass).updates();
+		return updates.get(updates.size()-1);
+	}
+
+	/**
+	 * Verify that a representation that echoes the managed triples is
+	 * accepted, and that the triples are not handed to the application.
+	 */
+	private static void verifyEchoedTriplesAccepted(String path, Class<? extends StoreHandler> handlerClass, ManagedIndividualId id, URI predicate) throws Exception {
+		DataSet representation=representation(path);
+		assertThat(hasValues(representation,id,predicate),equalTo(true));
+		put(path,representation);
+		assertThat(hasValues(lastUpdate(handlerClass),id,predicate),equalTo(false));
+	}
+
+	private static void verifyOmittedTriplesAccepted(String path, ManagedIndividualId id, URI predicate) throws Exception {
+		DataSet representation=representation(path);
+		removeValues(representation,id,predicate);
+		put(path,representation);
+	}
+
+	private static void verifyAddedTriplesRejected(String path, ManagedIndividualId id, URI predicate, ManagedIndividualId value) throws Exception {
+		DataSet representation=representation(path);
+		individual(representation,id).addValue(predicate,individual(representation,value));
+		verifyPutRejected(path,representation);
+	}
+
+	private static DataSet emptyDataSet() {
+		return DataSets.createDataSet(PARENT);
+	}
+
+	static ManagedIndividualId id(Name<?> name, String templateId) {
+		return ManagedIndividualId.createId(name,templateId);
+	}
+
+	static Individual<?,?> individual(DataSet dataSet, ManagedIndividualId id) {
+		return dataSet.individual(id,ManagedIndividual.class);
+	}
+
+	@Test
+	public void patchAppliesChangesToApplicationData() throws Exception {
+		DataSet additions=emptyDataSet();
+		individual(additions,id(PARENT,"parent")).addValue(LABEL,Literals.newLiteral("new label"));
+		DataSet removals=emptyDataSet();
+		individual(removals,id(PARENT,"parent")).addValue(LABEL,Literals.newLiteral("old label"));
+
+		int before=MetadataApplication.handler(ParentHandler.class).additions().size();
+		patch(PARENT_PATH,additions,removals);
+
+		assertThat(MetadataApplication.handler(ParentHandler.class).additions().size(),equalTo(before+1));
+		DataSet received=MetadataApplication.handler(ParentHandler.class).additions().get(before);
+		Individual<?,?> parent=received.individualOfId(id(PARENT,"parent"));
+		assertThat(parent,notNullValue());
+		assertThat(parent.property(LABEL).hasLiteralValue(Literals.newLiteral("new label")),equalTo(true));
+	}
+
+	@Test
+	public void putOnBasicContainerAcceptsEchoedContainmentTriples() throws Exception {
+		verifyEchoedTriplesAccepted(BASIC_PATH,BasicHandler.class,id(BASIC,"basic"),LDP.CONTAINS.as(URI.class));
+	}
+
+	@Test
+	public void putOnBasicContainerAcceptsOmittedContainmentTriples() throws Exception {
+		verifyOmittedTriplesAccepted(BASIC_PATH,id(BASIC,"basic"),LDP.CONTAINS.as(URI.class));
+	}
+
+	@Test
+	public void putOnBasicContainerRejectsBogusContainmentTriples() throws Exception {
+		verifyAddedTriplesRejected(BASIC_PATH,id(BASIC,"basic"),LDP.CONTAINS.as(URI.class),id(OUTSIDER,"member"));
+	}
+
+	@Test
+	public void putOnDirectContainerAcceptsEchoedContainmentTriples() throws Exception {
+		verifyEchoedTriplesAccepted(DIRECT_PATH,DirectHandler.class,id(DIRECT,"direct"),LDP.CONTAINS.as(URI.class));
+	}
+
+	@Test
+	public void putOnDirectContainerAcceptsEchoedMembershipTriples() throws Exception {
+		verifyEchoedTriplesAccepted(DIRECT_PATH,DirectHandler.class,id(PARENT,"parent"),HAS_MEMBER);
+	}
+
+	@Test
+	public void putOnDirectContainerAcceptsOmittedTriples() throws Exception {
+		DataSet representation=representation(DIRECT_PATH);
+		removeValues(representation,id(DIRECT,"direct"),LDP.CONTAINS.as(URI.class));
+		removeValues(representation,id(PARENT,"parent"),HAS_MEMBER);
+		put(DIRECT_PATH,representation);
+	}
+
+	@Test
+	public void putOnDirectContainerRejectsBogusContainmentTriples() throws Exception {
+		verifyAddedTriplesRejected(DIRECT_PATH,id(DIRECT,"direct"),LDP.CONTAINS.as(URI.class),id(OUTSIDER,"member"));
+	}
+
+	@Test
+	public void putOnDirectContainerRejectsBogusHasMemberTriples() throws Exception {
+		verifyAddedTriplesRejected(DIRECT_PATH,id(PARENT,"parent"),HAS_MEMBER,id(OUTSIDER,"member"));
+	}
+
+	@Test
+	public void putOnIndirectContainerAcceptsEchoedContainmentTriples() throws Exception {
+		verifyEchoedTriplesAccepted(INDIRECT_PATH,IndirectHandler.class,id(INDIRECT,"indirect"),LDP.CONTAINS.as(URI.class));
+	}
+
+	@Test
+	public void putOnIndirectContainerAcceptsEchoedMembershipTriples() throws Exception {
+		verifyEchoedTriplesAccepted(INDIRECT_PATH,IndirectHandler.class,id(PARENT,"parent"),HAS_TOPIC);
+	}
+
+	@Test
+	public void putOnIndirectContainerAcceptsOmittedTriples() throws Exception {
+		DataSet representation=representation(INDIRECT_PATH);
+		removeValues(representation,id(INDIRECT,"indirect"),LDP.CONTAINS.as(URI.class));
+		removeValues(representation,id(PARENT,"parent"),HAS_TOPIC);
+		put(INDIRECT_PATH,representation);
+	}
+
+	@Test
+	public void putOnIndirectContainerRejectsBogusContainmentTriples() throws Exception {
+		verifyAddedTriplesRejected(INDIRECT_PATH,id(INDIRECT,"indirect"),LDP.CONTAINS.as(URI.class),id(OUTSIDER,"member"));
+	}
+
+	@Test
+	public void putOnIndirectContainerRejectsBogusHasMemberTriples() throws Exception {
+		verifyAddedTriplesRejected(INDIRECT_PATH,id(PARENT,"parent"),HAS_TOPIC,id(OUTSIDER,"member"));
+	}
+
+	@Test
+	public void putOnMembershipResourceAcceptsEchoedMembershipTriples() throws Exception {
+		verifyEchoedTriplesAccepted(PARENT_PATH,ParentHandler.class,id(PARENT,"parent"),HAS_MEMBER);
+		verifyEchoedTriplesAccepted(PARENT_PATH,ParentHandler.class,id(PARENT,"parent"),HAS_TOPIC);
+		verifyEchoedTriplesAccepted(PARENT_PATH,ParentHandler.class,id(INVERSE_MEMBER,"member"),IS_MEMBER_OF);
+	}
+
+	@Test
+	public void putOnMembershipResourceAcceptsOmittedMembershipTriples() throws Exception {
+		DataSet representation=representation(PARENT_PATH);
+		removeValues(representation,id(PARENT,"parent"),HAS_MEMBER);
+		removeValues(representation,id(PARENT,"parent"),HAS_TOPIC);
+		removeValues(representation,id(INVERSE_MEMBER,"member"),IS_MEMBER_OF);
+		put(PARENT_PATH,representation);
+	}
+
+	@Test
+	public void putOnMembershipResourceRejectsBogusHasMemberTriples() throws Exception {
+		verifyAddedTriplesRejected(PARENT_PATH,id(PARENT,"parent"),HAS_MEMBER,id(OUTSIDER,"member"));
+		verifyAddedTriplesRejected(PARENT_PATH,id(PARENT,"parent"),HAS_TOPIC,id(OUTSIDER,"member"));
+	}
+
+	@Test
+	public void putOnMembershipResourceRejectsBogusIsMemberOfTriples() throws Exception {
+		verifyAddedTriplesRejected(PARENT_PATH,id(OUTSIDER,"member"),IS_MEMBER_OF,id(PARENT,"parent"));
+	}
+
+	@Test
+	public void putOnMembershipResourceRejectsBogusIsMemberOfTriplesWithoutMembers() throws Exception {
+		DataSet representation=representation(PARENT_PATH);
+		removeValues(representation,id(INVERSE_MEMBER,"member"),IS_MEMBER_OF);
+		individual(representation,id(OUTSIDER,"member")).addValue(IS_MEMBER_OF,individual(representation,id(PARENT,"parent")));
+		verifyPutRejected(PARENT_PATH,representation);
+	}
+
+	@Test
+	public void patchCannotAddContainmentTriples() throws Exception {
+		DataSet additions=emptyDataSet();
+		individual(additions,id(BASIC,"basic")).addValue(LDP.CONTAINS.as(URI.class),individual(additions,id(OUTSIDER,"member")));
+		Constraints constraints=verifyPatchRejected(BASIC_PATH,additions,emptyDataSet());
+		assertThat(constrainedPredicates(constraints,additions,id(BASIC,"basic")),contains(LDP.CONTAINS.as(URI.class)));
+	}
+
+	@Test
+	public void patchCannotRemoveContainmentTriples() throws Exception {
+		DataSet removals=emptyDataSet();
+		individual(removals,id(BASIC,"basic")).addValue(LDP.CONTAINS.as(URI.class),individual(removals,id(BASIC_MEMBER,"member")));
+		verifyPatchRejected(BASIC_PATH,emptyDataSet(),removals);
+	}
+
+	@Test
+	public void patchCannotAddHasMemberTriples() throws Exception {
+		DataSet additions=emptyDataSet();
+		individual(additions,id(PARENT,"parent")).addValue(HAS_MEMBER,individual(additions,id(OUTSIDER,"member")));
+		verifyPatchRejected(PARENT_PATH,additions,emptyDataSet());
+	}
+
+	@Test
+	public void patchCannotRemoveHasMemberTriples() throws Exception {
+		DataSet removals=emptyDataSet();
+		individual(removals,id(PARENT,"parent")).addValue(HAS_MEMBER,individual(removals,id(DIRECT_MEMBER,"member")));
+		verifyPatchRejected(PARENT_PATH,emptyDataSet(),removals);
+	}
+
+	@Test
+	public void patchCannotAddIsMemberOfTriples() throws Exception {
+		DataSet additions=emptyDataSet();
+		individual(additions,id(OUTSIDER,"member")).addValue(IS_MEMBER_OF,individual(additions,id(PARENT,"parent")));
+		verifyPatchRejected(PARENT_PATH,additions,emptyDataSet());
+	}
+
+	@Test
+	public void patchCannotChangeTheMembershipConfiguration() throws Exception {
+		DataSet additions=emptyDataSet();
+		individual(additions,id(DIRECT,"direct")).addValue(LDP.HAS_MEMBER_RELATION.as(URI.class),individual(additions,id(OUTSIDER,"member")));
+		verifyPatchRejected(DIRECT_PATH,additions,emptyDataSet());
+	}
+
+	@Test
+	public void patchCannotRemoveManagedTypes() throws Exception {
+		DataSet removals=emptyDataSet();
+		individual(removals,id(PARENT,"parent")).addValue(RDF.TYPE.as(URI.class),removals.individual(LDP.RDF_SOURCE.as(URI.class),ExternalIndividual.class));
+		Constraints constraints=verifyPatchRejected(PARENT_PATH,emptyDataSet(),removals);
+		assertThat(constrainedPredicates(constraints,removals,id(PARENT,"parent")),contains(RDF.TYPE.as(URI.class)));
+	}
+
+}
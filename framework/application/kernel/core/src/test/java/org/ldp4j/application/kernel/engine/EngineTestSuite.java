@@ -33,6 +33,7 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(Suite.class)
 @SuiteClasses({
 	CoreRuntimeDelegateTest.class,
+	DefaultExistingPublicResourceTest.class,
 })
 public class EngineTestSuite {
 
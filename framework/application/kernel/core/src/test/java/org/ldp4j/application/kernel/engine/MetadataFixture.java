@@ -0,0 +1,266 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-kernel-core:0.2.2
+ *   Bundle      : ldp4j-application-kernel-core-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.engine;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.ldp4j.application.data.DataSet;
+import org.ldp4j.application.data.DataSets;
+import org.ldp4j.application.data.Name;
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.application.ext.Application;
+import org.ldp4j.application.ext.ApplicationInitializationException;
+import org.ldp4j.application.ext.ApplicationRuntimeException;
+import org.ldp4j.application.ext.ApplicationSetupException;
+import org.ldp4j.application.ext.Configuration;
+import org.ldp4j.application.ext.ContainerHandler;
+import org.ldp4j.application.ext.Modifiable;
+import org.ldp4j.application.ext.Patchable;
+import org.ldp4j.application.ext.ResourceHandler;
+import org.ldp4j.application.ext.annotations.Attachment;
+import org.ldp4j.application.ext.annotations.BasicContainer;
+import org.ldp4j.application.ext.annotations.DirectContainer;
+import org.ldp4j.application.ext.annotations.IndirectContainer;
+import org.ldp4j.application.ext.annotations.MembershipRelation;
+import org.ldp4j.application.ext.annotations.Resource;
+import org.ldp4j.application.session.ContainerSnapshot;
+import org.ldp4j.application.session.ResourceSnapshot;
+import org.ldp4j.application.session.WriteSession;
+import org.ldp4j.application.session.WriteSessionException;
+import org.ldp4j.application.setup.Bootstrap;
+import org.ldp4j.application.setup.Environment;
+
+/**
+ * Application used for verifying the validation of the framework/protocol
+ * managed metadata. A root resource has a basic, a direct, an indirect and an
+ * inverse (direct, using {@code isMemberOf}) container attached, and each of
+ * the containers has a single member. An additional root resource that is
+ * not a member of any container is published too.
+ */
+public class MetadataFixture {
+
+	public static final String VOCABULARY="http://www.ldp4j.org/vocabularies/test#";
+
+	public static final URI HAS_MEMBER=URI.create(VOCABULARY+"hasMember");
+	public static final URI HAS_TOPIC=URI.create(VOCABULARY+"hasTopic");
+	public static final URI IS_MEMBER_OF=URI.create(VOCABULARY+"isMemberOf");
+	public static final URI TOPIC=URI.create(VOCABULARY+"topic");
+	public static final URI LABEL=URI.create(VOCABULARY+"label");
+
+	public static final String PARENT_PATH="parent/";
+	public static final String OUTSIDER_PATH="outsider/";
+	public static final String BASIC_PATH=PARENT_PATH+"basic/";
+	public static final String DIRECT_PATH=PARENT_PATH+"direct/";
+	public static final String INDIRECT_PATH=PARENT_PATH+"indirect/";
+	public static final String INVERSE_PATH=PARENT_PATH+"inverse/";
+
+	public static final Name<String> PARENT=name("parent");
+	public static final Name<String> OUTSIDER=name("outsider");
+	public static final Name<String> BASIC=name("basic");
+	public static final Name<String> DIRECT=name("direct");
+	public static final Name<String> INDIRECT=name("indirect");
+	public static final Name<String> INVERSE=name("inverse");
+	public static final Name<String> BASIC_MEMBER=name("basicMember");
+	public static final Name<String> DIRECT_MEMBER=name("directMember");
+	public static final Name<String> INDIRECT_MEMBER=name("indirectMember");
+	public static final Name<String> INVERSE_MEMBER=name("inverseMember");
+
+	/**
+	 * Keeps the last state of each resource and the changes received.
+	 */
+	public static class StoreHandler implements ResourceHandler, Modifiable, Patchable {
+
+		private final Map<Name<?>,DataSet> resources=new ConcurrentHashMap<Name<?>,DataSet>();
+		private final List<DataSet> updates=new CopyOnWriteArrayList<DataSet>();
+		private final List<DataSet> additions=new CopyOnWriteArrayList<DataSet>();
+		private final List<DataSet> removals=new CopyOnWriteArrayList<DataSet>();
+
+		@Override
+		public DataSet get(ResourceSnapshot resource) {
+			DataSet dataSet=this.resources.get(resource.name());
+			if(dataSet==null) {
+				dataSet=DataSets.createDataSet(resource.name());
+			}
+			return dataSet;
+		}
+
+		@Override
+		public void update(ResourceSnapshot resource, DataSet content, WriteSession session) {
+			this.resources.put(resource.name(),content);
+			this.updates.add(content);
+			session.modify(resource);
+			saveChanges(session);
+		}
+
+		@Override
+		public void patch(ResourceSnapshot resource, DataSet additions, DataSet removals, WriteSession session) {
+			this.additions.add(additions);
+			this.removals.add(removals);
+			session.modify(resource);
+			saveChanges(session);
+		}
+
+		public final List<DataSet> updates() {
+			return this.updates;
+		}
+
+		public final List<DataSet> additions() {
+			return this.additions;
+		}
+
+		public final List<DataSet> removals() {
+			return this.removals;
+		}
+
+		protected static void saveChanges(WriteSession session) {
+			try {
+				session.saveChanges();
+			} catch (WriteSessionException e) {
+				throw new ApplicationRuntimeException("Could not save changes",e);
+			}
+		}
+
+	}
+
+	public static class StoreContainerHandler extends StoreHandler implements ContainerHandler {
+
+		@Override
+		public ResourceSnapshot create(ContainerSnapshot container, DataSet representation, WriteSession session) {
+			throw new ApplicationRuntimeException("Members cannot be created");
+		}
+
+	}
+
+	@Resource(id="member")
+	public static class MemberHandler extends StoreHandler {
+	}
+
+	@Resource(
+		id="parent",
+		attachments={
+			@Attachment(id="basic",path="basic",handler=BasicHandler.class),
+			@Attachment(id="direct",path="direct",handler=DirectHandler.class),
+			@Attachment(id="indirect",path="indirect",handler=IndirectHandler.class),
+			@Attachment(id="inverse",path="inverse",handler=InverseHandler.class)
+		}
+	)
+	public static class ParentHandler extends StoreHandler {
+	}
+
+	@BasicContainer(
+		id="basic",
+		memberHandler=MemberHandler.class
+	)
+	public static class BasicHandler extends StoreContainerHandler {
+	}
+
+	@DirectContainer(
+		id="direct",
+		memberHandler=MemberHandler.class,
+		membershipRelation=MembershipRelation.HAS_MEMBER,
+		membershipPredicate=VOCABULARY+"hasMember"
+	)
+	public static class DirectHandler extends StoreContainerHandler {
+	}
+
+	@IndirectContainer(
+		id="indirect",
+		memberHandler=MemberHandler.class,
+		membershipRelation=MembershipRelation.HAS_MEMBER,
+		membershipPredicate=VOCABULARY+"hasTopic",
+		insertedContentRelation=VOCABULARY+"topic"
+	)
+	public static class IndirectHandler extends StoreContainerHandler {
+	}
+
+	@DirectContainer(
+		id="inverse",
+		memberHandler=MemberHandler.class,
+		membershipRelation=MembershipRelation.IS_MEMBER_OF,
+		membershipPredicate=VOCABULARY+"isMemberOf"
+	)
+	public static class InverseHandler extends StoreContainerHandler {
+	}
+
+	public static class MetadataApplication extends Application<Configuration> {
+
+		private static final Map<Class<?>,StoreHandler> HANDLERS=new ConcurrentHashMap<Class<?>,StoreHandler>();
+
+		private static void addHandler(Bootstrap<Configuration> bootstrap, StoreHandler handler) {
+			HANDLERS.put(handler.getClass(),handler);
+			bootstrap.addHandler(handler);
+		}
+
+		@Override
+		public void setup(Environment environment, Bootstrap<Configuration> bootstrap) throws ApplicationSetupException {
+			addHandler(bootstrap,new ParentHandler());
+			addHandler(bootstrap,new MemberHandler());
+			addHandler(bootstrap,new BasicHandler());
+			addHandler(bootstrap,new DirectHandler());
+			addHandler(bootstrap,new IndirectHandler());
+			addHandler(bootstrap,new InverseHandler());
+			environment.publishResource(PARENT,ParentHandler.class,PARENT_PATH);
+			environment.publishResource(OUTSIDER,MemberHandler.class,OUTSIDER_PATH);
+		}
+
+		@Override
+		public void initialize(WriteSession session) throws ApplicationInitializationException {
+			ResourceSnapshot parent=session.find(ResourceSnapshot.class,PARENT,ParentHandler.class);
+			parent.createAttachedResource(ContainerSnapshot.class,"basic",BASIC,BasicHandler.class).addMember(BASIC_MEMBER);
+			parent.createAttachedResource(ContainerSnapshot.class,"direct",DIRECT,DirectHandler.class).addMember(DIRECT_MEMBER);
+			parent.createAttachedResource(ContainerSnapshot.class,"indirect",INDIRECT,IndirectHandler.class).addMember(INDIRECT_MEMBER);
+			parent.createAttachedResource(ContainerSnapshot.class,"inverse",INVERSE,InverseHandler.class).addMember(INVERSE_MEMBER);
+			try {
+				session.saveChanges();
+			} catch (WriteSessionException e) {
+				throw new ApplicationInitializationException("Could not initialize application",e);
+			}
+		}
+
+		@Override
+		public void shutdown() {
+			// Nothing to do
+		}
+
+		static <T extends StoreHandler> T handler(Class<T> handlerClass) {
+			return handlerClass.cast(HANDLERS.get(handlerClass));
+		}
+
+	}
+
+	private MetadataFixture() {
+	}
+
+	private static Name<String> name(String id) {
+		return NamingScheme.getDefault().name(id);
+	}
+
+}
@@ -29,6 +29,7 @@ package org.ldp4j.application.kernel.resource;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.fail;
 
 import java.util.Set;
@@ -45,6 +46,8 @@ import org.ldp4j.application.data.DataSets;
 import org.ldp4j.application.data.Name;
 import org.ldp4j.application.data.NamingScheme;
 import org.ldp4j.application.ext.ApplicationRuntimeException;
+import org.ldp4j.application.ext.AsyncModifiable;
+import org.ldp4j.application.ext.AsyncResourceHandler;
 import org.ldp4j.application.ext.ContainerHandler;
 import org.ldp4j.application.ext.Deletable;
 import org.ldp4j.application.ext.Modifiable;
@@ -61,6 +64,9 @@ import org.ldp4j.application.session.SnapshotVisitor;
 import org.ldp4j.application.session.WriteSession;
 import org.ldp4j.commons.testing.Utils;
 
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+
 @RunWith(JMockit.class)
 public class AdapterFactoryTest {
 
@@ -127,6 +133,31 @@ public class AdapterFactoryTest {
 
 	}
 
+	private static class AsyncHandler implements ResourceHandler, AsyncResourceHandler, AsyncModifiable {
+
+		private DataSet dataSet;
+
+		public AsyncHandler(DataSet dataSet) {
+			this.dataSet = dataSet;
+		}
+
+		@Override
+		public DataSet get(ResourceSnapshot resource) {
+			throw new IllegalStateException("Method should not be invoked");
+		}
+
+		@Override
+		public ListenableFuture<DataSet> getAsync(ResourceSnapshot resource) {
+			return Futures.immediateFuture(this.dataSet);
+		}
+
+		@Override
+		public ListenableFuture<Void> updateAsync(ResourceSnapshot resource, DataSet content, WriteSession session) {
+			return Futures.immediateFailedFuture(new ApplicationRuntimeException("Failure"));
+		}
+
+	}
+
 	private static class MockResourceSnapshot implements ResourceSnapshot {
 
 		private String templateId;
@@ -390,6 +421,25 @@ public class AdapterFactoryTest {
 		}
 	}
 
+	@Test
+	public void createdAdapterUsesAsynchronousGetIfAvailable(final @Mocked Resource resource, final @Mocked WriteSessionService service, final @Mocked WriteSessionConfiguration configuration, final @Mocked WriteSession session) throws Exception {
+		DataSet dataSet=DataSets.createDataSet(resourceName());
+		Adapter adapter=prepareAdapter(resource, service,configuration, new MockResourceSnapshot(), new AsyncHandler(dataSet),session);
+		assertThat(adapter.get(),sameInstance(dataSet));
+	}
+
+	@Test
+	public void createdAdapterFailsOnAsynchronousUpdateFailure(final @Mocked Resource resource, final @Mocked WriteSessionService service, final @Mocked WriteSessionConfiguration configuration, final @Mocked WriteSession session) throws Exception {
+		Adapter adapter=prepareAdapter(resource, service,configuration, new MockResourceSnapshot(), new AsyncHandler(null),session);
+		try {
+			adapter.update(null);
+			fail("Should fail if the asynchronous update fails");
+		} catch(FeatureException e) {
+			assertThat(e.getCause(),instanceOf(ApplicationRuntimeException.class));
+			verifyExpectedFeatureException(e, Modifiable.class, AsyncHandler.class, session);
+		}
+	}
+
 	private void verifyExpectedFeatureFailure(FeatureException failure, Class<?> featureClass, WriteSession session) {
 		assertThat(failure.getCause(),instanceOf(ApplicationRuntimeException.class));
 		verifyExpectedFeatureException(failure, featureClass, FailingHandler.class,session);
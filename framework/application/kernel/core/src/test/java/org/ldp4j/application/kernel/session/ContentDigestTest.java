@@ -0,0 +1,150 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-kernel-core:0.2.2
+ *   Bundle      : ldp4j-application-kernel-core-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.session;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.net.URI;
+
+import org.junit.Test;
+import org.ldp4j.application.data.DataSet;
+import org.ldp4j.application.data.DataSets;
+import org.ldp4j.application.data.ExternalIndividual;
+import org.ldp4j.application.data.Literals;
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.application.engine.context.EntityTag;
+
+public class ContentDigestTest {
+
+	private static final URI SUBJECT=URI.create("http://www.example.org/subject");
+	private static final URI OBJECT=URI.create("http://www.example.org/object");
+	private static final URI P1=URI.create("http://www.example.org/p1");
+	private static final URI P2=URI.create("http://www.example.org/p2");
+
+	private DataSet dataSet() {
+		return DataSets.createDataSet(NamingScheme.getDefault().name("dataSet"));
+	}
+
+	private EntityTag entityTag(final DataSet dataSet) {
+		return ContentDigest.create().addDataSet(dataSet).toEntityTag();
+	}
+
+	@Test
+	public void entityTagDoesNotDependOnInsertionOrder() throws Exception {
+		final DataSet first=dataSet();
+		final ExternalIndividual s1=first.individual(SUBJECT,ExternalIndividual.class);
+		s1.addValue(P1,Literals.of("value"));
+		s1.addValue(P2,first.individual(OBJECT,ExternalIndividual.class));
+
+		final DataSet second=dataSet();
+		second.individual(OBJECT,ExternalIndividual.class);
+		final ExternalIndividual s2=second.individual(SUBJECT,ExternalIndividual.class);
+		s2.addValue(P2,second.individual(OBJECT,ExternalIndividual.class));
+		s2.addValue(P1,Literals.of("value"));
+
+		assertThat(entityTag(first),equalTo(entityTag(second)));
+	}
+
+	@Test
+	public void entityTagDependsOnContent() throws Exception {
+		final DataSet first=dataSet();
+		first.individual(SUBJECT,ExternalIndividual.class).addValue(P1,Literals.of("value"));
+		final DataSet second=dataSet();
+		second.individual(SUBJECT,ExternalIndividual.class).addValue(P1,Literals.of("other"));
+		final DataSet third=dataSet();
+		third.individual(SUBJECT,ExternalIndividual.class).addValue(P2,Literals.of("value"));
+		assertThat(entityTag(first),not(equalTo(entityTag(second))));
+		assertThat(entityTag(first),not(equalTo(entityTag(third))));
+		assertThat(entityTag(second),not(equalTo(entityTag(third))));
+	}
+
+	@Test
+	public void entityTagDistinguishesLiteralDatatypes() throws Exception {
+		final DataSet first=dataSet();
+		first.individual(SUBJECT,ExternalIndividual.class).addValue(P1,Literals.of("1"));
+		final DataSet second=dataSet();
+		second.individual(SUBJECT,ExternalIndividual.class).addValue(P1,Literals.newLiteral(1));
+		assertThat(entityTag(first),not(equalTo(entityTag(second))));
+	}
+
+	@Test
+	public void entityTagCanBeUpdatedIncrementally() throws Exception {
+		final DataSet dataSet=dataSet();
+		dataSet.individual(SUBJECT,ExternalIndividual.class).addValue(P1,Literals.of("value"));
+		final EntityTag original=entityTag(dataSet);
+		final ContentDigest digest=
+			ContentDigest.create().
+				addDataSet(dataSet).
+				add(SUBJECT,P2,OBJECT);
+		assertThat(digest.toEntityTag(),not(equalTo(original)));
+		digest.remove(SUBJECT,P2,OBJECT);
+		assertThat(digest.toEntityTag(),equalTo(original));
+	}
+
+	@Test
+	public void stateCanBeRecoveredFromEntityTagAndUpdated() throws Exception {
+		final ContentDigest content=ContentDigest.create().add(SUBJECT,P1,"value");
+		final ContentDigest state=
+			ContentDigest.create().
+				add(SUBJECT,"member",OBJECT).
+				add(SUBJECT,"member",P1);
+		final EntityTag original=content.toEntityTag(state);
+		final ContentDigest changes=
+			ContentDigest.create().
+				remove(SUBJECT,"member",P1).
+				add(SUBJECT,"member",P2);
+		final ContentDigest updated=ContentDigest.stateOf(original).merge(changes);
+		final ContentDigest expected=
+			ContentDigest.create().
+				add(SUBJECT,"member",P2).
+				add(SUBJECT,"member",OBJECT);
+		assertThat(content.toEntityTag(updated),equalTo(content.toEntityTag(expected)));
+		assertThat(content.toEntityTag(updated),not(equalTo(original)));
+	}
+
+	@Test
+	public void contentCanBeRecoveredFromEntityTag() throws Exception {
+		final ContentDigest content=ContentDigest.create().add(SUBJECT,P1,"value");
+		final ContentDigest state=ContentDigest.create().add(SUBJECT,"member",OBJECT);
+		final EntityTag entityTag=content.toEntityTag(state);
+		assertThat(ContentDigest.contentOf(entityTag).toEntityTag(state),equalTo(entityTag));
+		assertThat(ContentDigest.contentOf(null),nullValue());
+		assertThat(ContentDigest.contentOf(content.toEntityTag()),nullValue());
+	}
+
+	@Test
+	public void stateCannotBeRecoveredFromForeignEntityTags() throws Exception {
+		assertThat(ContentDigest.stateOf(null),nullValue());
+		assertThat(ContentDigest.stateOf(EntityTag.createStrong("3f2c1b6e-1d52-4ac1-9d59-bb0bdc2a1e30")),nullValue());
+		assertThat(ContentDigest.stateOf(ContentDigest.create().toEntityTag()),nullValue());
+		assertThat(ContentDigest.stateOf(EntityTag.createStrong("x.zz")),nullValue());
+	}
+
+}
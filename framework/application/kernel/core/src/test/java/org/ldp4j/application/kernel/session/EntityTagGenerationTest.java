@@ -0,0 +1,230 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-kernel-core:0.2.2
+ *   Bundle      : ldp4j-application-kernel-core-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.session;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ldp4j.application.data.DataSet;
+import org.ldp4j.application.data.DataSets;
+import org.ldp4j.application.data.ExternalIndividual;
+import org.ldp4j.application.data.Literals;
+import org.ldp4j.application.data.Name;
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.application.engine.context.EntityTag;
+import org.ldp4j.application.ext.ContainerHandler;
+import org.ldp4j.application.ext.ResourceHandler;
+import org.ldp4j.application.ext.annotations.BasicContainer;
+import org.ldp4j.application.kernel.endpoint.Endpoint;
+import org.ldp4j.application.kernel.impl.InMemoryRuntimeDelegate;
+import org.ldp4j.application.kernel.resource.Resource;
+import org.ldp4j.application.kernel.service.ServiceRegistry;
+import org.ldp4j.application.kernel.spi.RuntimeDelegate;
+import org.ldp4j.application.kernel.template.TemplateManagementService;
+import org.ldp4j.application.session.ContainerSnapshot;
+import org.ldp4j.application.session.ResourceSnapshot;
+import org.ldp4j.application.session.WriteSession;
+
+import com.google.common.collect.Lists;
+
+public class EntityTagGenerationTest {
+
+	private static final URI LABEL=URI.create("http://www.ldp4j.org/vocabularies/test#label");
+
+	public static class ItemHandler implements ResourceHandler {
+
+		final AtomicInteger retrievals=new AtomicInteger();
+		volatile boolean failing;
+
+		@Override
+		public DataSet get(ResourceSnapshot resource) {
+			this.retrievals.incrementAndGet();
+			if(this.failing) {
+				throw new IllegalStateException("Failure");
+			}
+			return content(resource.name());
+		}
+
+	}
+
+	@org.ldp4j.application.ext.annotations.Resource(id="item")
+	public static class MemberHandler extends ItemHandler {
+	}
+
+	@BasicContainer(id="container",memberHandler=MemberHandler.class)
+	public static class CollectionHandler extends ItemHandler implements ContainerHandler {
+
+		@Override
+		public ResourceSnapshot create(ContainerSnapshot container, DataSet representation, WriteSession session) {
+			throw new UnsupportedOperationException("Members are created directly");
+		}
+
+	}
+
+	private MemberHandler memberHandler;
+	private CollectionHandler collectionHandler;
+
+	private TemplateManagementService templateManagementService;
+	private WriteSessionService writeSessionService;
+
+	@Before
+	public void setUp() throws Exception {
+		ServiceRegistry.setInstance(null);
+		RuntimeDelegate.setInstance(new InMemoryRuntimeDelegate());
+		this.memberHandler=new MemberHandler();
+		this.collectionHandler=new CollectionHandler();
+		this.templateManagementService=
+			ServiceRegistry.
+				getInstance().
+					getService(TemplateManagementService.class);
+		this.templateManagementService.
+			configure(
+				Lists.<Class<?>>newArrayList(),
+				Arrays.<ResourceHandler>asList(this.memberHandler,this.collectionHandler));
+		this.writeSessionService=
+			ServiceRegistry.
+				getInstance().
+					getService(WriteSessionService.class);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		RuntimeDelegate.setInstance(null);
+	}
+
+	private static Name<?> name(String id) {
+		return NamingScheme.getDefault().name(id);
+	}
+
+	private static DataSet content(Name<?> name) {
+		DataSet dataSet=DataSets.createDataSet(name);
+		dataSet.
+			individual(URI.create("http://www.example.org/"+name.id()),ExternalIndividual.class).
+				addValue(LABEL,Literals.of(name.id().toString()));
+		return dataSet;
+	}
+
+	private static EntityTag entityTag(Resource resource) {
+		return
+			RuntimeDelegate.
+				getInstance().
+					getEndpointRepository().
+						endpointOfResource(resource.id()).
+							entityTag();
+	}
+
+	private Resource publish(String templateId, String id) {
+		UnitOfWork.newCurrent();
+		RuntimeDelegate.getInstance().getTransactionManager().currentTransaction().begin();
+		try {
+			Resource resource=
+				RuntimeDelegate.
+					getInstance().
+						getModelFactory().
+							createResource(this.templateManagementService.templateOfId(templateId),name(id));
+			EntityTag entityTag=
+				ContentDigest.create().
+					addDataSet(content(name(id))).
+					toEntityTag(ContentDigest.create().addResource(resource));
+			Endpoint endpoint=RuntimeDelegate.getInstance().getModelFactory().createEndpoint(id+"/",resource,new Date(),entityTag);
+			RuntimeDelegate.getInstance().getResourceRepository().add(resource);
+			RuntimeDelegate.getInstance().getEndpointRepository().add(endpoint);
+			RuntimeDelegate.getInstance().getTransactionManager().currentTransaction().commit();
+			return resource;
+		} finally {
+			UnitOfWork.setCurrent(null);
+		}
+	}
+
+	private WriteSession openSession(Resource resource) {
+		RuntimeDelegate.getInstance().getTransactionManager().currentTransaction().begin();
+		return
+			this.writeSessionService.
+				createSession(
+					WriteSessionConfiguration.
+						builder().
+							withTarget(resource).
+							build());
+	}
+
+	@Test
+	public void handlerIsNotAskedForTheContentOfContainersWhoseMembersChange() throws Exception {
+		Resource container=publish("container","collection");
+		EntityTag previous=entityTag(container);
+
+		WriteSession session=openSession(container);
+		session.find(ContainerSnapshot.class,name("collection"),CollectionHandler.class).addMember(name("member"));
+		session.saveChanges();
+		session.close();
+
+		EntityTag current=entityTag(container);
+		assertThat(this.collectionHandler.retrievals.get(),equalTo(0));
+		assertThat(this.memberHandler.retrievals.get(),equalTo(1));
+		assertThat(current,not(equalTo(previous)));
+		assertThat(ContentDigest.contentOf(current).toEntityTag(),equalTo(ContentDigest.contentOf(previous).toEntityTag()));
+	}
+
+	@Test
+	public void handlerIsAskedForTheContentOfModifiedResources() throws Exception {
+		Resource container=publish("container","collection");
+
+		WriteSession session=openSession(container);
+		session.modify(session.find(ContainerSnapshot.class,name("collection"),CollectionHandler.class));
+		session.saveChanges();
+		session.close();
+
+		assertThat(this.collectionHandler.retrievals.get(),equalTo(1));
+		assertThat(ContentDigest.contentOf(entityTag(container)).toEntityTag(),equalTo(ContentDigest.create().addDataSet(content(name("collection"))).toEntityTag()));
+	}
+
+	@Test
+	public void handlerFailuresDoNotPreventCommittingTheSession() throws Exception {
+		Resource container=publish("container","collection");
+		EntityTag previous=entityTag(container);
+		this.collectionHandler.failing=true;
+
+		WriteSession session=openSession(container);
+		session.modify(session.find(ContainerSnapshot.class,name("collection"),CollectionHandler.class));
+		session.saveChanges();
+		session.close();
+
+		assertThat(this.collectionHandler.retrievals.get(),equalTo(1));
+		assertThat(RuntimeDelegate.getInstance().getTransactionManager().currentTransaction().isActive(),equalTo(false));
+		assertThat(ContentDigest.contentOf(entityTag(container)).toEntityTag(),equalTo(ContentDigest.create().toEntityTag()));
+		assertThat(entityTag(container),not(equalTo(previous)));
+	}
+
+}
@@ -31,7 +31,7 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
-@SuiteClasses({ WriteSessionTest.class })
+@SuiteClasses({ WriteSessionTest.class, EntityTagGenerationTest.class })
 public class SessionTestSuite {
 
 }
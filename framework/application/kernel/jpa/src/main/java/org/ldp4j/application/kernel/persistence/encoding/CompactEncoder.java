@@ -0,0 +1,284 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-kernel-jpa:0.2.2
+ *   Bundle      : ldp4j-application-kernel-jpa-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.persistence.encoding;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import javax.xml.namespace.QName;
+
+import org.ldp4j.application.data.Name;
+import org.ldp4j.application.data.NamingScheme;
+
+import com.google.common.io.BaseEncoding;
+
+/**
+ * Identifier value encoder that produces compact, canonical strings. The
+ * encoding of a value is {@value Encoder#COMPACT_PREFIX} followed by a
+ * type tag and the canonical lexical form of the value:
+ * <ul>
+ * <li>{@code s}: strings,</li>
+ * <li>{@code u}: URIs,</li>
+ * <li>{@code q}: qualified names, as the length-prefixed namespace and
+ * prefix followed by the local part,</li>
+ * <li>{@code b}, {@code h}, {@code i}, {@code l}, {@code f}, {@code d},
+ * {@code I}, {@code D}: bytes, shorts, integers, longs, floats, doubles,
+ * big integers and big decimals,</li>
+ * <li>{@code t}: dates, as the milliseconds since the epoch,</li>
+ * <li>{@code L}: composite values, i.e., array lists whose elements can be
+ * encoded using any of the tags above, as the length-prefixed encoding of
+ * each element,</li>
+ * <li>{@code j}: any other serializable value, using base64-encoded Java
+ * serialization.</li>
+ * </ul>
+ * Values encoded using the legacy {@link ValueEncoder} can still be decoded.
+ */
+final class CompactEncoder extends Encoder {
+
+	private static final char STRING      = 's';
+	private static final char URI_REF     = 'u';
+	private static final char QNAME       = 'q';
+	private static final char BYTE        = 'b';
+	private static final char SHORT       = 'h';
+	private static final char INTEGER     = 'i';
+	private static final char LONG        = 'l';
+	private static final char FLOAT       = 'f';
+	private static final char DOUBLE      = 'd';
+	private static final char BIG_INTEGER = 'I';
+	private static final char BIG_DECIMAL = 'D';
+	private static final char DATE        = 't';
+	private static final char LIST        = 'L';
+	private static final char SERIALIZED  = 'j';
+
+	private static final char LENGTH_SEPARATOR = ':';
+
+	private final Encoder legacy;
+
+	CompactEncoder(Encoder legacy) {
+		this.legacy=legacy;
+	}
+
+	private static String serialize(Serializable value) {
+		try {
+			return BaseEncoding.base64().encode(SerializationUtils.serialize(value));
+		} catch (IOException e) {
+			throw new AssertionError("Serialization should not fail",e);
+		}
+	}
+
+	private static Serializable deserialize(String data) {
+		try {
+			return SerializationUtils.deserialize(BaseEncoding.base64().decode(data),Serializable.class);
+		} catch (IOException e) {
+			throw new AssertionError("Deserialization should not fail",e);
+		}
+	}
+
+	private static void appendPart(StringBuilder builder, String part) {
+		builder.append(part.length()).append(LENGTH_SEPARATOR).append(part);
+	}
+
+	private static String encodeQName(QName qname) {
+		StringBuilder builder=new StringBuilder();
+		appendPart(builder,qname.getNamespaceURI());
+		appendPart(builder,qname.getPrefix());
+		return builder.append(qname.getLocalPart()).toString();
+	}
+
+	private static QName decodeQName(String data) {
+		int separator=data.indexOf(LENGTH_SEPARATOR);
+		int start=separator+1;
+		int end=start+Integer.parseInt(data.substring(0,separator));
+		String namespace=data.substring(start,end);
+		separator=data.indexOf(LENGTH_SEPARATOR,end);
+		start=separator+1;
+		int prefixEnd=start+Integer.parseInt(data.substring(end,separator));
+		String prefix=data.substring(start,prefixEnd);
+		return new QName(namespace,data.substring(prefixEnd),prefix);
+	}
+
+	private static char tag(Serializable value) { // NOSONAR
+		Class<?> clazz=value.getClass();
+		if(clazz==ArrayList.class) {
+			return isComposite((List<?>)value)?LIST:SERIALIZED;
+		}
+		if(clazz==String.class) {
+			return STRING;
+		} else if(clazz==URI.class) {
+			return URI_REF;
+		} else if(clazz==QName.class) {
+			return QNAME;
+		} else if(clazz==Byte.class) {
+			return BYTE;
+		} else if(clazz==Short.class) {
+			return SHORT;
+		} else if(clazz==Integer.class) {
+			return INTEGER;
+		} else if(clazz==Long.class) {
+			return LONG;
+		} else if(clazz==Float.class) {
+			return FLOAT;
+		} else if(clazz==Double.class) {
+			return DOUBLE;
+		} else if(clazz==BigInteger.class) {
+			return BIG_INTEGER;
+		} else if(clazz==BigDecimal.class) {
+			return BIG_DECIMAL;
+		} else if(clazz==Date.class) {
+			return DATE;
+		}
+		return SERIALIZED;
+	}
+
+	private static boolean isComposite(List<?> values) {
+		for(Object value:values) {
+			if(!(value instanceof Serializable) || tag((Serializable)value)==SERIALIZED) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Encode a value as its type tag followed by its lexical form.
+	 */
+	private static String encodeValue(Serializable value) {
+		char tag=tag(value);
+		StringBuilder builder=new StringBuilder().append(tag);
+		switch(tag) {
+		case QNAME:
+			builder.append(encodeQName((QName)value));
+			break;
+		case DATE:
+			builder.append(((Date)value).getTime());
+			break;
+		case LIST:
+			for(Object element:(List<?>)value) {
+				appendPart(builder,encodeValue((Serializable)element));
+			}
+			break;
+		case SERIALIZED:
+			builder.append(serialize(value));
+			break;
+		default:
+			builder.append(value.toString());
+		}
+		return builder.toString();
+	}
+
+	private static Serializable decodeValue(String data) {
+		if(data.isEmpty()) {
+			throw new IllegalArgumentException("Missing value type tag");
+		}
+		return value(data.charAt(0),data.substring(1));
+	}
+
+	private static ArrayList<Serializable> decodeList(String data) {
+		ArrayList<Serializable> result=new ArrayList<Serializable>();
+		int offset=0;
+		while(offset<data.length()) {
+			int separator=data.indexOf(LENGTH_SEPARATOR,offset);
+			int start=separator+1;
+			int end=start+Integer.parseInt(data.substring(offset,separator));
+			result.add(decodeValue(data.substring(start,end)));
+			offset=end;
+		}
+		return result;
+	}
+
+	private static Serializable value(char tag, String data) { // NOSONAR
+		switch(tag) {
+		case STRING:
+			return data;
+		case URI_REF:
+			return URI.create(data);
+		case QNAME:
+			return decodeQName(data);
+		case BYTE:
+			return Byte.valueOf(data);
+		case SHORT:
+			return Short.valueOf(data);
+		case INTEGER:
+			return Integer.valueOf(data);
+		case LONG:
+			return Long.valueOf(data);
+		case FLOAT:
+			return Float.valueOf(data);
+		case DOUBLE:
+			return Double.valueOf(data);
+		case BIG_INTEGER:
+			return new BigInteger(data);
+		case BIG_DECIMAL:
+			return new BigDecimal(data);
+		case DATE:
+			return new Date(Long.parseLong(data));
+		case LIST:
+			return decodeList(data);
+		case SERIALIZED:
+			return deserialize(data);
+		default:
+			throw new IllegalArgumentException("Unknown value type tag '"+tag+"'");
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public String encode(Name<?> name) {
+		if(name==null) {
+			return null;
+		}
+		return COMPACT_PREFIX+encodeValue(name.id());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T extends Serializable> Name<T> decode(String data) {
+		if(data==null) {
+			return null;
+		}
+		if(!isCompact(data)) {
+			return this.legacy.decode(data);
+		}
+		if(data.length()==COMPACT_PREFIX.length()) {
+			throw new IllegalArgumentException("Missing value type tag in '"+data+"'");
+		}
+		Serializable value=decodeValue(data.substring(COMPACT_PREFIX.length()));
+		return (Name<T>)NamingScheme.getDefault().name(value);
+	}
+
+}
@@ -32,8 +32,16 @@ import org.ldp4j.application.data.Name;
 
 public abstract class Encoder {
 
+	/**
+	 * Prefix of the values produced by the compact encoder. The prefix
+	 * includes the version of the encoding, and can never be the prefix of a
+	 * base64 encoded value.
+	 */
+	public static final String COMPACT_PREFIX = "~1";
+
 	private static final NameEncoder NAME_ENCODER = new NameEncoder();
 	private static final ValueEncoder VALUE_ENCODER = new ValueEncoder();
+	private static final CompactEncoder COMPACT_ENCODER = new CompactEncoder(VALUE_ENCODER);
 
 	public abstract String encode(Name<?> name);
 
@@ -47,4 +55,20 @@ public abstract class Encoder {
 		return Encoder.VALUE_ENCODER;
 	}
 
+	/**
+	 * Get the encoder used for storing identifier values. It can decode
+	 * values encoded by the {@link #valueEncoder() value encoder} too.
+	 */
+	public static Encoder compactEncoder() {
+		return Encoder.COMPACT_ENCODER;
+	}
+
+	/**
+	 * Check whether some data has been encoded using the current version of
+	 * the compact encoding.
+	 */
+	public static boolean isCompact(String data) {
+		return data!=null && data.startsWith(COMPACT_PREFIX);
+	}
+
 }
\ No newline at end of file
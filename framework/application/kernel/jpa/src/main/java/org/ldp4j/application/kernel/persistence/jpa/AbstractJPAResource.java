@@ -38,6 +38,7 @@ import static com.google.common.base.Preconditions.*;
 abstract class AbstractJPAResource {
 
 	private TemplateLibrary templateLibrary;
+	private JPAMemberRepository memberRepository;
 
 	final void setTemplateLibrary(TemplateLibrary templateLibrary) {
 		this.templateLibrary = templateLibrary;
@@ -51,6 +52,15 @@ abstract class AbstractJPAResource {
 		return this.templateLibrary;
 	}
 
+	final void setMemberRepository(JPAMemberRepository memberRepository) {
+		this.memberRepository = memberRepository;
+	}
+
+	final JPAMemberRepository getMemberRepository() {
+		checkState(this.memberRepository!=null,"Member repository has not been initialized yet");
+		return this.memberRepository;
+	}
+
 	final ResourceTemplate getTemplate(ResourceId resourceId) {
 		return getTemplateLibrary().findById(resourceId.templateId());
 	}
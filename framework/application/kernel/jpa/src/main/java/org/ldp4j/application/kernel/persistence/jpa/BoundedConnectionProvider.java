@@ -0,0 +1,244 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-kernel-jpa:0.2.2
+ *   Bundle      : ldp4j-application-kernel-jpa-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.persistence.jpa;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.HibernateException;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.UnknownUnwrapTypeException;
+import org.hibernate.service.spi.Configurable;
+import org.hibernate.service.spi.Stoppable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded JDBC connection pool for the JPA kernel. At most
+ * {@code hibernate.connection.pool_size} connections are open at any time:
+ * callers that find the pool exhausted wait up to
+ * {@value #ACQUISITION_TIMEOUT} milliseconds for a connection to be
+ * released before failing.
+ */
+public final class BoundedConnectionProvider implements ConnectionProvider, Configurable, Stoppable {
+
+	public static final String ACQUISITION_TIMEOUT="org.ldp4j.application.kernel.jpa.pool.acquisitionTimeout";
+
+	private static final long serialVersionUID = 8016404620066187187L;
+
+	private static final Logger LOGGER=LoggerFactory.getLogger(BoundedConnectionProvider.class);
+
+	private static final String JPA_JDBC_DRIVER="javax.persistence.jdbc.driver";
+	private static final String JPA_JDBC_URL="javax.persistence.jdbc.url";
+	private static final String JPA_JDBC_USER="javax.persistence.jdbc.user";
+	private static final String JPA_JDBC_PASSWORD="javax.persistence.jdbc.password";
+
+	private static final int  DEFAULT_POOL_SIZE=16;
+	private static final long DEFAULT_ACQUISITION_TIMEOUT=30000;
+
+	private final BlockingQueue<Connection> idle;
+
+	private Semaphore permits;
+	private long acquisitionTimeout;
+	private String url;
+	private Properties credentials;
+	private int poolSize;
+	private volatile boolean stopped;
+
+	public BoundedConnectionProvider() {
+		this.idle=new LinkedBlockingQueue<Connection>();
+	}
+
+	private static String setting(Map<?,?> configuration, String name, String jpaName) {
+		String value=ConfigurationHelper.getString(name,configuration);
+		if(value==null) {
+			value=ConfigurationHelper.getString(jpaName,configuration);
+		}
+		return value;
+	}
+
+	private Connection newConnection() throws SQLException {
+		Connection connection=DriverManager.getConnection(this.url,this.credentials);
+		connection.setAutoCommit(false);
+		return connection;
+	}
+
+	private static void closeQuietly(Connection connection) {
+		try {
+			connection.close();
+		} catch (SQLException e) {
+			LOGGER.debug("Could not close pooled connection",e);
+		}
+	}
+
+	private static long acquisitionTimeout(String value) {
+		if(value==null) {
+			return DEFAULT_ACQUISITION_TIMEOUT;
+		}
+		try {
+			long result=Long.parseLong(value.trim());
+			if(result>=0) {
+				return result;
+			}
+		} catch (NumberFormatException e) {
+			LOGGER.trace("Could not parse {} value '{}'",ACQUISITION_TIMEOUT,value,e);
+		}
+		LOGGER.warn("Invalid {} value '{}': it must be a non-negative integer. Using default ({}) instead.",ACQUISITION_TIMEOUT,value,DEFAULT_ACQUISITION_TIMEOUT);
+		return DEFAULT_ACQUISITION_TIMEOUT;
+	}
+
+	int poolSize() {
+		return this.poolSize;
+	}
+
+	int idleConnections() {
+		return this.idle.size();
+	}
+
+	@Override
+	public void configure(@SuppressWarnings("rawtypes") Map configuration) {
+		String driver=setting(configuration,AvailableSettings.DRIVER,JPA_JDBC_DRIVER);
+		if(driver!=null) {
+			try {
+				Class.forName(driver);
+			} catch (ClassNotFoundException e) {
+				throw new HibernateException("Could not load JDBC driver "+driver,e);
+			}
+		}
+		this.url=setting(configuration,AvailableSettings.URL,JPA_JDBC_URL);
+		if(this.url==null) {
+			throw new HibernateException("No JDBC URL specified ("+AvailableSettings.URL+" or "+JPA_JDBC_URL+")");
+		}
+		this.credentials=new Properties();
+		String user=setting(configuration,AvailableSettings.USER,JPA_JDBC_USER);
+		if(user!=null) {
+			this.credentials.setProperty("user",user);
+		}
+		String password=setting(configuration,AvailableSettings.PASS,JPA_JDBC_PASSWORD);
+		if(password!=null) {
+			this.credentials.setProperty("password",password);
+		}
+		this.poolSize=ConfigurationHelper.getInt(AvailableSettings.POOL_SIZE,configuration,DEFAULT_POOL_SIZE);
+		if(this.poolSize<1) {
+			LOGGER.warn("Invalid {} value '{}': it must be a positive integer. Using default ({}) instead.",AvailableSettings.POOL_SIZE,this.poolSize,DEFAULT_POOL_SIZE);
+			this.poolSize=DEFAULT_POOL_SIZE;
+		}
+		this.acquisitionTimeout=acquisitionTimeout(ConfigurationHelper.getString(ACQUISITION_TIMEOUT,configuration));
+		this.permits=new Semaphore(this.poolSize,true);
+		LOGGER.info("Using a pool of up to {} connections to {}",this.poolSize,this.url);
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		if(this.stopped) {
+			throw new SQLException("Connection pool has been stopped");
+		}
+		try {
+			if(!this.permits.tryAcquire(this.acquisitionTimeout,TimeUnit.MILLISECONDS)) {
+				throw new SQLException("Could not acquire a connection within "+this.acquisitionTimeout+" ms (pool size: "+this.poolSize+")");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for a connection",e);
+		}
+		try {
+			Connection connection=this.idle.poll();
+			while(connection!=null && connection.isClosed()) {
+				connection=this.idle.poll();
+			}
+			if(connection==null) {
+				connection=newConnection();
+			}
+			return connection;
+		} catch (SQLException e) {
+			this.permits.release();
+			throw e;
+		}
+	}
+
+	@Override
+	public void closeConnection(Connection connection) throws SQLException {
+		try {
+			if(this.stopped || connection.isClosed()) {
+				closeQuietly(connection);
+				return;
+			}
+			if(connection.getAutoCommit()) {
+				connection.setAutoCommit(false);
+			} else {
+				connection.rollback();
+			}
+			connection.clearWarnings();
+			this.idle.offer(connection);
+		} catch (SQLException e) {
+			LOGGER.debug("Discarding broken pooled connection",e);
+			closeQuietly(connection);
+		} finally {
+			this.permits.release();
+		}
+	}
+
+	@Override
+	public boolean supportsAggressiveRelease() {
+		return false;
+	}
+
+	@Override
+	public void stop() {
+		this.stopped=true;
+		Connection connection=this.idle.poll();
+		while(connection!=null) {
+			closeQuietly(connection);
+			connection=this.idle.poll();
+		}
+	}
+
+	@Override
+	@SuppressWarnings("rawtypes")
+	public boolean isUnwrappableAs(Class unwrapType) {
+		return ConnectionProvider.class.equals(unwrapType) || BoundedConnectionProvider.class.isAssignableFrom(unwrapType);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T unwrap(Class<T> unwrapType) {
+		if(isUnwrappableAs(unwrapType)) {
+			return (T)this;
+		}
+		throw new UnknownUnwrapTypeException(unwrapType);
+	}
+
+}
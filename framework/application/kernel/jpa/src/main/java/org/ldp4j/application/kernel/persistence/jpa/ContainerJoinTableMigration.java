@@ -0,0 +1,175 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-kernel-jpa:0.2.2
+ *   Bundle      : ldp4j-application-kernel-jpa-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.persistence.jpa;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+
+import org.hibernate.Session;
+import org.hibernate.jdbc.ReturningWork;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Drops the join tables that previous versions used for mapping the members
+ * and slugs of a container. Members and slugs now refer to their container
+ * by themselves, so the join tables are no longer maintained, but their
+ * foreign keys would still prevent removing the members and slugs they
+ * reference. The container of any member or slug that does not refer to it
+ * yet is filled in from the join table before dropping it. The migration is
+ * recorded once applied, so that it is not carried out again.
+ */
+final class ContainerJoinTableMigration {
+
+	private static final Logger LOGGER=LoggerFactory.getLogger(ContainerJoinTableMigration.class);
+
+	/**
+	 * Name under which the migration is recorded.
+	 */
+	static final String NAME="container-join-tables";
+
+	/**
+	 * Legacy join tables, the tables they reference and the column of the
+	 * referenced rows.
+	 */
+	private static final String[][] JOIN_TABLES={
+		{"JPAResource_JPAMember", "JPAMember", "members_primaryKey"},
+		{"JPAResource_JPASlug",   "JPASlug",   "slugs_primaryKey"},
+	};
+
+	private static final String CONTAINER_COLUMN="JPAResource_primaryKey";
+
+	private static final String[] KEY_COLUMNS={"type","value","templateId"};
+
+	private final EntityManagerFactory emf;
+
+	ContainerJoinTableMigration(EntityManagerFactory emf) {
+		this.emf=emf;
+	}
+
+	private static boolean hasTable(Connection connection, String table) throws SQLException {
+		DatabaseMetaData metadata=connection.getMetaData();
+		String tablePattern=table;
+		if(metadata.storesUpperCaseIdentifiers()) {
+			tablePattern=table.toUpperCase();
+		} else if(metadata.storesLowerCaseIdentifiers()) {
+			tablePattern=table.toLowerCase();
+		}
+		ResultSet tables=metadata.getTables(null,null,tablePattern,null);
+		try {
+			return tables.next();
+		} finally {
+			tables.close();
+		}
+	}
+
+	private static String backfill(String joinTable, String table, String column) {
+		StringBuilder statement=new StringBuilder();
+		statement.append("UPDATE ").append(table).append(" SET ");
+		for(int i=0;i<KEY_COLUMNS.length;i++) {
+			if(i>0) {
+				statement.append(", ");
+			}
+			statement.
+				append("containerId_").append(KEY_COLUMNS[i]).
+				append("=(SELECT r.id_").append(KEY_COLUMNS[i]).
+				append(" FROM JPAResource r, ").append(joinTable).append(" j").
+				append(" WHERE r.primaryKey=j.").append(CONTAINER_COLUMN).
+				append(" AND j.").append(column).append("=").append(table).append(".primaryKey)");
+		}
+		statement.
+			append(" WHERE containerId_value IS NULL AND primaryKey IN (SELECT ").
+			append(column).append(" FROM ").append(joinTable).append(")");
+		return statement.toString();
+	}
+
+	private static int dropJoinTables(Connection connection) throws SQLException {
+		int dropped=0;
+		Statement statement=connection.createStatement();
+		try {
+			for(String[] joinTable:JOIN_TABLES) {
+				if(!hasTable(connection,joinTable[0])) {
+					continue;
+				}
+				statement.executeUpdate(backfill(joinTable[0],joinTable[1],joinTable[2]));
+				statement.executeUpdate("DROP TABLE "+joinTable[0]);
+				dropped++;
+			}
+		} finally {
+			statement.close();
+		}
+		return dropped;
+	}
+
+	/**
+	 * Drop the legacy join tables, unless the migration has already been
+	 * applied.
+	 *
+	 * @return the number of join tables dropped
+	 */
+	int migrate() {
+		EntityManager em=this.emf.createEntityManager();
+		EntityTransaction tx=em.getTransaction();
+		try {
+			tx.begin();
+			if(em.find(JPAMigration.class,NAME)!=null) {
+				tx.commit();
+				LOGGER.debug("Container join tables already dropped");
+				return 0;
+			}
+			int dropped=
+				em.unwrap(Session.class).
+					doReturningWork(
+						new ReturningWork<Integer>() {
+							@Override
+							public Integer execute(Connection connection) throws SQLException {
+								return dropJoinTables(connection);
+							}
+						}
+					);
+			em.persist(JPAMigration.create(NAME));
+			tx.commit();
+			if(dropped>0) {
+				LOGGER.info("Dropped {} legacy container join tables",dropped);
+			}
+			return dropped;
+		} finally {
+			if(tx.isActive()) {
+				tx.rollback();
+			}
+			em.close();
+		}
+	}
+
+}
@@ -27,6 +27,9 @@
 package org.ldp4j.application.kernel.persistence.jpa;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.persistence.EntityManager;
 import javax.persistence.criteria.CriteriaBuilder;
@@ -35,15 +38,49 @@ import javax.persistence.criteria.Root;
 
 import org.ldp4j.application.kernel.constraints.ConstraintReport;
 import org.ldp4j.application.kernel.constraints.ConstraintReportId;
+import org.ldp4j.application.kernel.constraints.ConstraintReportPolicy;
 import org.ldp4j.application.kernel.constraints.ConstraintReportRepository;
 import org.ldp4j.application.kernel.resource.Resource;
+import org.ldp4j.application.kernel.resource.ResourceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Constraint report repository bounded by a {@link ConstraintReportPolicy}.
+ * As the repository can only be used within the transaction of the caller,
+ * eviction is carried out when reports are added, once a minute (or once
+ * per time-to-live, if shorter) or whenever a batch of reports has been
+ * added since the last eviction, whatever happens first. Hence the number
+ * of reports may temporarily exceed the limit by at most one batch.
+ */
 final class JPAConstraintReportRepository implements ConstraintReportRepository {
 
+	private static final Logger LOGGER=LoggerFactory.getLogger(JPAConstraintReportRepository.class);
+
+	private static final long MAX_EVICTION_PERIOD=60000;
+	private static final int  MAX_EVICTION_BATCH=64;
+
 	private final EntityManagerProvider provider;
+	private final ResourceRepository resourceRepository;
+	private final ConstraintReportPolicy policy;
+	private final long evictionPeriod;
+	private final int evictionBatch;
+
+	private final AtomicLong nextEviction;
+	private final AtomicInteger pendingReports;
 
-	JPAConstraintReportRepository(EntityManagerProvider provider) {
+	JPAConstraintReportRepository(EntityManagerProvider provider, ResourceRepository resourceRepository, ConstraintReportPolicy policy) {
 		this.provider = provider;
+		this.resourceRepository = resourceRepository;
+		this.policy = policy;
+		this.evictionPeriod = Math.min(MAX_EVICTION_PERIOD,policy.timeToLive(TimeUnit.MILLISECONDS));
+		this.evictionBatch = Math.min(MAX_EVICTION_BATCH,policy.maxReports());
+		this.nextEviction = new AtomicLong(this.policy.now()+this.evictionPeriod);
+		this.pendingReports = new AtomicInteger();
+	}
+
+	JPAConstraintReportRepository(EntityManagerProvider provider, ResourceRepository resourceRepository) {
+		this(provider,resourceRepository,ConstraintReportPolicy.fromSystemProperties());
 	}
 
 	private EntityManager entityManager() {
@@ -73,7 +110,51 @@ final class JPAConstraintReportRepository implements ConstraintReportRepository
 
 	@Override
 	public void add(ConstraintReport report) {
-		entityManager().persist(report);
+		EntityManager em = entityManager();
+		em.persist(report);
+		long now=this.policy.now();
+		long deadline=this.nextEviction.get();
+		boolean batchCompleted=this.pendingReports.incrementAndGet()>=this.evictionBatch;
+		if((batchCompleted || now>=deadline) && this.nextEviction.compareAndSet(deadline,now+this.evictionPeriod)) {
+			this.pendingReports.set(0);
+			evict(em,now);
+		}
+	}
+
+	private void evict(EntityManager em, long now) {
+		CriteriaBuilder cb=em.getCriteriaBuilder();
+
+		CriteriaQuery<Long> countQuery=cb.createQuery(Long.class);
+		countQuery.select(cb.count(countQuery.from(JPAConstraintReport.class)));
+		long excess=em.createQuery(countQuery).getSingleResult()-this.policy.maxReports();
+
+		CriteriaQuery<JPAConstraintReport> query =
+				cb.createQuery(JPAConstraintReport.class);
+		Root<JPAConstraintReport> descriptor = query.from(JPAConstraintReport.class);
+		query.
+			select(descriptor).
+			orderBy(cb.asc(descriptor.get("primaryKey")));
+		List<JPAConstraintReport> oldest =
+			em.createQuery(query).
+				setMaxResults((int)Math.min(Integer.MAX_VALUE,Math.max(0,excess)+this.evictionBatch)).
+				getResultList();
+
+		int evicted=0;
+		for(JPAConstraintReport report:oldest) {
+			if(excess<=0 && !this.policy.isExpired(report,now)) {
+				break;
+			}
+			Resource resource=this.resourceRepository.resourceById(report.id().resourceId(),Resource.class);
+			if(resource!=null) {
+				resource.removeFailure(report);
+			}
+			em.remove(report);
+			excess--;
+			evicted++;
+		}
+		if(evicted>0) {
+			LOGGER.debug("Evicted {} constraint reports",evicted);
+		}
 	}
 
 	@Override
@@ -26,10 +26,11 @@
  */
 package org.ldp4j.application.kernel.persistence.jpa;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
-import java.util.Map;
+import java.util.List;
 import java.util.Set;
 
 import org.ldp4j.application.kernel.resource.Container;
@@ -40,26 +41,21 @@ import org.ldp4j.application.kernel.resource.ResourceVisitor;
 import org.ldp4j.application.kernel.resource.Slug;
 import org.ldp4j.application.kernel.template.ContainerTemplate;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Maps;
 
+/**
+ * Members and slugs are not mapped as collections of the container: they are
+ * retrieved on demand using the {@link JPAMemberRepository}, so that loading
+ * a container does not require loading all its members.
+ */
 final class JPAContainer extends JPAResource implements Container {
 
-	/**
-	 * Not final to enable its usage in JPA
-	 */
-	private Map<Key,JPAMember> members;
-
 	/**
 	 * Not final to enable its usage in JPA
 	 */
 	private long memberCounter;
 
-	/**
-	 * Not final to enable its usage in JPA
-	 */
-	private Map<String,JPASlug> slugs;
-
 	@SuppressWarnings("unused")
 	private JPAContainer() { // NOSONAR
 		super();
@@ -68,8 +64,6 @@ final class JPAContainer extends JPAResource implements Container {
 
 	JPAContainer(ResourceId id, ResourceId parentId) {
 		super(id,parentId);
-		this.members=Maps.newLinkedHashMap();
-		this.slugs=Maps.newLinkedHashMap();
 		this.memberCounter=0;
 	}
 
@@ -84,7 +78,7 @@ final class JPAContainer extends JPAResource implements Container {
 	private void createMember(Key memberId) {
 		long memberIndex=this.memberCounter++;
 		JPAMember member = new JPAMember(key(), memberId, memberIndex);
-		this.members.put(memberId, member);
+		getMemberRepository().addMember(member);
 	}
 
 	private ContainerTemplate template() {
@@ -100,7 +94,7 @@ final class JPAContainer extends JPAResource implements Container {
 	public Resource addMember(ResourceId resourceId) {
 		checkNotNull(resourceId,"Member resource identifier cannot be null");
 		Key memberId = Key.newInstance(resourceId);
-		checkState(!this.members.containsKey(memberId),"A resource with id '%s' is already a member of the container",resourceId);
+		checkState(!getMemberRepository().hasMember(key(),memberId),"A resource with id '%s' is already a member of the container",resourceId);
 		JPAResource newResource=createChild(resourceId,template().memberTemplate());
 		createMember(memberId);
 		return newResource;
@@ -108,33 +102,49 @@ final class JPAContainer extends JPAResource implements Container {
 
 	@Override
 	public boolean hasMember(ResourceId resource) {
-		return this.members.containsKey(Key.newInstance(resource));
+		return getMemberRepository().hasMember(key(),Key.newInstance(resource));
 	}
 
 	@Override
 	public Set<Member> members() {
-		return ImmutableSet.<Member>copyOf(this.members.values());
+		return ImmutableSet.<Member>copyOf(getMemberRepository().members(key()));
+	}
+
+	/**
+	 * The range of members is selected by the database, using the member
+	 * number index.
+	 */
+	@Override
+	public List<Member> members(long from, int limit) {
+		checkArgument(limit>=0,"Member limit cannot be negative (%s)",limit);
+		return ImmutableList.<Member>copyOf(getMemberRepository().members(key(),from,limit));
+	}
+
+	@Override
+	public List<Member> membersBefore(long to, int limit) {
+		checkArgument(limit>=0,"Member limit cannot be negative (%s)",limit);
+		return ImmutableList.<Member>copyOf(getMemberRepository().membersBefore(key(),to,limit));
 	}
 
 	@Override
 	public Member findMember(ResourceId resourceId) {
-		return this.members.get(Key.newInstance(resourceId));
+		return getMemberRepository().findMember(key(),Key.newInstance(resourceId));
 	}
 
 	@Override
 	public boolean removeMember(Member member) {
 		checkNotNull(member,"Member cannot be null");
-		return this.members.remove(Key.newInstance(member.memberId()))!=null;
+		return getMemberRepository().removeMember(key(),Key.newInstance(member.memberId()));
 	}
 
 	@Override
 	public Set<Slug> slugs() {
-		return ImmutableSet.<Slug>copyOf(this.slugs.values());
+		return ImmutableSet.<Slug>copyOf(getMemberRepository().slugs(key()));
 	}
 
 	@Override
 	public Slug findSlug(String preferredPath) {
-		return this.slugs.get(preferredPath);
+		return getMemberRepository().findSlug(key(),preferredPath);
 	}
 
 	@Override
@@ -143,9 +153,9 @@ final class JPAContainer extends JPAResource implements Container {
 
 		JPASlug tmp = JPASlug.create(preferredPath,this);
 
-		JPASlug slug=this.slugs.get(tmp.preferredPath());
+		JPASlug slug=getMemberRepository().findSlug(key(),tmp.preferredPath());
 		if(slug==null){
-			this.slugs.put(tmp.preferredPath(), tmp);
+			getMemberRepository().addSlug(tmp);
 			return tmp;
 		}
 
@@ -166,8 +176,6 @@ final class JPAContainer extends JPAResource implements Container {
 		return
 			stringHelper().
 				add("memberCounter",this.memberCounter).
-				add("members",this.members).
-				add("slugs",this.slugs).
 				toString();
 	}
 
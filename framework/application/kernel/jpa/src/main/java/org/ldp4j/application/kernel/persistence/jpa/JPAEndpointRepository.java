@@ -26,19 +26,41 @@
  */
 package org.ldp4j.application.kernel.persistence.jpa;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.persistence.EntityManager;
-import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Root;
 
 import org.ldp4j.application.kernel.endpoint.Endpoint;
 import org.ldp4j.application.kernel.endpoint.EndpointRepository;
 import org.ldp4j.application.kernel.resource.ResourceId;
 
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
 final class JPAEndpointRepository implements EndpointRepository {
 
+	/**
+	 * Maximum number of resources looked up per query when retrieving
+	 * endpoints in batch, so that the query size stays bounded.
+	 */
+	private static final int BATCH_SIZE=64;
+
+	/**
+	 * Named query, declared in the ORM mapping, used for retrieving the
+	 * endpoint of a resource.
+	 */
+	static final String FIND_BY_RESOURCE_ID="JPAEndpoint.findByResourceId";
+
+	/**
+	 * Named query, declared in the ORM mapping, used for retrieving the
+	 * endpoints of the resources whose encoded names are among a given set.
+	 */
+	static final String FIND_BY_RESOURCE_NAMES="JPAEndpoint.findByResourceNames";
+
 	 private final EntityManagerProvider provider;
 
 	JPAEndpointRepository(EntityManagerProvider provider) {
@@ -56,24 +78,49 @@ final class JPAEndpointRepository implements EndpointRepository {
 
 	@Override
 	public Endpoint endpointOfResource(ResourceId id) {
-		CriteriaBuilder cb =
-				entityManager().getCriteriaBuilder();
-
-		CriteriaQuery<JPAEndpoint> query =
-				cb.createQuery(JPAEndpoint.class);
-
-		Root<JPAEndpoint> descriptor = query.from(JPAEndpoint.class);
-		query.
-			select(descriptor).
-			where(cb.equal(descriptor.get("resourceId"),Key.newInstance(id))).
-			distinct(true);
-		List<JPAEndpoint> results = entityManager().createQuery(query).getResultList();
+		List<JPAEndpoint> results=
+			entityManager().
+				createNamedQuery(FIND_BY_RESOURCE_ID,JPAEndpoint.class).
+				setParameter("resourceId",Key.newInstance(id)).
+				setMaxResults(1).
+				getResultList();
 		if(results.isEmpty()) {
 			return null;
 		}
 		return results.get(0);
 	}
 
+	@Override
+	public Map<ResourceId,Endpoint> endpointsOfResources(Collection<ResourceId> ids) {
+		Map<ResourceId,Endpoint> result=Maps.newLinkedHashMap();
+		EntityManager em=entityManager();
+		for(List<ResourceId> batch:Iterables.partition(ids,BATCH_SIZE)) {
+			// The key is a composite value, so the batch is selected by the
+			// encoded names and the rest of the key is matched afterwards
+			Set<Key> keys=Sets.newHashSet();
+			Set<String> names=Sets.newHashSet();
+			for(ResourceId id:batch) {
+				Key key=Key.newInstance(id);
+				keys.add(key);
+				names.add(key.nameValue());
+			}
+			List<JPAEndpoint> endpoints=
+				em.createNamedQuery(FIND_BY_RESOURCE_NAMES,JPAEndpoint.class).
+					setParameter("names",names).
+					getResultList();
+			for(JPAEndpoint endpoint:endpoints) {
+				if(!keys.contains(Key.newInstance(endpoint.resourceId()))) {
+					continue;
+				}
+				Endpoint previous=result.get(endpoint.resourceId());
+				if(previous==null || previous.deleted()!=null) {
+					result.put(endpoint.resourceId(),endpoint);
+				}
+			}
+		}
+		return result;
+	}
+
 	@Override
 	public void add(Endpoint endpoint) {
 		entityManager().persist(endpoint);
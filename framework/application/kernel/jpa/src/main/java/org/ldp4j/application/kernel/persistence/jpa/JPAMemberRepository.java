@@ -0,0 +1,170 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-kernel-jpa:0.2.2
+ *   Bundle      : ldp4j-application-kernel-jpa-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.persistence.jpa;
+
+import java.util.Collections;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+
+/**
+ * Query-backed access to the members and slugs of the containers, so that
+ * containers do not need to load all their members and slugs for checking
+ * or retrieving any of them.
+ */
+final class JPAMemberRepository {
+
+	static final String FIND_MEMBERS="JPAMember.findByContainer";
+	static final String FIND_MEMBERS_FROM="JPAMember.findByContainerFrom";
+	static final String FIND_MEMBERS_BEFORE="JPAMember.findByContainerBefore";
+	static final String FIND_MEMBER="JPAMember.findByMemberId";
+	static final String COUNT_MEMBER="JPAMember.countByMemberId";
+	static final String DELETE_MEMBERS="JPAMember.deleteByContainer";
+	static final String FIND_SLUGS="JPASlug.findByContainer";
+	static final String FIND_SLUG="JPASlug.findByPreferredPath";
+	static final String DELETE_SLUGS="JPASlug.deleteByContainer";
+
+	private static final String CONTAINER_ID="containerId";
+	private static final String MEMBER_ID="memberId";
+
+	private final EntityManagerProvider provider;
+
+	JPAMemberRepository(EntityManagerProvider provider) {
+		this.provider = provider;
+	}
+
+	private EntityManager entityManager() {
+		return this.provider.entityManager();
+	}
+
+	private static <T> T first(List<T> results) {
+		if(results.isEmpty()) {
+			return null;
+		}
+		return results.get(0);
+	}
+
+	void addMember(JPAMember member) {
+		entityManager().persist(member);
+	}
+
+	boolean hasMember(Key containerId, Key memberId) {
+		return
+			entityManager().
+				createNamedQuery(COUNT_MEMBER,Long.class).
+				setParameter(CONTAINER_ID,containerId).
+				setParameter(MEMBER_ID,memberId).
+				getSingleResult()>0;
+	}
+
+	JPAMember findMember(Key containerId, Key memberId) {
+		return
+			first(
+				entityManager().
+					createNamedQuery(FIND_MEMBER,JPAMember.class).
+					setParameter(CONTAINER_ID,containerId).
+					setParameter(MEMBER_ID,memberId).
+					setMaxResults(1).
+					getResultList());
+	}
+
+	List<JPAMember> members(Key containerId) {
+		return
+			entityManager().
+				createNamedQuery(FIND_MEMBERS,JPAMember.class).
+				setParameter(CONTAINER_ID,containerId).
+				getResultList();
+	}
+
+	List<JPAMember> members(Key containerId, long from, int limit) {
+		if(limit==0) {
+			return Collections.emptyList();
+		}
+		return
+			entityManager().
+				createNamedQuery(FIND_MEMBERS_FROM,JPAMember.class).
+				setParameter(CONTAINER_ID,containerId).
+				setParameter("from",from).
+				setMaxResults(limit).
+				getResultList();
+	}
+
+	List<JPAMember> membersBefore(Key containerId, long to, int limit) {
+		if(limit==0) {
+			return Collections.emptyList();
+		}
+		return
+			entityManager().
+				createNamedQuery(FIND_MEMBERS_BEFORE,JPAMember.class).
+				setParameter(CONTAINER_ID,containerId).
+				setParameter("to",to).
+				setMaxResults(limit).
+				getResultList();
+	}
+
+	boolean removeMember(Key containerId, Key memberId) {
+		JPAMember member=findMember(containerId,memberId);
+		if(member==null) {
+			return false;
+		}
+		entityManager().remove(member);
+		return true;
+	}
+
+	void addSlug(JPASlug slug) {
+		entityManager().persist(slug);
+	}
+
+	JPASlug findSlug(Key containerId, String preferredPath) {
+		return
+			first(
+				entityManager().
+					createNamedQuery(FIND_SLUG,JPASlug.class).
+					setParameter(CONTAINER_ID,containerId).
+					setParameter("preferredPath",preferredPath).
+					setMaxResults(1).
+					getResultList());
+	}
+
+	List<JPASlug> slugs(Key containerId) {
+		return
+			entityManager().
+				createNamedQuery(FIND_SLUGS,JPASlug.class).
+				setParameter(CONTAINER_ID,containerId).
+				getResultList();
+	}
+
+	/**
+	 * Remove the members and slugs of a container.
+	 */
+	void removeAll(Key containerId) {
+		EntityManager em=entityManager();
+		em.createNamedQuery(DELETE_MEMBERS).setParameter(CONTAINER_ID,containerId).executeUpdate();
+		em.createNamedQuery(DELETE_SLUGS).setParameter(CONTAINER_ID,containerId).executeUpdate();
+	}
+
+}
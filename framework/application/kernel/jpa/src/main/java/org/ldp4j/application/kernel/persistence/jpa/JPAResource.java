@@ -74,12 +74,12 @@ class JPAResource extends AbstractJPAResource implements Resource {
 	/**
 	 * Not final to enable its usage in JPA
 	 */
-	private ResourceId id;
+	private Key id;
 
 	/**
 	 * Not final to enable its usage in JPA
 	 */
-	private ResourceId parentId;
+	private Key parentId;
 
 	private URI indirectId;
 
@@ -93,8 +93,8 @@ class JPAResource extends AbstractJPAResource implements Resource {
 
 	protected JPAResource(ResourceId id, ResourceId parentId) {
 		this();
-		this.id=id;
-		this.parentId = parentId;
+		this.id=Key.newInstance(id);
+		this.parentId=Key.newInstance(parentId);
 	}
 
 	protected JPAResource(ResourceId id) {
@@ -103,7 +103,7 @@ class JPAResource extends AbstractJPAResource implements Resource {
 
 	@Override
 	protected void init() {
-		ResourceTemplate template = super.getTemplate(this.id);
+		ResourceTemplate template = super.getTemplate(id());
 		Set<AttachedTemplate> attachedTemplates = template.attachedTemplates();
 		if(!attachedTemplates.isEmpty() && this.attachments.isEmpty()) {
 			for(AttachedTemplate attachedTemplate:attachedTemplates) {
@@ -117,10 +117,11 @@ class JPAResource extends AbstractJPAResource implements Resource {
 	protected final JPAResource createChild(ResourceId resourceId, ResourceTemplate template) {
 		JPAResource newResource=null;
 		if(!TemplateIntrospector.newInstance(template).isContainer()) {
-			newResource=new JPAResource(resourceId,this.id);
+			newResource=new JPAResource(resourceId,id());
 		} else {
-			newResource=new JPAContainer(resourceId,this.id);
+			newResource=new JPAContainer(resourceId,id());
 		}
+		newResource.setMemberRepository(getMemberRepository());
 		newResource.setTemplateLibrary(getTemplateLibrary());
 		return newResource;
 	}
@@ -130,7 +131,7 @@ class JPAResource extends AbstractJPAResource implements Resource {
 		do {
 			failureId=UUID.randomUUID().toString();
 		} while(this.failures.contains(failureId));
-		ConstraintReportId reportId=ConstraintReportId.create(this.id, failureId);
+		ConstraintReportId reportId=ConstraintReportId.create(id(), failureId);
 		this.failures.add(failureId);
 		return reportId;
 	}
@@ -140,7 +141,7 @@ class JPAResource extends AbstractJPAResource implements Resource {
 	 */
 	@Override
 	public ResourceId id() {
-		return this.id;
+		return this.id.resourceId();
 	}
 
 	/**
@@ -172,7 +173,7 @@ class JPAResource extends AbstractJPAResource implements Resource {
 	 */
 	@Override
 	public ResourceId parentId() {
-		return this.parentId;
+		return this.parentId==null?null:this.parentId.resourceId();
 	}
 
 	/**
@@ -253,7 +254,7 @@ class JPAResource extends AbstractJPAResource implements Resource {
 		}
 		Builder<ConstraintReportId> builder=ImmutableSet.builder();
 		for(String failure:currentFailures) {
-			builder.add(ConstraintReportId.create(this.id,failure));
+			builder.add(ConstraintReportId.create(id(),failure));
 		}
 		return builder.build();
 	}
@@ -284,10 +285,9 @@ class JPAResource extends AbstractJPAResource implements Resource {
 		return
 			super.stringHelper().
 				add("primaryKey",this.primaryKey).
-				add("id",this.id).
-				add("parentId",this.parentId).
-				add("attachments",this.attachments).
-				add("failures", this.failures);
+				add("id",id()).
+				add("parentId",parentId()).
+				add("attachments",this.attachments);
 	}
 
 }
\ No newline at end of file
@@ -29,9 +29,6 @@ package org.ldp4j.application.kernel.persistence.jpa;
 import java.util.List;
 
 import javax.persistence.EntityManager;
-import javax.persistence.criteria.CriteriaBuilder;
-import javax.persistence.criteria.CriteriaQuery;
-import javax.persistence.criteria.Root;
 
 import org.ldp4j.application.kernel.resource.Container;
 import org.ldp4j.application.kernel.resource.Resource;
@@ -41,11 +38,23 @@ import org.ldp4j.application.kernel.template.TemplateLibrary;
 
 final class JPAResourceRepository implements ResourceRepository {
 
+	/**
+	 * Named query, declared in the ORM mapping, used for retrieving a
+	 * resource by its identifier.
+	 */
+	static final String FIND_BY_ID="JPAResource.findById";
+
 	private final EntityManagerProvider provider;
+	private final JPAMemberRepository memberRepository;
 	private TemplateLibrary templateLibrary;
 
 	JPAResourceRepository(EntityManagerProvider provider) {
 		this.provider = provider;
+		this.memberRepository = new JPAMemberRepository(provider);
+	}
+
+	JPAMemberRepository memberRepository() {
+		return this.memberRepository;
 	}
 
 	void setTemplateLibrary(TemplateLibrary templateLibrary) {
@@ -58,24 +67,18 @@ final class JPAResourceRepository implements ResourceRepository {
 
 	@Override
 	public <T extends Resource> T resourceById(ResourceId id, Class<? extends T> expectedResourceClass) {
-		EntityManager em = entityManager();
-
-		CriteriaBuilder cb=em.getCriteriaBuilder();
-
-		CriteriaQuery<JPAResource> query =
-				cb.createQuery(JPAResource.class);
-
-		Root<JPAResource> descriptor = query.from(JPAResource.class);
-		query.
-			select(descriptor).
-			where(cb.equal(descriptor.get("id"),id)).
-			distinct(true);
-		List<JPAResource> results = em.createQuery(query).getResultList();
+		List<JPAResource> results=
+			entityManager().
+				createNamedQuery(FIND_BY_ID,JPAResource.class).
+				setParameter("id",Key.newInstance(id)).
+				setMaxResults(1).
+				getResultList();
 		if(results.isEmpty()) {
 			return null;
 		}
 		JPAResource found = results.get(0);
 		if(expectedResourceClass.isInstance(found)) {
+			found.setMemberRepository(this.memberRepository);
 			found.setTemplateLibrary(this.templateLibrary);
 			return expectedResourceClass.cast(found);
 		}
@@ -103,6 +106,9 @@ final class JPAResourceRepository implements ResourceRepository {
 
 	@Override
 	public void remove(Resource resource) {
+		if(resource instanceof Container) {
+			this.memberRepository.removeAll(Key.newInstance(resource.id()));
+		}
 		entityManager().remove(resource);
 	}
 
@@ -26,7 +26,12 @@
  */
 package org.ldp4j.application.kernel.persistence.jpa;
 
+import java.util.Map;
+import java.util.Properties;
+
+import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
+import javax.persistence.PersistenceException;
 
 import org.ldp4j.application.kernel.constraints.ConstraintReportRepository;
 import org.ldp4j.application.kernel.endpoint.EndpointRepository;
@@ -36,8 +41,30 @@ import org.ldp4j.application.kernel.spi.ModelFactory;
 import org.ldp4j.application.kernel.spi.RuntimeDelegate;
 import org.ldp4j.application.kernel.transaction.TransactionManager;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+
 public final class JPARuntimeDelegate extends RuntimeDelegate {
 
+	/**
+	 * System property used for selecting the persistence unit used by the
+	 * kernel. By default the {@value #DEFAULT_PERSISTENCE_UNIT} unit is used.
+	 * The {@value #PRODUCTION_PERSISTENCE_UNIT} unit uses a bounded connection
+	 * pool, JDBC batching and validates the schema instead of updating it.
+	 */
+	public static final String PERSISTENCE_UNIT="org.ldp4j.application.kernel.jpa.persistenceUnit";
+
+	public static final String DEFAULT_PERSISTENCE_UNIT="kernel";
+	public static final String PRODUCTION_PERSISTENCE_UNIT="kernel-production";
+
+	private static final String[] OVERRIDABLE_PREFIXES={
+		"javax.persistence.jdbc.",
+		"hibernate.",
+		BoundedConnectionProvider.ACQUISITION_TIMEOUT
+	};
+
+	private final String persistenceUnit;
+	private final Map<String,String> overrides;
 	private final JPAEntityManagerProvider provider;
 	private final JPAModelFactory modelFactory;
 	private final JPAResourceRepository resourceRepository;
@@ -46,17 +73,36 @@ public final class JPARuntimeDelegate extends RuntimeDelegate {
 	private final JPAConstraintReportRepository constraintReportRepository;
 
 	public JPARuntimeDelegate() {
+		this(System.getProperty(PERSISTENCE_UNIT,DEFAULT_PERSISTENCE_UNIT),overrides(System.getProperties()));
+	}
+
+	JPARuntimeDelegate(String persistenceUnit, Map<String,String> overrides) {
+		this.persistenceUnit=persistenceUnit;
+		this.overrides=ImmutableMap.copyOf(overrides);
 		this.provider = new JPAEntityManagerProvider();
 		this.transactionManager = new JPATransactionManager(this.provider);
 		this.endpointRepository = new JPAEndpointRepository(this.provider);
 		this.resourceRepository = new JPAResourceRepository(this.provider);
-		this.constraintReportRepository = new JPAConstraintReportRepository(this.provider);
+		this.constraintReportRepository = new JPAConstraintReportRepository(this.provider,this.resourceRepository);
 		this.modelFactory = new JPAModelFactory(this.resourceRepository);
 	}
 
 	@Override
 	public void init() throws LifecycleException {
-		this.provider.setEntityManagerFactory(Persistence.createEntityManagerFactory("kernel"));
+		EntityManagerFactory emf=Persistence.createEntityManagerFactory(this.persistenceUnit,this.overrides);
+		try {
+			new NameEncodingMigration(emf).migrate();
+		} catch (PersistenceException e) {
+			emf.close();
+			throw new LifecycleException("Could not migrate resource identifiers to the compact encoding",e);
+		}
+		try {
+			new ContainerJoinTableMigration(emf).migrate();
+		} catch (PersistenceException e) {
+			emf.close();
+			throw new LifecycleException("Could not drop the legacy container join tables",e);
+		}
+		this.provider.setEntityManagerFactory(emf);
 	}
 
 	@Override
@@ -93,4 +139,22 @@ public final class JPARuntimeDelegate extends RuntimeDelegate {
 		this.provider.close();
 	}
 
+	/**
+	 * Persistence unit properties (JDBC connection settings, Hibernate
+	 * settings and the pool acquisition timeout) can be overridden using
+	 * system properties with the same name.
+	 */
+	static Map<String,String> overrides(Properties properties) {
+		Map<String,String> result=Maps.newLinkedHashMap();
+		for(String name:properties.stringPropertyNames()) {
+			for(String prefix:OVERRIDABLE_PREFIXES) {
+				if(name.startsWith(prefix)) {
+					result.put(name,properties.getProperty(name));
+					break;
+				}
+			}
+		}
+		return result;
+	}
+
 }
\ No newline at end of file
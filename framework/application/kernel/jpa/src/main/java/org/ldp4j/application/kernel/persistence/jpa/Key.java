@@ -72,7 +72,7 @@ final class Key implements Serializable {
 		this.cachedId=
 			ResourceId.
 				createId(
-					Key.fromBase64(this.nameValue),
+					Key.decode(this.nameValue),
 					this.templateId);
 		// Self healing...
 		this.nameType=nameTypeOf(this.cachedId.name());
@@ -149,7 +149,7 @@ final class Key implements Serializable {
 		}
 		Name<?> name = id.name();
 		String nameType=nameTypeOf(name);
-		String nameValue=Key.toBase64(name);
+		String nameValue=Key.encode(name);
 		return new Key(id,id.templateId(),nameType,nameValue);
 	}
 
@@ -157,12 +157,12 @@ final class Key implements Serializable {
 		return name.id().getClass().getCanonicalName();
 	}
 
-	static String toBase64(Name<?> name) {
-		return Encoder.valueEncoder().encode(name);
+	static String encode(Name<?> name) {
+		return Encoder.compactEncoder().encode(name);
 	}
 
-	static <T extends Serializable> Name<T> fromBase64(String data) {
-		return Encoder.valueEncoder().decode(data);
+	static <T extends Serializable> Name<T> decode(String data) {
+		return Encoder.compactEncoder().decode(data);
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,273 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-kernel-jpa:0.2.2
+ *   Bundle      : ldp4j-application-kernel-jpa-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.persistence.jpa;
+
+import java.io.IOException;
+import java.sql.Blob;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import javax.persistence.PersistenceException;
+import javax.persistence.Query;
+
+import org.hibernate.Session;
+import org.hibernate.jdbc.ReturningWork;
+import org.ldp4j.application.data.Name;
+import org.ldp4j.application.kernel.persistence.encoding.Encoder;
+import org.ldp4j.application.kernel.persistence.encoding.SerializationUtils;
+import org.ldp4j.application.kernel.resource.ResourceId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+/**
+ * Rewrites the resource identifier values stored using the legacy
+ * (serialized and base64-encoded) encoding using the compact encoding, so
+ * that databases created by previous versions can be looked up by the
+ * current version. This includes the identifiers of the resources
+ * themselves, which were stored as serialized names in columns that are no
+ * longer mapped. The migration is recorded once applied, so that it is not
+ * carried out again.
+ */
+final class NameEncodingMigration {
+
+	private static final Logger LOGGER=LoggerFactory.getLogger(NameEncodingMigration.class);
+
+	/**
+	 * Name under which the migration is recorded.
+	 */
+	static final String NAME="compact-name-encoding";
+
+	/**
+	 * Maximum number of values rewritten per statement.
+	 */
+	private static final int BATCH_SIZE=64;
+
+	/**
+	 * Entities and the {@link Key} attributes that they use.
+	 */
+	private static final String[][] KEYS={
+		{"JPAEndpoint",   "resourceId"},
+		{"JPAMember",     "memberId"},
+		{"JPAMember",     "containerId"},
+		{"JPASlug",       "containerId"},
+		{"JPAAttachment", "resourceId"},
+	};
+
+	/**
+	 * Legacy resource table and its serialized name columns.
+	 */
+	private static final String RESOURCE_TABLE="JPAResource";
+	private static final String LEGACY_ID_NAME="id_name";
+	private static final String LEGACY_PARENT_ID_NAME="parentId_name";
+
+	private final EntityManagerFactory emf;
+
+	NameEncodingMigration(EntityManagerFactory emf) {
+		this.emf=emf;
+	}
+
+	/**
+	 * Values that are not in the current canonical form: the legacy ones,
+	 * and the serialized ones, whose type might now have a lexical form.
+	 */
+	private static Map<String,String> reencode(List<String> values) {
+		Map<String,String> result=Maps.newLinkedHashMap();
+		for(String value:values) {
+			Name<?> name=Encoder.compactEncoder().decode(value);
+			String current=Encoder.compactEncoder().encode(name);
+			if(!current.equals(value)) {
+				result.put(value,current);
+			}
+		}
+		return result;
+	}
+
+	private static int migrate(EntityManager em, String entity, String attribute) {
+		String column="e."+attribute+".nameValue";
+		List<String> candidates=
+			em.createQuery("SELECT DISTINCT "+column+" FROM "+entity+" e WHERE "+column+" NOT LIKE :compact OR "+column+" LIKE :serialized",String.class).
+				setParameter("compact",Encoder.COMPACT_PREFIX+"%").
+				setParameter("serialized",Encoder.COMPACT_PREFIX+"j%").
+				getResultList();
+		int migrated=0;
+		for(List<Entry<String,String>> batch:Iterables.partition(reencode(candidates).entrySet(),BATCH_SIZE)) {
+			StringBuilder statement=new StringBuilder();
+			statement.append("UPDATE ").append(entity).append(" e SET ").append(column).append("=CASE ").append(column);
+			for(int i=0;i<batch.size();i++) {
+				statement.append(" WHEN :legacy").append(i).append(" THEN :current").append(i);
+			}
+			statement.append(" ELSE ").append(column).append(" END WHERE ").append(column).append(" IN :values");
+			Query update=em.createQuery(statement.toString());
+			List<String> values=Lists.newArrayListWithCapacity(batch.size());
+			for(int i=0;i<batch.size();i++) {
+				Entry<String,String> entry=batch.get(i);
+				update.setParameter("legacy"+i,entry.getKey());
+				update.setParameter("current"+i,entry.getValue());
+				values.add(entry.getKey());
+			}
+			migrated+=update.setParameter("values",values).executeUpdate();
+		}
+		return migrated;
+	}
+
+	private static boolean hasColumn(Connection connection, String table, String column) throws SQLException {
+		DatabaseMetaData metadata=connection.getMetaData();
+		String tablePattern=table;
+		String columnPattern=column;
+		if(metadata.storesUpperCaseIdentifiers()) {
+			tablePattern=table.toUpperCase();
+			columnPattern=column.toUpperCase();
+		} else if(metadata.storesLowerCaseIdentifiers()) {
+			tablePattern=table.toLowerCase();
+			columnPattern=column.toLowerCase();
+		}
+		ResultSet columns=metadata.getColumns(null,null,tablePattern,columnPattern);
+		try {
+			return columns.next();
+		} finally {
+			columns.close();
+		}
+	}
+
+	private static Key legacyKey(ResultSet row, String nameColumn, String templateColumn) throws SQLException {
+		Blob blob=row.getBlob(nameColumn);
+		String templateId=row.getString(templateColumn);
+		if(blob==null || templateId==null) {
+			return null;
+		}
+		try {
+			Name<?> name=SerializationUtils.deserialize(blob.getBytes(1,(int)blob.length()),Name.class);
+			return Key.newInstance(ResourceId.createId(name,templateId));
+		} catch (IOException e) {
+			throw new PersistenceException("Could not read legacy resource identifier",e);
+		}
+	}
+
+	private static void setKey(PreparedStatement statement, int offset, Key key) throws SQLException {
+		statement.setString(offset,key==null?null:key.nameType());
+		statement.setString(offset+1,key==null?null:key.nameValue());
+	}
+
+	/**
+	 * Rewrite the serialized resource identifiers into the key columns, using
+	 * JDBC batches. Only databases that still have the legacy columns are
+	 * affected.
+	 */
+	private static int migrateResources(Connection connection) throws SQLException {
+		if(!hasColumn(connection,RESOURCE_TABLE,LEGACY_ID_NAME)) {
+			return 0;
+		}
+		PreparedStatement query=
+			connection.prepareStatement(
+				"SELECT primaryKey, "+LEGACY_ID_NAME+", id_templateId, "+LEGACY_PARENT_ID_NAME+", parentId_templateId "+
+				"FROM "+RESOURCE_TABLE+" WHERE id_value IS NULL AND "+LEGACY_ID_NAME+" IS NOT NULL");
+		PreparedStatement update=
+			connection.prepareStatement(
+				"UPDATE "+RESOURCE_TABLE+" SET id_type=?, id_value=?, parentId_type=?, parentId_value=? WHERE primaryKey=?");
+		try {
+			ResultSet rows=query.executeQuery();
+			int migrated=0;
+			try {
+				while(rows.next()) {
+					setKey(update,1,legacyKey(rows,LEGACY_ID_NAME,"id_templateId"));
+					setKey(update,3,legacyKey(rows,LEGACY_PARENT_ID_NAME,"parentId_templateId"));
+					update.setLong(5,rows.getLong("primaryKey"));
+					update.addBatch();
+					if(++migrated%BATCH_SIZE==0) {
+						update.executeBatch();
+					}
+				}
+			} finally {
+				rows.close();
+			}
+			if(migrated%BATCH_SIZE!=0) {
+				update.executeBatch();
+			}
+			return migrated;
+		} finally {
+			update.close();
+			query.close();
+		}
+	}
+
+	/**
+	 * Migrate the values of every key, unless the migration has already
+	 * been applied.
+	 *
+	 * @return the number of entities updated
+	 */
+	int migrate() {
+		EntityManager em=this.emf.createEntityManager();
+		EntityTransaction tx=em.getTransaction();
+		try {
+			tx.begin();
+			if(em.find(JPAMigration.class,NAME)!=null) {
+				tx.commit();
+				LOGGER.debug("Resource identifier values already use the compact encoding");
+				return 0;
+			}
+			int migrated=
+				em.unwrap(Session.class).
+					doReturningWork(
+						new ReturningWork<Integer>() {
+							@Override
+							public Integer execute(Connection connection) throws SQLException {
+								return migrateResources(connection);
+							}
+						}
+					);
+			for(String[] key:KEYS) {
+				migrated+=migrate(em,key[0],key[1]);
+			}
+			em.persist(JPAMigration.create(NAME));
+			tx.commit();
+			if(migrated>0) {
+				LOGGER.info("Migrated {} resource identifier values to the compact encoding",migrated);
+			}
+			return migrated;
+		} finally {
+			if(tx.isActive()) {
+				tx.rollback();
+			}
+			em.close();
+		}
+	}
+
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+--
+-- #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+--   This file is part of the LDP4j Project:
+--     http://www.ldp4j.org/
+--
+--   Center for Open Middleware
+--     http://www.centeropenmiddleware.com/
+-- #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+--   Copyright (C) 2014-2016 Center for Open Middleware.
+-- #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+--   Licensed under the Apache License, Version 2.0 (the "License");
+--   you may not use this file except in compliance with the License.
+--   You may obtain a copy of the License at
+--
+--             http://www.apache.org/licenses/LICENSE-2.0
+--
+--   Unless required by applicable law or agreed to in writing, software
+--   distributed under the License is distributed on an "AS IS" BASIS,
+--   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+--   See the License for the specific language governing permissions and
+--   limitations under the License.
+-- #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+--   Artifact    : org.ldp4j.framework:ldp4j-application-kernel-jpa:0.2.2
+--   Bundle      : ldp4j-application-kernel-jpa-0.2.2.jar
+-- #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+--
+-- Schema of the 'kernel-production' persistence unit (HSQLDB dialect).
+-- The unit validates the schema on startup, so it must be created beforehand.
+--
+
+create table ENDPOINT (path varchar(255) not null, created varchar(255), deleted varchar(255), entityTag varchar(255), lastModified varchar(255), type varchar(1024), value varchar(4096), templateId varchar(1024), primary key (path));
+create table JPAAttachment (primaryKey bigint not null, id varchar(255), type varchar(1024), value varchar(4096), templateId varchar(1024), version bigint not null, primary key (primaryKey));
+create table JPAConstraintReport (primaryKey bigint not null, constraints blob(262144), date varchar(255), failureId varchar(255), name blob(255), templateId varchar(255), request blob(262144), primary key (primaryKey));
+create table JPAMember (primaryKey bigint not null, containerId_type varchar(255), containerId_value varchar(255), containerId_templateId varchar(255), memberId_type varchar(255), memberId_value varchar(255), memberId_templateId varchar(255), number bigint not null, primary key (primaryKey));
+create table JPAMigration (name varchar(255) not null, applied varchar(255), primary key (name));
+create table JPAResource (type varchar(31) not null, primaryKey bigint not null, id_type varchar(1024), id_value varchar(4096), id_templateId varchar(1024), indirectId varbinary(255), parentId_type varchar(1024), parentId_value varchar(4096), parentId_templateId varchar(1024), memberCounter bigint, primary key (primaryKey));
+create table JPAResource_JPAAttachment (JPAResource_primaryKey bigint not null, attachments_primaryKey bigint not null);
+create table JPAResource_failures (JPAResource_primaryKey bigint not null, failures varchar(255));
+create table JPASlug (primaryKey bigint not null, type varchar(1024), value varchar(4096), templateId varchar(1024), preferredPath varchar(255), version bigint not null, primary key (primaryKey));
+alter table ENDPOINT add constraint UNIQUE_ENDPOINT_PER_RESOURCE  unique (templateId, type, value);
+create index MEMBER_BY_NUMBER on JPAMember (containerId_templateId, containerId_type, containerId_value, number);
+create index MEMBER_BY_ID on JPAMember (memberId_templateId, memberId_type, memberId_value);
+alter table JPAResource_JPAAttachment add constraint UK_d083nahiakmyls9kmspuok613  unique (attachments_primaryKey);
+create index SLUG_BY_PATH on JPASlug (templateId, type, value, preferredPath);
+alter table JPAResource_JPAAttachment add constraint FK_d083nahiakmyls9kmspuok613 foreign key (attachments_primaryKey) references JPAAttachment;
+alter table JPAResource_JPAAttachment add constraint FK_w08fn2hlk7ef2lldhc6t9lfp foreign key (JPAResource_primaryKey) references JPAResource;
+alter table JPAResource_failures add constraint FK_7hbun2b53x0sy0catem91phob foreign key (JPAResource_primaryKey) references JPAResource;
+create sequence attachmentSeq start with 1 increment by 50;
+create sequence crSeq start with 1 increment by 50;
+create sequence memberSeq start with 1 increment by 50;
+create sequence resourceSeq start with 1 increment by 50;
+create sequence slugSeq start with 1 increment by 50;
@@ -0,0 +1,128 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-kernel-jpa:0.2.2
+ *   Bundle      : ldp4j-application-kernel-jpa-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.persistence.encoding;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.io.Serializable;
+import java.net.URI;
+import java.util.Date;
+
+import javax.xml.namespace.QName;
+
+import org.junit.Test;
+import org.ldp4j.application.data.Name;
+import org.ldp4j.application.data.NamingScheme;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+public class CompactEncoderTest {
+
+	private static final Name<?>[] NAMES={
+		NamingScheme.getDefault().name("http://www.ldp4j.org/resource/"),
+		NamingScheme.getDefault().name(""),
+		NamingScheme.getDefault().name("~1s"),
+		NamingScheme.getDefault().name(URI.create("http://www.ldp4j.org/resource/")),
+		NamingScheme.getDefault().name(new QName("http://www.ldp4j.org/","resource/","ldp4j")),
+		NamingScheme.getDefault().name(new QName("","local")),
+		NamingScheme.getDefault().name(new QName("urn:1:2","3:4","p:")),
+		NamingScheme.getDefault().name(Byte.MAX_VALUE),
+		NamingScheme.getDefault().name(Short.MIN_VALUE),
+		NamingScheme.getDefault().name(Integer.MAX_VALUE),
+		NamingScheme.getDefault().name(Long.MIN_VALUE),
+		NamingScheme.getDefault().name(Double.MAX_VALUE),
+		NamingScheme.getDefault().name(Float.NaN),
+		NamingScheme.getDefault().name(new BigInteger("123456789012345678901234567890")),
+		NamingScheme.getDefault().name(new BigDecimal("1.2300")),
+		NamingScheme.getDefault().name(new Date(0)),
+		NamingScheme.getDefault().name(Lists.<Serializable>newArrayList("part",1,URI.create("urn:part"),Lists.newArrayList(2L,""))),
+		NamingScheme.getDefault().name(Lists.newArrayList()),
+		NamingScheme.getDefault().name(ImmutableList.of("part")),
+	};
+
+	private final Encoder sut=Encoder.compactEncoder();
+
+	@Test
+	public void valuesAreRoundTripped() {
+		for(Name<?> name:NAMES) {
+			String data=this.sut.encode(name);
+			assertThat(data,startsWith(Encoder.COMPACT_PREFIX));
+			assertThat(Encoder.isCompact(data),equalTo(true));
+			Name<?> decoded=this.sut.decode(data);
+			assertThat(decoded,equalTo((Object)name));
+			assertThat(decoded.id().getClass(),equalTo((Object)name.id().getClass()));
+		}
+	}
+
+	@Test
+	public void legacyValuesCanBeDecoded() {
+		for(Name<?> name:NAMES) {
+			String legacy=Encoder.valueEncoder().encode(name);
+			assertThat(Encoder.isCompact(legacy),equalTo(false));
+			assertThat(this.sut.decode(legacy),equalTo((Object)name));
+		}
+	}
+
+	@Test
+	public void encodingIsCanonical() {
+		assertThat(this.sut.encode(NamingScheme.getDefault().name(12)),equalTo("~1i12"));
+		assertThat(this.sut.encode(NamingScheme.getDefault().name("value")),equalTo("~1svalue"));
+		assertThat(this.sut.encode(NamingScheme.getDefault().name(new QName("ns","local","p"))),equalTo("~1q2:ns1:plocal"));
+	}
+
+	@Test
+	public void compositeValuesAreNotSerialized() {
+		assertThat(this.sut.encode(NamingScheme.getDefault().name(Lists.<Serializable>newArrayList("a:b",12))),equalTo("~1L4:sa:b3:i12"));
+	}
+
+	@Test
+	public void encodingIsCompact() {
+		for(int i=0;i<NAMES.length-1;i++) {
+			Name<?> name=NAMES[i];
+			assertThat(this.sut.encode(name).length(),lessThan(Encoder.valueEncoder().encode(name).length()));
+		}
+	}
+
+	@Test
+	public void nullIsPreserved() {
+		assertThat(this.sut.encode(null),nullValue());
+		assertThat(this.sut.decode(null),nullValue());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void unknownTagsAreRejected() {
+		this.sut.decode(Encoder.COMPACT_PREFIX+"?value");
+	}
+
+}
@@ -0,0 +1,106 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-kernel-jpa:0.2.2
+ *   Bundle      : ldp4j-application-kernel-jpa-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.persistence.jpa;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+public class BoundedConnectionProviderTest {
+
+	private BoundedConnectionProvider sut;
+
+	@Before
+	public void setUp() {
+		Map<String,String> configuration=
+			ImmutableMap.
+				<String,String>builder().
+					put("javax.persistence.jdbc.driver","org.hsqldb.jdbc.JDBCDriver").
+					put("javax.persistence.jdbc.url","jdbc:hsqldb:mem:pool").
+					put("javax.persistence.jdbc.user","sa").
+					put("javax.persistence.jdbc.password","").
+					put(AvailableSettings.POOL_SIZE,"2").
+					put(BoundedConnectionProvider.ACQUISITION_TIMEOUT,"50").
+					build();
+		this.sut=new BoundedConnectionProvider();
+		this.sut.configure(configuration);
+	}
+
+	@After
+	public void tearDown() {
+		this.sut.stop();
+	}
+
+	@Test
+	public void releasedConnectionsAreReused() throws Exception {
+		Connection first=this.sut.getConnection();
+		this.sut.closeConnection(first);
+		assertThat(this.sut.idleConnections(),equalTo(1));
+		Connection second=this.sut.getConnection();
+		assertThat(second,sameInstance(first));
+		assertThat(second.getAutoCommit(),equalTo(false));
+		this.sut.closeConnection(second);
+	}
+
+	@Test(expected=SQLException.class)
+	public void acquisitionFailsWhenThePoolIsExhausted() throws Exception {
+		assertThat(this.sut.poolSize(),equalTo(2));
+		this.sut.getConnection();
+		this.sut.getConnection();
+		this.sut.getConnection();
+	}
+
+	@Test
+	public void releasingAConnectionUnblocksWaiters() throws Exception {
+		Connection first=this.sut.getConnection();
+		this.sut.getConnection();
+		this.sut.closeConnection(first);
+		assertThat(this.sut.getConnection(),sameInstance(first));
+	}
+
+	@Test
+	public void closedConnectionsAreDiscarded() throws Exception {
+		Connection connection=this.sut.getConnection();
+		connection.close();
+		this.sut.closeConnection(connection);
+		assertThat(this.sut.idleConnections(),equalTo(0));
+		this.sut.getConnection();
+		this.sut.getConnection();
+	}
+
+}
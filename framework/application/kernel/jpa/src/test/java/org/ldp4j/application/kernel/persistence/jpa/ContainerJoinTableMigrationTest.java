@@ -0,0 +1,161 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-kernel-jpa:0.2.2
+ *   Bundle      : ldp4j-application-kernel-jpa-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.persistence.jpa;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.application.kernel.resource.ResourceId;
+
+import com.google.common.collect.ImmutableMap;
+
+public class ContainerJoinTableMigrationTest {
+
+	private static final String URL="jdbc:hsqldb:mem:joinTables";
+
+	private static final ResourceId CONTAINER_ID=ResourceId.createId(NamingScheme.getDefault().name("container"),"container");
+	private static final ResourceId MEMBER_ID=ResourceId.createId(NamingScheme.getDefault().name("member"),"template");
+
+	private EntityManagerFactory emf;
+
+	@Before
+	public void setUp() {
+		this.emf=
+			Persistence.
+				createEntityManagerFactory(
+					JPARuntimeDelegate.DEFAULT_PERSISTENCE_UNIT,
+					ImmutableMap.of("javax.persistence.jdbc.url",URL));
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		execute("DROP TABLE JPAResource_JPAMember IF EXISTS");
+		this.emf.close();
+	}
+
+	private void execute(String... statements) throws Exception {
+		Connection connection=DriverManager.getConnection(URL,"sa","");
+		try {
+			Statement statement=connection.createStatement();
+			for(String sql:statements) {
+				statement.execute(sql);
+			}
+			statement.close();
+		} finally {
+			connection.close();
+		}
+	}
+
+	/**
+	 * Recreate the layout of previous versions, where a join table linked
+	 * the container with its members, and the members did not refer to
+	 * their container.
+	 */
+	private void createLegacyMember() throws Exception {
+		EntityManager em=this.emf.createEntityManager();
+		em.getTransaction().begin();
+		em.persist(new JPAContainer(CONTAINER_ID));
+		em.persist(new JPAMember(Key.newInstance(CONTAINER_ID),Key.newInstance(MEMBER_ID),0));
+		em.getTransaction().commit();
+		em.close();
+		execute(
+			"CREATE TABLE JPAResource_JPAMember (JPAResource_primaryKey BIGINT NOT NULL, members_primaryKey BIGINT NOT NULL)",
+			"ALTER TABLE JPAResource_JPAMember ADD CONSTRAINT FK_LEGACY_CONTAINER FOREIGN KEY (JPAResource_primaryKey) REFERENCES JPAResource",
+			"ALTER TABLE JPAResource_JPAMember ADD CONSTRAINT FK_LEGACY_MEMBER FOREIGN KEY (members_primaryKey) REFERENCES JPAMember",
+			"INSERT INTO JPAResource_JPAMember SELECT r.primaryKey, m.primaryKey FROM JPAResource r, JPAMember m",
+			"UPDATE JPAMember SET containerId_type=NULL, containerId_value=NULL, containerId_templateId=NULL");
+	}
+
+	private int deleteMembers() {
+		EntityManager em=this.emf.createEntityManager();
+		em.getTransaction().begin();
+		try {
+			int deleted=
+				em.createNamedQuery(JPAMemberRepository.DELETE_MEMBERS).
+					setParameter("containerId",Key.newInstance(CONTAINER_ID)).
+					executeUpdate();
+			em.getTransaction().commit();
+			return deleted;
+		} finally {
+			if(em.getTransaction().isActive()) {
+				em.getTransaction().rollback();
+			}
+			em.close();
+		}
+	}
+
+	private boolean membersCanBeRemoved() throws Exception {
+		try {
+			execute("DELETE FROM JPAMember");
+			return true;
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	@Test
+	public void legacyJoinTablesAreDropped() throws Exception {
+		createLegacyMember();
+		assertThat(membersCanBeRemoved(),equalTo(false));
+
+		assertThat(new ContainerJoinTableMigration(this.emf).migrate(),equalTo(1));
+
+		assertThat(membersCanBeRemoved(),equalTo(true));
+	}
+
+	@Test
+	public void containersAreRecoveredFromTheJoinTables() throws Exception {
+		createLegacyMember();
+
+		assertThat(new ContainerJoinTableMigration(this.emf).migrate(),equalTo(1));
+
+		assertThat(deleteMembers(),equalTo(1));
+	}
+
+	@Test
+	public void migrationIsOnlyAppliedOnce() throws Exception {
+		assertThat(new ContainerJoinTableMigration(this.emf).migrate(),equalTo(0));
+		createLegacyMember();
+
+		assertThat(new ContainerJoinTableMigration(this.emf).migrate(),equalTo(0));
+		assertThat(membersCanBeRemoved(),equalTo(false));
+	}
+
+}
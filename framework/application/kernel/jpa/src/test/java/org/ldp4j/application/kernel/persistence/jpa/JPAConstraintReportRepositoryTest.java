@@ -27,7 +27,10 @@
 package org.ldp4j.application.kernel.persistence.jpa;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 import org.ldp4j.application.data.constraints.Constraints;
@@ -95,6 +98,37 @@ public class JPAConstraintReportRepositoryTest extends AbstractJPARepositoryTest
 		);
 	}
 
+	@Test
+	public void testEvictionOfExpiredReports() throws Exception {
+		final ResourceId resourceId = ResourceId.createId(name("expiring"),"template");
+		final Date expired = new Date(System.currentTimeMillis()-TimeUnit.DAYS.toMillis(1));
+		final List<ConstraintReport> reports=new ArrayList<ConstraintReport>();
+		for(int i=0;i<64;i++) {
+			reports.add(new JPAConstraintReport(ConstraintReportId.create(resourceId, "expired"+i), expired,httpRequest(),null));
+		}
+		withinTransaction(
+			new Task<ConstraintReportRepository>("Creating expired reports") {
+				@Override
+				public void execute(ConstraintReportRepository sut) {
+					for(ConstraintReport report:reports) {
+						sut.add(report);
+					}
+				}
+			}
+		);
+		clear();
+		withinTransaction(
+			new Task<ConstraintReportRepository>("Retrieving expired reports") {
+				@Override
+				public void execute(ConstraintReportRepository sut) {
+					for(ConstraintReport report:reports) {
+						assertThat(sut.constraintReportOfId(report.id()),nullValue());
+					}
+				}
+			}
+		);
+	}
+
 	@Override
 	protected ConstraintReportRepository getSubjectUnderTest(JPARuntimeDelegate delegate) {
 		return delegate.getConstraintReportRepository();
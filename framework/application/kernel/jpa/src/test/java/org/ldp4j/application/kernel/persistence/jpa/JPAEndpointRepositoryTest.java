@@ -26,9 +26,14 @@
  */
 package org.ldp4j.application.kernel.persistence.jpa;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -39,6 +44,7 @@ import org.ldp4j.application.kernel.endpoint.Endpoint;
 import org.ldp4j.application.kernel.endpoint.EndpointRepository;
 import org.ldp4j.application.kernel.persistence.jpa.JPARuntimeDelegate;
 import org.ldp4j.application.kernel.resource.Resource;
+import org.ldp4j.application.kernel.resource.ResourceId;
 import org.ldp4j.example.PersonHandler;
 
 public class JPAEndpointRepositoryTest extends AbstractJPARepositoryTest<EndpointRepository> {
@@ -85,6 +91,45 @@ public class JPAEndpointRepositoryTest extends AbstractJPARepositoryTest<Endpoin
 		clear();
 	}
 
+	@Test
+	public void testBatchRetrieval() throws Exception {
+		final List<Endpoint> endpoints=new ArrayList<Endpoint>();
+		for(int i=0;i<100;i++) {
+			Resource resource = rootResource(NamingScheme.getDefault().name(this.name.getMethodName()+i),PersonHandler.ID);
+			endpoints.add(super.endpoint("batch"+i,resource));
+		}
+		final Resource missing = rootResource(NamingScheme.getDefault().name(this.name.getMethodName()+"missing"),PersonHandler.ID);
+		withinTransaction(
+			new Task<EndpointRepository>("Creating endpoints") {
+				@Override
+				public void execute(EndpointRepository sut) {
+					for(Endpoint endpoint:endpoints) {
+						sut.add(endpoint);
+					}
+				}
+			}
+		);
+		clear();
+		withinTransaction(
+			new Task<EndpointRepository>("Finding endpoints by resource id") {
+				@Override
+				public void execute(EndpointRepository sut) {
+					List<ResourceId> ids=new ArrayList<ResourceId>();
+					for(Endpoint endpoint:endpoints) {
+						ids.add(endpoint.resourceId());
+					}
+					ids.add(missing.id());
+					Map<ResourceId,Endpoint> result=sut.endpointsOfResources(ids);
+					assertThat(result.size(),equalTo(endpoints.size()));
+					for(Endpoint endpoint:endpoints) {
+						assertThat(result.get(endpoint.resourceId()).path(),equalTo(endpoint.path()));
+					}
+					assertThat(result.containsKey(missing.id()),equalTo(false));
+				}
+			}
+		);
+	}
+
 	@Test
 	public void testUniqueResourceId() throws Exception {
 		Resource resource = rootResource(resourceName(),PersonHandler.ID);
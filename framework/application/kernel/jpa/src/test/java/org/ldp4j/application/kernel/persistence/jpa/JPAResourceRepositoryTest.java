@@ -26,7 +26,14 @@
  */
 package org.ldp4j.application.kernel.persistence.jpa;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
 import java.util.Date;
+import java.util.List;
 
 import org.junit.Test;
 import org.ldp4j.application.data.Name;
@@ -35,6 +42,7 @@ import org.ldp4j.application.kernel.constraints.ConstraintReport;
 import org.ldp4j.application.kernel.persistence.jpa.JPARuntimeDelegate;
 import org.ldp4j.application.kernel.resource.Attachment;
 import org.ldp4j.application.kernel.resource.Container;
+import org.ldp4j.application.kernel.resource.Member;
 import org.ldp4j.application.kernel.resource.Resource;
 import org.ldp4j.application.kernel.resource.ResourceId;
 import org.ldp4j.application.kernel.resource.ResourceRepository;
@@ -144,6 +152,85 @@ public class JPAResourceRepositoryTest extends AbstractJPARepositoryTest<Resourc
 		);
 	}
 
+	@Test
+	public void testContainerMembership() throws Exception {
+		final Name<String> containerName = NamingScheme.getDefault().name("membershipContainer");
+		final ResourceId containerId = ResourceId.createId(containerName,PersonContainerHandler.ID);
+		final Container container = rootContainer(containerName, PersonContainerHandler.ID);
+		withinTransaction(
+			new Task<ResourceRepository>("Populating container") {
+				@Override
+				public void execute(ResourceRepository sut) {
+					sut.add(container);
+					for(int i=0;i<5;i++) {
+						sut.add(container.addMember(memberId(i)));
+					}
+					container.addSlug("slug").nextPath();
+				}
+			}
+		);
+		clear();
+		withinTransaction(
+			new Task<ResourceRepository>("Querying members and slugs") {
+				@Override
+				public void execute(ResourceRepository sut) {
+					Container result = sut.containerOfId(containerId);
+					assertThat(result.members(),hasSize(5));
+					assertThat(result.hasMember(memberId(3)),equalTo(true));
+					assertThat(result.hasMember(memberId(7)),equalTo(false));
+					assertThat(result.findMember(memberId(3)).number(),equalTo(3L));
+					List<Member> range=result.members(1,2);
+					assertThat(range,hasSize(2));
+					assertThat(range.get(0).memberId(),equalTo(memberId(1)));
+					assertThat(range.get(1).memberId(),equalTo(memberId(2)));
+					assertThat(result.members(1,0),hasSize(0));
+					List<Member> previous=result.membersBefore(3,5);
+					assertThat(previous,hasSize(3));
+					assertThat(previous.get(0).memberId(),equalTo(memberId(2)));
+					assertThat(previous.get(2).memberId(),equalTo(memberId(0)));
+					assertThat(result.membersBefore(0,5),hasSize(0));
+					assertThat(result.slugs(),hasSize(1));
+					assertThat(result.findSlug("slug").version(),equalTo(1L));
+					assertThat(result.addSlug("slug").nextPath(),equalTo("slug_1"));
+					assertThat(result.removeMember(result.findMember(memberId(0))),equalTo(true));
+				}
+			}
+		);
+		clear();
+		withinTransaction(
+			new Task<ResourceRepository>("Removing container") {
+				@Override
+				public void execute(ResourceRepository sut) {
+					Container result = sut.containerOfId(containerId);
+					assertThat(result.members(),hasSize(4));
+					assertThat(result.findMember(memberId(0)),nullValue());
+					assertThat(result.findSlug("slug").version(),equalTo(2L));
+					Resource member=result.addMember(memberId(5));
+					sut.add(member);
+					assertThat(result.findMember(memberId(5)),notNullValue());
+					assertThat(result.findMember(memberId(5)).number(),equalTo(5L));
+					sut.remove(result);
+				}
+			}
+		);
+		clear();
+		withinTransaction(
+			new Task<ResourceRepository>("Checking removal") {
+				@Override
+				public void execute(ResourceRepository sut) {
+					assertThat(sut.containerOfId(containerId),nullValue());
+					Container recreated=rootContainer(containerName, PersonContainerHandler.ID);
+					assertThat(recreated.members(),hasSize(0));
+					assertThat(recreated.slugs(),hasSize(0));
+				}
+			}
+		);
+	}
+
+	private static ResourceId memberId(int i) {
+		return ResourceId.createId(NamingScheme.getDefault().name("member",Integer.toString(i)), PersonHandler.ID);
+	}
+
 	@Override
 	protected ResourceRepository getSubjectUnderTest(JPARuntimeDelegate delegate) {
 		return delegate.getResourceRepository();
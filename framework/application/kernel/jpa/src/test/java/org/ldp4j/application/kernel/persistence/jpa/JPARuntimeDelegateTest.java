@@ -0,0 +1,158 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-kernel-jpa:0.2.2
+ *   Bundle      : ldp4j-application-kernel-jpa-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.persistence.jpa;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.notNullValue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Date;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.IdentityGenerator;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.junit.Test;
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.application.engine.context.EntityTag;
+import org.ldp4j.application.kernel.endpoint.Endpoint;
+import org.ldp4j.application.kernel.resource.ResourceId;
+import org.ldp4j.application.kernel.transaction.Transaction;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.Resources;
+
+public class JPARuntimeDelegateTest {
+
+	private static final String URL="jdbc:hsqldb:mem:production";
+
+	private static ResourceId resourceId(int i) {
+		return ResourceId.createId(NamingScheme.getDefault().name(i),"resource");
+	}
+
+	@Test
+	public void onlyPersistenceSettingsCanBeOverridden() {
+		Properties properties=new Properties();
+		properties.setProperty("javax.persistence.jdbc.url",URL);
+		properties.setProperty("hibernate.connection.pool_size","4");
+		properties.setProperty(BoundedConnectionProvider.ACQUISITION_TIMEOUT,"100");
+		properties.setProperty("java.version","1.7");
+		Map<String,String> overrides=JPARuntimeDelegate.overrides(properties);
+		assertThat(overrides.size(),equalTo(3));
+		assertThat(overrides,hasEntry("javax.persistence.jdbc.url",URL));
+		assertThat(overrides,not(hasKey("java.version")));
+	}
+
+	private static void createSchema(String url) throws Exception {
+		String script=Resources.toString(Resources.getResource("META-INF/ldp4j/kernel-schema.sql"),Charsets.UTF_8);
+		Connection connection=DriverManager.getConnection(url,"sa","");
+		try {
+			Statement statement=connection.createStatement();
+			for(String line:script.split("\n")) {
+				if(!line.isEmpty() && !line.startsWith("--")) {
+					statement.execute(line.substring(0,line.lastIndexOf(';')));
+				}
+			}
+			statement.close();
+		} finally {
+			connection.close();
+		}
+	}
+
+	private static IdentifierGenerator keyGenerator(String persistenceUnit, Map<String,String> overrides, Class<?> entity) {
+		EntityManagerFactory emf=Persistence.createEntityManagerFactory(persistenceUnit,overrides);
+		try {
+			return emf.unwrap(SessionFactoryImplementor.class).getIdentifierGenerator(entity.getName());
+		} finally {
+			emf.close();
+		}
+	}
+
+	@Test
+	public void defaultProfileKeepsIdentityColumns() throws Exception {
+		Map<String,String> overrides=ImmutableMap.of();
+		for(Class<?> entity:new Class<?>[]{JPAResource.class,JPAAttachment.class,JPAConstraintReport.class}) {
+			assertThat(keyGenerator(JPARuntimeDelegate.DEFAULT_PERSISTENCE_UNIT,overrides,entity),instanceOf(IdentityGenerator.class));
+		}
+	}
+
+	@Test
+	public void productionProfileUsesSequences() throws Exception {
+		Map<String,String> overrides=ImmutableMap.of("javax.persistence.jdbc.url","jdbc:hsqldb:mem:sequences");
+		createSchema("jdbc:hsqldb:mem:sequences");
+		for(Class<?> entity:new Class<?>[]{JPAResource.class,JPAAttachment.class,JPAConstraintReport.class}) {
+			IdentifierGenerator generator=keyGenerator(JPARuntimeDelegate.PRODUCTION_PERSISTENCE_UNIT,overrides,entity);
+			assertThat(generator,instanceOf(SequenceStyleGenerator.class));
+		}
+		assertThat(
+			((SequenceStyleGenerator)keyGenerator(JPARuntimeDelegate.PRODUCTION_PERSISTENCE_UNIT,overrides,JPAResource.class)).getDatabaseStructure().getName(),
+			equalTo("resourceSeq"));
+	}
+
+	@Test
+	public void productionProfileValidatesTheShippedSchema() throws Exception {
+		Map<String,String> overrides=ImmutableMap.of("javax.persistence.jdbc.url",URL);
+		createSchema(URL);
+
+		JPARuntimeDelegate sut=new JPARuntimeDelegate(JPARuntimeDelegate.PRODUCTION_PERSISTENCE_UNIT,overrides);
+		sut.init();
+		try {
+			Transaction tx=sut.getTransactionManager().currentTransaction();
+			tx.begin();
+			for(int i=0;i<100;i++) {
+				sut.getResourceRepository().add(new JPAResource(resourceId(i),null));
+				sut.getEndpointRepository().add(JPAEndpoint.create("resource/"+i,resourceId(i),new Date(),EntityTag.createStrong("tag")));
+			}
+			tx.commit();
+			sut.clear();
+			tx=sut.getTransactionManager().currentTransaction();
+			tx.begin();
+			for(int i=0;i<100;i++) {
+				Endpoint endpoint=sut.getEndpointRepository().endpointOfResource(resourceId(i));
+				assertThat(endpoint,notNullValue());
+				assertThat(endpoint.path(),equalTo("resource/"+i));
+			}
+			tx.commit();
+		} finally {
+			sut.shutdown();
+		}
+	}
+
+}
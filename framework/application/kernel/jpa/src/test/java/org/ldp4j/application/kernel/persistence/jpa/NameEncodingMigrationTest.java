@@ -0,0 +1,215 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-kernel-jpa:0.2.2
+ *   Bundle      : ldp4j-application-kernel-jpa-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.persistence.jpa;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Date;
+import java.util.List;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.application.engine.context.EntityTag;
+import org.ldp4j.application.kernel.persistence.encoding.Encoder;
+import org.ldp4j.application.kernel.persistence.encoding.SerializationUtils;
+import org.ldp4j.application.kernel.resource.ResourceId;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.io.BaseEncoding;
+
+public class NameEncodingMigrationTest {
+
+	private static final String URL="jdbc:hsqldb:mem:migration";
+
+	private static final ResourceId RESOURCE_ID=ResourceId.createId(NamingScheme.getDefault().name(12L),"template");
+	private static final ResourceId PARENT_ID=ResourceId.createId(NamingScheme.getDefault().name("parent"),"container");
+
+	private EntityManagerFactory emf;
+
+	@Before
+	public void setUp() {
+		this.emf=
+			Persistence.
+				createEntityManagerFactory(
+					JPARuntimeDelegate.DEFAULT_PERSISTENCE_UNIT,
+					ImmutableMap.of("javax.persistence.jdbc.url",URL));
+	}
+
+	@After
+	public void tearDown() {
+		this.emf.close();
+	}
+
+	private void execute(String query, Object... parameters) {
+		EntityManager em=this.emf.createEntityManager();
+		em.getTransaction().begin();
+		javax.persistence.Query update=em.createQuery(query);
+		for(int i=0;i<parameters.length;i+=2) {
+			update.setParameter((String)parameters[i],parameters[i+1]);
+		}
+		update.executeUpdate();
+		em.getTransaction().commit();
+		em.close();
+	}
+
+	private List<JPAEndpoint> findByResourceId(ResourceId id) {
+		EntityManager em=this.emf.createEntityManager();
+		try {
+			return
+				em.createNamedQuery(JPAEndpointRepository.FIND_BY_RESOURCE_ID,JPAEndpoint.class).
+					setParameter("resourceId",Key.newInstance(id)).
+					getResultList();
+		} finally {
+			em.close();
+		}
+	}
+
+	private JPAResource findResource(ResourceId id) {
+		EntityManager em=this.emf.createEntityManager();
+		try {
+			List<JPAResource> resources=
+				em.createNamedQuery(JPAResourceRepository.FIND_BY_ID,JPAResource.class).
+					setParameter("id",Key.newInstance(id)).
+					getResultList();
+			return resources.isEmpty()?null:resources.get(0);
+		} finally {
+			em.close();
+		}
+	}
+
+	/**
+	 * Recreate the layout of previous versions, which stored the names of
+	 * the resource identifiers serialized.
+	 */
+	private void createLegacyResource(ResourceId id, ResourceId parentId) throws Exception {
+		Connection connection=DriverManager.getConnection(URL,"sa","");
+		try {
+			Statement statement=connection.createStatement();
+			statement.execute("ALTER TABLE JPAResource ADD COLUMN id_name BLOB");
+			statement.execute("ALTER TABLE JPAResource ADD COLUMN parentId_name BLOB");
+			statement.close();
+			PreparedStatement insert=connection.prepareStatement("INSERT INTO JPAResource (type, primaryKey, id_name, id_templateId, parentId_name, parentId_templateId) VALUES ('resource', 1000, ?, ?, ?, ?)");
+			insert.setBytes(1,SerializationUtils.serialize(id.name()));
+			insert.setString(2,id.templateId());
+			insert.setBytes(3,SerializationUtils.serialize(parentId.name()));
+			insert.setString(4,parentId.templateId());
+			insert.executeUpdate();
+			insert.close();
+		} finally {
+			connection.close();
+		}
+	}
+
+	@Test
+	public void legacyResourceIdentifiersAreMigrated() throws Exception {
+		createLegacyResource(RESOURCE_ID,PARENT_ID);
+		assertThat(findResource(RESOURCE_ID),nullValue());
+
+		assertThat(new NameEncodingMigration(this.emf).migrate(),equalTo(1));
+
+		JPAResource resource=findResource(RESOURCE_ID);
+		assertThat(resource,notNullValue());
+		assertThat(resource.id(),equalTo(RESOURCE_ID));
+		assertThat(resource.parentId(),equalTo(PARENT_ID));
+	}
+
+	@Test
+	public void serializedValuesWithALexicalFormAreMigrated() {
+		ResourceId id=ResourceId.createId(NamingScheme.getDefault().name(new Date(0)),"template");
+		EntityManager em=this.emf.createEntityManager();
+		em.getTransaction().begin();
+		em.persist(JPAEndpoint.create("resource",id,new Date(),EntityTag.createStrong("tag")));
+		em.getTransaction().commit();
+		em.close();
+		execute("UPDATE JPAEndpoint e SET e.resourceId.nameValue=:serialized","serialized","~1j"+BaseEncoding.base64().encode(serialize(new Date(0))));
+		assertThat(findByResourceId(id),hasSize(0));
+
+		assertThat(new NameEncodingMigration(this.emf).migrate(),equalTo(1));
+
+		assertThat(findByResourceId(id),hasSize(1));
+	}
+
+	@Test
+	public void migrationIsOnlyAppliedOnce() {
+		assertThat(new NameEncodingMigration(this.emf).migrate(),equalTo(0));
+		EntityManager em=this.emf.createEntityManager();
+		em.getTransaction().begin();
+		em.persist(JPAEndpoint.create("resource",RESOURCE_ID,new Date(),EntityTag.createStrong("tag")));
+		em.getTransaction().commit();
+		em.close();
+		execute("UPDATE JPAEndpoint e SET e.resourceId.nameValue=:legacy","legacy",Encoder.valueEncoder().encode(RESOURCE_ID.name()));
+
+		assertThat(new NameEncodingMigration(this.emf).migrate(),equalTo(0));
+		assertThat(findByResourceId(RESOURCE_ID),hasSize(0));
+	}
+
+	private static byte[] serialize(Serializable value) {
+		try {
+			return SerializationUtils.serialize(value);
+		} catch (IOException e) {
+			throw new AssertionError(e);
+		}
+	}
+
+	@Test
+	public void legacyValuesAreMigrated() {
+		EntityManager em=this.emf.createEntityManager();
+		em.getTransaction().begin();
+		em.persist(JPAEndpoint.create("resource",RESOURCE_ID,new Date(),EntityTag.createStrong("tag")));
+		em.getTransaction().commit();
+		em.close();
+
+		String legacy=Encoder.valueEncoder().encode(RESOURCE_ID.name());
+		execute("UPDATE JPAEndpoint e SET e.resourceId.nameValue=:legacy","legacy",legacy);
+		assertThat(findByResourceId(RESOURCE_ID),hasSize(0));
+
+		assertThat(new NameEncodingMigration(this.emf).migrate(),equalTo(1));
+
+		List<JPAEndpoint> endpoints=findByResourceId(RESOURCE_ID);
+		assertThat(endpoints,hasSize(1));
+		assertThat(endpoints.get(0).resourceId(),notNullValue());
+		assertThat(endpoints.get(0).resourceId(),equalTo(RESOURCE_ID));
+		assertThat(new NameEncodingMigration(this.emf).migrate(),equalTo(0));
+	}
+
+}
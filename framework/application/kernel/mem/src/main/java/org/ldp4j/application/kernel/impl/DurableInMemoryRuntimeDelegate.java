@@ -0,0 +1,322 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-kernel-mem:0.2.2
+ *   Bundle      : ldp4j-application-kernel-mem-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.ldp4j.application.data.Name;
+import org.ldp4j.application.engine.context.EntityTag;
+import org.ldp4j.application.kernel.constraints.ConstraintReportRepository;
+import org.ldp4j.application.kernel.endpoint.Endpoint;
+import org.ldp4j.application.kernel.endpoint.EndpointRepository;
+import org.ldp4j.application.kernel.lifecycle.LifecycleException;
+import org.ldp4j.application.kernel.resource.Resource;
+import org.ldp4j.application.kernel.resource.ResourceId;
+import org.ldp4j.application.kernel.resource.ResourceRepository;
+import org.ldp4j.application.kernel.spi.ModelFactory;
+import org.ldp4j.application.kernel.spi.RuntimeDelegate;
+import org.ldp4j.application.kernel.template.ResourceTemplate;
+import org.ldp4j.application.kernel.template.TemplateLibrary;
+import org.ldp4j.application.kernel.transaction.TransactionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Runtime delegate that keeps the resources and endpoints in memory, like
+ * {@link InMemoryRuntimeDelegate}, but records the committed changes in a
+ * write-ahead log stored in a local directory, so that they survive
+ * restarts. The log is configured using the system properties
+ * {@value #JOURNAL_DIRECTORY}, {@value #SYNC_POLICY} (one of {@code ALWAYS},
+ * {@code GROUP} or {@code NEVER}) and {@value #CHECKPOINT_THRESHOLD} (size
+ * in bytes of the log after which a snapshot is taken). Constraint reports
+ * are not journaled.
+ */
+public final class DurableInMemoryRuntimeDelegate extends RuntimeDelegate {
+
+	public static final String JOURNAL_DIRECTORY="org.ldp4j.application.kernel.mem.journal.directory";
+	public static final String SYNC_POLICY="org.ldp4j.application.kernel.mem.journal.syncPolicy";
+	public static final String CHECKPOINT_THRESHOLD="org.ldp4j.application.kernel.mem.journal.checkpointThreshold";
+
+	private static final Logger LOGGER=LoggerFactory.getLogger(DurableInMemoryRuntimeDelegate.class);
+
+	private static final InMemoryJournal.SyncPolicy DEFAULT_SYNC_POLICY=InMemoryJournal.SyncPolicy.GROUP;
+	private static final long DEFAULT_CHECKPOINT_THRESHOLD=64L*1024*1024;
+
+	/**
+	 * The resources recovered from the journal are created before the
+	 * templates are available, so they get the template library when it is
+	 * provided.
+	 */
+	private final class RecoveryAwareModelFactory implements ModelFactory {
+
+		@Override
+		public void useTemplates(TemplateLibrary library) {
+			modelFactory.useTemplates(library);
+			for(Resource resource:resourceRepository.committedResources()) {
+				((InMemoryResource)resource).setTemplateLibrary(library);
+			}
+		}
+
+		@Override
+		public Endpoint createEndpoint(String path, Resource resource, Date created, EntityTag entityTag) {
+			return modelFactory.createEndpoint(path,resource,created,entityTag);
+		}
+
+		@Override
+		public Resource createResource(ResourceTemplate template, Name<?> name) {
+			return modelFactory.createResource(template,name);
+		}
+
+	}
+
+	private final class RepositoryReplay implements InMemoryJournal.Replay {
+
+		@Override
+		public InMemoryResource resource(ResourceId id) {
+			return resourceRepository.resourceById(id,InMemoryResource.class);
+		}
+
+		@Override
+		public void restoreResource(InMemoryResource resource) {
+			resourceRepository.restore(resource);
+		}
+
+		@Override
+		public void removeResource(ResourceId id) {
+			resourceRepository.forget(id);
+		}
+
+		@Override
+		public void restoreEndpoint(InMemoryEndpoint endpoint) {
+			endpointRepository.restore(endpoint);
+		}
+
+	}
+
+	private final InMemoryJournal journal;
+	private final InMemoryModelFactory modelFactory;
+	private final RecoveryAwareModelFactory recoveryAwareModelFactory;
+	private final InMemoryResourceRepository resourceRepository;
+	private final InMemoryEndpointRepository endpointRepository;
+	private final InMemoryConstraintReportRepository constraintReportRepository;
+	private final InMemoryTransactionManager transactionManager;
+
+	private ExecutorService checkpointer;
+
+	public DurableInMemoryRuntimeDelegate() {
+		this(
+			new InMemoryJournal(
+				journalDirectory(),
+				syncPolicy(),
+				checkpointThreshold()));
+	}
+
+	DurableInMemoryRuntimeDelegate(InMemoryJournal journal) {
+		this.journal=journal;
+		this.modelFactory=new InMemoryModelFactory();
+		this.recoveryAwareModelFactory=new RecoveryAwareModelFactory();
+		this.resourceRepository=new InMemoryResourceRepository(journal);
+		this.endpointRepository=new InMemoryEndpointRepository(journal);
+		this.transactionManager=new InMemoryTransactionManager(journal);
+		this.constraintReportRepository=new InMemoryConstraintReportRepository(this.resourceRepository,this.transactionManager);
+	}
+
+	private static File journalDirectory() {
+		String value=System.getProperty(JOURNAL_DIRECTORY);
+		if(value==null || value.trim().isEmpty()) {
+			return new File(new File(System.getProperty("user.home"),".ldp4j"),"journal");
+		}
+		return new File(value.trim());
+	}
+
+	private static InMemoryJournal.SyncPolicy syncPolicy() {
+		String value=System.getProperty(SYNC_POLICY);
+		if(value==null) {
+			return DEFAULT_SYNC_POLICY;
+		}
+		try {
+			return InMemoryJournal.SyncPolicy.valueOf(value.trim().toUpperCase(Locale.ENGLISH));
+		} catch (IllegalArgumentException e) {
+			LOGGER.trace("Could not parse {} value '{}'",SYNC_POLICY,value,e);
+			LOGGER.warn("Invalid {} value '{}': it must be one of {}. Using default ({}) instead.",SYNC_POLICY,value,InMemoryJournal.SyncPolicy.values(),DEFAULT_SYNC_POLICY);
+			return DEFAULT_SYNC_POLICY;
+		}
+	}
+
+	private static long checkpointThreshold() {
+		String value=System.getProperty(CHECKPOINT_THRESHOLD);
+		if(value==null) {
+			return DEFAULT_CHECKPOINT_THRESHOLD;
+		}
+		try {
+			long result=Long.parseLong(value.trim());
+			if(result>0) {
+				return result;
+			}
+		} catch (NumberFormatException e) {
+			LOGGER.trace("Could not parse {} value '{}'",CHECKPOINT_THRESHOLD,value,e);
+		}
+		LOGGER.warn("Invalid {} value '{}': it must be a positive integer. Using default ({}) instead.",CHECKPOINT_THRESHOLD,value,DEFAULT_CHECKPOINT_THRESHOLD);
+		return DEFAULT_CHECKPOINT_THRESHOLD;
+	}
+
+	/**
+	 * Snapshot the committed state, so that the journal segments written so
+	 * far can be discarded.
+	 */
+	void checkpoint() throws IOException {
+		long segment=this.transactionManager.rotateJournal();
+		this.journal.
+			writeSnapshot(
+				segment,
+				this.resourceRepository.committedResources(),
+				this.endpointRepository.committedEndpoints());
+	}
+
+	private void requestCheckpoint() {
+		try {
+			this.checkpointer.execute(
+				new Runnable() {
+					@Override
+					public void run() {
+						try {
+							checkpoint();
+						} catch (Exception e) {
+							LOGGER.warn("Could not checkpoint journal {}",journal,e);
+						}
+					}
+				}
+			);
+		} catch (RejectedExecutionException e) {
+			LOGGER.debug("Discarded checkpoint request: delegate is shutting down",e);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ModelFactory getModelFactory() {
+		return this.recoveryAwareModelFactory;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ConstraintReportRepository getConstraintReportRepository() {
+		return this.constraintReportRepository;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public EndpointRepository getEndpointRepository() {
+		return this.endpointRepository;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public ResourceRepository getResourceRepository() {
+		return this.resourceRepository;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public TransactionManager getTransactionManager() {
+		return this.transactionManager;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void init() throws LifecycleException {
+		try {
+			this.journal.open(new RepositoryReplay());
+		} catch (IOException e) {
+			throw new LifecycleException("Could not recover journal "+this.journal,e);
+		}
+		this.checkpointer=
+			Executors.newSingleThreadExecutor(
+				new ThreadFactoryBuilder().
+					setNameFormat("ldp4j-journal-checkpointer-%d").
+					setDaemon(true).
+					build());
+		this.journal.onCheckpointRequired(
+			new Runnable() {
+				@Override
+				public void run() {
+					requestCheckpoint();
+				}
+			}
+		);
+		this.resourceRepository.init();
+		this.constraintReportRepository.init();
+		this.endpointRepository.init();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void shutdown() throws LifecycleException {
+		if(this.checkpointer==null) {
+			return;
+		}
+		try {
+			this.checkpointer.shutdown();
+			this.checkpointer.awaitTermination(1,TimeUnit.MINUTES);
+			checkpoint();
+			this.journal.close();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new LifecycleException("Interrupted while closing journal "+this.journal,e);
+		} catch (IOException e) {
+			throw new LifecycleException("Could not close journal "+this.journal,e);
+		} finally {
+			this.endpointRepository.shutdown();
+			this.constraintReportRepository.shutdown();
+			this.resourceRepository.shutdown();
+		}
+	}
+
+}
@@ -28,33 +28,145 @@ package org.ldp4j.application.kernel.impl;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.ldp4j.application.kernel.constraints.ConstraintReport;
 import org.ldp4j.application.kernel.constraints.ConstraintReportId;
+import org.ldp4j.application.kernel.constraints.ConstraintReportPolicy;
 import org.ldp4j.application.kernel.constraints.ConstraintReportRepository;
 import org.ldp4j.application.kernel.lifecycle.LifecycleException;
 import org.ldp4j.application.kernel.lifecycle.Managed;
 import org.ldp4j.application.kernel.resource.Resource;
 import org.ldp4j.application.kernel.resource.ResourceId;
+import org.ldp4j.application.kernel.resource.ResourceRepository;
+import org.ldp4j.application.kernel.transaction.Transaction;
+import org.ldp4j.application.kernel.transaction.TransactionManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
+/**
+ * Constraint report repository bounded by a {@link ConstraintReportPolicy}.
+ * Reports are kept in insertion order, so that the oldest are evicted first
+ * whenever the maximum number of reports is exceeded. Expired reports are
+ * evicted as new reports are added and periodically by a background task,
+ * so that they do not pile up when no further failures happen. The
+ * background task forgets the evicted reports in the resources they belong
+ * to within its own transaction.
+ */
 final class InMemoryConstraintReportRepository implements Managed, ConstraintReportRepository {
 
+	private static final Logger LOGGER=LoggerFactory.getLogger(InMemoryConstraintReportRepository.class);
+
+	private static final long MIN_EVICTION_PERIOD=1000;
+	private static final long MAX_EVICTION_PERIOD=60000;
+
 	private final ReadWriteLock lock=new ReentrantReadWriteLock();
 	private final Multimap<ResourceId, String> failureIds;
 	private final Map<ConstraintReportId,ConstraintReport> reports;
+	private final ResourceRepository resourceRepository;
+	private final TransactionManager transactionManager;
+	private final ConstraintReportPolicy policy;
+
+	private ScheduledExecutorService evictor;
 
-	InMemoryConstraintReportRepository() {
+	InMemoryConstraintReportRepository(ResourceRepository resourceRepository, TransactionManager transactionManager, ConstraintReportPolicy policy) {
+		this.resourceRepository=resourceRepository;
+		this.transactionManager=checkNotNull(transactionManager,"Transaction manager cannot be null");
+		this.policy=checkNotNull(policy,"Constraint report policy cannot be null");
 		this.reports=Maps.newLinkedHashMap();
 		this.failureIds=LinkedHashMultimap.create();
 	}
 
+	InMemoryConstraintReportRepository(ResourceRepository resourceRepository, TransactionManager transactionManager) {
+		this(resourceRepository,transactionManager,ConstraintReportPolicy.fromSystemProperties());
+	}
+
+	private void unregister(ConstraintReportId id) {
+		this.failureIds.remove(id.resourceId(),id.failureId());
+		this.reports.remove(id);
+	}
+
+	/**
+	 * Remove the expired reports and those exceeding the maximum number of
+	 * reports. Must be called holding the write lock.
+	 */
+	private void collectEvictions(long now, List<ConstraintReport> evicted) {
+		int excess=this.reports.size()-this.policy.maxReports();
+		final Iterator<ConstraintReport> iterator=this.reports.values().iterator();
+		while(iterator.hasNext()) {
+			final ConstraintReport report=iterator.next();
+			if(excess<=0 && !this.policy.isExpired(report,now)) {
+				break;
+			}
+			iterator.remove();
+			final ConstraintReportId id=report.id();
+			this.failureIds.remove(id.resourceId(),id.failureId());
+			evicted.add(report);
+			excess--;
+		}
+	}
+
+	/**
+	 * Forget the evicted reports in the resources that they belong to. Must
+	 * be called without holding the lock.
+	 */
+	private void detach(List<ConstraintReport> evicted) {
+		if(evicted.isEmpty()) {
+			return;
+		}
+		LOGGER.debug("Evicted {} constraint reports",evicted.size());
+		if(this.resourceRepository==null) {
+			return;
+		}
+		for(ConstraintReport report:evicted) {
+			Resource resource=this.resourceRepository.resourceById(report.id().resourceId(),Resource.class);
+			if(resource!=null) {
+				resource.removeFailure(report);
+			}
+		}
+	}
+
+	/**
+	 * Evict the expired reports. As this is not carried out on behalf of any
+	 * request, the evicted reports are forgotten by their resources within a
+	 * dedicated transaction.
+	 */
+	void evict() {
+		final List<ConstraintReport> evicted=Lists.newArrayList();
+		this.lock.writeLock().lock();
+		try {
+			collectEvictions(this.policy.now(),evicted);
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+		if(evicted.isEmpty()) {
+			return;
+		}
+		final Transaction transaction=this.transactionManager.currentTransaction();
+		transaction.begin();
+		try {
+			detach(evicted);
+			transaction.commit();
+		} finally {
+			if(transaction.isActive()) {
+				transaction.rollback();
+			}
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -63,7 +175,11 @@ final class InMemoryConstraintReportRepository implements Managed, ConstraintRep
 		checkNotNull(id,"Constraint report identifier cannot be null");
 		this.lock.readLock().lock();
 		try {
-			return this.reports.get(id);
+			ConstraintReport report=this.reports.get(id);
+			if(report!=null && this.policy.isExpired(report,this.policy.now())) {
+				report=null;
+			}
+			return report;
 		} finally {
 			this.lock.readLock().unlock();
 		}
@@ -75,14 +191,17 @@ final class InMemoryConstraintReportRepository implements Managed, ConstraintRep
 	@Override
 	public void add(ConstraintReport report) {
 		checkNotNull(report,"Constraint report cannot be null");
+		final List<ConstraintReport> evicted=Lists.newArrayList();
 		this.lock.writeLock().lock();
 		try {
 			ConstraintReportId id = report.id();
 			this.failureIds.put(id.resourceId(),id.failureId());
 			this.reports.put(id,report);
+			collectEvictions(this.policy.now(),evicted);
 		} finally {
 			this.lock.writeLock().unlock();
 		}
+		detach(evicted);
 	}
 
 	/**
@@ -93,9 +212,7 @@ final class InMemoryConstraintReportRepository implements Managed, ConstraintRep
 		checkNotNull(report,"Constraint report cannot be null");
 		this.lock.writeLock().lock();
 		try {
-			ConstraintReportId reportId = report.id();
-			this.failureIds.remove(reportId.resourceId(),reportId.failureId());
-			this.reports.remove(reportId);
+			unregister(report.id());
 		} finally {
 			this.lock.writeLock().unlock();
 		}
@@ -124,7 +241,34 @@ final class InMemoryConstraintReportRepository implements Managed, ConstraintRep
 	 */
 	@Override
 	public void init() throws LifecycleException {
-		// Nothing to do
+		final long period=
+			Math.max(
+				MIN_EVICTION_PERIOD,
+				Math.min(
+					MAX_EVICTION_PERIOD,
+					this.policy.timeToLive(TimeUnit.MILLISECONDS)));
+		this.evictor=
+			Executors.
+				newSingleThreadScheduledExecutor(
+					new ThreadFactoryBuilder().
+						setNameFormat("constraint-report-evictor-%d").
+						setDaemon(true).
+						build());
+		this.evictor.
+			scheduleWithFixedDelay(
+				new Runnable() {
+					@Override
+					public void run() {
+						try {
+							evict();
+						} catch (RuntimeException e) {
+							LOGGER.warn("Could not evict constraint reports",e);
+						}
+					}
+				},
+				period,
+				period,
+				TimeUnit.MILLISECONDS);
 	}
 
 	/**
@@ -132,9 +276,14 @@ final class InMemoryConstraintReportRepository implements Managed, ConstraintRep
 	 */
 	@Override
 	public void shutdown() throws LifecycleException {
+		if(this.evictor!=null) {
+			this.evictor.shutdownNow();
+			this.evictor=null;
+		}
 		this.lock.writeLock().lock();
 		try {
 			this.reports.clear();
+			this.failureIds.clear();
 		} finally {
 			this.lock.writeLock().unlock();
 		}
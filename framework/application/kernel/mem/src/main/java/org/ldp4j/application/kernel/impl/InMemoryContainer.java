@@ -26,11 +26,16 @@
  */
 package org.ldp4j.application.kernel.impl;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.ldp4j.application.kernel.resource.Container;
@@ -40,11 +45,22 @@ import org.ldp4j.application.kernel.resource.ResourceId;
 import org.ldp4j.application.kernel.resource.ResourceVisitor;
 import org.ldp4j.application.kernel.resource.Slug;
 import org.ldp4j.application.kernel.template.ContainerTemplate;
+import org.ldp4j.application.kernel.transaction.TransactionConflictException;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.base.Predicate;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 
+/**
+ * In-memory container. Membership changes performed within a transaction
+ * are only visible to that transaction until it commits: members added by a
+ * transaction are hidden from other transactions, and members removed by a
+ * transaction remain visible to other transactions, until the former
+ * commits.
+ */
 final class InMemoryContainer extends InMemoryResource implements Container {
 
 	private static final class InMemoryMember implements Member {
@@ -53,10 +69,23 @@ final class InMemoryContainer extends InMemoryResource implements Container {
 		private final ResourceId containerId;
 		private final long number;
 
-		private InMemoryMember(ResourceId containerId, ResourceId memberId, long number) {
+		private volatile InMemoryTransaction creator;
+		private volatile InMemoryTransaction remover;
+
+		private InMemoryMember(ResourceId containerId, ResourceId memberId, long number, InMemoryTransaction creator) {
 			this.memberId = memberId;
 			this.containerId = containerId;
 			this.number = number;
+			this.creator = creator;
+		}
+
+		private boolean isVisible(InMemoryTransaction transaction) {
+			InMemoryTransaction currentCreator=this.creator;
+			if(currentCreator!=null && currentCreator!=transaction) {
+				return false;
+			}
+			InMemoryTransaction currentRemover=this.remover;
+			return currentRemover==null || currentRemover!=transaction;
 		}
 
 		@Override
@@ -87,13 +116,99 @@ final class InMemoryContainer extends InMemoryResource implements Container {
 
 	}
 
-	private final ConcurrentMap<ResourceId,Member> members;
+	private final class MemberAddition implements InMemoryTransaction.Change, InMemoryJournal.Journaled {
+
+		private final InMemoryMember member;
+
+		private MemberAddition(InMemoryMember member) {
+			this.member = member;
+		}
+
+		@Override
+		public void prepare() {
+			// Nothing to do
+		}
+
+		@Override
+		public void commit() {
+			this.member.creator=null;
+		}
+
+		@Override
+		public void journal(InMemoryJournal.RecordWriter writer) throws IOException {
+			writer.member(id(),this.member.memberId(),this.member.number());
+		}
+
+		@Override
+		public void rollback() {
+			unlink(this.member);
+		}
+
+	}
+
+	private final class MemberRemoval implements InMemoryTransaction.Change, InMemoryJournal.Journaled {
+
+		private final InMemoryMember member;
+
+		private MemberRemoval(InMemoryMember member) {
+			this.member = member;
+		}
+
+		@Override
+		public void prepare() {
+			// Nothing to do
+		}
+
+		@Override
+		public void commit() {
+			unlink(this.member);
+		}
+
+		@Override
+		public void rollback() {
+			this.member.remover=null;
+		}
+
+		@Override
+		public void journal(InMemoryJournal.RecordWriter writer) throws IOException {
+			writer.memberRemoved(id(),this.member.memberId());
+		}
+
+	}
+
+	/**
+	 * Slugs are not transactional, but their state at commit time must be
+	 * journaled as their version is advanced when they are used.
+	 */
+	private static final class SlugUsage extends InMemoryTransaction.Undo implements InMemoryJournal.Journaled {
+
+		private final InMemorySlug slug;
+
+		private SlugUsage(InMemorySlug slug) {
+			this.slug = slug;
+		}
+
+		@Override
+		public void rollback() {
+			// Nothing to do
+		}
+
+		@Override
+		public void journal(InMemoryJournal.RecordWriter writer) throws IOException {
+			writer.slug(this.slug);
+		}
+
+	}
+
+	private final ConcurrentMap<ResourceId,InMemoryMember> members;
+	private final ConcurrentNavigableMap<Long,InMemoryMember> membersByNumber;
 	private final AtomicLong memberCounter;
 	private final ConcurrentMap<String,InMemorySlug> slugs;
 
 	InMemoryContainer(ResourceId id, ResourceId parentId) {
 		super(id,parentId);
 		this.members=Maps.newConcurrentMap();
+		this.membersByNumber=new ConcurrentSkipListMap<Long,InMemoryMember>();
 		this.memberCounter=new AtomicLong();
 		this.slugs=Maps.newConcurrentMap();
 	}
@@ -103,14 +218,46 @@ final class InMemoryContainer extends InMemoryResource implements Container {
 	}
 
 	private Member createMember(InMemoryResource newResource) {
-		InMemoryMember member = new InMemoryMember(id(), newResource.id(), this.memberCounter.incrementAndGet());
+		InMemoryTransaction transaction=InMemoryTransaction.active();
+		InMemoryMember member = new InMemoryMember(id(), newResource.id(), this.memberCounter.incrementAndGet(),transaction);
 		Member result = this.members.putIfAbsent(member.memberId(), member);
 		if(result==null) {
+			this.membersByNumber.put(member.number(),member);
+			if(transaction!=null) {
+				transaction.enlist(new MemberAddition(member));
+			}
 			result=member;
 		}
 		return result;
 	}
 
+	private void unlink(InMemoryMember member) {
+		if(this.members.remove(member.memberId(),member)) {
+			this.membersByNumber.remove(member.number(),member);
+		}
+	}
+
+	private static Iterable<InMemoryMember> visible(Iterable<InMemoryMember> members) {
+		final InMemoryTransaction transaction=InMemoryTransaction.active();
+		return
+			Iterables.filter(
+				members,
+				new Predicate<InMemoryMember>() {
+					@Override
+					public boolean apply(InMemoryMember member) {
+						return member.isVisible(transaction);
+					}
+				});
+	}
+
+	private InMemoryMember visibleMember(ResourceId resourceId) {
+		InMemoryMember member=this.members.get(resourceId);
+		if(member==null || !member.isVisible(InMemoryTransaction.active())) {
+			return null;
+		}
+		return member;
+	}
+
 	private InMemoryResource createMemberResource(ResourceId resourceId) {
 		checkNotNull(resourceId,"Member resource identifier cannot be null");
 		checkState(!this.members.containsKey(resourceId),"A resource with id '%s' is already a member of the container",resourceId);
@@ -135,23 +282,63 @@ final class InMemoryContainer extends InMemoryResource implements Container {
 
 	@Override
 	public boolean hasMember(ResourceId resource) {
-		return this.members.containsKey(resource);
+		return visibleMember(resource)!=null;
 	}
 
 	@Override
 	public Set<Member> members() {
-		return ImmutableSet.copyOf(members.values());
+		return ImmutableSet.<Member>copyOf(visible(this.membersByNumber.values()));
+	}
+
+	@Override
+	public List<Member> members(long from, int limit) {
+		checkArgument(limit>=0,"Member limit cannot be negative (%s)",limit);
+		return
+			ImmutableList.
+				<Member>copyOf(
+					Iterables.
+						limit(
+							visible(this.membersByNumber.tailMap(from).values()),
+							limit));
+	}
+
+	@Override
+	public List<Member> membersBefore(long to, int limit) {
+		checkArgument(limit>=0,"Member limit cannot be negative (%s)",limit);
+		return
+			ImmutableList.
+				<Member>copyOf(
+					Iterables.
+						limit(
+							visible(this.membersByNumber.headMap(to).descendingMap().values()),
+							limit));
 	}
 
 	@Override
 	public Member findMember(ResourceId resourceId) {
-		return this.members.get(resourceId);
+		return visibleMember(resourceId);
 	}
 
 	@Override
 	public boolean removeMember(Member member) {
 		checkNotNull(member,"Member cannot be null");
-		return members.remove(member.memberId(), member);
+		InMemoryMember current=visibleMember(member.memberId());
+		if(current!=member) {
+			return false;
+		}
+		InMemoryTransaction transaction=InMemoryTransaction.active();
+		if(transaction==null) {
+			unlink(current);
+			return true;
+		}
+		synchronized(current) {
+			if(current.remover!=null) {
+				throw new TransactionConflictException("Member '"+member.memberId()+"' is being removed by another transaction");
+			}
+			current.remover=transaction;
+		}
+		transaction.enlist(new MemberRemoval(current));
+		return true;
 	}
 
 	@Override
@@ -166,6 +353,12 @@ final class InMemoryContainer extends InMemoryResource implements Container {
 
 	@Override
 	public Slug addSlug(String preferredPath) {
+		InMemorySlug slug=createSlug(preferredPath);
+		InMemoryTransaction.logUndo(new SlugUsage(slug));
+		return slug;
+	}
+
+	private InMemorySlug createSlug(String preferredPath) {
 		checkNotNull(preferredPath,"Preferred path cannot be null");
 
 		InMemorySlug tmp = InMemorySlug.create(preferredPath,this);
@@ -184,7 +377,31 @@ final class InMemoryContainer extends InMemoryResource implements Container {
 			}
 		}
 
-		return addSlug(preferredPath+"_1");
+		return createSlug(preferredPath+"_1");
+	}
+
+	void restoreMember(ResourceId memberId, long number) {
+		InMemoryMember member=new InMemoryMember(id(),memberId,number,null);
+		InMemoryMember previous=this.members.put(memberId,member);
+		if(previous!=null) {
+			this.membersByNumber.remove(previous.number(),previous);
+		}
+		this.membersByNumber.put(number,member);
+		long current=this.memberCounter.get();
+		while(current<number && !this.memberCounter.compareAndSet(current,number)) {
+			current=this.memberCounter.get();
+		}
+	}
+
+	void forgetMember(ResourceId memberId) {
+		InMemoryMember member=this.members.get(memberId);
+		if(member!=null) {
+			unlink(member);
+		}
+	}
+
+	void restoreSlug(String preferredPath, long version) {
+		this.slugs.put(preferredPath,InMemorySlug.restore(id(),preferredPath,version));
 	}
 
 	@Override
@@ -29,30 +29,109 @@ package org.ldp4j.application.kernel.impl;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
+import java.io.IOException;
 import java.util.Date;
 
 import org.ldp4j.application.engine.context.EntityTag;
 import org.ldp4j.application.kernel.endpoint.Endpoint;
 import org.ldp4j.application.kernel.resource.ResourceId;
+import org.ldp4j.application.kernel.transaction.TransactionConflictException;
 
 import com.google.common.base.MoreObjects;
 
+/**
+ * In-memory endpoint. The mutable state of the endpoint is versioned: the
+ * changes performed by a transaction are kept in a private copy of the
+ * state, only visible to that transaction until it commits. Concurrent
+ * modifications of the same endpoint by different transactions are
+ * rejected.
+ */
 final class InMemoryEndpoint implements Endpoint {
 
+	private static final class State {
+
+		private final ResourceId resourceId;
+		private final EntityTag entityTag;
+		private final Date lastModified;
+		private final Date deleted;
+
+		private State(ResourceId resourceId, EntityTag entityTag, Date lastModified, Date deleted) {
+			this.resourceId = resourceId;
+			this.entityTag = entityTag;
+			this.lastModified = lastModified;
+			this.deleted = deleted;
+		}
+
+	}
+
+	private final class StateChange implements InMemoryTransaction.Change, InMemoryJournal.Journaled {
+
+		@Override
+		public void journal(InMemoryJournal.RecordWriter writer) throws IOException {
+			writer.endpoint(InMemoryEndpoint.this);
+		}
+
+		@Override
+		public void prepare() {
+			// Nothing to do
+		}
+
+		@Override
+		public void commit() {
+			InMemoryEndpoint.this.committed=InMemoryEndpoint.this.pending;
+			release();
+		}
+
+		@Override
+		public void rollback() {
+			release();
+		}
+
+		private void release() {
+			synchronized(InMemoryEndpoint.this) {
+				InMemoryEndpoint.this.writer=null;
+				InMemoryEndpoint.this.pending=null;
+			}
+		}
+
+	}
+
 	private final String path;
 	private final Date created;
 
-	private ResourceId resourceId;
-	private EntityTag entityTag;
-	private Date lastModified;
-	private Date deleted;
+	private volatile State committed;
+	private volatile State pending;
+	private volatile InMemoryTransaction writer;
 
-	private InMemoryEndpoint(String path, ResourceId resourceId, Date created, EntityTag entityTag) {
+	private InMemoryEndpoint(String path, Date created, State state) {
 		this.path = path;
-		this.resourceId = resourceId;
 		this.created = created;
-		this.entityTag = entityTag;
-		this.lastModified = created;
+		this.committed = state;
+	}
+
+	private State state() {
+		InMemoryTransaction transaction=this.writer;
+		if(transaction!=null && transaction==InMemoryTransaction.active()) {
+			return this.pending;
+		}
+		return this.committed;
+	}
+
+	private void update(State newState) {
+		InMemoryTransaction transaction=InMemoryTransaction.active();
+		if(transaction==null) {
+			this.committed=newState;
+			return;
+		}
+		synchronized(this) {
+			if(this.writer==null) {
+				this.writer=transaction;
+				transaction.enlist(new StateChange());
+			} else if(this.writer!=transaction) {
+				throw new TransactionConflictException("Endpoint '"+this.path+"' is being modified by another transaction");
+			}
+			this.pending=newState;
+		}
 	}
 
 	/**
@@ -76,7 +155,7 @@ final class InMemoryEndpoint implements Endpoint {
 	 */
 	@Override
 	public Date deleted() {
-		return this.deleted;
+		return state().deleted;
 	}
 
 	/**
@@ -84,7 +163,7 @@ final class InMemoryEndpoint implements Endpoint {
 	 */
 	@Override
 	public EntityTag entityTag() {
-		return this.entityTag;
+		return state().entityTag;
 	}
 
 	/**
@@ -92,7 +171,7 @@ final class InMemoryEndpoint implements Endpoint {
 	 */
 	@Override
 	public Date lastModified() {
-		return this.lastModified;
+		return state().lastModified;
 	}
 
 	/**
@@ -100,7 +179,7 @@ final class InMemoryEndpoint implements Endpoint {
 	 */
 	@Override
 	public ResourceId resourceId() {
-		return this.resourceId;
+		return state().resourceId;
 	}
 
 	/**
@@ -108,9 +187,9 @@ final class InMemoryEndpoint implements Endpoint {
 	 */
 	@Override
 	public void modify(EntityTag newEntityTag, Date newLastModified) {
-		checkState(this.deleted==null,"Endpoint is already deleted");
-		this.entityTag=newEntityTag;
-		this.lastModified=new Date(newLastModified.getTime());
+		State current=state();
+		checkState(current.deleted==null,"Endpoint is already deleted");
+		update(new State(current.resourceId,newEntityTag,new Date(newLastModified.getTime()),null));
 	}
 
 	/**
@@ -118,9 +197,9 @@ final class InMemoryEndpoint implements Endpoint {
 	 */
 	@Override
 	public void delete(Date deleted) {
-		checkState(this.deleted==null,"Endpoint is already deleted");
-		this.deleted=deleted;
-		this.resourceId=null;
+		State current=state();
+		checkState(current.deleted==null,"Endpoint is already deleted");
+		update(new State(null,current.entityTag,current.lastModified,deleted));
 	}
 
 	/**
@@ -128,16 +207,17 @@ final class InMemoryEndpoint implements Endpoint {
 	 */
 	@Override
 	public String toString() {
+		State current=state();
 		return
 			MoreObjects.
 				toStringHelper(getClass()).
 					omitNullValues().
 					add("path",this.path).
 					add("created",this.created).
-					add("deleted",this.deleted).
-					add("entityTag",this.entityTag).
-					add("lastModified",this.lastModified.getTime()).
-					add("resourceId",this.resourceId).
+					add("deleted",current.deleted).
+					add("entityTag",current.entityTag).
+					add("lastModified",current.lastModified.getTime()).
+					add("resourceId",current.resourceId).
 					toString();
 	}
 
@@ -146,7 +226,11 @@ final class InMemoryEndpoint implements Endpoint {
 		checkNotNull(resourceId,"Endpoint identifier cannot be null");
 		checkNotNull(created,"Endpoint creation date cannot be null");
 		checkNotNull(entityTag,"Endpoint entity tag cannot be null");
-		return new InMemoryEndpoint(path, resourceId, created, entityTag);
+		return new InMemoryEndpoint(path, created, new State(resourceId,entityTag,created,null));
+	}
+
+	static InMemoryEndpoint restore(String path, ResourceId resourceId, Date created, EntityTag entityTag, Date lastModified, Date deleted) {
+		return new InMemoryEndpoint(path, created, new State(resourceId,entityTag,lastModified,deleted));
 	}
 
 }
@@ -26,31 +26,142 @@
  */
 package org.ldp4j.application.kernel.impl;
 
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.ldp4j.application.kernel.endpoint.Endpoint;
 import org.ldp4j.application.kernel.endpoint.EndpointRepository;
 import org.ldp4j.application.kernel.lifecycle.LifecycleException;
 import org.ldp4j.application.kernel.lifecycle.Managed;
 import org.ldp4j.application.kernel.resource.ResourceId;
+import org.ldp4j.application.kernel.transaction.TransactionConflictException;
 
 import com.google.common.collect.Maps;
 
+/**
+ * Endpoint repository backed by concurrent maps, so that operations on
+ * different endpoints do not contend with each other. The path index is
+ * the primary one: an endpoint is first claimed by path and then published
+ * in the resource index using compare-and-set operations, rolling back the
+ * path claim if the resource already has a live endpoint. Hence, an
+ * endpoint being added may be found by path slightly before it can be found
+ * by resource, but never the other way round.
+ * <br>
+ * The endpoints added within a transaction are kept in a workspace private
+ * to the transaction, and are published when the transaction commits.
+ */
 final class InMemoryEndpointRepository implements Managed, EndpointRepository {
 
-	private final Map<String,Endpoint> endpointsByPath=Maps.newLinkedHashMap();
-	private final Map<ResourceId,Endpoint> endpointsByResourceName=Maps.newLinkedHashMap();
+	private final class Workspace implements InMemoryTransaction.Change, InMemoryJournal.Journaled {
+
+		private final Map<String,Endpoint> endpointsByPath=Maps.newLinkedHashMap();
+		private final Map<ResourceId,Endpoint> endpointsByResourceName=Maps.newLinkedHashMap();
+
+		@Override
+		public void prepare() {
+			for(Endpoint endpoint:this.endpointsByPath.values()) {
+				if(InMemoryEndpointRepository.this.endpointsByPath.containsKey(endpoint.path())) {
+					throw new TransactionConflictException("An endpoint with path '"+endpoint.path()+"' already exists");
+				}
+			}
+			for(Entry<ResourceId,Endpoint> entry:this.endpointsByResourceName.entrySet()) {
+				if(live(entry.getValue())!=null && live(InMemoryEndpointRepository.this.endpointsByResourceName.get(entry.getKey()))!=null) {
+					throw new TransactionConflictException("An endpoint with resource name '"+entry.getKey()+"' already exists");
+				}
+			}
+		}
+
+		@Override
+		public void commit() {
+			InMemoryEndpointRepository.this.endpointsByPath.putAll(this.endpointsByPath);
+			for(Entry<ResourceId,Endpoint> entry:this.endpointsByResourceName.entrySet()) {
+				if(live(entry.getValue())!=null) {
+					InMemoryEndpointRepository.this.endpointsByResourceName.put(entry.getKey(),entry.getValue());
+				}
+			}
+		}
 
-	private final Lock readLock;
-	private final Lock writeLock;
+		@Override
+		public void rollback() {
+			// Nothing to do: the changes were never published
+		}
+
+		@Override
+		public void journal(InMemoryJournal.RecordWriter writer) throws IOException {
+			for(Endpoint endpoint:this.endpointsByPath.values()) {
+				writer.endpoint(endpoint);
+			}
+		}
+
+	}
+
+	private final ConcurrentMap<String,Endpoint> endpointsByPath;
+	private final ConcurrentMap<ResourceId,Endpoint> endpointsByResourceName;
+	private final InMemoryJournal journal;
 
 	InMemoryEndpointRepository() {
-		ReadWriteLock lock=new ReentrantReadWriteLock();
-		this.readLock = lock.readLock();
-		this.writeLock = lock.writeLock();
+		this(null);
+	}
+
+	InMemoryEndpointRepository(InMemoryJournal journal) {
+		this.journal=journal;
+		this.endpointsByPath=
+			new ConcurrentHashMap<String,Endpoint>(
+				InMemoryRepositories.INITIAL_CAPACITY,
+				InMemoryRepositories.LOAD_FACTOR,
+				InMemoryRepositories.concurrencyLevel());
+		this.endpointsByResourceName=
+			new ConcurrentHashMap<ResourceId,Endpoint>(
+				InMemoryRepositories.INITIAL_CAPACITY,
+				InMemoryRepositories.LOAD_FACTOR,
+				InMemoryRepositories.concurrencyLevel());
+	}
+
+	private static Endpoint live(Endpoint endpoint) {
+		if(endpoint!=null && endpoint.deleted()!=null) {
+			return null;
+		}
+		return endpoint;
+	}
+
+	private Workspace workspace(InMemoryTransaction transaction) {
+		Workspace workspace=transaction.participant(this,Workspace.class);
+		if(workspace==null) {
+			workspace=new Workspace();
+			transaction.enlist(this,workspace);
+		}
+		return workspace;
+	}
+
+	private Workspace currentWorkspace() {
+		InMemoryTransaction transaction=InMemoryTransaction.active();
+		if(transaction==null) {
+			return null;
+		}
+		return transaction.participant(this,Workspace.class);
+	}
+
+	private void publishByResource(Endpoint endpoint) {
+		ResourceId resourceId=endpoint.resourceId();
+		while(true) {
+			Endpoint other=this.endpointsByResourceName.get(resourceId);
+			if(live(other)!=null) {
+				this.endpointsByPath.remove(endpoint.path(),endpoint);
+				throw new IllegalArgumentException("An endpoint with resource name '"+resourceId+"' already exists ("+other+")");
+			}
+			boolean published=
+				other==null?
+					this.endpointsByResourceName.putIfAbsent(resourceId,endpoint)==null:
+					this.endpointsByResourceName.replace(resourceId,other,endpoint);
+			if(published) {
+				return;
+			}
+		}
 	}
 
 	/**
@@ -58,12 +169,14 @@ final class InMemoryEndpointRepository implements Managed, EndpointRepository {
 	 */
 	@Override
 	public Endpoint endpointOfPath(String path) {
-		this.readLock.lock();
-		try {
-			return this.endpointsByPath.get(path);
-		} finally {
-			this.readLock.unlock();
+		Workspace workspace=currentWorkspace();
+		if(workspace!=null) {
+			Endpoint endpoint=workspace.endpointsByPath.get(path);
+			if(endpoint!=null) {
+				return endpoint;
+			}
 		}
+		return this.endpointsByPath.get(path);
 	}
 
 	/**
@@ -71,16 +184,29 @@ final class InMemoryEndpointRepository implements Managed, EndpointRepository {
 	 */
 	@Override
 	public Endpoint endpointOfResource(ResourceId id) {
-		this.readLock.lock();
-		try {
-			Endpoint endpoint = this.endpointsByResourceName.get(id);
-			if(endpoint!=null && endpoint.deleted()!=null) {
-				endpoint=null;
+		Workspace workspace=currentWorkspace();
+		if(workspace!=null) {
+			Endpoint endpoint=live(workspace.endpointsByResourceName.get(id));
+			if(endpoint!=null) {
+				return endpoint;
+			}
+		}
+		return live(this.endpointsByResourceName.get(id));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<ResourceId,Endpoint> endpointsOfResources(Collection<ResourceId> ids) {
+		Map<ResourceId,Endpoint> result=Maps.newLinkedHashMap();
+		for(ResourceId id:ids) {
+			Endpoint endpoint=endpointOfResource(id);
+			if(endpoint!=null) {
+				result.put(id,endpoint);
 			}
-			return endpoint;
-		} finally {
-			this.readLock.unlock();
 		}
+		return result;
 	}
 
 	/**
@@ -88,19 +214,51 @@ final class InMemoryEndpointRepository implements Managed, EndpointRepository {
 	 */
 	@Override
 	public void add(Endpoint endpoint) {
-		this.writeLock.lock();
-		try {
-			if(this.endpointsByPath.containsKey(endpoint.path())) {
+		InMemoryTransaction transaction=InMemoryTransaction.active();
+		if(transaction!=null) {
+			if(endpointOfPath(endpoint.path())!=null) {
 				throw new IllegalArgumentException("An endpoint with path '"+endpoint.path()+"' already exists");
 			}
 			Endpoint other=endpointOfResource(endpoint.resourceId());
 			if(other!=null) {
 				throw new IllegalArgumentException("An endpoint with resource name '"+endpoint.resourceId()+"' already exists ("+other+")");
 			}
-			this.endpointsByPath.put(endpoint.path(), endpoint);
+			Workspace workspace=workspace(transaction);
+			workspace.endpointsByPath.put(endpoint.path(),endpoint);
+			workspace.endpointsByResourceName.put(endpoint.resourceId(),endpoint);
+			return;
+		}
+		if(this.endpointsByPath.putIfAbsent(endpoint.path(),endpoint)!=null) {
+			throw new IllegalArgumentException("An endpoint with path '"+endpoint.path()+"' already exists");
+		}
+		publishByResource(endpoint);
+		if(this.journal!=null) {
+			final Endpoint added=endpoint;
+			InMemoryJournal.Journaled change=
+				new InMemoryJournal.Journaled() {
+					@Override
+					public void journal(InMemoryJournal.RecordWriter writer) throws IOException {
+						writer.endpoint(added);
+					}
+				};
+			this.journal.sync(this.journal.append(Collections.singleton(change)));
+		}
+	}
+
+	/**
+	 * Get the endpoints as seen outside of any transaction.
+	 */
+	Collection<Endpoint> committedEndpoints() {
+		return Collections.unmodifiableCollection(this.endpointsByPath.values());
+	}
+
+	void restore(Endpoint endpoint) {
+		Endpoint previous=this.endpointsByPath.put(endpoint.path(),endpoint);
+		if(previous!=null && previous.resourceId()!=null) {
+			this.endpointsByResourceName.remove(previous.resourceId(),previous);
+		}
+		if(live(endpoint)!=null) {
 			this.endpointsByResourceName.put(endpoint.resourceId(),endpoint);
-		} finally {
-			this.writeLock.unlock();
 		}
 	}
 
@@ -117,13 +275,8 @@ final class InMemoryEndpointRepository implements Managed, EndpointRepository {
 	 */
 	@Override
 	public void shutdown() throws LifecycleException {
-		this.writeLock.lock();
-		try {
-			this.endpointsByPath.clear();
-			this.endpointsByResourceName.clear();
-		} finally {
-			this.writeLock.unlock();
-		}
+		this.endpointsByPath.clear();
+		this.endpointsByResourceName.clear();
 	}
 
 }
\ No newline at end of file
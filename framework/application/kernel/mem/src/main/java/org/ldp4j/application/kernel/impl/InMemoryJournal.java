@@ -0,0 +1,820 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-kernel-mem:0.2.2
+ *   Bundle      : ldp4j-application-kernel-mem-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.impl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import org.ldp4j.application.data.Name;
+import org.ldp4j.application.engine.context.EntityTag;
+import org.ldp4j.application.kernel.endpoint.Endpoint;
+import org.ldp4j.application.kernel.resource.Attachment;
+import org.ldp4j.application.kernel.resource.Member;
+import org.ldp4j.application.kernel.resource.Resource;
+import org.ldp4j.application.kernel.resource.ResourceId;
+import org.ldp4j.application.kernel.resource.Slug;
+import org.ldp4j.application.kernel.transaction.TransactionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * Write-ahead log of the changes committed in the in-memory repositories.
+ * <br>
+ * The changes of each transaction are appended to the current log segment
+ * as a single checksummed frame of idempotent records: the after-image of
+ * the resources and endpoints modified, and the container members and slugs
+ * added or removed. A frame that was not completely written when the
+ * process crashed is discarded on recovery.
+ * <br>
+ * Periodically the log is checkpointed: a new segment is started and a
+ * snapshot of the committed state is written in the background. As the
+ * snapshot may already include changes logged in the new segment, recovery
+ * loads the latest valid snapshot and replays the segments started after
+ * it, which converges to the last committed state because records are
+ * idempotent. Once the snapshot is written the previous segments are
+ * discarded.
+ */
+final class InMemoryJournal {
+
+	/**
+	 * When the log is forced to the storage device.
+	 */
+	enum SyncPolicy {
+		/**
+		 * Force the log before completing each commit.
+		 */
+		ALWAYS,
+		/**
+		 * Force the log before completing each commit, sharing a single force
+		 * amongst the transactions that commit concurrently.
+		 */
+		GROUP,
+		/**
+		 * Leave it up to the operating system.
+		 */
+		NEVER,
+	}
+
+	/**
+	 * A transaction change that must be recorded in the journal.
+	 */
+	interface Journaled {
+
+		void journal(RecordWriter writer) throws IOException;
+
+	}
+
+	/**
+	 * Target of the records replayed during recovery.
+	 */
+	interface Replay {
+
+		InMemoryResource resource(ResourceId id);
+
+		void restoreResource(InMemoryResource resource);
+
+		void removeResource(ResourceId id);
+
+		void restoreEndpoint(InMemoryEndpoint endpoint);
+
+	}
+
+	static final class RecordWriter {
+
+		private final DataOutputStream out;
+		private final Map<Name<?>,Integer> names;
+		private final Set<Object> written;
+		private int records;
+
+		private RecordWriter(DataOutputStream out) {
+			this.out=out;
+			this.names=Maps.newHashMap();
+			this.written=Sets.newIdentityHashSet();
+		}
+
+		private void writeName(Name<?> name) throws IOException {
+			Integer index=this.names.get(name);
+			if(index!=null) {
+				this.out.writeInt(index);
+				return;
+			}
+			this.names.put(name,this.names.size());
+			ByteArrayOutputStream bytes=new ByteArrayOutputStream();
+			ObjectOutputStream oos=new ObjectOutputStream(bytes);
+			oos.writeObject(name);
+			oos.close();
+			this.out.writeInt(-1);
+			this.out.writeInt(bytes.size());
+			bytes.writeTo(this.out);
+		}
+
+		private void writeId(ResourceId id) throws IOException {
+			this.out.writeBoolean(id!=null);
+			if(id!=null) {
+				this.out.writeUTF(id.templateId());
+				writeName(id.name());
+			}
+		}
+
+		private void writeString(String value) throws IOException {
+			this.out.writeBoolean(value!=null);
+			if(value!=null) {
+				this.out.writeUTF(value);
+			}
+		}
+
+		private void writeDate(Date date) throws IOException {
+			this.out.writeLong(date==null?Long.MIN_VALUE:date.getTime());
+		}
+
+		private void record(byte type) throws IOException {
+			this.out.writeByte(type);
+			this.records++;
+		}
+
+		private void resource(InMemoryResource resource, URI indirectId, Set<? extends Attachment> attachments) throws IOException {
+			if(!this.written.add(resource)) {
+				return;
+			}
+			record(RESOURCE);
+			writeId(resource.id());
+			writeId(resource.parentId());
+			this.out.writeBoolean(resource instanceof InMemoryContainer);
+			writeString(indirectId==null?null:indirectId.toString());
+			this.out.writeInt(attachments.size());
+			for(Attachment attachment:attachments) {
+				this.out.writeUTF(attachment.id());
+				writeId(attachment.resourceId());
+				this.out.writeLong(attachment.version());
+			}
+		}
+
+		/**
+		 * Record the current state of a resource, including the in-place
+		 * changes of the transaction being committed.
+		 */
+		void resource(InMemoryResource resource) throws IOException {
+			resource(resource,resource.indirectId(),resource.attachments());
+		}
+
+		/**
+		 * Record the committed state of a resource, leaving out the in-place
+		 * changes of the transactions in-flight.
+		 */
+		void committedResource(InMemoryResource resource) throws IOException {
+			resource(resource,resource.committedIndirectId(),resource.committedAttachments());
+		}
+
+		void resourceRemoved(ResourceId id) throws IOException {
+			record(RESOURCE_REMOVED);
+			writeId(id);
+		}
+
+		void member(ResourceId containerId, ResourceId memberId, long number) throws IOException {
+			record(MEMBER);
+			writeId(containerId);
+			writeId(memberId);
+			this.out.writeLong(number);
+		}
+
+		void memberRemoved(ResourceId containerId, ResourceId memberId) throws IOException {
+			record(MEMBER_REMOVED);
+			writeId(containerId);
+			writeId(memberId);
+		}
+
+		void slug(Slug slug) throws IOException {
+			record(SLUG);
+			writeId(slug.containerId());
+			this.out.writeUTF(slug.preferredPath());
+			this.out.writeLong(slug.version());
+		}
+
+		void endpoint(Endpoint endpoint) throws IOException {
+			if(!this.written.add(endpoint)) {
+				return;
+			}
+			record(ENDPOINT);
+			this.out.writeUTF(endpoint.path());
+			writeDate(endpoint.created());
+			writeId(endpoint.resourceId());
+			this.out.writeUTF(endpoint.entityTag().getValue());
+			this.out.writeBoolean(endpoint.entityTag().isWeak());
+			writeDate(endpoint.lastModified());
+			writeDate(endpoint.deleted());
+		}
+
+		private void end() throws IOException {
+			this.out.writeByte(END);
+			this.out.flush();
+		}
+
+	}
+
+	private static final class RecordReader {
+
+		private final DataInputStream in;
+		private final Replay replay;
+		private final List<Name<?>> names;
+		private final List<Object[]> deferred;
+
+		private RecordReader(DataInputStream in, Replay replay) {
+			this.in=in;
+			this.replay=replay;
+			this.names=Lists.newArrayList();
+			this.deferred=Lists.newArrayList();
+		}
+
+		private Name<?> readName() throws IOException {
+			int index=this.in.readInt();
+			if(index>=0) {
+				return this.names.get(index);
+			}
+			byte[] bytes=new byte[this.in.readInt()];
+			this.in.readFully(bytes);
+			ObjectInputStream ois=new ObjectInputStream(new ByteArrayInputStream(bytes));
+			try {
+				Name<?> name=(Name<?>)ois.readObject();
+				this.names.add(name);
+				return name;
+			} catch (ClassNotFoundException e) {
+				throw new IOException("Could not read name",e);
+			} finally {
+				ois.close();
+			}
+		}
+
+		private ResourceId readId() throws IOException {
+			if(!this.in.readBoolean()) {
+				return null;
+			}
+			String templateId=this.in.readUTF();
+			return ResourceId.createId(readName(),templateId);
+		}
+
+		private String readString() throws IOException {
+			return this.in.readBoolean()?this.in.readUTF():null;
+		}
+
+		private Date readDate() throws IOException {
+			long time=this.in.readLong();
+			return time==Long.MIN_VALUE?null:new Date(time);
+		}
+
+		private InMemoryContainer container(ResourceId id) {
+			InMemoryResource resource=this.replay.resource(id);
+			return resource instanceof InMemoryContainer?(InMemoryContainer)resource:null;
+		}
+
+		private void readResource() throws IOException {
+			ResourceId id=readId();
+			ResourceId parentId=readId();
+			boolean container=this.in.readBoolean();
+			String indirectId=readString();
+			InMemoryResource resource=this.replay.resource(id);
+			if(resource==null || (resource instanceof InMemoryContainer)!=container) {
+				resource=container?new InMemoryContainer(id,parentId):new InMemoryResource(id,parentId);
+				this.replay.restoreResource(resource);
+			}
+			resource.restoreIndirectId(indirectId==null?null:URI.create(indirectId));
+			resource.clearAttachments();
+			int attachments=this.in.readInt();
+			for(int i=0;i<attachments;i++) {
+				String attachmentId=this.in.readUTF();
+				ResourceId resourceId=readId();
+				resource.restoreAttachment(attachmentId,resourceId,this.in.readLong());
+			}
+		}
+
+		private void applyMember(ResourceId containerId, ResourceId memberId, Long number, boolean defer) {
+			InMemoryContainer container=container(containerId);
+			if(container==null) {
+				if(defer) {
+					this.deferred.add(new Object[]{MEMBER,containerId,memberId,number});
+				}
+			} else if(number==null) {
+				container.forgetMember(memberId);
+			} else {
+				container.restoreMember(memberId,number);
+			}
+		}
+
+		private void applySlug(ResourceId containerId, String path, long version, boolean defer) {
+			InMemoryContainer container=container(containerId);
+			if(container==null) {
+				if(defer) {
+					this.deferred.add(new Object[]{SLUG,containerId,path,version});
+				}
+			} else {
+				container.restoreSlug(path,version);
+			}
+		}
+
+		/**
+		 * Members and slugs may be recorded before the container they belong
+		 * to if both are created within the same transaction.
+		 */
+		private void applyDeferred() {
+			for(Object[] record:this.deferred) {
+				if(record[0].equals(MEMBER)) {
+					applyMember((ResourceId)record[1],(ResourceId)record[2],(Long)record[3],false);
+				} else {
+					applySlug((ResourceId)record[1],(String)record[2],(Long)record[3],false);
+				}
+			}
+			this.deferred.clear();
+		}
+
+		private void readEndpoint() throws IOException {
+			String path=this.in.readUTF();
+			Date created=readDate();
+			ResourceId resourceId=readId();
+			String tag=this.in.readUTF();
+			EntityTag entityTag=this.in.readBoolean()?EntityTag.createWeak(tag):EntityTag.createStrong(tag);
+			Date lastModified=readDate();
+			Date deleted=readDate();
+			this.replay.restoreEndpoint(InMemoryEndpoint.restore(path,resourceId,created,entityTag,lastModified,deleted));
+		}
+
+		/**
+		 * Replay records until the end marker.
+		 */
+		private void replay() throws IOException {
+			byte type;
+			while((type=this.in.readByte())!=END) {
+				switch(type) {
+				case RESOURCE:
+					readResource();
+					break;
+				case RESOURCE_REMOVED:
+					this.replay.removeResource(readId());
+					break;
+				case MEMBER:
+					applyMember(readId(),readId(),this.in.readLong(),true);
+					break;
+				case MEMBER_REMOVED:
+					applyMember(readId(),readId(),null,true);
+					break;
+				case SLUG:
+					applySlug(readId(),this.in.readUTF(),this.in.readLong(),true);
+					break;
+				case ENDPOINT:
+					readEndpoint();
+					break;
+				default:
+					throw new IOException("Unknown record type "+type);
+				}
+			}
+			applyDeferred();
+		}
+
+	}
+
+	private static final Logger LOGGER=LoggerFactory.getLogger(InMemoryJournal.class);
+
+	private static final byte END              = 0;
+	private static final byte RESOURCE         = 1;
+	private static final byte RESOURCE_REMOVED = 2;
+	private static final byte MEMBER           = 3;
+	private static final byte MEMBER_REMOVED   = 4;
+	private static final byte SLUG             = 5;
+	private static final byte ENDPOINT         = 6;
+
+	private static final int SNAPSHOT_MAGIC   = 0x4C44504A;
+	private static final int SNAPSHOT_VERSION = 1;
+	private static final int FRAME_HEADER     = 8;
+
+	private static final Pattern SEGMENT_FILE  = Pattern.compile("journal-([0-9a-f]{16})\\.log");
+	private static final Pattern SNAPSHOT_FILE = Pattern.compile("snapshot-([0-9a-f]{16})\\.bin");
+
+	private final File directory;
+	private final SyncPolicy syncPolicy;
+	private final long checkpointThreshold;
+
+	private final Object syncLock;
+
+	private Runnable checkpointTrigger;
+	private boolean checkpointRequested;
+
+	private long segment;
+	private FileChannel channel;
+	private long segmentSize;
+	private long position;
+	private volatile long durablePosition;
+	private volatile IOException failure;
+
+	InMemoryJournal(File directory, SyncPolicy syncPolicy, long checkpointThreshold) {
+		checkNotNull(directory,"Journal directory cannot be null");
+		checkNotNull(syncPolicy,"Sync policy cannot be null");
+		checkArgument(checkpointThreshold>0,"Checkpoint threshold must be positive (%s)",checkpointThreshold);
+		this.directory=directory;
+		this.syncPolicy=syncPolicy;
+		this.checkpointThreshold=checkpointThreshold;
+		this.syncLock=new Object();
+	}
+
+	private static String segmentFileName(long segment) {
+		return String.format("journal-%016x.log",segment);
+	}
+
+	private static String snapshotFileName(long segment) {
+		return String.format("snapshot-%016x.bin",segment);
+	}
+
+	private SortedMap<Long,File> files(Pattern pattern) {
+		SortedMap<Long,File> result=Maps.newTreeMap();
+		File[] candidates=this.directory.listFiles();
+		if(candidates!=null) {
+			for(File candidate:candidates) {
+				Matcher matcher=pattern.matcher(candidate.getName());
+				if(matcher.matches()) {
+					result.put(Long.parseLong(matcher.group(1),16),candidate);
+				}
+			}
+		}
+		return result;
+	}
+
+	private void openSegment(long newSegment) throws IOException {
+		@SuppressWarnings("resource")
+		RandomAccessFile file=new RandomAccessFile(new File(this.directory,segmentFileName(newSegment)),"rw");
+		this.channel=file.getChannel();
+		this.channel.position(this.channel.size());
+		this.segment=newSegment;
+		this.segmentSize=this.channel.size();
+	}
+
+	private void checkAvailable() {
+		if(this.failure!=null) {
+			throw new TransactionException("Journal is not available",this.failure);
+		}
+		if(this.channel==null) {
+			throw new TransactionException("Journal is not open");
+		}
+	}
+
+	private void fail(IOException cause) {
+		if(this.failure==null) {
+			this.failure=cause;
+			LOGGER.error("Journal at '{}' failed. No further changes will be accepted",this.directory,cause);
+		}
+	}
+
+	private boolean verifySnapshot(File file) {
+		CheckedInputStream in=null;
+		try {
+			in=new CheckedInputStream(new BufferedInputStream(new FileInputStream(file)),new CRC32());
+			long dataLength=file.length()-8;
+			byte[] buffer=new byte[8192];
+			long remaining=dataLength;
+			while(remaining>0) {
+				int read=in.read(buffer,0,(int)Math.min(buffer.length,remaining));
+				if(read<0) {
+					return false;
+				}
+				remaining-=read;
+			}
+			long expected=in.getChecksum().getValue();
+			return dataLength>=0 && new DataInputStream(in).readLong()==expected;
+		} catch (IOException e) {
+			LOGGER.warn("Could not verify snapshot '{}'",file,e);
+			return false;
+		} finally {
+			closeQuietly(in);
+		}
+	}
+
+	private void loadSnapshot(File file, Replay replay) throws IOException {
+		DataInputStream in=new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		try {
+			if(in.readInt()!=SNAPSHOT_MAGIC || in.readInt()!=SNAPSHOT_VERSION) {
+				throw new IOException("Unsupported snapshot format");
+			}
+			new RecordReader(in,replay).replay();
+		} finally {
+			closeQuietly(in);
+		}
+	}
+
+	private int replaySegment(File file, Replay replay) throws IOException {
+		DataInputStream in=new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+		long remaining=file.length();
+		int frames=0;
+		try {
+			while(remaining>=FRAME_HEADER) {
+				int length=in.readInt();
+				long checksum=in.readInt()&0xFFFFFFFFL;
+				if(length<0 || length>remaining-FRAME_HEADER) {
+					LOGGER.warn("Discarding incomplete frame {} of journal segment '{}'",frames,file);
+					break;
+				}
+				byte[] payload=new byte[length];
+				in.readFully(payload);
+				remaining-=FRAME_HEADER+length;
+				CRC32 crc=new CRC32();
+				crc.update(payload);
+				if(crc.getValue()!=checksum) {
+					LOGGER.warn("Discarding corrupted frame {} of journal segment '{}'",frames,file);
+					break;
+				}
+				new RecordReader(new DataInputStream(new ByteArrayInputStream(payload)),replay).replay();
+				frames++;
+			}
+		} finally {
+			closeQuietly(in);
+		}
+		return frames;
+	}
+
+	private static void closeQuietly(InputStream in) {
+		if(in!=null) {
+			try {
+				in.close();
+			} catch (IOException e) {
+				LOGGER.trace("Could not close stream",e);
+			}
+		}
+	}
+
+	/**
+	 * Recover the last committed state and start a new log segment.
+	 */
+	synchronized void open(Replay replay) throws IOException {
+		if(!this.directory.isDirectory() && !this.directory.mkdirs()) {
+			throw new IOException("Could not create journal directory '"+this.directory+"'");
+		}
+		long start=System.nanoTime();
+		long firstSegment=0;
+		for(Map.Entry<Long,File> entry:Lists.reverse(Lists.newArrayList(files(SNAPSHOT_FILE).entrySet()))) {
+			if(verifySnapshot(entry.getValue())) {
+				loadSnapshot(entry.getValue(),replay);
+				firstSegment=entry.getKey();
+				break;
+			}
+			LOGGER.warn("Discarding corrupted snapshot '{}'",entry.getValue());
+		}
+		long lastSegment=firstSegment;
+		int frames=0;
+		for(Map.Entry<Long,File> entry:files(SEGMENT_FILE).tailMap(firstSegment).entrySet()) {
+			frames+=replaySegment(entry.getValue(),replay);
+			lastSegment=entry.getKey()+1;
+		}
+		openSegment(lastSegment);
+		LOGGER.info("Recovered journal at '{}' from segment {} ({} frames replayed) in {} ms",this.directory,firstSegment,frames,TimeUnit.NANOSECONDS.toMillis(System.nanoTime()-start));
+	}
+
+	/**
+	 * Set the action used for requesting a checkpoint when the current
+	 * segment exceeds the checkpoint threshold.
+	 */
+	synchronized void onCheckpointRequired(Runnable trigger) {
+		this.checkpointTrigger=trigger;
+	}
+
+	/**
+	 * Append the journaled changes as a single frame.
+	 *
+	 * @return the position of the journal after the frame, to be used when
+	 *         {@link #sync(long) syncing} the journal.
+	 * @throws TransactionException if the changes cannot be appended.
+	 */
+	synchronized long append(Iterable<?> changes) {
+		checkAvailable();
+		try {
+			ByteArrayOutputStream bytes=new ByteArrayOutputStream();
+			RecordWriter writer=new RecordWriter(new DataOutputStream(bytes));
+			for(Object change:changes) {
+				if(change instanceof Journaled) {
+					((Journaled)change).journal(writer);
+				}
+			}
+			if(writer.records==0) {
+				return this.position;
+			}
+			writer.end();
+			CRC32 crc=new CRC32();
+			crc.update(bytes.toByteArray());
+			ByteBuffer frame=ByteBuffer.allocate(FRAME_HEADER+bytes.size());
+			frame.putInt(bytes.size());
+			frame.putInt((int)crc.getValue());
+			frame.put(bytes.toByteArray());
+			frame.flip();
+			while(frame.hasRemaining()) {
+				this.channel.write(frame);
+			}
+			this.position+=frame.limit();
+			this.segmentSize+=frame.limit();
+			if(this.syncPolicy==SyncPolicy.ALWAYS) {
+				this.channel.force(false);
+				this.durablePosition=this.position;
+			}
+			if(this.segmentSize>=this.checkpointThreshold && !this.checkpointRequested && this.checkpointTrigger!=null) {
+				this.checkpointRequested=true;
+				this.checkpointTrigger.run();
+			}
+			return this.position;
+		} catch (IOException e) {
+			fail(e);
+			throw new TransactionException("Could not append to journal",e);
+		}
+	}
+
+	/**
+	 * Wait until the journal is durable up to the given position. With the
+	 * {@link SyncPolicy#GROUP group} policy, the first thread to arrive
+	 * forces everything appended so far, so the threads waiting for it
+	 * usually find their frames already durable.
+	 *
+	 * @throws TransactionException if the journal failed before the given
+	 *                              position became durable.
+	 */
+	void sync(long position) {
+		if(this.syncPolicy!=SyncPolicy.GROUP || this.durablePosition>=position) {
+			return;
+		}
+		synchronized(this.syncLock) {
+			if(this.durablePosition>=position) {
+				return;
+			}
+			if(this.failure!=null) {
+				throw new TransactionException("Journal is not available",this.failure);
+			}
+			long target;
+			FileChannel current;
+			synchronized(this) {
+				target=this.position;
+				current=this.channel;
+			}
+			try {
+				current.force(false);
+				this.durablePosition=target;
+			} catch (IOException e) {
+				fail(e);
+				throw new TransactionException("Could not sync journal",e);
+			}
+		}
+	}
+
+	/**
+	 * Start a new segment. Must be called while no commit is in progress.
+	 *
+	 * @return the new segment, which is the one from which recovery will
+	 *         start once a snapshot for it is written.
+	 */
+	long rotate() throws IOException {
+		synchronized(this.syncLock) {
+			synchronized(this) {
+				checkAvailable();
+				this.channel.force(false);
+				this.channel.close();
+				this.durablePosition=this.position;
+				openSegment(this.segment+1);
+				return this.segment;
+			}
+		}
+	}
+
+	/**
+	 * Write the snapshot from which recovery will start replaying the given
+	 * segment, and discard the files that are no longer needed.
+	 */
+	void writeSnapshot(long segment, Collection<? extends Resource> resources, Collection<? extends Endpoint> endpoints) throws IOException {
+		try {
+			doWriteSnapshot(segment,resources,endpoints);
+		} finally {
+			synchronized(this) {
+				this.checkpointRequested=false;
+			}
+		}
+		LOGGER.debug("Written snapshot of {} resources and {} endpoints for segment {}",resources.size(),endpoints.size(),segment);
+	}
+
+	private void doWriteSnapshot(long segment, Collection<? extends Resource> resources, Collection<? extends Endpoint> endpoints) throws IOException {
+		File temporary=new File(this.directory,snapshotFileName(segment)+".tmp");
+		FileOutputStream fos=new FileOutputStream(temporary);
+		try {
+			CheckedOutputStream checked=new CheckedOutputStream(new BufferedOutputStream(fos),new CRC32());
+			DataOutputStream out=new DataOutputStream(checked);
+			out.writeInt(SNAPSHOT_MAGIC);
+			out.writeInt(SNAPSHOT_VERSION);
+			RecordWriter writer=new RecordWriter(out);
+			for(Resource resource:resources) {
+				writer.committedResource((InMemoryResource)resource);
+			}
+			for(Resource resource:resources) {
+				if(resource instanceof InMemoryContainer) {
+					InMemoryContainer container=(InMemoryContainer)resource;
+					for(Member member:container.members()) {
+						writer.member(member.containerId(),member.memberId(),member.number());
+					}
+					for(Slug slug:container.slugs()) {
+						writer.slug(slug);
+					}
+				}
+			}
+			for(Endpoint endpoint:endpoints) {
+				writer.endpoint(endpoint);
+			}
+			writer.end();
+			long checksum=checked.getChecksum().getValue();
+			out.writeLong(checksum);
+			out.flush();
+			fos.getChannel().force(true);
+		} finally {
+			fos.close();
+		}
+		Files.move(temporary.toPath(),new File(this.directory,snapshotFileName(segment)).toPath(),StandardCopyOption.ATOMIC_MOVE,StandardCopyOption.REPLACE_EXISTING);
+		for(File file:files(SNAPSHOT_FILE).headMap(segment).values()) {
+			Files.deleteIfExists(file.toPath());
+		}
+		for(File file:files(SEGMENT_FILE).headMap(segment).values()) {
+			Files.deleteIfExists(file.toPath());
+		}
+	}
+
+	synchronized void close() throws IOException {
+		if(this.channel!=null) {
+			try {
+				if(this.failure==null) {
+					this.channel.force(false);
+				}
+			} finally {
+				this.channel.close();
+				this.channel=null;
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return
+			MoreObjects.
+				toStringHelper(getClass()).
+					add("directory",this.directory).
+					add("syncPolicy",this.syncPolicy).
+					add("checkpointThreshold",this.checkpointThreshold).
+					toString();
+	}
+
+}
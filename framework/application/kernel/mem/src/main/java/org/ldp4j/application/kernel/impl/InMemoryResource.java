@@ -29,6 +29,7 @@ package org.ldp4j.application.kernel.impl;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
+import java.io.IOException;
 import java.net.URI;
 import java.util.Collections;
 import java.util.Date;
@@ -64,12 +65,24 @@ class InMemoryResource extends AbstractInMemoryResource implements Resource {
 
 		private final ConcurrentMap<String,AtomicLong> attachmentCounter=new ConcurrentHashMap<String, AtomicLong>();
 
-		long nextVersion(String id) {
+		private AtomicLong counter(String id) {
 			AtomicLong counter=this.attachmentCounter.putIfAbsent(id, new AtomicLong(-1));
 			if(counter==null) {
 				counter=this.attachmentCounter.get(id);
 			}
-			return counter.incrementAndGet();
+			return counter;
+		}
+
+		long nextVersion(String id) {
+			return counter(id).incrementAndGet();
+		}
+
+		void restoreVersion(String id, long version) {
+			AtomicLong counter=counter(id);
+			long current=counter.get();
+			while(current<version && !counter.compareAndSet(current,version)) {
+				current=counter.get();
+			}
 		}
 
 	}
@@ -117,6 +130,46 @@ class InMemoryResource extends AbstractInMemoryResource implements Resource {
 
 	}
 
+	/**
+	 * The in-place state of the resource as of the last commit that changed
+	 * it.
+	 */
+	private static final class CommittedState {
+
+		private final URI indirectId;
+		private final Set<InMemoryAttachment> attachments;
+
+		private CommittedState(URI indirectId, Set<InMemoryAttachment> attachments) {
+			this.indirectId=indirectId;
+			this.attachments=attachments;
+		}
+
+	}
+
+	/**
+	 * An in-place change of the resource, which is reverted on rollback,
+	 * journaled as the after-image of the resource, and published as its
+	 * committed state on commit.
+	 */
+	private abstract class ResourceChange implements InMemoryTransaction.Change, InMemoryJournal.Journaled {
+
+		@Override
+		public final void prepare() {
+			// Nothing to do
+		}
+
+		@Override
+		public final void commit() {
+			publish();
+		}
+
+		@Override
+		public final void journal(InMemoryJournal.RecordWriter writer) throws IOException {
+			writer.resource(InMemoryResource.this);
+		}
+
+	}
+
 	private final Map<AttachmentId, InMemoryAttachment> attachments;
 	private final Map<String, AttachmentId> attachmentsById;
 	private final Map<ResourceId, AttachmentId> attachmentsByResourceId;
@@ -129,6 +182,8 @@ class InMemoryResource extends AbstractInMemoryResource implements Resource {
 
 	private URI indirectId;
 
+	private volatile CommittedState committed;
+
 	protected InMemoryResource(ResourceId id, ResourceId parentId) {
 		this.id=id;
 		this.parentId = parentId;
@@ -137,6 +192,7 @@ class InMemoryResource extends AbstractInMemoryResource implements Resource {
 		this.attachmentsByResourceId=new LinkedHashMap<ResourceId,AttachmentId>();
 		this.versionGenerator = new VersionGenerator();
 		this.reports=Maps.newLinkedHashMap();
+		publish();
 	}
 
 	protected InMemoryResource(ResourceId id) {
@@ -154,6 +210,26 @@ class InMemoryResource extends AbstractInMemoryResource implements Resource {
 		return newResource;
 	}
 
+	private void publish() {
+		this.committed=
+			new CommittedState(
+				this.indirectId,
+				ImmutableSet.copyOf(this.attachments.values()));
+	}
+
+	/**
+	 * Enlist the change in the transaction in-flight in the current thread,
+	 * or publish it right away if there is none.
+	 */
+	private void changed(ResourceChange change) {
+		InMemoryTransaction transaction=InMemoryTransaction.active();
+		if(transaction==null) {
+			publish();
+		} else {
+			transaction.enlist(change);
+		}
+	}
+
 	private synchronized ConstraintReportId nextConstraintReportId() {
 		String failureId=null;
 		do {
@@ -177,7 +253,16 @@ class InMemoryResource extends AbstractInMemoryResource implements Resource {
 	 */
 	@Override
 	public void setIndirectId(URI indirectId) {
+		final URI previous=this.indirectId;
 		this.indirectId=indirectId;
+		changed(
+			new ResourceChange() {
+				@Override
+				public void rollback() {
+					InMemoryResource.this.indirectId=previous;
+				}
+			}
+		);
 	}
 
 	/**
@@ -236,13 +321,33 @@ class InMemoryResource extends AbstractInMemoryResource implements Resource {
 		ResourceTemplate attachmentTemplate=super.getTemplate(resourceId);
 		checkState(Resources.areCompatible(clazz,attachmentTemplate),"Attachment '%s' is not of type '%s' (%s)",attachmentId,clazz.getCanonicalName(),attachmentTemplate.getClass().getCanonicalName());
 		InMemoryResource newResource=createChild(resourceId,attachmentTemplate);
-		InMemoryAttachment newAttachment = new InMemoryAttachment(aId,this.versionGenerator.nextVersion(attachmentId));
-		attachments.put(newAttachment.attachmentId(),newAttachment);
-		attachmentsById.put(aId.id(),aId);
-		attachmentsByResourceId.put(aId.resourceId(),aId);
+		final InMemoryAttachment newAttachment = new InMemoryAttachment(aId,this.versionGenerator.nextVersion(attachmentId));
+		link(newAttachment);
+		changed(
+			new ResourceChange() {
+				@Override
+				public void rollback() {
+					unlink(newAttachment);
+				}
+			}
+		);
 		return clazz.cast(newResource);
 	}
 
+	private void link(InMemoryAttachment attachment) {
+		AttachmentId aId=attachment.attachmentId();
+		this.attachments.put(aId,attachment);
+		this.attachmentsById.put(aId.id(),aId);
+		this.attachmentsByResourceId.put(aId.resourceId(),aId);
+	}
+
+	private void unlink(InMemoryAttachment attachment) {
+		AttachmentId aId=attachment.attachmentId();
+		this.attachments.remove(aId);
+		this.attachmentsById.remove(aId.id());
+		this.attachmentsByResourceId.remove(aId.resourceId());
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -250,9 +355,16 @@ class InMemoryResource extends AbstractInMemoryResource implements Resource {
 	public boolean detach(Attachment attachment) {
 		boolean found=this.attachments.containsValue(attachment);
 		if(found) {
-			AttachmentId remove = this.attachmentsById.remove(attachment.id());
-			this.attachmentsByResourceId.remove(attachment.resourceId());
-			this.attachments.remove(remove);
+			final InMemoryAttachment removed=this.attachments.get(this.attachmentsById.get(attachment.id()));
+			unlink(removed);
+			changed(
+				new ResourceChange() {
+					@Override
+					public void rollback() {
+						link(removed);
+					}
+				}
+			);
 		}
 		return found;
 	}
@@ -307,6 +419,40 @@ class InMemoryResource extends AbstractInMemoryResource implements Resource {
 		}
 	}
 
+	/**
+	 * The indirect identifier as of the last commit, unaffected by the
+	 * transactions in-flight.
+	 */
+	final URI committedIndirectId() {
+		return this.committed.indirectId;
+	}
+
+	/**
+	 * The attachments as of the last commit, unaffected by the transactions
+	 * in-flight.
+	 */
+	final Set<InMemoryAttachment> committedAttachments() {
+		return this.committed.attachments;
+	}
+
+	final void restoreIndirectId(URI indirectId) {
+		this.indirectId=indirectId;
+		publish();
+	}
+
+	final void clearAttachments() {
+		this.attachments.clear();
+		this.attachmentsById.clear();
+		this.attachmentsByResourceId.clear();
+		publish();
+	}
+
+	final void restoreAttachment(String attachmentId, ResourceId resourceId, long version) {
+		link(new InMemoryAttachment(AttachmentId.createId(attachmentId,resourceId),version));
+		this.versionGenerator.restoreVersion(attachmentId,version);
+		publish();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
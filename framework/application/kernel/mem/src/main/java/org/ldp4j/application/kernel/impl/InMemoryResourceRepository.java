@@ -28,10 +28,13 @@ package org.ldp4j.application.kernel.impl;
 
 import static com.google.common.base.Preconditions.*;
 
-import java.util.LinkedHashMap;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.ldp4j.application.kernel.lifecycle.LifecycleException;
 import org.ldp4j.application.kernel.lifecycle.Managed;
@@ -39,28 +42,102 @@ import org.ldp4j.application.kernel.resource.Container;
 import org.ldp4j.application.kernel.resource.Resource;
 import org.ldp4j.application.kernel.resource.ResourceId;
 import org.ldp4j.application.kernel.resource.ResourceRepository;
-import org.ldp4j.application.kernel.resource.ResourceVisitor;
+import org.ldp4j.application.kernel.transaction.TransactionConflictException;
 
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * Resource repository backed by a concurrent map, so that operations on
+ * different resources do not contend with each other. Containers and
+ * regular resources share the same map, as they share the same identifier
+ * space.
+ * <br>
+ * The resources added and removed within a transaction are kept in a
+ * workspace private to the transaction, and are published when the
+ * transaction commits.
+ */
 final class InMemoryResourceRepository implements Managed, ResourceRepository {
 
-	private final ReadWriteLock lock=new ReentrantReadWriteLock();
-	private final Map<ResourceId,Resource> resources=new LinkedHashMap<ResourceId,Resource>();
-	private final Map<ResourceId,Container> containers=new LinkedHashMap<ResourceId,Container>();
+	private final class Workspace implements InMemoryTransaction.Change, InMemoryJournal.Journaled {
+
+		private final Map<ResourceId,Resource> added=Maps.newLinkedHashMap();
+		private final Set<ResourceId> removed=Sets.newLinkedHashSet();
+
+		@Override
+		public void prepare() {
+			for(ResourceId id:this.added.keySet()) {
+				if(InMemoryResourceRepository.this.resources.containsKey(id) && !this.removed.contains(id)) {
+					throw new TransactionConflictException(String.format("A resource with identifier '%s' already exists",id));
+				}
+			}
+		}
+
+		@Override
+		public void commit() {
+			for(ResourceId id:this.removed) {
+				InMemoryResourceRepository.this.resources.remove(id);
+			}
+			InMemoryResourceRepository.this.resources.putAll(this.added);
+		}
+
+		@Override
+		public void rollback() {
+			// Nothing to do: the changes were never published
+		}
+
+		@Override
+		public void journal(InMemoryJournal.RecordWriter writer) throws IOException {
+			for(ResourceId id:this.removed) {
+				writer.resourceRemoved(id);
+			}
+			for(Resource resource:this.added.values()) {
+				writer.resource((InMemoryResource)resource);
+			}
+		}
+
+	}
+
+	private final ConcurrentMap<ResourceId,Resource> resources;
+	private final InMemoryJournal journal;
 
 	InMemoryResourceRepository() {
+		this(null);
+	}
+
+	InMemoryResourceRepository(InMemoryJournal journal) {
+		this.journal=journal;
+		this.resources=
+			new ConcurrentHashMap<ResourceId,Resource>(
+				InMemoryRepositories.INITIAL_CAPACITY,
+				InMemoryRepositories.LOAD_FACTOR,
+				InMemoryRepositories.concurrencyLevel());
+	}
+
+	private Workspace workspace(InMemoryTransaction transaction) {
+		Workspace workspace=transaction.participant(this,Workspace.class);
+		if(workspace==null) {
+			workspace=new Workspace();
+			transaction.enlist(this,workspace);
+		}
+		return workspace;
 	}
 
 	private Resource find(ResourceId id) {
-		lock.readLock().lock();
-		try {
-			Resource result=resources.get(id);
-			if(result==null) {
-				result=containers.get(id);
+		InMemoryTransaction transaction=InMemoryTransaction.active();
+		if(transaction!=null) {
+			Workspace workspace=transaction.participant(this,Workspace.class);
+			if(workspace!=null) {
+				Resource added=workspace.added.get(id);
+				if(added!=null) {
+					return added;
+				}
+				if(workspace.removed.contains(id)) {
+					return null;
+				}
 			}
-			return result;
-		} finally {
-			lock.readLock().unlock();
 		}
+		return this.resources.get(id);
 	}
 
 	/**
@@ -81,12 +158,11 @@ final class InMemoryResourceRepository implements Managed, ResourceRepository {
 	 */
 	@Override
 	public Resource resourceOfId(ResourceId id) {
-		lock.readLock().lock();
-		try {
-			return resources.get(id);
-		} finally {
-			lock.readLock().unlock();
+		Resource found=find(id);
+		if(found instanceof Container) {
+			return null;
 		}
+		return found;
 	}
 
 	/**
@@ -94,12 +170,7 @@ final class InMemoryResourceRepository implements Managed, ResourceRepository {
 	 */
 	@Override
 	public Container containerOfId(ResourceId id) {
-		lock.readLock().lock();
-		try {
-			return containers.get(id);
-		} finally {
-			lock.readLock().unlock();
-		}
+		return resourceById(id,Container.class);
 	}
 
 	/**
@@ -108,23 +179,14 @@ final class InMemoryResourceRepository implements Managed, ResourceRepository {
 	@Override
 	public void add(Resource resource) {
 		checkNotNull(resource,"Resource cannot be null");
-		lock.writeLock().lock();
-		try {
+		InMemoryTransaction transaction=InMemoryTransaction.active();
+		if(transaction==null) {
+			Resource previous=this.resources.putIfAbsent(resource.id(),resource);
+			checkState(previous==null,"A resource with identifier '%s' already exists",resource.id());
+			journalOutsideTransaction(resource,false);
+		} else {
 			checkState(find(resource.id())==null,"A resource with identifier '%s' already exists",resource.id());
-			resource.accept(
-				new ResourceVisitor() {
-					@Override
-					public void visitResource(Resource resource) {
-						InMemoryResourceRepository.this.resources.put(resource.id(),resource);
-					}
-					@Override
-					public void visitContainer(Container resource) {
-						InMemoryResourceRepository.this.containers.put(resource.id(),resource);
-					}
-				}
-			);
-		} finally {
-			lock.writeLock().unlock();
+			workspace(transaction).added.put(resource.id(),resource);
 		}
 	}
 
@@ -134,15 +196,50 @@ final class InMemoryResourceRepository implements Managed, ResourceRepository {
 	@Override
 	public void remove(Resource resource) {
 		checkNotNull(resource,"Resource cannot be null");
-		lock.writeLock().lock();
-		try {
-			resources.remove(resource.id());
-			containers.remove(resource.id());
-		} finally {
-			lock.writeLock().unlock();
+		InMemoryTransaction transaction=InMemoryTransaction.active();
+		if(transaction==null) {
+			this.resources.remove(resource.id());
+			journalOutsideTransaction(resource,true);
+		} else {
+			Workspace workspace=workspace(transaction);
+			workspace.added.remove(resource.id());
+			workspace.removed.add(resource.id());
 		}
 	}
 
+	private void journalOutsideTransaction(final Resource resource, final boolean removed) {
+		if(this.journal==null) {
+			return;
+		}
+		InMemoryJournal.Journaled change=
+			new InMemoryJournal.Journaled() {
+				@Override
+				public void journal(InMemoryJournal.RecordWriter writer) throws IOException {
+					if(removed) {
+						writer.resourceRemoved(resource.id());
+					} else {
+						writer.resource((InMemoryResource)resource);
+					}
+				}
+			};
+		this.journal.sync(this.journal.append(Collections.singleton(change)));
+	}
+
+	/**
+	 * Get the resources as seen outside of any transaction.
+	 */
+	Collection<Resource> committedResources() {
+		return Collections.unmodifiableCollection(this.resources.values());
+	}
+
+	void restore(Resource resource) {
+		this.resources.put(resource.id(),resource);
+	}
+
+	void forget(ResourceId id) {
+		this.resources.remove(id);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -156,13 +253,7 @@ final class InMemoryResourceRepository implements Managed, ResourceRepository {
 	 */
 	@Override
 	public void shutdown() throws LifecycleException {
-		lock.writeLock().lock();
-		try {
-			resources.clear();
-			containers.clear();
-		} finally {
-			lock.writeLock().unlock();
-		}
+		this.resources.clear();
 	}
 
 }
\ No newline at end of file
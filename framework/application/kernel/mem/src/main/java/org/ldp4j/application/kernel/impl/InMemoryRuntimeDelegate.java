@@ -46,8 +46,8 @@ public final class InMemoryRuntimeDelegate extends RuntimeDelegate {
 		this.modelFactory= new InMemoryModelFactory();
 		this.resourceRepository=new InMemoryResourceRepository();
 		this.endpointRepository=new InMemoryEndpointRepository();
-		this.constraintReportRepository=new InMemoryConstraintReportRepository();
 		this.transactionManager = new InMemoryTransactionManager();
+		this.constraintReportRepository=new InMemoryConstraintReportRepository(this.resourceRepository,this.transactionManager);
 	}
 
 	/**
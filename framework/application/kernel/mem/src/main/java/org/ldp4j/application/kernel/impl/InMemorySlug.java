@@ -105,6 +105,10 @@ final class InMemorySlug implements Slug {
 					toString();
 	}
 
+	static InMemorySlug restore(ResourceId containerId, String preferredPath, long version) {
+		return new InMemorySlug(containerId,preferredPath,version);
+	}
+
 	static InMemorySlug create(String slugPath, Container container) {
 		Matcher matcher = SLUG_PATH_PATTERN.matcher(slugPath);
 		String path=slugPath;
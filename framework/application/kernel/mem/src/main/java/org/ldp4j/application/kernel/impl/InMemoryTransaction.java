@@ -26,12 +26,66 @@
  */
 package org.ldp4j.application.kernel.impl;
 
+import java.util.List;
+import java.util.Map;
+
 import org.ldp4j.application.kernel.transaction.Transaction;
+import org.ldp4j.application.kernel.transaction.TransactionException;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
+/**
+ * In-memory transaction. The changes performed while the transaction is
+ * in-flight are enlisted in the transaction and are only published to other
+ * transactions when it commits. Commits are serialized by the transaction
+ * manager: every enlisted change is first prepared, so that conflicts with
+ * previously committed transactions are detected before any change is
+ * published, and then committed. On rollback the enlisted changes are
+ * discarded in reverse order.
+ */
 final class InMemoryTransaction implements Transaction {
 
+	/**
+	 * A change enlisted in a transaction.
+	 */
+	interface Change {
+
+		/**
+		 * Verify that the change can be published.
+		 *
+		 * @throws TransactionException if the change conflicts with the changes
+		 *                              published by other transaction.
+		 */
+		void prepare();
+
+		void commit();
+
+		void rollback();
+
+	}
+
+	/**
+	 * A change that is applied in-place and only needs to be reverted on
+	 * rollback.
+	 */
+	abstract static class Undo implements Change {
+
+		@Override
+		public final void prepare() {
+			// Nothing to do
+		}
+
+		@Override
+		public final void commit() {
+			// Nothing to do
+		}
+
+	}
+
+	private static final ThreadLocal<InMemoryTransaction> ACTIVE=new ThreadLocal<InMemoryTransaction>();
+
 	private interface TransactionState {
 
 		TransactionState begin();
@@ -50,6 +104,7 @@ final class InMemoryTransaction implements Transaction {
 
 		@Override
 		public TransactionState begin() {
+			ACTIVE.set(InMemoryTransaction.this);
 			return new InFlightTransactionState();
 		}
 
@@ -84,13 +139,29 @@ final class InMemoryTransaction implements Transaction {
 
 		@Override
 		public TransactionState commit() {
-			transactionManager.disposeTransaction(InMemoryTransaction.this);
+			try {
+				transactionManager.commitTransaction(InMemoryTransaction.this);
+			} catch (TransactionException e) {
+				// Once published the changes cannot be reverted, but they
+				// may not be durable
+				if(!InMemoryTransaction.this.published) {
+					discardChanges();
+				}
+				InMemoryTransaction.this.state=new CompletedTransactionState(InMemoryTransaction.this.published?"failed":"rolledback");
+				throw e;
+			} finally {
+				dispose();
+			}
 			return new CompletedTransactionState("commited");
 		}
 
 		@Override
 		public TransactionState rollback() {
-			transactionManager.disposeTransaction(InMemoryTransaction.this);
+			try {
+				discardChanges();
+			} finally {
+				dispose();
+			}
 			return new CompletedTransactionState("rolledback");
 		}
 
@@ -144,18 +215,94 @@ final class InMemoryTransaction implements Transaction {
 
 	private final InMemoryTransactionManager transactionManager;
 	private final long id;
+	private final List<Change> changes;
+	private final Map<Object,Change> participants;
 	private TransactionState state;
+	private boolean published;
 
 	InMemoryTransaction(long id, InMemoryTransactionManager persistencyManager) {
 		this.id = id;
 		this.transactionManager = persistencyManager;
+		this.changes=Lists.newArrayList();
+		this.participants=Maps.newHashMap();
 		this.state=new PendingTransactionState();
 	}
 
+	private void dispose() {
+		ACTIVE.remove();
+		this.changes.clear();
+		this.participants.clear();
+		this.transactionManager.disposeTransaction(this);
+	}
+
+	private void discardChanges() {
+		for(Change change:Lists.reverse(this.changes)) {
+			change.rollback();
+		}
+	}
+
+	/**
+	 * Prepare and commit the enlisted changes, recording them in the journal
+	 * (if any) before they are published. Must only be called by the
+	 * transaction manager while holding the commit lock.
+	 *
+	 * @return the journal position to sync to, or {@code -1} if there is no
+	 *         journal.
+	 */
+	long publishChanges(InMemoryJournal journal) {
+		for(Change change:this.changes) {
+			change.prepare();
+		}
+		long position=-1;
+		if(journal!=null) {
+			position=journal.append(this.changes);
+		}
+		this.published=true;
+		for(Change change:this.changes) {
+			change.commit();
+		}
+		return position;
+	}
+
 	long id() {
 		return this.id;
 	}
 
+	void enlist(Change change) {
+		this.changes.add(change);
+	}
+
+	/**
+	 * Enlist a change on behalf of a participant, so that it can be
+	 * retrieved later on using {@link #participant(Object, Class)}.
+	 */
+	void enlist(Object participant, Change change) {
+		this.participants.put(participant,change);
+		this.changes.add(change);
+	}
+
+	<T extends Change> T participant(Object participant, Class<? extends T> clazz) {
+		return clazz.cast(this.participants.get(participant));
+	}
+
+	/**
+	 * Get the transaction in-flight in the current thread, if any.
+	 */
+	static InMemoryTransaction active() {
+		return ACTIVE.get();
+	}
+
+	/**
+	 * Log an in-place change so that it is reverted if the transaction
+	 * in-flight in the current thread, if any, is rolled back.
+	 */
+	static void logUndo(Undo undo) {
+		InMemoryTransaction transaction=active();
+		if(transaction!=null) {
+			transaction.enlist(undo);
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -28,6 +28,7 @@ package org.ldp4j.application.kernel.impl;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.io.IOException;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.ldp4j.application.kernel.transaction.Transaction;
@@ -37,10 +38,18 @@ final class InMemoryTransactionManager implements TransactionManager {
 
 	private final ThreadLocal<InMemoryTransaction> currentTransaction;
 	private final AtomicLong transactionCounter;
+	private final Object commitLock;
+	private final InMemoryJournal journal;
 
-	public InMemoryTransactionManager() {
+	InMemoryTransactionManager(InMemoryJournal journal) {
 		this.currentTransaction=new ThreadLocal<InMemoryTransaction>();
 		this.transactionCounter=new AtomicLong();
+		this.commitLock=new Object();
+		this.journal=journal;
+	}
+
+	public InMemoryTransactionManager() {
+		this(null);
 	}
 
 	@Override
@@ -53,6 +62,26 @@ final class InMemoryTransactionManager implements TransactionManager {
 		return transaction;
 	}
 
+	void commitTransaction(InMemoryTransaction transaction) {
+		long position;
+		synchronized(this.commitLock) {
+			position=transaction.publishChanges(this.journal);
+		}
+		if(this.journal!=null) {
+			this.journal.sync(position);
+		}
+	}
+
+	/**
+	 * Start a new journal segment once the commit in progress, if any, has
+	 * been published.
+	 */
+	long rotateJournal() throws IOException {
+		synchronized(this.commitLock) {
+			return this.journal.rotate();
+		}
+	}
+
 	void disposeTransaction(InMemoryTransaction transaction) {
 		Transaction current=this.currentTransaction.get();
 		checkArgument(transaction==current,"Transactions can only be disposed by the their owner thread");
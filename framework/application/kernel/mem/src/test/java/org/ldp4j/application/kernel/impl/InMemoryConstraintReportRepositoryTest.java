@@ -0,0 +1,157 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-kernel-mem:0.2.2
+ *   Bundle      : ldp4j-application-kernel-mem-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.application.kernel.constraints.ConstraintReport;
+import org.ldp4j.application.kernel.constraints.ConstraintReportPolicy;
+import org.ldp4j.application.kernel.constraints.ConstraintReportPolicy.BodyRetention;
+import org.ldp4j.application.kernel.resource.Resource;
+import org.ldp4j.application.kernel.resource.ResourceId;
+
+public class InMemoryConstraintReportRepositoryTest {
+
+	private static final long TIME_TO_LIVE=TimeUnit.MINUTES.toMillis(1);
+
+	private static final class ManualClock implements ConstraintReportPolicy.Clock {
+
+		private final AtomicLong now=new AtomicLong(System.currentTimeMillis());
+
+		@Override
+		public long currentTimeMillis() {
+			return this.now.get();
+		}
+
+		void advance(long millis) {
+			this.now.addAndGet(millis);
+		}
+
+	}
+
+	private ManualClock clock;
+	private InMemoryResourceRepository resources;
+	private InMemoryConstraintReportRepository sut;
+	private Resource resource;
+
+	@Before
+	public void setUp() {
+		this.resources=new InMemoryResourceRepository();
+		this.resource=new InMemoryResource(ResourceId.createId(NamingScheme.getDefault().name("resource"),"template"));
+		this.resources.add(this.resource);
+		this.clock=new ManualClock();
+		this.sut=
+			new InMemoryConstraintReportRepository(
+				this.resources,
+				new InMemoryTransactionManager(),
+				ConstraintReportPolicy.
+					create(3,TIME_TO_LIVE,TimeUnit.MILLISECONDS,BodyRetention.NONE,1).
+						withClock(this.clock));
+	}
+
+	private ConstraintReport report(long age) {
+		ConstraintReport report=this.resource.addConstraintReport(null,new Date(this.clock.currentTimeMillis()-age),null);
+		this.sut.add(report);
+		return report;
+	}
+
+	@Test
+	public void oldestReportsAreEvictedWhenFull() throws Exception {
+		ConstraintReport r1=report(0);
+		ConstraintReport r2=report(0);
+		ConstraintReport r3=report(0);
+		ConstraintReport r4=report(0);
+		assertThat(this.sut.constraintReportOfId(r1.id()),nullValue());
+		assertThat(this.sut.constraintReportOfId(r2.id()),sameInstance(r2));
+		assertThat(this.sut.constraintReportOfId(r3.id()),sameInstance(r3));
+		assertThat(this.sut.constraintReportOfId(r4.id()),sameInstance(r4));
+		assertThat(this.resource.constraintReports(),contains(r2.id(),r3.id(),r4.id()));
+	}
+
+	@Test
+	public void expiredReportsAreNotRetrieved() throws Exception {
+		ConstraintReport report=report(TIME_TO_LIVE-1000);
+		assertThat(this.sut.constraintReportOfId(report.id()),notNullValue());
+		this.clock.advance(1500);
+		assertThat(this.sut.constraintReportOfId(report.id()),nullValue());
+	}
+
+	@Test
+	public void expiredReportsAreEvicted() throws Exception {
+		ConstraintReport expired=report(2*TIME_TO_LIVE);
+		ConstraintReport current=report(0);
+		assertThat(this.sut.constraintReportOfId(expired.id()),nullValue());
+		assertThat(this.resource.constraintReports(),contains(current.id()));
+	}
+
+	@Test
+	public void evictionRemovesExpiredReportsWithoutNewFailures() throws Exception {
+		ConstraintReport report=report(TIME_TO_LIVE-1000);
+		this.sut.evict();
+		assertThat(this.resource.constraintReports(),contains(report.id()));
+		this.clock.advance(1500);
+		this.sut.evict();
+		assertThat(this.resource.constraintReports(),empty());
+		assertThat(this.sut.constraintReportOfId(report.id()),nullValue());
+	}
+
+	@Test
+	public void evictionIsCarriedOutWithinItsOwnTransaction() throws Exception {
+		final AtomicBoolean transactional=new AtomicBoolean();
+		Resource other=
+			new InMemoryResource(ResourceId.createId(NamingScheme.getDefault().name("other"),"template")) {
+				@Override
+				public void removeFailure(ConstraintReport report) {
+					transactional.set(InMemoryTransaction.active()!=null);
+					super.removeFailure(report);
+				}
+			};
+		this.resources.add(other);
+		ConstraintReport report=other.addConstraintReport(null,new Date(this.clock.currentTimeMillis()-TIME_TO_LIVE+1000),null);
+		this.sut.add(report);
+		this.clock.advance(1500);
+		this.sut.evict();
+		assertThat(transactional.get(),equalTo(true));
+		assertThat(InMemoryTransaction.active(),nullValue());
+		assertThat(other.constraintReports(),empty());
+	}
+
+}
@@ -26,18 +26,25 @@
  */
 package org.ldp4j.application.kernel.impl;
 
+import java.util.List;
+
 import org.junit.Before;
 import org.junit.Test;
 
 import static org.hamcrest.MatcherAssert.*;
 import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.*;
 
 import org.ldp4j.application.data.Name;
 import org.ldp4j.application.data.NamingScheme;
 import org.ldp4j.application.kernel.impl.InMemoryContainer;
 import org.ldp4j.application.kernel.resource.Container;
+import org.ldp4j.application.kernel.resource.Member;
 import org.ldp4j.application.kernel.resource.ResourceId;
 import org.ldp4j.application.kernel.resource.Slug;
+import org.ldp4j.application.kernel.template.ContainerTemplate;
+import org.ldp4j.application.kernel.template.ResourceTemplate;
+import org.ldp4j.application.kernel.template.TemplateLibrary;
 
 public class InMemoryContainerTest {
 
@@ -52,6 +59,63 @@ public class InMemoryContainerTest {
 		this.container = new InMemoryContainer(CONTAINER_ID);
 	}
 
+	private ResourceId memberId(int i) {
+		return ResourceId.createId(NamingScheme.getDefault().name(100+i), "member");
+	}
+
+	private void addMembers(int count) {
+		ContainerTemplate template=mock(ContainerTemplate.class);
+		when(template.memberTemplate()).thenReturn(mock(ResourceTemplate.class));
+		TemplateLibrary library=mock(TemplateLibrary.class);
+		when(library.findById("template")).thenReturn(template);
+		((InMemoryContainer)this.container).setTemplateLibrary(library);
+		for(int i=0;i<count;i++) {
+			this.container.addMember(memberId(i));
+		}
+	}
+
+	@Test
+	public void testMembers$range$sortedByNumber() throws Exception {
+		addMembers(10);
+		List<Member> page=this.container.members(1,3);
+		assertThat(page,hasSize(3));
+		for(int i=0;i<3;i++) {
+			assertThat(page.get(i).memberId(),equalTo(memberId(i)));
+			assertThat(page.get(i).number(),equalTo(i+1L));
+		}
+		List<Member> next=this.container.members(page.get(2).number()+1,3);
+		assertThat(next.get(0).memberId(),equalTo(memberId(3)));
+	}
+
+	@Test
+	public void testMembers$range$skipsRemovedMembers() throws Exception {
+		addMembers(5);
+		this.container.removeMember(this.container.findMember(memberId(1)));
+		List<Member> page=this.container.members(0,10);
+		assertThat(page,hasSize(4));
+		assertThat(page.get(1).memberId(),equalTo(memberId(2)));
+		assertThat(this.container.members(),hasSize(4));
+	}
+
+	@Test
+	public void testMembers$range$beyondLastMember() throws Exception {
+		addMembers(5);
+		assertThat(this.container.members(6,10),hasSize(0));
+		assertThat(this.container.members(0,0),hasSize(0));
+	}
+
+	@Test
+	public void testMembersBefore$closestFirst() throws Exception {
+		addMembers(10);
+		List<Member> previous=this.container.membersBefore(7,3);
+		assertThat(previous,hasSize(3));
+		assertThat(previous.get(0).number(),equalTo(6L));
+		assertThat(previous.get(2).number(),equalTo(4L));
+		this.container.removeMember(this.container.findMember(memberId(4)));
+		assertThat(this.container.membersBefore(7,3).get(1).number(),equalTo(4L));
+		assertThat(this.container.membersBefore(1,3),hasSize(0));
+	}
+
 	@Test
 	public void testAddSlug$new() throws Exception {
 		Slug slug = this.container.addSlug("slug");
@@ -0,0 +1,147 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-kernel-mem:0.2.2
+ *   Bundle      : ldp4j-application-kernel-mem-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.fail;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.application.engine.context.EntityTag;
+import org.ldp4j.application.kernel.endpoint.Endpoint;
+import org.ldp4j.application.kernel.resource.ResourceId;
+
+import com.google.common.collect.Lists;
+
+public class InMemoryEndpointRepositoryTest {
+
+	private static final ResourceId RESOURCE_ID=ResourceId.createId(NamingScheme.getDefault().name("resource"),"template");
+
+	private InMemoryEndpointRepository sut;
+
+	@Before
+	public void setUp() {
+		this.sut=new InMemoryEndpointRepository();
+	}
+
+	private Endpoint endpoint(String path, ResourceId resourceId) {
+		return InMemoryEndpoint.create(path,resourceId,new Date(),EntityTag.createStrong(path));
+	}
+
+	@Test
+	public void endpointsAreIndexedByPathAndResource() throws Exception {
+		Endpoint endpoint=endpoint("path",RESOURCE_ID);
+		this.sut.add(endpoint);
+		assertThat(this.sut.endpointOfPath("path"),sameInstance(endpoint));
+		assertThat(this.sut.endpointOfResource(RESOURCE_ID),sameInstance(endpoint));
+	}
+
+	@Test
+	public void failedAdditionsDoNotClaimThePath() throws Exception {
+		this.sut.add(endpoint("path1",RESOURCE_ID));
+		try {
+			this.sut.add(endpoint("path2",RESOURCE_ID));
+			fail("Should not allow multiple live endpoints for the same resource");
+		} catch (IllegalArgumentException e) {
+			assertThat(this.sut.endpointOfPath("path2"),nullValue());
+		}
+	}
+
+	@Test
+	public void deletedEndpointsCanBeReplaced() throws Exception {
+		Endpoint deleted=endpoint("path1",RESOURCE_ID);
+		this.sut.add(deleted);
+		deleted.delete(new Date());
+		assertThat(this.sut.endpointOfResource(RESOURCE_ID),nullValue());
+		Endpoint endpoint=endpoint("path2",RESOURCE_ID);
+		this.sut.add(endpoint);
+		assertThat(this.sut.endpointOfResource(RESOURCE_ID),sameInstance(endpoint));
+		assertThat(this.sut.endpointOfPath("path1"),sameInstance(deleted));
+	}
+
+	@Test
+	public void concurrentAdditionsForTheSameResourceAreSerialized() throws Exception {
+		final int threads=8;
+		final CountDownLatch start=new CountDownLatch(1);
+		ExecutorService executor=Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Endpoint>> results=Lists.newArrayList();
+			for(int i=0;i<threads;i++) {
+				final Endpoint endpoint=endpoint("path"+i,RESOURCE_ID);
+				results.add(
+					executor.submit(
+						new Callable<Endpoint>() {
+							@Override
+							public Endpoint call() throws Exception {
+								start.await();
+								try {
+									InMemoryEndpointRepositoryTest.this.sut.add(endpoint);
+									return endpoint;
+								} catch (IllegalArgumentException e) {
+									return null;
+								}
+							}
+						}
+					)
+				);
+			}
+			start.countDown();
+			Endpoint winner=null;
+			int added=0;
+			for(Future<Endpoint> result:results) {
+				Endpoint endpoint=result.get();
+				if(endpoint!=null) {
+					winner=endpoint;
+					added++;
+				}
+			}
+			assertThat(added,equalTo(1));
+			assertThat(this.sut.endpointOfResource(RESOURCE_ID),sameInstance(winner));
+			for(int i=0;i<threads;i++) {
+				Endpoint byPath=this.sut.endpointOfPath("path"+i);
+				if(byPath!=null) {
+					assertThat(byPath,sameInstance(winner));
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+}
@@ -0,0 +1,262 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-kernel-mem:0.2.2
+ *   Bundle      : ldp4j-application-kernel-mem-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.net.URI;
+import java.util.Date;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.application.engine.context.EntityTag;
+import org.ldp4j.application.kernel.endpoint.Endpoint;
+import org.ldp4j.application.kernel.resource.Container;
+import org.ldp4j.application.kernel.resource.Resource;
+import org.ldp4j.application.kernel.resource.ResourceId;
+import org.ldp4j.application.kernel.template.ContainerTemplate;
+import org.ldp4j.application.kernel.template.ResourceTemplate;
+import org.ldp4j.application.kernel.template.TemplateLibrary;
+import org.ldp4j.application.kernel.transaction.Transaction;
+
+public class InMemoryJournalTest {
+
+	private static final ResourceId CONTAINER_ID=ResourceId.createId(NamingScheme.getDefault().name("container"),"template");
+
+	@Rule
+	public TemporaryFolder folder=new TemporaryFolder();
+
+	private InMemoryJournal journal;
+	private DurableInMemoryRuntimeDelegate delegate;
+	private TemplateLibrary library;
+
+	@Before
+	public void setUp() throws Exception {
+		ContainerTemplate template=mock(ContainerTemplate.class);
+		when(template.memberTemplate()).thenReturn(mock(ResourceTemplate.class));
+		this.library=mock(TemplateLibrary.class);
+		when(this.library.findById("template")).thenReturn(template);
+		start();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		this.journal.close();
+	}
+
+	private void start() throws Exception {
+		this.journal=new InMemoryJournal(this.folder.getRoot(),InMemoryJournal.SyncPolicy.GROUP,1024*1024);
+		this.delegate=new DurableInMemoryRuntimeDelegate(this.journal);
+		this.delegate.init();
+		this.delegate.getModelFactory().useTemplates(this.library);
+	}
+
+	/**
+	 * Simulate a crash: the journal is closed without taking a snapshot.
+	 */
+	private void restart() throws Exception {
+		this.journal.close();
+		start();
+	}
+
+	private static ResourceId memberId(int i) {
+		return ResourceId.createId(NamingScheme.getDefault().name(i),"member");
+	}
+
+	private Transaction begin() {
+		Transaction transaction=this.delegate.getTransactionManager().currentTransaction();
+		transaction.begin();
+		return transaction;
+	}
+
+	private InMemoryContainer container() {
+		return this.delegate.getResourceRepository().resourceById(CONTAINER_ID,InMemoryContainer.class);
+	}
+
+	private void createContainer() {
+		InMemoryContainer container=new InMemoryContainer(CONTAINER_ID);
+		container.setTemplateLibrary(this.library);
+		this.delegate.getResourceRepository().add(container);
+		this.delegate.getEndpointRepository().add(InMemoryEndpoint.create("container/",CONTAINER_ID,new Date(),EntityTag.createStrong("container")));
+	}
+
+	private void createMember(int i) {
+		Transaction transaction=begin();
+		Container container=container();
+		String path=container.addSlug("member").nextPath();
+		Resource member=container.addMember(memberId(i));
+		this.delegate.getResourceRepository().add(member);
+		this.delegate.getEndpointRepository().add(InMemoryEndpoint.create(path,memberId(i),new Date(),EntityTag.createStrong("member"+i)));
+		transaction.commit();
+	}
+
+	@Test
+	public void committedChangesAreRecovered() throws Exception {
+		createContainer();
+		createMember(1);
+		createMember(2);
+		Transaction transaction=begin();
+		container().setIndirectId(URI.create("urn:indirect"));
+		this.delegate.getEndpointRepository().endpointOfPath("container/").modify(EntityTag.createStrong("modified"),new Date());
+		transaction.commit();
+
+		restart();
+
+		InMemoryContainer container=container();
+		assertThat(container,notNullValue());
+		assertThat(container.indirectId(),equalTo(URI.create("urn:indirect")));
+		assertThat(container.members(),hasSize(2));
+		assertThat(this.delegate.getResourceRepository().resourceById(memberId(2),Resource.class),notNullValue());
+		assertThat(this.delegate.getEndpointRepository().endpointOfPath("container/").entityTag(),equalTo(EntityTag.createStrong("modified")));
+		assertThat(this.delegate.getEndpointRepository().endpointOfResource(memberId(2)).path(),equalTo("member_1"));
+		assertThat(container.findSlug("member").nextPath(),equalTo("member_2"));
+	}
+
+	@Test
+	public void rolledBackChangesAreNotRecovered() throws Exception {
+		createContainer();
+		Transaction transaction=begin();
+		Resource member=container().addMember(memberId(1));
+		this.delegate.getResourceRepository().add(member);
+		transaction.rollback();
+
+		restart();
+
+		assertThat(container().members(),hasSize(0));
+		assertThat(this.delegate.getResourceRepository().resourceById(memberId(1),Resource.class),nullValue());
+	}
+
+	@Test
+	public void deletionsAreRecovered() throws Exception {
+		createContainer();
+		createMember(1);
+		Transaction transaction=begin();
+		Resource member=this.delegate.getResourceRepository().resourceById(memberId(1),Resource.class);
+		container().removeMember(container().findMember(memberId(1)));
+		this.delegate.getResourceRepository().remove(member);
+		this.delegate.getEndpointRepository().endpointOfResource(memberId(1)).delete(new Date());
+		transaction.commit();
+
+		restart();
+
+		assertThat(container().members(),hasSize(0));
+		assertThat(this.delegate.getResourceRepository().resourceById(memberId(1),Resource.class),nullValue());
+		assertThat(this.delegate.getEndpointRepository().endpointOfResource(memberId(1)),nullValue());
+		assertThat(this.delegate.getEndpointRepository().endpointOfPath("member").deleted(),notNullValue());
+	}
+
+	@Test
+	public void snapshotsAreCombinedWithTheLogTail() throws Exception {
+		createContainer();
+		createMember(1);
+		this.delegate.checkpoint();
+		createMember(2);
+
+		restart();
+
+		assertThat(container().members(),hasSize(2));
+		this.delegate.checkpoint();
+		int snapshots=0;
+		for(String name:this.folder.getRoot().list()) {
+			if(name.startsWith("snapshot-")) {
+				snapshots++;
+			}
+		}
+		assertThat(snapshots,equalTo(1));
+	}
+
+	@Test
+	public void snapshotsLeaveOutInFlightChanges() throws Exception {
+		createContainer();
+		Transaction transaction=begin();
+		container().setIndirectId(URI.create("urn:in-flight"));
+		ExecutorService executor=Executors.newSingleThreadExecutor();
+		try {
+			executor.submit(
+				new Callable<Void>() {
+					@Override
+					public Void call() throws Exception {
+						delegate.checkpoint();
+						return null;
+					}
+				}).get();
+		} finally {
+			executor.shutdown();
+		}
+		transaction.rollback();
+
+		restart();
+
+		assertThat(container().indirectId(),nullValue());
+	}
+
+	@Test
+	public void incompleteFramesAreDiscarded() throws Exception {
+		createContainer();
+		createMember(1);
+		this.journal.close();
+		File segment=null;
+		for(File file:this.folder.getRoot().listFiles()) {
+			if(file.getName().startsWith("journal-") && file.length()>0) {
+				segment=file;
+			}
+		}
+		FileOutputStream out=new FileOutputStream(segment,true);
+		try {
+			out.write(new byte[]{0,0,1,0,1,2,3,4,5,6});
+		} finally {
+			out.close();
+		}
+
+		start();
+
+		assertThat(container(),instanceOf(InMemoryContainer.class));
+		assertThat(container().members(),hasSize(1));
+		createMember(2);
+
+		restart();
+
+		assertThat(container().members(),hasSize(2));
+	}
+
+}
@@ -0,0 +1,235 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-kernel-mem:0.2.2
+ *   Bundle      : ldp4j-application-kernel-mem-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.Date;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.application.engine.context.EntityTag;
+import org.ldp4j.application.kernel.endpoint.Endpoint;
+import org.ldp4j.application.kernel.resource.Container;
+import org.ldp4j.application.kernel.resource.Resource;
+import org.ldp4j.application.kernel.resource.ResourceId;
+import org.ldp4j.application.kernel.template.ContainerTemplate;
+import org.ldp4j.application.kernel.template.ResourceTemplate;
+import org.ldp4j.application.kernel.template.TemplateLibrary;
+import org.ldp4j.application.kernel.transaction.Transaction;
+import org.ldp4j.application.kernel.transaction.TransactionConflictException;
+
+public class InMemoryTransactionTest {
+
+	private static final ResourceId CONTAINER_ID=ResourceId.createId(NamingScheme.getDefault().name("container"),"template");
+	private static final ResourceId MEMBER_ID=ResourceId.createId(NamingScheme.getDefault().name("member"),"member");
+
+	private InMemoryTransactionManager transactionManager;
+	private InMemoryResourceRepository resourceRepository;
+	private InMemoryEndpointRepository endpointRepository;
+	private InMemoryContainer container;
+	private Endpoint containerEndpoint;
+	private ExecutorService otherThread;
+
+	@Before
+	public void setUp() {
+		this.transactionManager=new InMemoryTransactionManager();
+		this.resourceRepository=new InMemoryResourceRepository();
+		this.endpointRepository=new InMemoryEndpointRepository();
+		ContainerTemplate template=mock(ContainerTemplate.class);
+		when(template.memberTemplate()).thenReturn(mock(ResourceTemplate.class));
+		TemplateLibrary library=mock(TemplateLibrary.class);
+		when(library.findById("template")).thenReturn(template);
+		this.container=new InMemoryContainer(CONTAINER_ID);
+		this.container.setTemplateLibrary(library);
+		this.containerEndpoint=endpoint("container",CONTAINER_ID);
+		this.resourceRepository.add(this.container);
+		this.endpointRepository.add(this.containerEndpoint);
+		this.otherThread=Executors.newSingleThreadExecutor();
+	}
+
+	@After
+	public void tearDown() {
+		this.otherThread.shutdownNow();
+	}
+
+	private static Endpoint endpoint(String path, ResourceId resourceId) {
+		return InMemoryEndpoint.create(path,resourceId,new Date(),EntityTag.createStrong(path));
+	}
+
+	private Transaction begin() {
+		Transaction transaction=this.transactionManager.currentTransaction();
+		transaction.begin();
+		return transaction;
+	}
+
+	private <T> T inOtherThread(Callable<T> callable) throws Exception {
+		return this.otherThread.submit(callable).get();
+	}
+
+	private Callable<Object[]> snapshot() {
+		return new Callable<Object[]>() {
+			@Override
+			public Object[] call() throws Exception {
+				return new Object[] {
+					resourceRepository.resourceById(MEMBER_ID,Resource.class),
+					endpointRepository.endpointOfPath("member"),
+					endpointRepository.endpointOfResource(MEMBER_ID),
+					container.members().size()
+				};
+			}
+		};
+	}
+
+	private Resource createMember() {
+		Resource member=this.container.addMember(MEMBER_ID);
+		this.resourceRepository.add(member);
+		this.endpointRepository.add(endpoint("member",MEMBER_ID));
+		return member;
+	}
+
+	@Test
+	public void uncommittedChangesAreOnlyVisibleToTheirTransaction() throws Exception {
+		Transaction transaction=begin();
+		Resource member=createMember();
+		assertThat(this.resourceRepository.resourceById(MEMBER_ID,Resource.class),sameInstance(member));
+		assertThat(this.container.members(),hasSize(1));
+		assertThat(inOtherThread(snapshot()),equalTo(new Object[]{null,null,null,0}));
+		transaction.commit();
+		Object[] committed=inOtherThread(snapshot());
+		assertThat(committed[0],sameInstance((Object)member));
+		assertThat(committed[1],notNullValue());
+		assertThat(committed[2],sameInstance(committed[1]));
+		assertThat(committed[3],equalTo((Object)1));
+	}
+
+	@Test
+	public void rolledBackChangesAreDiscarded() throws Exception {
+		Transaction transaction=begin();
+		createMember();
+		this.containerEndpoint.modify(EntityTag.createStrong("modified"),new Date());
+		this.container.setIndirectId(URI.create("urn:indirect"));
+		transaction.rollback();
+		assertThat(snapshot().call(),equalTo(new Object[]{null,null,null,0}));
+		assertThat(this.containerEndpoint.entityTag(),equalTo(EntityTag.createStrong("container")));
+		assertThat(this.container.indirectId(),nullValue());
+		assertThat(this.container.hasMember(MEMBER_ID),equalTo(false));
+	}
+
+	@Test
+	public void removalsAreVisibleToOtherTransactionsOnlyAfterCommit() throws Exception {
+		begin();
+		createMember();
+		this.transactionManager.currentTransaction().commit();
+		Transaction transaction=begin();
+		Resource member=this.resourceRepository.resourceById(MEMBER_ID,Resource.class);
+		assertThat(this.container.removeMember(this.container.findMember(MEMBER_ID)),equalTo(true));
+		this.resourceRepository.remove(member);
+		this.endpointRepository.endpointOfResource(MEMBER_ID).delete(new Date());
+		assertThat(this.container.members(),hasSize(0));
+		assertThat(this.endpointRepository.endpointOfResource(MEMBER_ID),nullValue());
+		Object[] concurrent=inOtherThread(snapshot());
+		assertThat(concurrent[0],sameInstance((Object)member));
+		assertThat(concurrent[2],notNullValue());
+		assertThat(concurrent[3],equalTo((Object)1));
+		transaction.commit();
+		Object[] committed=inOtherThread(snapshot());
+		assertThat(committed[0],nullValue());
+		assertThat(((Endpoint)committed[1]).deleted(),notNullValue());
+		assertThat(committed[2],nullValue());
+		assertThat(committed[3],equalTo((Object)0));
+	}
+
+	@Test
+	public void concurrentModificationsOfAnEndpointAreRejected() throws Exception {
+		Transaction transaction=begin();
+		this.containerEndpoint.modify(EntityTag.createStrong("modified"),new Date());
+		Exception failure=
+			inOtherThread(
+				new Callable<Exception>() {
+					@Override
+					public Exception call() throws Exception {
+						Transaction other=begin();
+						try {
+							containerEndpoint.modify(EntityTag.createStrong("other"),new Date());
+							return null;
+						} catch (TransactionConflictException e) {
+							return e;
+						} finally {
+							other.rollback();
+						}
+					}
+				});
+		assertThat(failure,notNullValue());
+		transaction.commit();
+		assertThat(inOtherThread(
+			new Callable<EntityTag>() {
+				@Override
+				public EntityTag call() throws Exception {
+					return containerEndpoint.entityTag();
+				}
+			}),equalTo(EntityTag.createStrong("modified")));
+	}
+
+	@Test
+	public void conflictingCommitsAreRolledBack() throws Exception {
+		Transaction transaction=begin();
+		this.resourceRepository.add(new InMemoryResource(MEMBER_ID));
+		inOtherThread(
+			new Callable<Void>() {
+				@Override
+				public Void call() throws Exception {
+					Transaction other=begin();
+					resourceRepository.add(new InMemoryResource(MEMBER_ID));
+					other.commit();
+					return null;
+				}
+			});
+		try {
+			transaction.commit();
+			fail("Conflicting commit should have failed");
+		} catch (TransactionConflictException e) {
+			assertThat(transaction.isActive(),equalTo(false));
+			assertThat(this.transactionManager.currentTransaction(),notNullValue());
+		}
+	}
+
+}
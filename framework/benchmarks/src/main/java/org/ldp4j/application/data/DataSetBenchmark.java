@@ -0,0 +1,101 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-benchmarks:0.2.2
+ *   Bundle      : ldp4j-benchmarks-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.data;
+
+import java.util.concurrent.TimeUnit;
+
+import org.ldp4j.benchmarks.DataSetGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the construction of mutable data sets and the merging and removal
+ * of their contents.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=5)
+@Measurement(iterations=5)
+@Fork(value=1,jvmArgsAppend="-Xmx4g")
+public class DataSetBenchmark {
+
+	@Param({"10","1000","100000","1000000"})
+	public int triples;
+
+	private DataSet source;
+
+	private DataSet target;
+
+	@Setup
+	public void setUp() {
+		this.source=DataSetGenerator.generate(this.triples);
+	}
+
+	/**
+	 * Removal consumes the target data set, so a fresh copy is required for
+	 * each invocation.
+	 */
+	@Setup(Level.Invocation)
+	public void setUpTarget() {
+		this.target=newDataSet();
+		DataSets.merge(this.source,this.target);
+	}
+
+	private DataSet newDataSet() {
+		return DataSets.createDataSet(NamingScheme.getDefault().name("target"));
+	}
+
+	@Benchmark
+	public DataSet construct() {
+		return DataSetGenerator.generate(this.triples);
+	}
+
+	@Benchmark
+	public DataSet merge() {
+		DataSet result=newDataSet();
+		DataSets.merge(this.source,result);
+		return result;
+	}
+
+	@Benchmark
+	public DataSet remove() {
+		DataSets.remove(this.source,this.target);
+		return this.target;
+	}
+
+}
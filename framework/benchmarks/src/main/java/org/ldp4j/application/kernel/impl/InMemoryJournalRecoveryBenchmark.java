@@ -0,0 +1,193 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-benchmarks:0.2.2
+ *   Bundle      : ldp4j-benchmarks-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.application.engine.context.EntityTag;
+import org.ldp4j.application.kernel.resource.Container;
+import org.ldp4j.application.kernel.resource.Resource;
+import org.ldp4j.application.kernel.resource.ResourceId;
+import org.ldp4j.application.kernel.template.ContainerTemplate;
+import org.ldp4j.application.kernel.template.ResourceTemplate;
+import org.ldp4j.application.kernel.template.TemplateLibrary;
+import org.ldp4j.application.kernel.template.TemplateVisitor;
+import org.ldp4j.application.kernel.transaction.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time needed for recovering the state of the durable
+ * in-memory kernel from its journal, either replaying the whole log or
+ * loading a snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=3)
+@Measurement(iterations=10)
+@Fork(value=1,jvmArgsAppend="-Xmx4g")
+public class InMemoryJournalRecoveryBenchmark {
+
+	private static final ResourceId CONTAINER_ID=ResourceId.createId(NamingScheme.getDefault().name("container"),"container");
+
+	@Param({"1000","100000"})
+	public int members;
+
+	@Param({"false","true"})
+	public boolean snapshot;
+
+	private File directory;
+
+	private List<String> files;
+
+	/**
+	 * Minimal templates, just enough for the in-memory model to create
+	 * containers and their members.
+	 */
+	private static <T> T template(final Class<T> clazz, final String id, final ResourceTemplate member) {
+		return clazz.cast(
+			Proxy.newProxyInstance(
+				clazz.getClassLoader(),
+				new Class<?>[]{clazz},
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if("accept".equals(method.getName())) {
+							TemplateVisitor visitor=(TemplateVisitor)args[0];
+							if(member!=null) {
+								visitor.visitContainerTemplate((ContainerTemplate)proxy);
+							} else {
+								visitor.visitResourceTemplate((ResourceTemplate)proxy);
+							}
+							return null;
+						} else if("memberTemplate".equals(method.getName())) {
+							return member;
+						} else if("id".equals(method.getName())) {
+							return id;
+						}
+						return null;
+					}
+				}));
+	}
+
+	private static TemplateLibrary library() {
+		final ContainerTemplate container=
+			template(ContainerTemplate.class,"container",template(ResourceTemplate.class,"member",null));
+		return
+			(TemplateLibrary)Proxy.newProxyInstance(
+				TemplateLibrary.class.getClassLoader(),
+				new Class<?>[]{TemplateLibrary.class},
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if("findById".equals(method.getName())) {
+							return "container".equals(args[0])?container:container.memberTemplate();
+						}
+						return null;
+					}
+				});
+	}
+
+	private InMemoryJournal journal() {
+		return new InMemoryJournal(this.directory,InMemoryJournal.SyncPolicy.NEVER,Long.MAX_VALUE);
+	}
+
+	@Setup
+	public void setUp() throws Exception {
+		this.directory=Files.createTempDirectory("ldp4j-journal").toFile();
+		InMemoryJournal journal=journal();
+		DurableInMemoryRuntimeDelegate delegate=new DurableInMemoryRuntimeDelegate(journal);
+		delegate.init();
+		delegate.getModelFactory().useTemplates(library());
+		InMemoryContainer container=new InMemoryContainer(CONTAINER_ID);
+		container.setTemplateLibrary(library());
+		delegate.getResourceRepository().add(container);
+		delegate.getEndpointRepository().add(InMemoryEndpoint.create("container/",CONTAINER_ID,new Date(),EntityTag.createStrong("container")));
+		for(int i=0;i<this.members;i++) {
+			Transaction transaction=delegate.getTransactionManager().currentTransaction();
+			transaction.begin();
+			Container current=delegate.getResourceRepository().containerOfId(CONTAINER_ID);
+			ResourceId memberId=ResourceId.createId(NamingScheme.getDefault().name(i),"member");
+			String path=current.addSlug("member-"+i).nextPath();
+			Resource member=current.addMember(memberId);
+			delegate.getResourceRepository().add(member);
+			delegate.getEndpointRepository().add(InMemoryEndpoint.create(path,memberId,new Date(),EntityTag.createStrong(path)));
+			transaction.commit();
+		}
+		if(this.snapshot) {
+			delegate.checkpoint();
+		}
+		journal.close();
+		this.files=Arrays.asList(this.directory.list());
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		for(File file:this.directory.listFiles()) {
+			Files.delete(file.toPath());
+		}
+		Files.delete(this.directory.toPath());
+	}
+
+	@Benchmark
+	public int recover() throws Exception {
+		InMemoryJournal journal=journal();
+		DurableInMemoryRuntimeDelegate delegate=new DurableInMemoryRuntimeDelegate(journal);
+		delegate.init();
+		journal.close();
+		// Discard the segment started on recovery, so that every recovery
+		// replays the same files
+		for(File file:this.directory.listFiles()) {
+			if(!this.files.contains(file.getName())) {
+				Files.delete(file.toPath());
+			}
+		}
+		return delegate.getResourceRepository().containerOfId(CONTAINER_ID).members().size();
+	}
+
+}
@@ -0,0 +1,143 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-benchmarks:0.2.2
+ *   Bundle      : ldp4j-benchmarks-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.impl;
+
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.application.engine.context.EntityTag;
+import org.ldp4j.application.kernel.endpoint.Endpoint;
+import org.ldp4j.application.kernel.resource.Resource;
+import org.ldp4j.application.kernel.resource.ResourceId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of the in-memory resource and endpoint
+ * repositories when readers and writers access them concurrently. The
+ * {@code read} group only performs lookups, whereas the {@code readWrite}
+ * group mixes lookups with the registration and removal of resources.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=5)
+@Measurement(iterations=5)
+@Fork(value=1,jvmArgsAppend="-Xmx4g")
+public class InMemoryRepositoryContentionBenchmark {
+
+	private static final String TEMPLATE_ID="template";
+
+	@Param({"1000","100000"})
+	public int resources;
+
+	private InMemoryResourceRepository resourceRepository;
+
+	private InMemoryEndpointRepository endpointRepository;
+
+	private ResourceId[] ids;
+
+	private String[] paths;
+
+	private final AtomicLong counter=new AtomicLong();
+
+	private static ResourceId id(String name) {
+		return ResourceId.createId(NamingScheme.getDefault().name(name),TEMPLATE_ID);
+	}
+
+	private void register(ResourceId id, String path) {
+		this.resourceRepository.add(new InMemoryResource(id));
+		this.endpointRepository.add(InMemoryEndpoint.create(path,id,new Date(),EntityTag.createStrong(path)));
+	}
+
+	@Setup
+	public void setUp() {
+		this.resourceRepository=new InMemoryResourceRepository();
+		this.endpointRepository=new InMemoryEndpointRepository();
+		this.ids=new ResourceId[this.resources];
+		this.paths=new String[this.resources];
+		for(int i=0;i<this.resources;i++) {
+			this.ids[i]=id("resource"+i);
+			this.paths[i]="resources/"+i+"/";
+			register(this.ids[i],this.paths[i]);
+		}
+	}
+
+	private Endpoint lookup() {
+		int index=ThreadLocalRandom.current().nextInt(this.resources);
+		Resource resource=this.resourceRepository.resourceOfId(this.ids[index]);
+		Endpoint endpoint=this.endpointRepository.endpointOfPath(this.paths[index]);
+		return resource!=null?endpoint:null;
+	}
+
+	private Endpoint update() {
+		long next=this.counter.incrementAndGet();
+		ResourceId id=id("transient"+next);
+		String path="transient/"+next+"/";
+		register(id,path);
+		Endpoint endpoint=this.endpointRepository.endpointOfResource(id);
+		endpoint.delete(new Date());
+		this.resourceRepository.remove(this.resourceRepository.resourceOfId(id));
+		return endpoint;
+	}
+
+	@Benchmark
+	@Group("read")
+	@GroupThreads(8)
+	public Endpoint readOnly() {
+		return lookup();
+	}
+
+	@Benchmark
+	@Group("readWrite")
+	@GroupThreads(6)
+	public Endpoint reader() {
+		return lookup();
+	}
+
+	@Benchmark
+	@Group("readWrite")
+	@GroupThreads(2)
+	public Endpoint writer() {
+		return update();
+	}
+
+}
@@ -0,0 +1,191 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-benchmarks:0.2.2
+ *   Bundle      : ldp4j-benchmarks-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.kernel.persistence.jpa;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.application.engine.context.EntityTag;
+import org.ldp4j.application.kernel.resource.Container;
+import org.ldp4j.application.kernel.resource.Resource;
+import org.ldp4j.application.kernel.resource.ResourceId;
+import org.ldp4j.application.kernel.template.ContainerTemplate;
+import org.ldp4j.application.kernel.template.ResourceTemplate;
+import org.ldp4j.application.kernel.template.TemplateLibrary;
+import org.ldp4j.application.kernel.template.TemplateVisitor;
+import org.ldp4j.application.kernel.transaction.Transaction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Measures the throughput of concurrent container bulk-creations using the
+ * JPA kernel on top of an embedded HSQLDB database, comparing the default
+ * persistence unit with the production one (bounded connection pool and
+ * JDBC batching).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=3)
+@Measurement(iterations=5)
+@Threads(8)
+@Fork(1)
+public class JPAKernelConcurrencyBenchmark {
+
+	@Param({JPARuntimeDelegate.DEFAULT_PERSISTENCE_UNIT,JPARuntimeDelegate.PRODUCTION_PERSISTENCE_UNIT})
+	public String persistenceUnit;
+
+	@Param({"50"})
+	public int members;
+
+	private final AtomicLong containers=new AtomicLong();
+
+	private JPARuntimeDelegate delegate;
+
+	private TemplateLibrary library;
+
+	/**
+	 * Minimal templates, just enough for the JPA model to create containers
+	 * and their members.
+	 */
+	private static <T> T template(final Class<T> clazz, final String id, final ResourceTemplate member) {
+		return clazz.cast(
+			Proxy.newProxyInstance(
+				clazz.getClassLoader(),
+				new Class<?>[]{clazz},
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if("accept".equals(method.getName())) {
+							TemplateVisitor visitor=(TemplateVisitor)args[0];
+							if(member!=null) {
+								visitor.visitContainerTemplate((ContainerTemplate)proxy);
+							} else {
+								visitor.visitResourceTemplate((ResourceTemplate)proxy);
+							}
+							return null;
+						} else if("memberTemplate".equals(method.getName())) {
+							return member;
+						} else if("attachedTemplates".equals(method.getName())) {
+							return Collections.emptySet();
+						} else if("id".equals(method.getName())) {
+							return id;
+						}
+						return null;
+					}
+				}));
+	}
+
+	private static TemplateLibrary library() {
+		final ContainerTemplate container=
+			template(ContainerTemplate.class,"container",template(ResourceTemplate.class,"member",null));
+		return
+			(TemplateLibrary)Proxy.newProxyInstance(
+				TemplateLibrary.class.getClassLoader(),
+				new Class<?>[]{TemplateLibrary.class},
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if("findById".equals(method.getName())) {
+							return "container".equals(args[0])?container:container.memberTemplate();
+						} else if("contains".equals(method.getName())) {
+							return true;
+						}
+						return null;
+					}
+				});
+	}
+
+	@Setup
+	public void setUp() throws Exception {
+		Map<String,String> overrides=
+			ImmutableMap.of(
+				"javax.persistence.jdbc.url","jdbc:hsqldb:mem:"+this.persistenceUnit+";hsqldb.tx=mvcc",
+				"hibernate.connection.pool_size","8");
+		// The production unit validates the schema, so it has to be created first
+		JPARuntimeDelegate schemaCreator=new JPARuntimeDelegate(JPARuntimeDelegate.DEFAULT_PERSISTENCE_UNIT,overrides);
+		schemaCreator.init();
+		schemaCreator.shutdown();
+		this.library=library();
+		this.delegate=new JPARuntimeDelegate(this.persistenceUnit,overrides);
+		this.delegate.init();
+		this.delegate.getModelFactory().useTemplates(this.library);
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		this.delegate.shutdown();
+	}
+
+	@Benchmark
+	public Resource createContainer() {
+		long number=this.containers.incrementAndGet();
+		Transaction transaction=this.delegate.getTransactionManager().currentTransaction();
+		transaction.begin();
+		try {
+			Container container=(Container)this.delegate.getModelFactory().createResource(this.library.findById("container"),NamingScheme.getDefault().name(number));
+			ResourceId containerId=container.id();
+			this.delegate.getResourceRepository().add(container);
+			this.delegate.getEndpointRepository().add(JPAEndpoint.create("container/"+number+"/",containerId,new Date(),EntityTag.createStrong("container")));
+			Resource member=null;
+			for(int i=0;i<this.members;i++) {
+				ResourceId memberId=ResourceId.createId(NamingScheme.getDefault().name(number+"/"+i),"member");
+				member=container.addMember(memberId);
+				this.delegate.getResourceRepository().add(member);
+				this.delegate.getEndpointRepository().add(JPAEndpoint.create("container/"+number+"/"+i,memberId,new Date(),EntityTag.createStrong("member")));
+			}
+			transaction.commit();
+			return member;
+		} finally {
+			if(transaction.isActive()) {
+				transaction.rollback();
+			}
+			this.delegate.clear();
+		}
+	}
+
+}
@@ -0,0 +1,114 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-benchmarks:0.2.2
+ *   Bundle      : ldp4j-benchmarks-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.benchmarks;
+
+import java.net.URI;
+
+import org.ldp4j.application.data.DataSet;
+import org.ldp4j.application.data.DataSets;
+import org.ldp4j.application.data.ExternalIndividual;
+import org.ldp4j.application.data.Literals;
+import org.ldp4j.application.data.LocalIndividual;
+import org.ldp4j.application.data.Name;
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.application.data.Value;
+
+/**
+ * Generates synthetic data sets with an exact number of triples. Each
+ * individual gets up to ten values mixing plain, typed and language
+ * literals, links to other external individuals and links to local (blank
+ * node) individuals, so that every translation path is exercised.
+ */
+public final class DataSetGenerator {
+
+	public static final String NAMESPACE="http://www.example.org/benchmark#";
+
+	public static final URI BASE=URI.create("http://www.example.org/ldp4j/");
+
+	private static final int VALUES_PER_INDIVIDUAL=10;
+
+	private static final URI[] PROPERTIES=new URI[VALUES_PER_INDIVIDUAL];
+
+	static {
+		for(int i=0;i<VALUES_PER_INDIVIDUAL;i++) {
+			PROPERTIES[i]=URI.create(NAMESPACE+"property"+i);
+		}
+	}
+
+	private DataSetGenerator() {
+	}
+
+	@SuppressWarnings("rawtypes")
+	private static Name name(Object id) {
+		return NamingScheme.getDefault().name(id.toString());
+	}
+
+	public static URI individual(int i) {
+		return BASE.resolve("individual/"+i);
+	}
+
+	public static URI property(int i) {
+		return PROPERTIES[i%VALUES_PER_INDIVIDUAL];
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Value value(DataSet dataSet, int individual, int property) {
+		switch(property%5) {
+		case 0:
+			return dataSet.individual(individual(Math.max(0,individual-1)),ExternalIndividual.class);
+		case 1:
+			return Literals.newLiteral("value "+individual+"-"+property);
+		case 2:
+			return Literals.newLiteral(individual*VALUES_PER_INDIVIDUAL+property);
+		case 3:
+			return Literals.newLanguageLiteral("label "+individual,"en");
+		default:
+			return dataSet.individual(name("node"+individual+"-"+property),LocalIndividual.class);
+		}
+	}
+
+	/**
+	 * Create a data set with the specified number of triples.
+	 *
+	 * @param triples
+	 *            the number of triples of the data set
+	 * @return the generated data set
+	 */
+	@SuppressWarnings("unchecked")
+	public static DataSet generate(int triples) {
+		DataSet dataSet=DataSets.createDataSet(name("benchmark"));
+		int remaining=triples;
+		for(int i=0;remaining>0;i++) {
+			ExternalIndividual individual=dataSet.individual(individual(i),ExternalIndividual.class);
+			for(int j=0;j<VALUES_PER_INDIVIDUAL && remaining>0;j++,remaining--) {
+				individual.addValue(PROPERTIES[j],value(dataSet,i,j));
+			}
+		}
+		return dataSet;
+	}
+
+}
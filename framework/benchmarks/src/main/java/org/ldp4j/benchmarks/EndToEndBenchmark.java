@@ -0,0 +1,212 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-benchmarks:0.2.2
+ *   Bundle      : ldp4j-benchmarks-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.benchmarks;
+
+import java.io.File;
+import java.net.URI;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.MediaType;
+
+import org.ldp4j.application.data.DataSet;
+import org.ldp4j.application.data.ManagedIndividualId;
+import org.ldp4j.application.engine.ApplicationEngine;
+import org.ldp4j.application.engine.context.ApplicationContext;
+import org.ldp4j.application.engine.context.ApplicationContextOperation;
+import org.ldp4j.application.engine.context.ContentPreferences;
+import org.ldp4j.application.engine.context.CreationPreferences;
+import org.ldp4j.application.engine.context.HttpRequest.HttpMethod;
+import org.ldp4j.application.engine.context.PublicContainer;
+import org.ldp4j.application.engine.context.PublicResource;
+import org.ldp4j.application.sdk.HttpRequestBuilder;
+import org.ldp4j.example.MyApplication;
+import org.ldp4j.server.data.DataTransformator;
+import org.ldp4j.server.data.ResourceResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the processing of GET, PUT and POST requests for the example
+ * application running on top of the in-memory kernel. The benchmark drives
+ * the application context the same way the server frontend does (resource
+ * lookup, handler invocation and entity (un)marshalling) but skips the HTTP
+ * transport, so that the figures are not dominated by the container.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=5)
+@Measurement(iterations=5)
+@Fork(1)
+public class EndToEndBenchmark {
+
+	private final class OperationResourceResolver implements ResourceResolver {
+
+		private final ApplicationContextOperation operation;
+
+		private OperationResourceResolver(ApplicationContextOperation operation) {
+			this.operation=operation;
+		}
+
+		@Override
+		public URI resolveResource(ManagedIndividualId id) {
+			PublicResource resource=this.operation.resolveResource(id);
+			if(resource==null) {
+				return null;
+			}
+			return BASE.resolve(resource.path());
+		}
+
+		@Override
+		public ManagedIndividualId resolveLocation(URI path) {
+			PublicResource resource=this.operation.resolveResource(BASE.relativize(path).toString());
+			if(resource==null) {
+				return null;
+			}
+			return resource.individualId();
+		}
+
+	}
+
+	private static final String CONTEXT_PATH="/ldp4j";
+
+	private static final URI BASE=URI.create("http://localhost:8080"+CONTEXT_PATH+"/");
+
+	private static final MediaType TURTLE=new MediaType("text","turtle");
+
+	private static final String NEW_PERSON=
+		"<> a <http://xmlns.com/foaf/0.1/Person> ;\n"+
+		"   <http://xmlns.com/foaf/0.1/name> \"Benchmark\" .\n";
+
+	private ApplicationEngine engine;
+
+	private ApplicationContext context;
+
+	private String representation;
+
+	@Setup
+	public void setUp() throws Exception {
+		File temporalDirectory=Files.createTempDirectory("ldp4j-benchmarks").toFile();
+		this.engine=
+			ApplicationEngine.
+				engine().
+					withContextPath(CONTEXT_PATH).
+					withTemporalDirectory(temporalDirectory);
+		this.engine.start();
+		this.context=this.engine.load(MyApplication.class.getName());
+		this.representation=get();
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		this.engine.dispose(this.context);
+		this.engine.shutdown();
+	}
+
+	private ApplicationContextOperation operation(HttpMethod method, String path, String body) {
+		return
+			this.context.
+				createOperation(
+					HttpRequestBuilder.
+						newInstance().
+							withMethod(method).
+							withHost(BASE.getAuthority()).
+							withAbsolutePath(CONTEXT_PATH+"/"+path).
+							withBody(body).
+							build());
+	}
+
+	private DataTransformator transformator(ApplicationContextOperation operation) {
+		return
+			DataTransformator.
+				create(BASE).
+				enableResolution(new OperationResourceResolver(operation)).
+				mediaType(TURTLE);
+	}
+
+	@Benchmark
+	public String get() throws Exception {
+		String path=MyApplication.ROOT_PERSON_RESOURCE_PATH;
+		ApplicationContextOperation operation=operation(HttpMethod.GET,path,null);
+		try {
+			PublicResource resource=operation.findResource(path);
+			DataSet entity=resource.entity(ContentPreferences.defaultPreferences());
+			return
+				transformator(operation).
+					permanentEndpoint(URI.create(path)).
+					marshall(entity);
+		} finally {
+			operation.dispose();
+		}
+	}
+
+	@Benchmark
+	public void put() throws Exception {
+		String path=MyApplication.ROOT_PERSON_RESOURCE_PATH;
+		ApplicationContextOperation operation=operation(HttpMethod.PUT,path,this.representation);
+		try {
+			PublicResource resource=operation.findResource(path);
+			DataSet entity=
+				transformator(operation).
+					permanentEndpoint(URI.create(path)).
+					unmarshall(this.representation);
+			resource.modify(entity);
+		} finally {
+			operation.dispose();
+		}
+	}
+
+	@Benchmark
+	public String post() throws Exception {
+		String path=MyApplication.ROOT_PERSON_CONTAINER_PATH;
+		ApplicationContextOperation operation=operation(HttpMethod.POST,path,NEW_PERSON);
+		try {
+			PublicContainer container=(PublicContainer)operation.findResource(path);
+			DataSet entity=
+				transformator(operation).
+					surrogateEndpoint(URI.create(path)).
+					unmarshall(NEW_PERSON);
+			return
+				container.
+					createResource(entity,CreationPreferences.defaultPreferences()).
+						path();
+		} finally {
+			operation.dispose();
+		}
+	}
+
+}
@@ -0,0 +1,110 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-benchmarks:0.2.2
+ *   Bundle      : ldp4j-benchmarks-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.http;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the negotiation of the representation variant for different
+ * styles of requests: a simple client asking for a single media type, a
+ * browser and an RDF-aware client expressing weighted preferences.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=5)
+@Measurement(iterations=5)
+@Fork(1)
+public class ContentNegotiationBenchmark {
+
+	@Param({
+		"text/turtle",
+		"text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8",
+		"text/turtle;q=1.0,application/rdf+xml;q=0.8,application/ld+json;q=0.5,text/*;q=0.1"
+	})
+	public String accept;
+
+	private String[] mediaRanges;
+
+	private String[] charsets;
+
+	private String[] languages;
+
+	/**
+	 * The negotiator consumes the elements of the headers one by one, as the
+	 * server frontend does after splitting the raw header values.
+	 */
+	@Setup
+	public void setUp() {
+		this.mediaRanges=this.accept.split(",");
+		this.charsets="utf-8;q=0.9,iso-8859-1;q=0.5,*;q=0.1".split(",");
+		this.languages="en-US,en;q=0.8,es;q=0.5".split(",");
+	}
+
+	@Benchmark
+	public MediaType parseMediaType() {
+		return MediaTypes.fromString("application/ld+json;profile=\"http://www.w3.org/ns/json-ld#compacted\";charset=utf-8");
+	}
+
+	@Benchmark
+	public NegotiationResult negotiate() {
+		ContentNegotiator negotiator=
+			ContentNegotiator.
+				newInstance().
+					support(MediaTypes.of("text","turtle")).
+					support(MediaTypes.of("application","rdf+xml")).
+					support(MediaTypes.of("application","ld+json")).
+					support(CharacterEncodings.of(StandardCharsets.UTF_8)).
+					support(CharacterEncodings.of(StandardCharsets.ISO_8859_1)).
+					support(Languages.of(Locale.ENGLISH));
+		for(String mediaRange:this.mediaRanges) {
+			negotiator.accept(mediaRange);
+		}
+		for(String charset:this.charsets) {
+			negotiator.acceptCharset(charset);
+		}
+		for(String language:this.languages) {
+			negotiator.acceptLanguage(language);
+		}
+		return negotiator.negotiate();
+	}
+
+}
@@ -0,0 +1,118 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-benchmarks:0.2.2
+ *   Bundle      : ldp4j-benchmarks-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.rdf.util;
+
+import static org.ldp4j.rdf.util.RDFModelDSL.literal;
+import static org.ldp4j.rdf.util.RDFModelDSL.triple;
+import static org.ldp4j.rdf.util.RDFModelDSL.uriRef;
+
+import java.util.concurrent.TimeUnit;
+
+import org.ldp4j.benchmarks.DataSetGenerator;
+import org.ldp4j.rdf.Literal;
+import org.ldp4j.rdf.URIRef;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the population of triple sets and the lookup of triple patterns
+ * with different bound positions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=5)
+@Measurement(iterations=5)
+@Fork(value=1,jvmArgsAppend="-Xmx4g")
+public class TripleSetBenchmark {
+
+	private static final int PREDICATES=10;
+
+	@Param({"10","1000","100000","1000000"})
+	public int triples;
+
+	private TripleSet tripleSet;
+
+	private URIRef subject;
+
+	private URIRef predicate;
+
+	private Literal<String> object;
+
+	private static TripleSet populate(int size) {
+		TripleSet result=new TripleSet();
+		for(int i=0;i<size;i++) {
+			result.add(
+				triple(
+					uriRef(DataSetGenerator.individual(i/PREDICATES)),
+					uriRef(DataSetGenerator.property(i)),
+					literal("value "+i)));
+		}
+		return result;
+	}
+
+	@Setup
+	public void setUp() {
+		this.tripleSet=populate(this.triples);
+		int middle=this.triples/2;
+		this.subject=uriRef(DataSetGenerator.individual(middle/PREDICATES));
+		this.predicate=uriRef(DataSetGenerator.property(middle));
+		this.object=literal("value "+middle);
+		// Warm up the pattern index
+		this.tripleSet.get(this.subject,null,null);
+	}
+
+	@Benchmark
+	public TripleSet populate() {
+		return populate(this.triples);
+	}
+
+	@Benchmark
+	public TripleSet subjectLookup() {
+		return this.tripleSet.get(this.subject,null,null);
+	}
+
+	@Benchmark
+	public TripleSet predicateObjectLookup() {
+		return this.tripleSet.get(null,this.predicate,this.object);
+	}
+
+	@Benchmark
+	public boolean contains() {
+		return this.tripleSet.contains(triple(this.subject,this.predicate,this.object));
+	}
+
+}
@@ -0,0 +1,129 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-benchmarks:0.2.2
+ *   Bundle      : ldp4j-benchmarks-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.data;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.MediaType;
+
+import org.ldp4j.application.data.DataSet;
+import org.ldp4j.benchmarks.DataSetGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the marshalling and unmarshalling of representations for each of
+ * the supported media types.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=5)
+@Measurement(iterations=5)
+@Fork(value=1,jvmArgsAppend="-Xmx4g")
+public class DataTransformatorBenchmark {
+
+	private static final class NullOutputStream extends OutputStream {
+
+		private long count;
+
+		@Override
+		public void write(int b) {
+			this.count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			this.count+=len;
+		}
+
+	}
+
+	private static final URI ENDPOINT=URI.create("resource/");
+
+	@Param({"text/turtle","application/rdf+xml","application/ld+json"})
+	public String mediaType;
+
+	@Param({"10","1000","100000","1000000"})
+	public int triples;
+
+	private DataSet dataSet;
+
+	private String entity;
+
+	private DataTransformator transformator;
+
+	@Setup
+	public void setUp() throws IOException {
+		this.dataSet=DataSetGenerator.generate(this.triples);
+		this.transformator=
+			DataTransformator.
+				create(DataSetGenerator.BASE).
+				mediaType(MediaType.valueOf(this.mediaType));
+		this.entity=this.transformator.permanentEndpoint(ENDPOINT).marshall(this.dataSet);
+	}
+
+	@Benchmark
+	public String marshall() throws IOException {
+		return this.transformator.permanentEndpoint(ENDPOINT).marshall(this.dataSet);
+	}
+
+	@Benchmark
+	public void stream(Blackhole blackhole) throws IOException {
+		NullOutputStream output=new NullOutputStream();
+		this.transformator.
+			permanentEndpoint(ENDPOINT).
+				marshall(this.dataSet,StandardCharsets.UTF_8).
+					write(output);
+		blackhole.consume(output.count);
+	}
+
+	@Benchmark
+	public DataSet unmarshallPermanent() throws IOException {
+		return this.transformator.permanentEndpoint(ENDPOINT).unmarshall(this.entity);
+	}
+
+	@Benchmark
+	public DataSet unmarshallSurrogate() throws IOException {
+		return this.transformator.surrogateEndpoint(ENDPOINT).unmarshall(this.entity);
+	}
+
+}
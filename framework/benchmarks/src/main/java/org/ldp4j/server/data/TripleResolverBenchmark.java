@@ -0,0 +1,108 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-benchmarks:0.2.2
+ *   Bundle      : ldp4j-benchmarks-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.data;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.MediaType;
+
+import org.ldp4j.benchmarks.DataSetGenerator;
+import org.ldp4j.server.data.spi.ContentTransformationException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the resolution of the triples of an entity against the endpoint
+ * and its alternative, as done when processing POST requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=5)
+@Measurement(iterations=5)
+@Fork(value=1,jvmArgsAppend="-Xmx4g")
+public class TripleResolverBenchmark {
+
+	private static final MediaType TURTLE=new MediaType("text","turtle");
+
+	@Param({"10","1000","100000","1000000"})
+	public int triples;
+
+	private URI endpoint;
+
+	private URI alternative;
+
+	private String entity;
+
+	@Setup
+	public void setUp() throws IOException, URISyntaxException {
+		URI relative=URI.create("resource/");
+		this.endpoint=DataSetGenerator.BASE.resolve(relative);
+		this.alternative=
+			new URI(
+				this.endpoint.getScheme(),
+				this.endpoint.getUserInfo(),
+				"ldp4j".concat(this.endpoint.getHost()),
+				this.endpoint.getPort(),
+				this.endpoint.getPath(),
+				null,
+				null);
+		this.entity=
+			DataTransformator.
+				create(DataSetGenerator.BASE).
+				mediaType(TURTLE).
+				permanentEndpoint(relative).
+				marshall(DataSetGenerator.generate(this.triples));
+	}
+
+	@Benchmark
+	public List<TripleResolution> resolve() throws ContentTransformationException {
+		return
+			TripleResolver.
+				builder().
+					withApplication(DataSetGenerator.BASE).
+					withEndpoint(this.endpoint).
+					withAlternative(this.alternative).
+					withEntity(this.entity,TURTLE).
+					build().
+						tripleResolutions();
+	}
+
+}
@@ -37,8 +37,40 @@ public final class Configuration {
 
 	public static final String OMMIT_CONTENT_TYPE_CHARSET = "org.ldp4j.server.response.contentType.ommitCharset";
 
+	public static final String MAX_ENTITY_SIZE = "org.ldp4j.server.request.maxEntitySize";
+
+	public static final String REQUEST_BODY_CAPTURE_SIZE = "org.ldp4j.server.request.bodyCaptureSize";
+
+	public static final String REPRESENTATION_CACHE_SIZE = "org.ldp4j.server.cache.representations.maxSize";
+
+	public static final String MAX_MEMBER_COUNT = "org.ldp4j.server.paging.maxMemberCount";
+
+	public static final String SORT_TRIPLES = "org.ldp4j.server.serialization.sortTriples";
+
+	public static final String REQUEST_PROCESSING_THREADS = "org.ldp4j.server.request.processingThreads";
+
+	public static final String REQUEST_QUEUE_SIZE = "org.ldp4j.server.request.queueSize";
+
+	private static final int DEFAULT_REQUEST_QUEUE_SIZE = 256;
+
 	private static final AtomicBoolean INCLUDE_CHARSET_LOGGED=new AtomicBoolean();
 
+	private static final AtomicBoolean MAX_ENTITY_SIZE_LOGGED=new AtomicBoolean();
+
+	private static final int DEFAULT_REQUEST_BODY_CAPTURE_SIZE = 64*1024;
+
+	private static final AtomicBoolean REQUEST_BODY_CAPTURE_SIZE_LOGGED=new AtomicBoolean();
+
+	private static final AtomicBoolean REPRESENTATION_CACHE_SIZE_LOGGED=new AtomicBoolean();
+
+	private static final AtomicBoolean MAX_MEMBER_COUNT_LOGGED=new AtomicBoolean();
+
+	private static final AtomicBoolean SORT_TRIPLES_LOGGED=new AtomicBoolean();
+
+	private static final AtomicBoolean REQUEST_PROCESSING_THREADS_LOGGED=new AtomicBoolean();
+
+	private static final AtomicBoolean REQUEST_QUEUE_SIZE_LOGGED=new AtomicBoolean();
+
 	private Configuration() {
 	}
 
@@ -50,4 +82,176 @@ public final class Configuration {
 		return result;
 	}
 
+	/**
+	 * Get the maximum size (in bytes) of the request entities that will be
+	 * accepted by the server. If no valid positive size is configured, no
+	 * limit is enforced.
+	 *
+	 * @return the maximum size of the request entities
+	 */
+	public static long maxEntitySize() {
+		String rawValue=System.getProperty(MAX_ENTITY_SIZE);
+		long result=Long.MAX_VALUE;
+		if(rawValue!=null) {
+			try {
+				long value=Long.parseLong(rawValue.trim());
+				if(value>0) {
+					result=value;
+				}
+			} catch (NumberFormatException e) {
+				LOGGER.warn("Invalid maximum entity size '{}'",rawValue,e);
+			}
+		}
+		if(MAX_ENTITY_SIZE_LOGGED.compareAndSet(false,true)) {
+			LOGGER.info("Maximum request entity size is {}",result==Long.MAX_VALUE?"unbounded":result+" bytes");
+		}
+		return result;
+	}
+
+	/**
+	 * Get the maximum number of characters of the request entities that will
+	 * be retained while they are parsed, so that they can be included in the
+	 * constraint reports. Request entities are not buffered completely unless
+	 * required.
+	 *
+	 * @return the maximum number of retained characters of the request
+	 *         entities
+	 */
+	public static int requestBodyCaptureSize() {
+		String rawValue=System.getProperty(REQUEST_BODY_CAPTURE_SIZE);
+		int result=DEFAULT_REQUEST_BODY_CAPTURE_SIZE;
+		if(rawValue!=null) {
+			try {
+				result=Math.max(0,Integer.parseInt(rawValue.trim()));
+			} catch (NumberFormatException e) {
+				LOGGER.warn("Invalid request body capture size '{}'",rawValue,e);
+			}
+		}
+		if(REQUEST_BODY_CAPTURE_SIZE_LOGGED.compareAndSet(false,true)) {
+			LOGGER.info("Request body capture size is {} characters",result);
+		}
+		return result;
+	}
+
+	/**
+	 * Get the maximum number of bytes of the serialized resource
+	 * representations that will be cached by the server. Caching is disabled
+	 * by default, as it is only safe for applications whose resource handlers
+	 * produce the same representation as long as the entity tag of the
+	 * resource does not change.
+	 *
+	 * @return the maximum size of the cached representations, or {@code 0} if
+	 *         caching is disabled
+	 */
+	public static long representationCacheSize() {
+		String rawValue=System.getProperty(REPRESENTATION_CACHE_SIZE);
+		long result=0;
+		if(rawValue!=null) {
+			try {
+				result=Math.max(0,Long.parseLong(rawValue.trim()));
+			} catch (NumberFormatException e) {
+				LOGGER.warn("Invalid representation cache size '{}'",rawValue,e);
+			}
+		}
+		if(REPRESENTATION_CACHE_SIZE_LOGGED.compareAndSet(false,true)) {
+			LOGGER.info("Representation caching is {}",result==0?"disabled":"enabled (up to "+result+" bytes)");
+		}
+		return result;
+	}
+
+	/**
+	 * Get the maximum number of members that will be included in the
+	 * representation of a container when the client does not specify a page
+	 * size. Server-initiated paging is disabled by default.
+	 *
+	 * @return the maximum number of members per page, or {@code 0} if the
+	 *         server should not initiate paging
+	 */
+	public static int maxMemberCount() {
+		String rawValue=System.getProperty(MAX_MEMBER_COUNT);
+		int result=0;
+		if(rawValue!=null) {
+			try {
+				result=Math.max(0,Integer.parseInt(rawValue.trim()));
+			} catch (NumberFormatException e) {
+				LOGGER.warn("Invalid maximum member count '{}'",rawValue,e);
+			}
+		}
+		if(MAX_MEMBER_COUNT_LOGGED.compareAndSet(false,true)) {
+			LOGGER.info("Server-initiated container paging is {}",result==0?"disabled":"enabled ("+result+" members per page)");
+		}
+		return result;
+	}
+
+	/**
+	 * Whether or not the triples of the representations should be sorted
+	 * before being serialized. By default triples are serialized in the order
+	 * in which they are generated.
+	 *
+	 * @return {@code true} if the triples have to be sorted, {@code false}
+	 *         otherwise
+	 */
+	public static boolean sortTriples() {
+		boolean result=Boolean.parseBoolean(System.getProperty(SORT_TRIPLES));
+		if(SORT_TRIPLES_LOGGED.compareAndSet(false,true)) {
+			LOGGER.info("Sorting of serialized triples is {}",result?"enabled":"disabled");
+		}
+		return result;
+	}
+
+	/**
+	 * Get the number of threads of the dedicated executor used for processing
+	 * the requests that are dispatched to the application handlers. By
+	 * default no executor is used, and the requests are processed by the
+	 * threads of the servlet container. The executor has to be explicitly
+	 * enabled: the results of the application handlers are still awaited by
+	 * the processing thread, so the number of threads caps the number of
+	 * requests that can be served concurrently, and the requests that do not
+	 * fit in the queue are rejected.
+	 *
+	 * @return the number of request processing threads, or {@code 0} if the
+	 *         requests have to be processed by the servlet container threads
+	 */
+	public static int requestProcessingThreads() {
+		String rawValue=System.getProperty(REQUEST_PROCESSING_THREADS);
+		int result=0;
+		if(rawValue!=null) {
+			try {
+				result=Math.max(0,Integer.parseInt(rawValue.trim()));
+			} catch (NumberFormatException e) {
+				LOGGER.warn("Invalid number of request processing threads '{}'",rawValue,e);
+			}
+		}
+		if(REQUEST_PROCESSING_THREADS_LOGGED.compareAndSet(false,true)) {
+			LOGGER.info("Asynchronous request processing is {}",result==0?"disabled":"enabled ("+result+" threads)");
+		}
+		return result;
+	}
+
+	/**
+	 * Get the maximum number of requests that may be waiting for a request
+	 * processing thread. Requests received when the queue is full are
+	 * rejected.
+	 *
+	 * @return the maximum number of queued requests
+	 */
+	public static int requestQueueSize() {
+		String rawValue=System.getProperty(REQUEST_QUEUE_SIZE);
+		int result=DEFAULT_REQUEST_QUEUE_SIZE;
+		if(rawValue!=null) {
+			try {
+				int value=Integer.parseInt(rawValue.trim());
+				if(value>0) {
+					result=value;
+				}
+			} catch (NumberFormatException e) {
+				LOGGER.warn("Invalid request queue size '{}'",rawValue,e);
+			}
+		}
+		if(REQUEST_QUEUE_SIZE_LOGGED.compareAndSet(false,true)) {
+			LOGGER.info("Request queue size is {}",result);
+		}
+		return result;
+	}
+
 }
@@ -44,7 +44,13 @@ final class ContentPreferencesUtils {
 	public static final String PREFERENCE_APPLIED_HEADER = "Preference-Applied";
 	public static final String PREFER_HEADER = "Prefer";
 
-	private static String PARAMETER="^\\s*(\\w*)\\s*=\\s*\"([^\"]+)\"\\s*$";
+	/**
+	 * LDP Paging 1.0 - 7.1 : Preference parameter used by clients for hinting
+	 * the maximum number of members to be included in a page
+	 */
+	public static final String MAX_MEMBER_COUNT = "max-member-count";
+
+	private static String PARAMETER="^\\s*([\\w-]*)\\s*=\\s*\"([^\"]+)\"\\s*$";
 
 	private ContentPreferencesUtils() {
 	}
@@ -69,11 +75,32 @@ final class ContentPreferencesUtils {
 			if(!matcher.matches()) {
 				throw new InvalidPreferenceHeaderException("Invalid preference refinement '"+refinement+"'");
 			}
-			boolean include = processHint(configured, matcher.group(1));
-			processPreferences(builder,include,matcher.group(2).split("\\s"));
+			String hint=matcher.group(1);
+			if(MAX_MEMBER_COUNT.equals(hint)) {
+				processMaxMemberCount(builder,configured,matcher.group(2));
+			} else {
+				boolean include = processHint(configured, hint);
+				processPreferences(builder,include,matcher.group(2).split("\\s"));
+			}
 		}
 	}
 
+	private static void processMaxMemberCount(ContentPreferencesBuilder builder, Set<String> configured, String rawValue) {
+		if(!configured.add(MAX_MEMBER_COUNT)) {
+			throw new InvalidPreferenceHeaderException("Parameter '"+MAX_MEMBER_COUNT+"' has already been configured");
+		}
+		int maxMemberCount=0;
+		try {
+			maxMemberCount=Integer.parseInt(rawValue.trim());
+		} catch (NumberFormatException e) {
+			throw new InvalidPreferenceHeaderException("Invalid "+MAX_MEMBER_COUNT+" value '"+rawValue+"'",e);
+		}
+		if(maxMemberCount<=0) {
+			throw new InvalidPreferenceHeaderException("Invalid "+MAX_MEMBER_COUNT+" value '"+rawValue+"': value must be positive");
+		}
+		builder.withMaxMemberCount(maxMemberCount);
+	}
+
 	private static void processPreferences(ContentPreferencesBuilder builder, boolean include, String[] rawPreferences) {
 		for(String rawPreference:rawPreferences) {
 			Preference preference = Preference.fromString(rawPreference.trim());
@@ -149,13 +176,21 @@ final class ContentPreferencesUtils {
 		if(hasOmit) {
 			header.append("\"");
 		}
+		appendMaxMemberCount(header,contentPreferences);
 		return header.toString();
 	}
 
+	private static void appendMaxMemberCount(StringBuilder header, ContentPreferences contentPreferences) {
+		if(contentPreferences.isPagingRequired()) {
+			header.append("; ").append(MAX_MEMBER_COUNT).append("=\"").append(contentPreferences.maxMemberCount()).append("\"");
+		}
+	}
+
 	public static String asPreferenceAppliedHeader(ContentPreferences contentPreferences) {
 		checkNotNull(contentPreferences,"Content preferences cannot be null");
 		StringBuilder header=new StringBuilder();
 		header.append("return=representation");
+		appendMaxMemberCount(header,contentPreferences);
 		return header.toString();
 	}
 
@@ -32,7 +32,10 @@ import org.ldp4j.application.engine.context.PublicResource;
 
 final class DefaultEndpointController implements EndpointController {
 
-	DefaultEndpointController() {
+	private final RepresentationCache cache;
+
+	DefaultEndpointController(RepresentationCache cache) {
+		this.cache=cache;
 	}
 
 	private interface Operation {
@@ -56,7 +59,7 @@ final class DefaultEndpointController implements EndpointController {
 					result=new GoneEndpointController(resource);
 					break;
 				case PUBLISHED:
-					result=new ExistingEndpointController();
+					result=new ExistingEndpointController(this.cache);
 					break;
 				default:
 					throw new IllegalStateException("Unsupported resource status "+resource.status());
@@ -28,11 +28,17 @@ package org.ldp4j.server.controller;
 
 public final class EndpointControllerFactory {
 
+	private static final RepresentationCache NO_CACHE=RepresentationCache.newInstance(0);
+
 	private EndpointControllerFactory() {
 	}
 
 	public static EndpointController newController() {
-		return new DefaultEndpointController();
+		return newController(NO_CACHE);
+	}
+
+	public static EndpointController newController(RepresentationCache cache) {
+		return new DefaultEndpointController(cache==null?NO_CACHE:cache);
 	}
 
 }
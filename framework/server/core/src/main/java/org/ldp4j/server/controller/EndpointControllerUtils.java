@@ -41,6 +41,7 @@ import java.util.Locale;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.Variant;
 
 import org.ldp4j.application.data.DataSet;
@@ -196,15 +197,23 @@ public final class EndpointControllerUtils {
 
 	}
 
-	static void populateResponseBody(ResponseBuilder builder, String entity, Variant variant, boolean includeEntity) {
+	static Charset responseCharset(Variant variant) {
 		MediaType mediaType = variant.getMediaType();
-
 		String charsetName=mediaType.getParameters().get(MediaType.CHARSET_PARAMETER);
 		Charset charset=StandardCharsets.UTF_8;
 		if(charsetName!=null && !charsetName.isEmpty() && Charset.isSupported(charsetName)) {
 			charset=Charset.forName(charsetName);
 		} else {
 			LOGGER.error("Missing of invalid charset information {}",mediaType);
+		}
+		return charset;
+	}
+
+	private static void populateContentHeaders(ResponseBuilder builder, Variant variant, Charset charset) {
+		MediaType mediaType = variant.getMediaType();
+
+		String charsetName=mediaType.getParameters().get(MediaType.CHARSET_PARAMETER);
+		if(charsetName==null || charsetName.isEmpty() || !Charset.isSupported(charsetName)) {
 			charsetName=charset.name();
 		}
 
@@ -213,20 +222,48 @@ public final class EndpointControllerUtils {
 				mediaType.withCharset(charsetName):
 				new MediaType(mediaType.getType(),mediaType.getSubtype());
 
-		byte[] bytes = entity.getBytes(charset);
-		builder.
-			type(target).
-			header(MoreHttp.CONTENT_LENGTH_HEADER,bytes.length);
+		builder.type(target);
 
 		if(variant.getLanguage()!=null) {
 			builder.language(variant.getLanguage());
 		}
+	}
+
+	/**
+	 * Populate the headers that describe a response body that is not going
+	 * to be included nor computed (i.e., HEAD requests). As the length of the
+	 * representation is not known no {@code Content-Length} header is
+	 * included.
+	 */
+	static void populateResponseMetadata(ResponseBuilder builder, Variant variant) {
+		populateContentHeaders(builder,variant,responseCharset(variant));
+	}
+
+	static void populateResponseBody(ResponseBuilder builder, String entity, Variant variant, boolean includeEntity) {
+		Charset charset=responseCharset(variant);
+		populateResponseBody(builder,entity.getBytes(charset),variant,charset,includeEntity);
+	}
+
+	static void populateResponseBody(ResponseBuilder builder, byte[] bytes, Variant variant, Charset charset, boolean includeEntity) {
+		populateContentHeaders(builder,variant,charset);
+
+		builder.header(MoreHttp.CONTENT_LENGTH_HEADER,bytes.length);
 
 		if(includeEntity) {
 			builder.entity(new ByteArrayInputStream(bytes));
 		}
 	}
 
+	/**
+	 * Populate a response whose body is streamed. As the length of the
+	 * representation is not known beforehand no {@code Content-Length} header
+	 * is included, and the container will use chunked transfer encoding.
+	 */
+	static void populateResponseBody(ResponseBuilder builder, StreamingOutput entity, Variant variant, Charset charset) {
+		populateContentHeaders(builder,variant,charset);
+		builder.entity(entity);
+	}
+
 	static String createQueryOfLink(Object uriRef, Query query) {
 		String strQuery = toString(query);
 		try {
@@ -267,6 +304,14 @@ public final class EndpointControllerUtils {
 		addAllowedMethodHeader(builder,"PATCH",capabilities.isPatchable());
 		addAllowedMethodHeader(builder,"DELETE",capabilities.isDeletable());
 		addAllowedMethodHeader(builder,"POST",capabilities.isFactory());
+		if(capabilities.isPatchable()) {
+			/**
+			 * RFC 5789 - 3.1 : "Accept-Patch SHOULD appear in the OPTIONS
+			 * response for any resource that supports the use of the PATCH
+			 * method."
+			 */
+			builder.header(MoreHttp.ACCEPT_PATCH_HEADER,LDPatchParser.MEDIA_TYPE);
+		}
 		if(capabilities.isFactory()) {
 			/**
 			 * LDP 1.0 - 5.2.3.13: "LDP servers that support POST must include
@@ -27,18 +27,23 @@
 package org.ldp4j.server.controller;
 
 import java.net.URI;
+import java.nio.charset.Charset;
 
 import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.Variant;
 
 import org.ldp4j.application.data.DataSet;
 import org.ldp4j.application.engine.context.ApplicationContextException;
 import org.ldp4j.application.engine.context.ApplicationExecutionException;
 import org.ldp4j.application.engine.context.ContentPreferences;
+import org.ldp4j.application.engine.context.ContentPreferences.ContentPreferencesBuilder;
+import org.ldp4j.application.engine.context.ContentPreferences.Preference;
+import org.ldp4j.application.engine.context.OperationConflictException;
 import org.ldp4j.application.engine.context.OperationPrecondititionException;
 import org.ldp4j.application.engine.context.PublicContainer;
 import org.ldp4j.application.engine.context.PublicResource;
@@ -49,6 +54,9 @@ import org.ldp4j.application.ext.InvalidQueryException;
 import org.ldp4j.application.ext.Parameter;
 import org.ldp4j.application.ext.Query;
 import org.ldp4j.application.ext.UnknownResourceException;
+import org.ldp4j.application.vocabulary.LDP;
+import org.ldp4j.rdf.Namespaces;
+import org.ldp4j.server.config.Configuration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -64,11 +72,24 @@ final class ExistingEndpointController implements EndpointController {
 		}
 	}
 
+	/**
+	 * Page size used when retrieving a page of members without specifying
+	 * a size and no server-wide default has been configured.
+	 */
+	private static final int DEFAULT_PAGE_SIZE = 100;
+
 	private static final String NO_CONSTRAINT_REPORT_ID_DEFINED_ERROR = "No constraint report identifier defined. Full stacktrace follows";
 
 	private static final Logger LOGGER=LoggerFactory.getLogger(ExistingEndpointController.class);
 
-	ExistingEndpointController() {
+	private final RepresentationCache cache;
+
+	ExistingEndpointController(RepresentationCache cache) {
+		this.cache=cache;
+	}
+
+	private URI endpoint(OperationContext context) {
+		return context.base().resolve(context.path());
 	}
 
 	private void addOptionsMandatoryHeaders(OperationContext context, ResponseBuilder builder) {
@@ -76,46 +97,119 @@ final class ExistingEndpointController implements EndpointController {
 		EndpointControllerUtils.populateAllowedHeaders(builder, context.resource().capabilities());
 	}
 
+	private Namespaces retrievalNamespaces(OperationContext context) {
+		return
+			NamespacesHelper.
+				constraintReportNamespaces(
+					context.applicationNamespaces());
+	}
+
+	/**
+	 * The representation is streamed to the client, and if a cache key is
+	 * specified, it is cached once it has been completely written.
+	 */
 	private ResponseBuilder prepareRetrievalResponse(
 			OperationContext context,
 			Variant variant,
 			DataSet entity,
+			boolean includeEntity,
+			RepresentationCache.Key key) {
+		Namespaces namespaces=retrievalNamespaces(context);
+		ResponseBuilder builder=Response.ok();
+		if(includeEntity) {
+			Charset charset=EndpointControllerUtils.responseCharset(variant);
+			StreamingOutput body=
+				context.stream(
+					entity,
+					namespaces,
+					variant.getMediaType(),
+					charset);
+			if(key!=null) {
+				body=this.cache.capture(key,body);
+			}
+			EndpointControllerUtils.
+				populateResponseBody(
+					builder,
+					body,
+					variant,
+					charset);
+		} else {
+			String body=
+				context.serialize(
+					entity,
+					namespaces,
+					variant.getMediaType());
+			EndpointControllerUtils.
+				populateResponseBody(
+					builder,
+					body,
+					variant,
+					includeEntity);
+		}
+		return builder;
+	}
+
+	private ResponseBuilder prepareCachedRetrievalResponse(
+			Variant variant,
+			byte[] representation,
 			boolean includeEntity) {
-		String body=
-			context.serialize(
-				entity,
-				NamespacesHelper.
-					constraintReportNamespaces(
-						context.applicationNamespaces()),
-				variant.getMediaType());
 		ResponseBuilder builder=Response.ok();
 		EndpointControllerUtils.
 			populateResponseBody(
 				builder,
-				body,
+				representation,
 				variant,
+				EndpointControllerUtils.responseCharset(variant),
 				includeEntity);
 		return builder;
 	}
 
+	/**
+	 * LDP Paging 1.0 - 6.2.5 : "LDP Paging servers must provide an HTTP
+	 * Link header whose target URI is http://www.w3.org/ns/ldp#Page, and
+	 * whose link relation type is type".
+	 * <br>
+	 * LDP Paging 1.0 - 6.2.6/6.2.7/6.2.8 : Links to the first, previous and
+	 * next pages. The cursor of the previous page is found by looking back
+	 * from the current cursor using the member number index.
+	 */
+	private void addPagingHeaders(OperationContext context, ResponseBuilder builder, PublicResource resource, ContentPreferences preferences) {
+		if(!preferences.isPagingRequired()) {
+			return;
+		}
+		int pageSize=preferences.maxMemberCount();
+		builder.header(HttpHeaders.LINK,MoreHttp.createLink(LDP.PAGE,"type"));
+		builder.header(HttpHeaders.LINK,MoreHttp.createLink(RetrievalScenario.pageLink(context,0,pageSize),"first"));
+		PublicContainer container=(PublicContainer)resource;
+		Long previousCursor=container.previousMemberCursor(preferences);
+		if(previousCursor!=null) {
+			builder.header(HttpHeaders.LINK,MoreHttp.createLink(RetrievalScenario.pageLink(context,previousCursor,pageSize),"prev"));
+		}
+		Long nextCursor=container.nextMemberCursor(preferences);
+		if(nextCursor!=null) {
+			builder.header(HttpHeaders.LINK,MoreHttp.createLink(RetrievalScenario.pageLink(context,nextCursor,pageSize),"next"));
+		}
+	}
+
 	private Response prepareResourceRetrievalResponse(
 			OperationContext context,
-			Variant variant,
-			DataSet entity,
-			boolean includeEntity) {
-		ResponseBuilder builder=prepareRetrievalResponse(context, variant, entity, includeEntity);
+			ResponseBuilder builder,
+			PublicResource resource,
+			ContentPreferences retrievalPreferences,
+			boolean pageRetrieval) {
 		addOptionsMandatoryHeaders(context, builder);
 
-		ContentPreferences preferences = context.contentPreferences();
-		if(preferences!=null) {
+		if(context.contentPreferences()!=null) {
 			builder.
 				header(
 					ContentPreferencesUtils.PREFERENCE_APPLIED_HEADER,
-					ContentPreferencesUtils.asPreferenceAppliedHeader(preferences));
+					ContentPreferencesUtils.asPreferenceAppliedHeader(retrievalPreferences));
 		}
 
+		addPagingHeaders(context,builder,resource,retrievalPreferences);
+
 		Query query=context.getQuery();
-		if(!query.isEmpty()) {
+		if(!query.isEmpty() && !pageRetrieval) {
 			builder.
 				header(
 					HttpHeaders.LINK,
@@ -133,7 +227,7 @@ final class ExistingEndpointController implements EndpointController {
 			DataSet report,
 			boolean includeEntity) {
 		return
-			prepareRetrievalResponse(context,variant,report,includeEntity).
+			prepareRetrievalResponse(context,variant,report,includeEntity,null).
 				build();
 	}
 
@@ -149,30 +243,123 @@ final class ExistingEndpointController implements EndpointController {
 				throw new QueryingNotSupportedException(context,includeEntity);
 			case CONSTRAINT_REPORT_RETRIEVAL:
 				return handleConstraintReportRetrieval(context,includeEntity,variant);
+			case MEMBER_PAGE_RETRIEVAL:
+				return handleResourceRetrieval(context,includeEntity,variant,true);
 			default:
-				return handleResourceRetrieval(context,includeEntity,variant);
+				return handleResourceRetrieval(context,includeEntity,variant,false);
+		}
+	}
+
+	private long pagingValue(OperationContext context, String name, Parameter parameter, long minValue, long maxValue, boolean includeEntity) {
+		if(parameter.cardinality()!=1) {
+			throw new InvalidPageRetrievalException(context,name,parameter.rawValues(),includeEntity);
+		}
+		try {
+			long value=Long.parseLong(parameter.rawValue().trim());
+			if(value<minValue || value>maxValue) {
+				throw new InvalidPageRetrievalException(context,name,parameter.rawValues(),includeEntity);
+			}
+			return value;
+		} catch (NumberFormatException e) {
+			throw new InvalidPageRetrievalException(context,name,parameter.rawValues(),includeEntity);
+		}
+	}
+
+	private static ContentPreferences copyOf(ContentPreferences preferences) {
+		ContentPreferencesBuilder builder=
+			ContentPreferences.
+				builder().
+					withMemberCursor(preferences.memberCursor()).
+					withMaxMemberCount(preferences.maxMemberCount());
+		for(Preference include:preferences.includes()) {
+			builder.withInclude(include);
+		}
+		for(Preference omit:preferences.omits()) {
+			builder.withOmit(omit);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Get the preferences to use for retrieving the representation of the
+	 * resource, taking into account the page of members to include, if any.
+	 * The page size is taken from the paging query parameters, the
+	 * {@code max-member-count} preference, or the server-wide configuration,
+	 * in that order. The preferences of the request are not modified.
+	 */
+	private ContentPreferences retrievalPreferences(OperationContext context, PublicResource resource, boolean pageRetrieval, boolean includeEntity) {
+		ContentPreferences preferences =
+			copyOf(
+				Optional.
+					fromNullable(context.contentPreferences()).
+					or(new DefaultContentPreferencesSupplier()));
+		if(!(resource instanceof PublicContainer)) {
+			if(pageRetrieval) {
+				throw new InvalidPageRetrievalException(context,includeEntity);
+			}
+			preferences.paginate(0,0);
+			return preferences;
+		}
+		long cursor=0;
+		int pageSize=preferences.maxMemberCount();
+		if(pageRetrieval) {
+			Parameter cursorParameter=RetrievalScenario.memberCursor(context);
+			if(cursorParameter!=null) {
+				cursor=pagingValue(context,RetrievalScenario.PAGE_QUERY_PARAMETER,cursorParameter,0,Long.MAX_VALUE,includeEntity);
+			}
+			Parameter sizeParameter=RetrievalScenario.pageSize(context);
+			if(sizeParameter!=null) {
+				pageSize=(int)pagingValue(context,RetrievalScenario.PAGE_SIZE_QUERY_PARAMETER,sizeParameter,1,Integer.MAX_VALUE,includeEntity);
+			}
+		}
+		if(pageSize==0) {
+			pageSize=Configuration.maxMemberCount();
 		}
+		if(pageSize==0 && pageRetrieval) {
+			pageSize=DEFAULT_PAGE_SIZE;
+		}
+		preferences.paginate(cursor,pageSize);
+		return preferences;
 	}
 
-	private Response handleResourceRetrieval(OperationContext context, boolean includeEntity, Variant variant) {
+	private Response handleResourceRetrieval(OperationContext context, boolean includeEntity, Variant variant, boolean pageRetrieval) {
 		try {
 			if(LOGGER.isDebugEnabled()) {
 				LOGGER.debug(EndpointControllerUtils.retrievalLog(context));
 			}
 			PublicResource resource=context.resource();
-			Query query=context.getQuery();
-			ContentPreferences preferences =
-				Optional.
-					fromNullable(context.contentPreferences()).
-					or(new DefaultContentPreferencesSupplier());
+			boolean isQuery=!pageRetrieval && !context.getQuery().isEmpty();
+			ContentPreferences preferences=retrievalPreferences(context,resource,pageRetrieval,includeEntity);
+			RepresentationCache.Key key=null;
+			if(!isQuery && this.cache.isEnabled()) {
+				key=this.cache.key(endpoint(context),resource.entityTag(),variant,preferences);
+				byte[] representation=this.cache.get(key);
+				if(representation!=null) {
+					return
+						prepareResourceRetrievalResponse(
+							context,
+							prepareCachedRetrievalResponse(variant,representation,includeEntity),
+							resource,
+							preferences,
+							pageRetrieval);
+				}
+			}
+			if(!includeEntity && !isQuery) {
+				// HEAD fast path: the entity is only needed for computing the
+				// Content-Length, which can be omitted (RFC 7231, 3.3.2)
+				ResponseBuilder builder=Response.ok();
+				EndpointControllerUtils.populateResponseMetadata(builder,variant);
+				return prepareResourceRetrievalResponse(context,builder,resource,preferences,pageRetrieval);
+			}
 			DataSet entity=
-				query.isEmpty()?
+				!isQuery?
 					resource.entity(preferences):
-					resource.query(query,preferences);
+					resource.query(context.getQuery(),preferences);
 			if(LOGGER.isTraceEnabled()) {
 				LOGGER.trace(EndpointControllerUtils.retrievalResultLog(entity));
 			}
-			return prepareResourceRetrievalResponse(context,variant,entity,includeEntity);
+			ResponseBuilder builder=prepareRetrievalResponse(context,variant,entity,includeEntity,key);
+			return prepareResourceRetrievalResponse(context,builder,resource,preferences,pageRetrieval);
 		} catch (ApplicationExecutionException e) {
 			throw diagnoseApplicationExecutionException(context, e);
 		} catch (ApplicationContextException e) {
@@ -254,9 +441,12 @@ final class ExistingEndpointController implements EndpointController {
 			checkPreconditions();
 		try {
 			context.resource().delete();
+			this.cache.invalidate(endpoint(context));
 			return Response.noContent().build();
 		} catch (ApplicationExecutionException e) {
 			throw diagnoseApplicationExecutionException(context, e);
+		} catch (OperationConflictException e) {
+			throw new OperationConflictDiagnosedException(context, e);
 		} catch (ApplicationContextException e) {
 			throw new InternalServerException(context,e);
 		}
@@ -275,25 +465,43 @@ final class ExistingEndpointController implements EndpointController {
 			checkPreconditions();
 		try {
 			context.resource().modify(context.dataSet());
+			this.cache.invalidate(endpoint(context));
 			ResponseBuilder builder=Response.noContent();
 			EndpointControllerUtils.populateRequiredHeaders(builder, context);
 			return builder.build();
 		} catch (ApplicationExecutionException e) {
 			throw diagnoseApplicationExecutionException(context, e);
+		} catch (OperationConflictException e) {
+			throw new OperationConflictDiagnosedException(context, e);
 		} catch (ApplicationContextException e) {
 			throw new InternalServerException(context,e);
 		}
 	}
 
+	/**
+	 * Only the changes included in the patch are unmarshalled, validated and
+	 * handed to the application, so the cost of the operation depends on the
+	 * size of the patch and not on the size of the resource.
+	 */
 	@Override
 	public Response patchResource(OperationContext context) {
-		// Verify that we can carry out the operation
 		context.
 			checkOperationSupport().
 			checkContents().
 			checkPreconditions();
-		// Fail as we do not support PATCH
-		throw new NotImplementedException(context);
+		try {
+			context.resource().patch(context.patchAdditions(),context.patchRemovals());
+			this.cache.invalidate(endpoint(context));
+			ResponseBuilder builder=Response.noContent();
+			EndpointControllerUtils.populateRequiredHeaders(builder, context);
+			return builder.build();
+		} catch (ApplicationExecutionException e) {
+			throw diagnoseApplicationExecutionException(context, e);
+		} catch (OperationConflictException e) {
+			throw new OperationConflictDiagnosedException(context, e);
+		} catch (ApplicationContextException e) {
+			throw new InternalServerException(context,e);
+		}
 	}
 
 	@Override
@@ -322,6 +530,8 @@ final class ExistingEndpointController implements EndpointController {
 			throw new UnsupportedInteractionModelDiagnosedException(context, e);
 		} catch (OperationPrecondititionException e) {
 			throw new OperationPrecondititionModelDiagnosedException(context, e);
+		} catch (OperationConflictException e) {
+			throw new OperationConflictDiagnosedException(context, e);
 		} catch (ApplicationContextException e) {
 			throw new InternalServerException(context,e);
 		}
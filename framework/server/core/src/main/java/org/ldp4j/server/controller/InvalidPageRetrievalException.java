@@ -0,0 +1,63 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:0.2.2
+ *   Bundle      : ldp4j-server-core-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.controller;
+
+import java.util.List;
+
+import javax.ws.rs.core.Response.Status;
+
+import com.google.common.base.Joiner;
+
+public class InvalidPageRetrievalException extends DiagnosedException {
+
+	private static final long serialVersionUID = -3735270406183963407L;
+
+	public InvalidPageRetrievalException(OperationContext context, String parameter, List<String> values, boolean mandatory) {
+		super(
+			context,
+			null,
+			Diagnosis.
+				create().
+					statusCode(Status.BAD_REQUEST).
+					diagnostic("Invalid paging parameter '%s' (%s)", parameter, Joiner.on(", ").join(values)).
+					mandatory(mandatory)
+		);
+	}
+
+	public InvalidPageRetrievalException(OperationContext context, boolean mandatory) {
+		super(
+			context,
+			null,
+			Diagnosis.
+				create().
+					statusCode(Status.BAD_REQUEST).
+					diagnostic("Paging is only supported for containers").
+					mandatory(mandatory)
+		);
+	}
+
+}
@@ -0,0 +1,247 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:0.2.2
+ *   Bundle      : ldp4j-server-core-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.controller;
+
+import java.io.IOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Parser for the subset of LD Patch that does not require evaluating the
+ * patch against the current state of the resource: prefix and base
+ * declarations plus {@code Add} and {@code Delete} operations over ground
+ * triples. The triples of each kind of operation are collected as a Turtle
+ * document that keeps the declarations of the patch in document order, so
+ * that redefined prefixes and bases apply to the operations that follow
+ * them. As in LD Patch, blank nodes are not allowed in {@code Delete}
+ * operations.
+ *
+ * @see <a href="https://www.w3.org/TR/ldpatch/">Linked Data Patch Format</a>
+ */
+final class LDPatchParser {
+
+	static final MediaType MEDIA_TYPE=new MediaType("text","ldpatch");
+
+	private static final Pattern DIRECTIVE=
+		Pattern.compile("\\G@(?:prefix\\s+(?:[A-Za-z][\\w.-]*)?:|base)\\s*<[^>]*>\\s*\\.");
+
+	private static final Pattern OPERATION=Pattern.compile("\\G[A-Za-z]+");
+
+	private final String patch;
+	private final StringBuilder additions;
+	private final StringBuilder removals;
+	private int position;
+
+	private LDPatchParser(String patch) {
+		this.patch=patch;
+		this.additions=new StringBuilder();
+		this.removals=new StringBuilder();
+	}
+
+	private IOException failure(String message) {
+		return new IOException(message+" at position "+this.position);
+	}
+
+	private boolean hasMore() {
+		return this.position<this.patch.length();
+	}
+
+	private char current() {
+		return this.patch.charAt(this.position);
+	}
+
+	private void skipComment() {
+		while(hasMore() && current()!='\n' && current()!='\r') {
+			this.position++;
+		}
+	}
+
+	private void skipWhitespace() {
+		while(hasMore()) {
+			char c=current();
+			if(c=='#') {
+				skipComment();
+			} else if(Character.isWhitespace(c)) {
+				this.position++;
+			} else {
+				break;
+			}
+		}
+	}
+
+	private void expect(char expected) throws IOException {
+		skipWhitespace();
+		if(!hasMore() || current()!=expected) {
+			throw failure("Expected '"+expected+"'");
+		}
+		this.position++;
+	}
+
+	private void skipIRI() throws IOException {
+		int end=this.patch.indexOf('>',this.position);
+		if(end<0) {
+			throw failure("Unterminated IRI");
+		}
+		this.position=end+1;
+	}
+
+	private void skipString() throws IOException {
+		char quote=current();
+		String longQuote=new String(new char[]{quote,quote,quote});
+		boolean isLong=this.patch.startsWith(longQuote,this.position);
+		this.position+=isLong?3:1;
+		while(hasMore()) {
+			char c=current();
+			if(c=='\\') {
+				this.position+=2;
+			} else if(isLong && this.patch.startsWith(longQuote,this.position)) {
+				this.position+=3;
+				return;
+			} else if(!isLong && c==quote) {
+				this.position++;
+				return;
+			} else {
+				this.position++;
+			}
+		}
+		throw failure("Unterminated string");
+	}
+
+	private boolean isBlankNode() {
+		char c=current();
+		if(c=='[') {
+			return true;
+		}
+		if(c!='_' || !this.patch.startsWith("_:",this.position)) {
+			return false;
+		}
+		if(this.position==0) {
+			return true;
+		}
+		char previous=this.patch.charAt(this.position-1);
+		return !Character.isLetterOrDigit(previous) && previous!='_' && previous!='-' && previous!='.' && previous!=':';
+	}
+
+	/**
+	 * Get the content of the block that starts at the current position,
+	 * skipping the IRIs, literals and comments that might include braces.
+	 */
+	private String block(boolean allowBlankNodes) throws IOException {
+		expect('{');
+		int start=this.position;
+		while(hasMore()) {
+			char c=current();
+			if(c=='}') {
+				String content=this.patch.substring(start,this.position).trim();
+				this.position++;
+				return content;
+			} else if(c=='<') {
+				skipIRI();
+			} else if(c=='"' || c=='\'') {
+				skipString();
+			} else if(c=='#') {
+				skipComment();
+			} else if(!allowBlankNodes && isBlankNode()) {
+				throw failure("Blank nodes are not allowed in Delete operations");
+			} else {
+				this.position++;
+			}
+		}
+		throw failure("Unterminated block");
+	}
+
+	private void directive() throws IOException {
+		Matcher matcher=DIRECTIVE.matcher(this.patch);
+		if(!matcher.find(this.position)) {
+			throw failure("Invalid directive");
+		}
+		String directive=matcher.group();
+		this.additions.append(directive).append('\n');
+		this.removals.append(directive).append('\n');
+		this.position=matcher.end();
+	}
+
+	private void operation() throws IOException {
+		Matcher matcher=OPERATION.matcher(this.patch);
+		if(!matcher.find(this.position)) {
+			throw failure("Operation expected");
+		}
+		String operation=matcher.group();
+		StringBuilder target=null;
+		if("Add".equals(operation) || "A".equals(operation)) {
+			target=this.additions;
+		} else if("Delete".equals(operation) || "D".equals(operation)) {
+			target=this.removals;
+		} else {
+			throw failure("Unsupported operation '"+operation+"'");
+		}
+		this.position=matcher.end();
+		String content=block(target==this.additions);
+		expect('.');
+		if(!content.isEmpty()) {
+			target.append(content);
+			if(!content.endsWith(".")) {
+				target.append(" .");
+			}
+			target.append('\n');
+		}
+	}
+
+	private LDPatchParser parse() throws IOException {
+		skipWhitespace();
+		while(hasMore()) {
+			if(current()=='@') {
+				directive();
+			} else {
+				operation();
+			}
+			skipWhitespace();
+		}
+		return this;
+	}
+
+	/**
+	 * Get the triples to add, as a Turtle document.
+	 */
+	String additions() {
+		return this.additions.toString();
+	}
+
+	/**
+	 * Get the triples to delete, as a Turtle document.
+	 */
+	String removals() {
+		return this.removals.toString();
+	}
+
+	static LDPatchParser parse(String patch) throws IOException {
+		return new LDPatchParser(patch).parse();
+	}
+
+}
@@ -31,6 +31,7 @@ import java.nio.charset.Charset;
 import java.util.List;
 
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.Variant;
 
 import org.ldp4j.application.data.DataSet;
@@ -49,6 +50,10 @@ public interface OperationContext {
 
 	DataSet dataSet();
 
+	DataSet patchAdditions();
+
+	DataSet patchRemovals();
+
 	Variant expectedVariant();
 
 	ContentPreferences contentPreferences();
@@ -69,6 +74,8 @@ public interface OperationContext {
 
 	String serialize(DataSet entity, Namespaces namespaces, MediaType mediaType);
 
+	StreamingOutput stream(DataSet entity, Namespaces namespaces, MediaType mediaType, Charset charset);
+
 	boolean isResourceQueryable();
 
 	Query getQuery();
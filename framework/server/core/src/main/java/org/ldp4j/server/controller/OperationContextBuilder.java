@@ -46,7 +46,7 @@ public final class OperationContextBuilder {
 	private HttpHeaders headers;
 
 	// Optional
-	private String entity;
+	private RequestEntity entity;
 
 	public OperationContextBuilder() {
 	}
@@ -82,6 +82,11 @@ public final class OperationContextBuilder {
 	}
 
 	public OperationContextBuilder withEntity(String entity) {
+		this.entity = RequestEntity.of(entity);
+		return this;
+	}
+
+	public OperationContextBuilder withEntity(RequestEntity entity) {
 		this.entity = entity;
 		return this;
 	}
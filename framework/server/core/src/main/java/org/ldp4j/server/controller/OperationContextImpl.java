@@ -32,9 +32,11 @@ import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 
 import javax.ws.rs.core.HttpHeaders;
@@ -44,6 +46,7 @@ import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import javax.ws.rs.core.Variant;
 
@@ -61,6 +64,7 @@ import org.ldp4j.application.engine.context.PublicResource;
 import org.ldp4j.application.ext.Query;
 import org.ldp4j.application.sdk.QueryBuilder;
 import org.ldp4j.rdf.Namespaces;
+import org.ldp4j.server.data.BatchResourceResolver;
 import org.ldp4j.server.data.DataTransformator;
 import org.ldp4j.server.data.ResourceResolver;
 import org.ldp4j.server.data.UnsupportedMediaTypeException;
@@ -72,24 +76,68 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 final class OperationContextImpl implements OperationContext {
 
-	private final class OperationContextResourceResolver implements ResourceResolver {
+	/**
+	 * Request-scoped resource resolver that memoizes the resolutions, so that
+	 * each resource and location is looked up at most once per request.
+	 */
+	private final class OperationContextResourceResolver implements BatchResourceResolver {
 
-		@Override
-		public URI resolveResource(ManagedIndividualId id) {
+		private final Map<ManagedIndividualId,URI> resources=Maps.newHashMap();
+		private final Map<URI,ManagedIndividualId> locations=Maps.newHashMap();
+
+		private URI toURI(ManagedIndividualId id, PublicResource resolvedResource) {
 			URI result=null;
-			PublicResource resolvedResource=applicationContextOperation.resolveResource(id);
 			if(resolvedResource!=null) {
 				result=base().resolve(resolvedResource.path());
 				LOGGER.trace("Resolved resource {} URI to '{}'",id,result);
 			}
+			this.resources.put(id,result);
+			return result;
+		}
+
+		@Override
+		public URI resolveResource(ManagedIndividualId id) {
+			URI result=this.resources.get(id);
+			if(result==null && !this.resources.containsKey(id)) {
+				result=toURI(id,applicationContextOperation.resolveResource(id));
+			}
+			return result;
+		}
+
+		@Override
+		public Map<ManagedIndividualId,URI> resolveAll(Collection<ManagedIndividualId> ids) {
+			List<ManagedIndividualId> pending=Lists.newArrayList();
+			for(ManagedIndividualId id:ids) {
+				if(!this.resources.containsKey(id)) {
+					pending.add(id);
+				}
+			}
+			if(!pending.isEmpty()) {
+				Map<ManagedIndividualId,PublicResource> resolvedResources=applicationContextOperation.resolveResources(pending);
+				for(ManagedIndividualId id:pending) {
+					toURI(id,resolvedResources.get(id));
+				}
+			}
+			Map<ManagedIndividualId,URI> result=Maps.newLinkedHashMap();
+			for(ManagedIndividualId id:ids) {
+				URI uri=this.resources.get(id);
+				if(uri!=null) {
+					result.put(id,uri);
+				}
+			}
 			return result;
 		}
 
 		@Override
 		public ManagedIndividualId resolveLocation(URI path) {
+			if(this.locations.containsKey(path)) {
+				return this.locations.get(path);
+			}
 			PublicResource resolvedResource =
 				applicationContextOperation.
 					resolveResource(base().relativize(path).toString());
@@ -99,6 +147,7 @@ final class OperationContextImpl implements OperationContext {
 				result=resolvedResource.individualId();
 				LOGGER.trace("Resolved location '{}' to resource {}",path,result);
 			}
+			this.locations.put(path,result);
 			return result;
 		}
 
@@ -106,27 +155,33 @@ final class OperationContextImpl implements OperationContext {
 
 	private static final Logger LOGGER=LoggerFactory.getLogger(OperationContextImpl.class);
 
+	private static final MediaType TURTLE=new MediaType("text","turtle");
+
 	private final ApplicationContext applicationContext;
 	private final String             endpointPath;
 	private final HttpMethod         method;
 	private final UriInfo            uriInfo;
 	private final HttpHeaders        headers;
 	private final Request            request;
-	private final String             entity;
+	private final RequestEntity      entity;
 
 	private ApplicationContextOperation applicationContextOperation;
 	private PublicResource              resource;
 	private DataSet                     dataSet;
+	private DataSet                     patchAdditions;
+	private DataSet                     patchRemovals;
 
 	private CharsetSelector charsetSelector;
 
+	private OperationContextResourceResolver resourceResolver;
+
 	OperationContextImpl(
 		ApplicationContext applicationContext,
 		String endpointPath,
 		UriInfo uriInfo,
 		HttpHeaders headers,
 		Request request,
-		String entity,
+		RequestEntity entity,
 		HttpMethod method) {
 		this.applicationContext = applicationContext;
 		this.endpointPath = endpointPath;
@@ -178,7 +233,10 @@ final class OperationContextImpl implements OperationContext {
 	}
 
 	private ResourceResolver resourceResolver() {
-		return new OperationContextResourceResolver();
+		if(this.resourceResolver==null) {
+			this.resourceResolver=new OperationContextResourceResolver();
+		}
+		return this.resourceResolver;
 	}
 
 	private URI endpoint() {
@@ -247,7 +305,7 @@ final class OperationContextImpl implements OperationContext {
 		return this.request;
 	}
 
-	String entity() {
+	RequestEntity entity() {
 		return this.entity;
 	}
 
@@ -281,8 +339,11 @@ final class OperationContextImpl implements OperationContext {
 
 	@Override
 	public OperationContext checkContents() {
-		List<Variant> supportedVariants=VariantUtils.defaultVariants();
-		if(entity()==null || entity().isEmpty()) {
+		List<Variant> supportedVariants=
+			HttpMethod.PATCH.equals(this.method)?
+				VariantUtils.createVariants(LDPatchParser.MEDIA_TYPE):
+				VariantUtils.defaultVariants();
+		if(isEntityEmpty()) {
 			throw new MissingContentException(this);
 		}
 		if(headers().getMediaType()==null) {
@@ -296,6 +357,42 @@ final class OperationContextImpl implements OperationContext {
 		return this;
 	}
 
+	private boolean isEntityEmpty() {
+		if(entity()==null) {
+			return true;
+		}
+		try {
+			return entity().isEmpty();
+		} catch (IOException e) {
+			throw unreadableEntity(e);
+		}
+	}
+
+	/**
+	 * The request entity is consumed while it is parsed, so failures related
+	 * to the transport (i.e., oversized entities) are only detected then.
+	 */
+	private static boolean isTransportFailure(IOException e) {
+		return tooLarge(e)!=null;
+	}
+
+	private static EntityTooLargeException tooLarge(IOException e) {
+		for(Throwable cause:Throwables.getCausalChain(e)) {
+			if(cause instanceof EntityTooLargeException) {
+				return (EntityTooLargeException)cause;
+			}
+		}
+		return null;
+	}
+
+	private ContentProcessingException unreadableEntity(IOException e) {
+		EntityTooLargeException failure=tooLarge(e);
+		if(failure!=null) {
+			return new ContentProcessingException(failure.getMessage(),e,this,Status.REQUEST_ENTITY_TOO_LARGE);
+		}
+		return new InvalidRequestContentException("Could not read request entity ("+Throwables.getRootCause(e).getMessage()+")",e,this);
+	}
+
 	@Override
 	public OperationContext checkPreconditions() {
 		EntityTag entityTag=this.resource.entityTag();
@@ -326,31 +423,77 @@ final class OperationContextImpl implements OperationContext {
 		return this;
 	}
 
+	private DataTransformator transformator(MediaType mediaType) throws UnsupportedMediaTypeException {
+		DataTransformator transformator =
+			DataTransformator.
+				create(base()).
+				enableResolution(resourceResolver()).
+				mediaType(mediaType);
+		if(this.method.equals(HttpMethod.POST)) {
+			transformator=transformator.surrogateEndpoint(endpoint());
+		} else {
+			transformator=transformator.permanentEndpoint(endpoint());
+		}
+		return transformator;
+	}
+
 	@Override
 	public DataSet dataSet() {
 		if(this.dataSet==null) {
 			MediaType mediaType=contentVariant().getMediaType();
 			try {
-				DataTransformator transformator =
-					DataTransformator.
-						create(base()).
-						enableResolution(resourceResolver()).
-						mediaType(mediaType);
-				if(this.method.equals(HttpMethod.POST)) {
-					transformator=transformator.surrogateEndpoint(endpoint());
-				} else {
-					transformator=transformator.permanentEndpoint(endpoint());
-				}
-				this.dataSet=transformator.unmarshall(this.entity);
+				this.dataSet=transformator(mediaType).unmarshall(this.entity.reader());
 			} catch(UnsupportedMediaTypeException e) {
 				throw new UnsupportedContentException(this,contentVariant(),e);
 			} catch(IOException e) {
+				if(isTransportFailure(e)) {
+					throw unreadableEntity(e);
+				}
 				throw new InvalidRequestContentException("Entity cannot be parsed as '"+mediaType+"' ("+Throwables.getRootCause(e).getMessage()+")",e,this);
 			}
 		}
 		return this.dataSet;
 	}
 
+	/**
+	 * Parse the LD Patch request entity. The triples to add and to delete
+	 * are unmarshalled as Turtle, so that they are resolved in the same way
+	 * as the representations used for replacing the state of the resource.
+	 */
+	private void parsePatch() {
+		if(this.patchAdditions!=null) {
+			return;
+		}
+		String patchContent;
+		try {
+			patchContent=this.entity.content();
+		} catch(IOException e) {
+			throw unreadableEntity(e);
+		}
+		try {
+			LDPatchParser patch=LDPatchParser.parse(patchContent);
+			DataTransformator transformator=transformator(TURTLE);
+			this.patchRemovals=transformator.unmarshall(patch.removals());
+			this.patchAdditions=transformator.unmarshall(patch.additions());
+		} catch(UnsupportedMediaTypeException e) {
+			throw new UnsupportedContentException(this,contentVariant(),e);
+		} catch(IOException e) {
+			throw new InvalidRequestContentException("Entity cannot be parsed as '"+LDPatchParser.MEDIA_TYPE+"' ("+Throwables.getRootCause(e).getMessage()+")",e,this);
+		}
+	}
+
+	@Override
+	public DataSet patchAdditions() {
+		parsePatch();
+		return this.patchAdditions;
+	}
+
+	@Override
+	public DataSet patchRemovals() {
+		parsePatch();
+		return this.patchRemovals;
+	}
+
 	@Override
 	public Variant expectedVariant() {
 		List<Variant> variants=VariantUtils.defaultVariants();
@@ -415,17 +558,20 @@ final class OperationContextImpl implements OperationContext {
 		return base().resolve(resource.path());
 	}
 
+	private DataTransformator serializer(Namespaces namespaces, MediaType mediaType) {
+		return
+			DataTransformator.
+				create(base()).
+				enableResolution(resourceResolver()).
+				mediaType(mediaType).
+				namespaces(namespaces).
+				permanentEndpoint(endpoint());
+	}
+
 	@Override
 	public String serialize(DataSet representation, Namespaces namespaces, MediaType mediaType) {
 		try {
-			DataTransformator transformator =
-				DataTransformator.
-					create(base()).
-					enableResolution(resourceResolver()).
-					mediaType(mediaType).
-					namespaces(namespaces).
-					permanentEndpoint(endpoint());
-			return transformator.marshall(representation);
+			return serializer(namespaces,mediaType).marshall(representation);
 		} catch(UnsupportedMediaTypeException e) {
 			throw new UnsupportedContentException(this,contentVariant(),e);
 		} catch(IOException e) {
@@ -433,6 +579,15 @@ final class OperationContextImpl implements OperationContext {
 		}
 	}
 
+	@Override
+	public StreamingOutput stream(DataSet representation, Namespaces namespaces, MediaType mediaType, Charset charset) {
+		try {
+			return serializer(namespaces,mediaType).marshall(representation,charset);
+		} catch(UnsupportedMediaTypeException e) {
+			throw new UnsupportedContentException(this,contentVariant(),e);
+		}
+	}
+
 	@Override
 	public PublicResource resource() {
 		if(this.resource==null) {
@@ -478,6 +633,7 @@ final class OperationContextImpl implements OperationContext {
 
 	@Override
 	public void startOperation() {
+		this.resourceResolver=null;
 		this.applicationContextOperation=
 			this.applicationContext.
 				createOperation(
@@ -0,0 +1,371 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:0.2.2
+ *   Bundle      : ldp4j-server-core-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Map;
+import java.util.Set;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.core.Variant;
+
+import org.ldp4j.application.engine.context.ContentPreferences;
+import org.ldp4j.application.engine.context.EntityTag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Objects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * Cache of serialized resource representations, bounded by the number of
+ * bytes of the cached representations. Representations are keyed by the
+ * endpoint, its current entity tag, the negotiated variant and the content
+ * preferences used for building them. As the entity tag of an endpoint
+ * changes whenever the underlying resource is modified, stale
+ * representations are never served, and they are just left to be evicted
+ * (least recently used first) unless explicitly invalidated.
+ * <br>
+ * The cache is owned by the server life cycle, which creates it at start up
+ * and discards it at shutdown.
+ */
+public final class RepresentationCache {
+
+	static final class Key {
+
+		private final URI endpoint;
+		private final EntityTag entityTag;
+		private final String mediaType;
+		private final String language;
+		private final String preferences;
+
+		private Key(URI endpoint, EntityTag entityTag, Variant variant, ContentPreferences preferences) {
+			this.endpoint=endpoint;
+			this.entityTag=entityTag;
+			this.mediaType=variant.getMediaType().toString();
+			this.language=variant.getLanguageString();
+			// ContentPreferences are mutable, so take a snapshot of them
+			this.preferences=preferences.toString();
+		}
+
+		URI endpoint() {
+			return this.endpoint;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(this.endpoint,this.entityTag,this.mediaType,this.language,this.preferences);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			boolean result=false;
+			if(obj instanceof Key) {
+				Key that=(Key)obj;
+				result=
+					Objects.equal(this.endpoint,that.endpoint) &&
+					Objects.equal(this.entityTag,that.entityTag) &&
+					Objects.equal(this.mediaType,that.mediaType) &&
+					Objects.equal(this.language,that.language) &&
+					Objects.equal(this.preferences,that.preferences);
+			}
+			return result;
+		}
+
+		@Override
+		public String toString() {
+			return
+				MoreObjects.
+					toStringHelper(getClass()).
+						omitNullValues().
+						add("endpoint",this.endpoint).
+						add("entityTag",this.entityTag).
+						add("mediaType",this.mediaType).
+						add("language",this.language).
+						add("preferences",this.preferences).
+						toString();
+		}
+
+	}
+
+	private static final class RepresentationWeigher implements Weigher<Key,byte[]> {
+
+		/**
+		 * Rough estimation of the memory used by a key and the cache entry
+		 */
+		private static final int ENTRY_OVERHEAD = 256;
+
+		@Override
+		public int weigh(Key key, byte[] representation) {
+			return representation.length+ENTRY_OVERHEAD;
+		}
+
+	}
+
+	private final class IndexMaintainer implements RemovalListener<Key,byte[]> {
+
+		@Override
+		public void onRemoval(RemovalNotification<Key,byte[]> notification) {
+			// The key is already indexed when the entry is replaced
+			if(!RemovalCause.REPLACED.equals(notification.getCause())) {
+				unindex(notification.getKey());
+			}
+		}
+
+	}
+
+	/**
+	 * Captures the representation while it is written to the client, so that
+	 * it can be cached without having to buffer it before sending it.
+	 * Representations larger than the maximum entry size are not captured.
+	 */
+	private final class CapturingOutputStream extends FilterOutputStream {
+
+		private final ByteArrayOutputStream buffer;
+		private boolean overflow;
+
+		private CapturingOutputStream(OutputStream out) {
+			super(out);
+			this.buffer=new ByteArrayOutputStream();
+		}
+
+		private boolean capture(int length) {
+			if(!this.overflow && this.buffer.size()+length>RepresentationCache.this.maxEntrySize) {
+				this.overflow=true;
+				this.buffer.reset();
+			}
+			return !this.overflow;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			this.out.write(b);
+			if(capture(1)) {
+				this.buffer.write(b);
+			}
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			this.out.write(b,off,len);
+			if(capture(len)) {
+				this.buffer.write(b,off,len);
+			}
+		}
+
+		private byte[] captured() {
+			return this.overflow?null:this.buffer.toByteArray();
+		}
+
+	}
+
+	private static final Logger LOGGER=LoggerFactory.getLogger(RepresentationCache.class);
+
+	/**
+	 * Fraction of the capacity of the cache that a single representation may
+	 * use.
+	 */
+	private static final int MAX_ENTRY_FRACTION = 8;
+
+	private final Cache<Key,byte[]> cache;
+	private final Map<URI,Set<Key>> index;
+	private final long maxEntrySize;
+
+	private RepresentationCache(long maxWeight) {
+		if(maxWeight>0) {
+			this.cache=
+				CacheBuilder.
+					newBuilder().
+						maximumWeight(maxWeight).
+						weigher(new RepresentationWeigher()).
+						removalListener(new IndexMaintainer()).
+						recordStats().
+						build();
+		} else {
+			this.cache=null;
+		}
+		this.index=Maps.newHashMap();
+		this.maxEntrySize=Math.max(1,maxWeight/MAX_ENTRY_FRACTION);
+	}
+
+	private void index(Key key) {
+		synchronized(this.index) {
+			Set<Key> keys=this.index.get(key.endpoint());
+			if(keys==null) {
+				keys=Sets.newHashSet();
+				this.index.put(key.endpoint(),keys);
+			}
+			keys.add(key);
+		}
+	}
+
+	private void unindex(Key key) {
+		synchronized(this.index) {
+			Set<Key> keys=this.index.get(key.endpoint());
+			if(keys!=null && keys.remove(key) && keys.isEmpty()) {
+				this.index.remove(key.endpoint());
+			}
+		}
+	}
+
+	boolean isEnabled() {
+		return this.cache!=null;
+	}
+
+	Key key(URI endpoint, EntityTag entityTag, Variant variant, ContentPreferences preferences) {
+		return new Key(endpoint,entityTag,variant,preferences);
+	}
+
+	/**
+	 * Get the cached representation for a given key.
+	 *
+	 * @param key the key of the representation
+	 * @return the cached representation or {@code null} if no representation
+	 *         is cached for the key.
+	 */
+	byte[] get(Key key) {
+		if(!isEnabled() || key.entityTag==null) {
+			return null;
+		}
+		byte[] result=this.cache.getIfPresent(key);
+		if(LOGGER.isTraceEnabled()) {
+			LOGGER.trace("Representation cache {} for {} ({})",result==null?"miss":"hit",key,this.cache.stats());
+		}
+		return result;
+	}
+
+	void put(Key key, byte[] representation) {
+		if(isEnabled() && key.entityTag!=null && representation.length<=this.maxEntrySize) {
+			index(key);
+			this.cache.put(key,representation);
+		}
+	}
+
+	/**
+	 * Cache the representation written by a given output once it has been
+	 * completely written.
+	 *
+	 * @param key the key of the representation
+	 * @param output the output that writes the representation
+	 * @return an output that writes the representation and caches it
+	 */
+	StreamingOutput capture(final Key key, final StreamingOutput output) {
+		if(!isEnabled() || key.entityTag==null) {
+			return output;
+		}
+		return new StreamingOutput() {
+			@Override
+			public void write(OutputStream out) throws IOException, WebApplicationException {
+				CapturingOutputStream capturer=new CapturingOutputStream(out);
+				output.write(capturer);
+				capturer.flush();
+				byte[] representation=capturer.captured();
+				if(representation!=null) {
+					put(key,representation);
+				} else {
+					LOGGER.trace("Representation for {} is too large to be cached",key);
+				}
+			}
+		};
+	}
+
+	/**
+	 * Discard all the representations cached for a given endpoint.
+	 *
+	 * @param endpoint the endpoint whose representations are to be discarded
+	 */
+	void invalidate(URI endpoint) {
+		if(!isEnabled()) {
+			return;
+		}
+		Set<Key> keys=null;
+		synchronized(this.index) {
+			keys=this.index.remove(endpoint);
+		}
+		if(keys!=null) {
+			this.cache.invalidateAll(ImmutableSet.copyOf(keys));
+		}
+	}
+
+	/**
+	 * Discard all the cached representations.
+	 */
+	public void invalidateAll() {
+		if(isEnabled()) {
+			this.cache.invalidateAll();
+		}
+	}
+
+	/**
+	 * Get the number of cached representations.
+	 *
+	 * @return the number of cached representations, or {@code 0} if caching
+	 *         is disabled
+	 */
+	public long size() {
+		return isEnabled()?this.cache.size():0;
+	}
+
+	/**
+	 * Get the hit, miss, load and eviction statistics of the cache. The
+	 * statistics of a disabled cache are empty.
+	 *
+	 * @return the statistics of the cache
+	 */
+	public CacheStats stats() {
+		return isEnabled()?this.cache.stats():new CacheStats(0,0,0,0,0,0);
+	}
+
+	/**
+	 * Create a new representation cache.
+	 *
+	 * @param maxWeight
+	 *            the maximum number of bytes used by the cached
+	 *            representations. Caching is disabled if the value is not
+	 *            positive.
+	 * @return a new representation cache
+	 */
+	public static RepresentationCache newInstance(long maxWeight) {
+		return new RepresentationCache(maxWeight);
+	}
+
+}
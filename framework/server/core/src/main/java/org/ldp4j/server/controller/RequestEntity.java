@@ -0,0 +1,275 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:0.2.2
+ *   Bundle      : ldp4j-server-core-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.controller;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.FilterInputStream;
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+
+import com.google.common.io.CharStreams;
+
+/**
+ * The entity of a request. The entity is decoded while it is being read, so
+ * that it can be parsed without buffering it completely. The maximum size of
+ * the entity is enforced while reading, and only a bounded prefix of the
+ * contents is retained for reporting purposes unless the complete contents
+ * are explicitly requested.
+ */
+public final class RequestEntity {
+
+	private static final class BoundedInputStream extends FilterInputStream {
+
+		private final long maxSize;
+		private long count;
+
+		private BoundedInputStream(InputStream in, long maxSize) {
+			super(in);
+			this.maxSize=maxSize;
+		}
+
+		private int count(int read) throws EntityTooLargeException {
+			if(read>0) {
+				this.count+=read;
+				if(this.count>this.maxSize) {
+					throw new EntityTooLargeException(this.maxSize);
+				}
+			}
+			return read;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int read=super.read();
+			if(read>=0) {
+				count(1);
+			}
+			return read;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			return count(super.read(b,off,len));
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped=super.skip(n);
+			count((int)Math.min(skipped,Integer.MAX_VALUE));
+			return skipped;
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+
+	}
+
+	private final class CapturingReader extends FilterReader {
+
+		private CapturingReader(Reader in) {
+			super(in);
+		}
+
+		private void capture(char[] cbuf, int off, int len) {
+			int length=Math.min(len,captureSize-captured.length());
+			if(length>0) {
+				captured.append(cbuf,off,length);
+			}
+		}
+
+		@Override
+		public int read() throws IOException {
+			int read=super.read();
+			if(read>=0 && captured.length()<captureSize) {
+				captured.append((char)read);
+			}
+			return read;
+		}
+
+		@Override
+		public int read(char[] cbuf, int off, int len) throws IOException {
+			int read=super.read(cbuf,off,len);
+			capture(cbuf,off,read);
+			return read;
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+
+	}
+
+	private final PushbackReader source;
+	private final int captureSize;
+	private final StringBuilder captured;
+
+	private String content;
+	private boolean consumed;
+
+	private RequestEntity(String content) {
+		this.source=null;
+		this.captureSize=0;
+		this.captured=null;
+		this.content=content;
+		this.consumed=true;
+	}
+
+	private RequestEntity(Reader source, int captureSize) {
+		this.source=new PushbackReader(source);
+		this.captureSize=captureSize;
+		this.captured=new StringBuilder();
+		this.content=null;
+		this.consumed=false;
+	}
+
+	/**
+	 * Check whether the entity has contents or not. Only the first character
+	 * of the entity is read for checking it.
+	 *
+	 * @return {@code true} if the entity has no contents, {@code false}
+	 *         otherwise
+	 * @throws IOException
+	 *             if the entity cannot be read
+	 */
+	public boolean isEmpty() throws IOException {
+		if(this.content!=null) {
+			return this.content.isEmpty();
+		}
+		checkState(!this.consumed,"Entity already consumed");
+		int c=this.source.read();
+		if(c<0) {
+			this.content="";
+			this.consumed=true;
+			return true;
+		}
+		this.source.unread(c);
+		return false;
+	}
+
+	/**
+	 * Get a reader for the contents of the entity. Unless the contents have
+	 * already been read, the entity can only be read once.
+	 *
+	 * @return a reader for the contents of the entity
+	 * @throws IllegalStateException
+	 *             if the entity has already been consumed
+	 */
+	public Reader reader() {
+		if(this.content!=null) {
+			return new StringReader(this.content);
+		}
+		checkState(!this.consumed,"Entity already consumed");
+		this.consumed=true;
+		return new CapturingReader(this.source);
+	}
+
+	/**
+	 * Read the complete contents of the entity.
+	 *
+	 * @return the contents of the entity
+	 * @throws IOException
+	 *             if the entity cannot be read
+	 * @throws IllegalStateException
+	 *             if the entity has already been consumed using a reader
+	 */
+	public String content() throws IOException {
+		if(this.content==null) {
+			checkState(!this.consumed,"Entity already consumed");
+			this.consumed=true;
+			this.content=CharStreams.toString(this.source);
+		}
+		return this.content;
+	}
+
+	/**
+	 * Get the contents of the entity that have been read so far. If the
+	 * entity has been completely read the full contents are returned,
+	 * otherwise only the retained prefix of the contents is returned.
+	 *
+	 * @return the contents of the entity read so far
+	 */
+	public String body() {
+		if(this.content!=null) {
+			return this.content;
+		}
+		return this.captured.toString();
+	}
+
+	/**
+	 * Create an entity with the specified contents.
+	 *
+	 * @param content
+	 *            the contents of the entity
+	 * @return an entity with the specified contents, or {@code null} if no
+	 *         contents are specified
+	 */
+	public static RequestEntity of(String content) {
+		if(content==null) {
+			return null;
+		}
+		return new RequestEntity(content);
+	}
+
+	/**
+	 * Create an entity that will be decoded while it is being read.
+	 *
+	 * @param entity
+	 *            the raw entity
+	 * @param charset
+	 *            the charset used for decoding the entity
+	 * @param maxSize
+	 *            the maximum number of bytes of the entity
+	 * @param captureSize
+	 *            the maximum number of characters of the entity that will be
+	 *            retained while reading it
+	 * @return an entity for the specified raw entity, or {@code null} if no
+	 *         raw entity is specified
+	 */
+	public static RequestEntity of(InputStream entity, Charset charset, long maxSize, int captureSize) {
+		if(entity==null) {
+			return null;
+		}
+		checkNotNull(charset,"Charset cannot be null");
+		InputStream source=entity;
+		if(maxSize<Long.MAX_VALUE) {
+			source=new BoundedInputStream(entity,maxSize);
+		}
+		return new RequestEntity(new InputStreamReader(source,charset),Math.max(0,captureSize));
+	}
+
+}
@@ -32,22 +32,43 @@ import org.ldp4j.application.ext.Query;
 enum RetrievalScenario {
 	RESOURCE_RETRIEVAL,
 	CONSTRAINT_REPORT_RETRIEVAL,
+	MEMBER_PAGE_RETRIEVAL,
 	MIXED_QUERY,
 	QUERY_NOT_SUPPORTED,
 	;
 
 	static final String CONSTRAINT_QUERY_PARAMETER = "ldp:constrainedBy";
+	static final String PAGE_QUERY_PARAMETER       = "ldp:page";
+	static final String PAGE_SIZE_QUERY_PARAMETER  = "ldp:pageSize";
+
+	private static int pagingParameters(Query query) {
+		int result=0;
+		if(query.hasParameter(PAGE_QUERY_PARAMETER)) {
+			result++;
+		}
+		if(query.hasParameter(PAGE_SIZE_QUERY_PARAMETER)) {
+			result++;
+		}
+		return result;
+	}
 
 	static RetrievalScenario forContext(OperationContext context) {
 		Query query=context.getQuery();
 		RetrievalScenario result=RESOURCE_RETRIEVAL;
 		if(!query.isEmpty()) {
+			int pagingParameters=pagingParameters(query);
 			if(query.hasParameter(CONSTRAINT_QUERY_PARAMETER)) {
 				if(query.size()==1) {
 					result=CONSTRAINT_REPORT_RETRIEVAL;
 				} else {
 					result=MIXED_QUERY;
 				}
+			} else if(pagingParameters>0) {
+				if(query.size()==pagingParameters) {
+					result=MEMBER_PAGE_RETRIEVAL;
+				} else {
+					result=MIXED_QUERY;
+				}
 			} else if(!context.isResourceQueryable()) {
 				result=QUERY_NOT_SUPPORTED;
 			}
@@ -59,6 +80,18 @@ enum RetrievalScenario {
 		return context.getQuery().getParameter(CONSTRAINT_QUERY_PARAMETER);
 	}
 
+	static Parameter memberCursor(OperationContext context) {
+		return context.getQuery().getParameter(PAGE_QUERY_PARAMETER);
+	}
+
+	static Parameter pageSize(OperationContext context) {
+		return context.getQuery().getParameter(PAGE_SIZE_QUERY_PARAMETER);
+	}
+
+	static String pageLink(OperationContext context, long memberCursor, int pageSize) {
+		return context.base()+context.path()+"?"+PAGE_QUERY_PARAMETER+"="+memberCursor+"&"+PAGE_SIZE_QUERY_PARAMETER+"="+pageSize;
+	}
+
 	static String constraintReportLink(OperationContext context, String constraintReportId) {
 		return context.base()+context.path()+"?"+CONSTRAINT_QUERY_PARAMETER+"="+constraintReportId;
 	}
@@ -30,13 +30,21 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.Charset;
 import java.util.Iterator;
 import java.util.Set;
 
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
 
 import org.ldp4j.application.data.DataSet;
 import org.ldp4j.application.data.DataSets;
@@ -62,6 +70,36 @@ import com.google.common.collect.Iterables;
 // TODO: Add support for language
 public final class DataTransformator {
 
+	private static final class MarshallingOutput implements StreamingOutput {
+
+		private final Marshaller marshaller;
+		private final Context context;
+		private final Iterable<Triple> triples;
+		private final Charset charset;
+		private final MediaType mediaType;
+
+		private MarshallingOutput(Marshaller marshaller, Context context, Iterable<Triple> triples, Charset charset, MediaType mediaType) {
+			this.marshaller=marshaller;
+			this.context=context;
+			this.triples=triples;
+			this.charset=charset;
+			this.mediaType=mediaType;
+		}
+
+		@Override
+		public void write(OutputStream output) throws IOException {
+			Writer writer=new BufferedWriter(new OutputStreamWriter(output,this.charset));
+			try {
+				LOGGER.trace("Streaming marshalling using base '{}'",this.context.getBase());
+				this.marshaller.marshall(this.context,this.triples,writer);
+				writer.flush();
+			} catch (ContentTransformationException e) {
+				throw new IOException("Resource representation cannot be serialized as '"+this.mediaType+"' ",e);
+			}
+		}
+
+	}
+
 	private static final String MEDIA_TYPE_CANNOT_BE_NULL = "Media type cannot be null";
 
 	private static final Logger LOGGER=LoggerFactory.getLogger(DataTransformator.class);
@@ -149,7 +187,7 @@ public final class DataTransformator {
 		}
 	}
 
-	private DataSet surrogateUnmarshall(String entity, URI endpoint) throws ContentTransformationException {
+	private DataSet surrogateUnmarshall(Reader entity, URI endpoint) throws ContentTransformationException {
 		TripleResolver tripleResolver=
 			TripleResolver.
 				builder().
@@ -172,7 +210,7 @@ public final class DataTransformator {
 		return dataSet;
 	}
 
-	private DataSet permanentUnmarshall(String entity, URI endpoint) throws ContentTransformationException {
+	private DataSet permanentUnmarshall(Reader entity, URI endpoint) throws ContentTransformationException {
 		Context context =
 			ImmutableContext.
 				newInstance(endpoint).
@@ -237,8 +275,17 @@ public final class DataTransformator {
 
 	public DataSet unmarshall(String entity) throws IOException {
 		checkNotNull(entity,"Entity cannot be null");
-		checkNotNull(mediaType,MEDIA_TYPE_CANNOT_BE_NULL);
 		LOGGER.trace("Raw entity to unmarshall: \n{}",entity);
+		return unmarshall(new StringReader(entity));
+	}
+
+	/**
+	 * Unmarshall the entity while it is being read, so that it does not have
+	 * to be buffered in memory before being parsed.
+	 */
+	public DataSet unmarshall(Reader entity) throws IOException {
+		checkNotNull(entity,"Entity cannot be null");
+		checkNotNull(mediaType,MEDIA_TYPE_CANNOT_BE_NULL);
 		LOGGER.trace("Unmarshalling using base '{}'...",baseEndpoint());
 		try {
 			DataSet result=null;
@@ -257,10 +304,7 @@ public final class DataTransformator {
 	public String marshall(DataSet representation) throws IOException {
 		checkNotNull(representation,"Representation cannot be null");
 
-		Context context =
-			ImmutableContext.
-				newInstance(baseEndpoint()).
-					setNamespaces(this.namespaces);
+		Context context = marshallingContext();
 
 		Marshaller marshaller=MediaTypeSupport.newMarshaller(mediaType);
 		try {
@@ -273,6 +317,46 @@ public final class DataTransformator {
 		}
 	}
 
+	/**
+	 * Prepare the marshalling of a representation so that it can be written
+	 * straight to an output stream, without building the intermediate
+	 * serialized form in memory. Resource resolution is carried out eagerly,
+	 * whereas the actual serialization is deferred until the returned output
+	 * is written.
+	 * <br>
+	 * Note that the triples of the representation are still generated here
+	 * and kept in memory until they are written, i.e., the method buffers
+	 * O(n) triples for a representation of n statements. Generating them
+	 * lazily is not possible, as resolving the managed individuals requires
+	 * the operation of the request to be active, and the output is only
+	 * written after the operation has been disposed.
+	 *
+	 * @param representation
+	 *            the representation to marshall
+	 * @param charset
+	 *            the charset to use for encoding the serialized
+	 *            representation
+	 * @return a streaming output that will serialize the representation when
+	 *         written
+	 */
+	public StreamingOutput marshall(DataSet representation, Charset charset) {
+		checkNotNull(representation,"Representation cannot be null");
+		checkNotNull(charset,"Charset cannot be null");
+
+		Context context = marshallingContext();
+
+		Marshaller marshaller=MediaTypeSupport.newMarshaller(mediaType);
+		Iterable<Triple> triples=marshaller.generateTriples(context,this.resourceResolver,representation);
+		return new MarshallingOutput(marshaller,context,triples,charset,this.mediaType);
+	}
+
+	private Context marshallingContext() {
+		return
+			ImmutableContext.
+				newInstance(baseEndpoint()).
+					setNamespaces(this.namespaces);
+	}
+
 	public static Set<MediaType> supportedMediaTypes() {
 		return RuntimeDelegate.getInstance().getSupportedMediaTypes();
 	}
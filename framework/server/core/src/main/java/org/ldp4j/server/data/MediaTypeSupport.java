@@ -29,6 +29,10 @@ package org.ldp4j.server.data;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
 import javax.ws.rs.core.MediaType;
 
 import org.ldp4j.application.data.DataSet;
@@ -36,11 +40,14 @@ import org.ldp4j.application.data.DataSets;
 import org.ldp4j.application.data.Individual;
 import org.ldp4j.application.data.NamingScheme;
 import org.ldp4j.rdf.Triple;
-import org.ldp4j.rdf.util.TripleSet;
+import org.ldp4j.server.config.Configuration;
 import org.ldp4j.server.data.spi.ContentTransformationException;
 import org.ldp4j.server.data.spi.Context;
 import org.ldp4j.server.data.spi.MediaTypeProvider;
 import org.ldp4j.server.data.spi.RuntimeDelegate;
+import org.ldp4j.server.data.spi.StreamingMediaTypeProvider;
+
+import com.google.common.io.CharStreams;
 
 final class MediaTypeSupport {
 
@@ -55,14 +62,40 @@ final class MediaTypeSupport {
 		}
 
 		String marshall(Context context, ResourceResolver resourceResolver, DataSet content) throws ContentTransformationException {
+			return this.provider.marshallContent(context,generateTriples(context,resourceResolver,content),this.targetMediaType);
+		}
+
+		/**
+		 * Resolve the triples of the specified content. Resolution requires
+		 * the resource resolver to be usable, so it must happen before
+		 * the triples are written out.
+		 */
+		Iterable<Triple> generateTriples(Context context, ResourceResolver resourceResolver, DataSet content) {
 			checkNotNull(content,"Content cannot be null");
 			TripleSetBuilder tripleSetBuilder =
-				new TripleSetBuilder(resourceResolver,context.getBase());
+				new TripleSetBuilder(resourceResolver,context.getBase(),Configuration.sortTriples());
+			tripleSetBuilder.prefetch(content);
 			for(Individual<?,?> individual:content) {
 				tripleSetBuilder.generateTriples(individual);
 			}
-			TripleSet triples=tripleSetBuilder.build();
-			return this.provider.marshallContent(context,triples,this.targetMediaType);
+			return tripleSetBuilder.build();
+		}
+
+		/**
+		 * Write the triples using the provider's streaming support if
+		 * available. Otherwise, the representation is generated as a string
+		 * and then written.
+		 */
+		void marshall(Context context, Iterable<Triple> triples, Writer writer) throws ContentTransformationException {
+			if(this.provider instanceof StreamingMediaTypeProvider) {
+				((StreamingMediaTypeProvider)this.provider).marshallContent(context,triples,this.targetMediaType,writer);
+			} else {
+				try {
+					writer.write(this.provider.marshallContent(context,triples,this.targetMediaType));
+				} catch (IOException e) {
+					throw new ContentTransformationException("Could not write contents",e);
+				}
+			}
 		}
 	}
 
@@ -77,11 +110,10 @@ final class MediaTypeSupport {
 			this.provider = provider;
 		}
 
-		DataSet unmarshall(Context context, ResourceResolver resourceResolver, String content) throws ContentTransformationException {
+		DataSet unmarshall(Context context, ResourceResolver resourceResolver, Reader content) throws ContentTransformationException {
 			checkNotNull(content,"Content cannot be null");
 			Iterable<Triple> triples=
-				this.provider.
-					unmarshallContent(context,content,this.targetMediaType);
+				unmarshallContent(this.provider,context,content,this.targetMediaType);
 			DataSet dataSet=
 				DataSets.
 					createDataSet(
@@ -106,6 +138,21 @@ final class MediaTypeSupport {
 	private MediaTypeSupport() {
 	}
 
+	/**
+	 * Parse the content using the provider's streaming support if available.
+	 * Otherwise, the content is read completely and then parsed.
+	 */
+	static Iterable<Triple> unmarshallContent(MediaTypeProvider provider, Context context, Reader content, MediaType mediaType) throws ContentTransformationException {
+		if(provider instanceof StreamingMediaTypeProvider) {
+			return ((StreamingMediaTypeProvider)provider).unmarshallContent(context,content,mediaType);
+		}
+		try {
+			return provider.unmarshallContent(context,CharStreams.toString(content),mediaType);
+		} catch (IOException e) {
+			throw new ContentTransformationException("Could not read contents",e);
+		}
+	}
+
 	static Marshaller newMarshaller(MediaType mediaType) {
 		Marshaller result=null;
 		MediaTypeProvider provider = getProvider(mediaType);
@@ -26,15 +26,21 @@
  */
 package org.ldp4j.server.data;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
 import java.net.URI;
 import java.util.List;
+import java.util.UUID;
 
 import javax.ws.rs.core.MediaType;
 
 import org.ldp4j.rdf.Node;
 import org.ldp4j.rdf.NodeVisitor;
+import org.ldp4j.rdf.Resource;
 import org.ldp4j.rdf.Triple;
 import org.ldp4j.rdf.URIRef;
+import org.ldp4j.rdf.util.RDFModelDSL;
 import org.ldp4j.server.data.spi.ContentTransformationException;
 import org.ldp4j.server.data.spi.MediaTypeProvider;
 import org.ldp4j.server.data.spi.RuntimeDelegate;
@@ -42,6 +48,7 @@ import org.ldp4j.server.data.spi.RuntimeDelegate;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableList.Builder;
+import com.google.common.io.CharStreams;
 
 final class TripleResolver {
 
@@ -109,7 +116,57 @@ final class TripleResolver {
 
 		}
 
+		/**
+		 * Maps the URI references that were resolved against the surrogate
+		 * base (i.e., those which were relative in the entity) to the
+		 * references that would have been obtained by resolving them against
+		 * a given base. Absolute URI references are left untouched.
+		 */
+		private static final class Rebaser extends NodeVisitor<Node> {
+
+			private final String source;
+			private final String target;
+
+			private Rebaser(URI source, URI target) {
+				this.source=authority(source);
+				this.target=authority(target);
+			}
+
+			private String authority(URI uri) {
+				return uri.getScheme()+"://"+uri.getRawAuthority();
+			}
+
+			@Override
+			public Node visitURIRef(URIRef node, Node defaultResult) {
+				String identity=node.getIdentity().toString();
+				if(!identity.startsWith(this.source)) {
+					return node;
+				}
+				String rest=identity.substring(this.source.length());
+				if(!rest.isEmpty() && "/?#".indexOf(rest.charAt(0))<0) {
+					return node;
+				}
+				return RDFModelDSL.uriRef(URI.create(this.target.concat(rest)));
+			}
+
+			Node rebase(Node node) {
+				return node.accept(this,node);
+			}
+
+			Triple rebase(Triple triple) {
+				Node subject=rebase(triple.getSubject());
+				Node predicate=rebase(triple.getPredicate());
+				Node object=rebase(triple.getObject());
+				if(subject==triple.getSubject() && predicate==triple.getPredicate() && object==triple.getObject()) {
+					return triple;
+				}
+				return new Triple((Resource<?>)subject,(URIRef)predicate,object);
+			}
+
+		}
+
 		private MediaTypeProvider unmarshaller;
+		private Reader source;
 		private URIResolver resolver;
 		private URIDescriber describer;
 		private TripleResolver result;
@@ -135,6 +192,17 @@ final class TripleResolver {
 
 		TripleResolverBuilder withEntity(String entity, MediaType type) {
 			this.result.setEntity(entity,type);
+			this.source=null;
+			return this;
+		}
+
+		/**
+		 * Use an entity that will be parsed while it is read. The entity will
+		 * only be buffered if it has to be parsed more than once.
+		 */
+		TripleResolverBuilder withEntity(Reader entity, MediaType type) {
+			this.result.setEntity(null,type);
+			this.source=entity;
 			return this;
 		}
 
@@ -146,8 +214,16 @@ final class TripleResolver {
 		}
 
 		private List<TripleResolution> createResolutions() throws ContentTransformationException {
-			List<Triple> endpointTriples=triples(this.result.endpoint());
-			List<Triple> alternativeTriples=triples(this.result.alternative());
+			URI endpoint=this.result.endpoint();
+			URI alternative=this.result.alternative();
+			if(!isRebaseable(endpoint,alternative)) {
+				bufferEntity();
+				return createResolutions(triples(endpoint),triples(alternative));
+			}
+			return createSinglePassResolutions(endpoint,alternative);
+		}
+
+		private List<TripleResolution> createResolutions(List<Triple> endpointTriples, List<Triple> alternativeTriples) {
 			Builder<TripleResolution> builder = ImmutableList.builder();
 			for(int i=0;i<endpointTriples.size();i++) {
 				builder.add(resolveTriple(endpointTriples.get(i), alternativeTriples.get(i)));
@@ -155,6 +231,51 @@ final class TripleResolver {
 			return builder.build();
 		}
 
+		/**
+		 * Parse the entity just once, using as base a surrogate URI whose
+		 * authority cannot be found in the entity. Only the URI references
+		 * that were relative in the entity will be resolved to the surrogate
+		 * authority, so both the endpoint and alternative versions of each
+		 * triple can be derived from the surrogate one by replacing the
+		 * authority.
+		 */
+		private List<TripleResolution> createSinglePassResolutions(URI endpoint, URI alternative) throws ContentTransformationException {
+			URI surrogate=surrogate(endpoint);
+			Rebaser toEndpoint=new Rebaser(surrogate,endpoint);
+			Rebaser toAlternative=new Rebaser(surrogate,alternative);
+			Builder<TripleResolution> builder = ImmutableList.builder();
+			for(Triple triple:triples(surrogate)) {
+				Triple tEndpoint=toEndpoint.rebase(triple);
+				builder.add(
+					new ImmutableTripleResolution(
+						tEndpoint,
+						resolveResource(tEndpoint.getSubject(),toAlternative.rebase(triple.getSubject())),
+						resolveResource(tEndpoint.getObject(),toAlternative.rebase(triple.getObject()))));
+			}
+			return builder.build();
+		}
+
+		/**
+		 * Relative references resolve to the same values against the endpoint
+		 * and the alternative only if both share scheme and path, which is
+		 * the case for the alternatives created by the DataTransformator.
+		 */
+		private boolean isRebaseable(URI endpoint, URI alternative) {
+			return
+				endpoint.getScheme().equals(alternative.getScheme()) &&
+				endpoint.getRawAuthority()!=null &&
+				alternative.getRawAuthority()!=null &&
+				MoreObjects.firstNonNull(endpoint.getRawPath(),"").equals(MoreObjects.firstNonNull(alternative.getRawPath(),"")) &&
+				endpoint.getRawQuery()==null &&
+				alternative.getRawQuery()==null;
+		}
+
+		private URI surrogate(URI endpoint) {
+			return
+				URI.create(
+					endpoint.getScheme()+"://ldp4j-"+UUID.randomUUID()+MoreObjects.firstNonNull(endpoint.getRawPath(),""));
+		}
+
 		private TripleResolution resolveTriple(Triple tEndpoint, Triple tAlternative) {
 			return
 				new ImmutableTripleResolution(
@@ -173,14 +294,32 @@ final class TripleResolver {
 					);
 		}
 
+		private void bufferEntity() throws ContentTransformationException {
+			if(this.source==null) {
+				return;
+			}
+			try {
+				this.result.setEntity(CharStreams.toString(this.source),this.result.mediaType());
+				this.source=null;
+			} catch (IOException e) {
+				throw new ContentTransformationException("Could not read contents",e);
+			}
+		}
+
 		private List<Triple> triples(URI base) throws ContentTransformationException {
+			Reader content=this.source;
+			if(content==null) {
+				content=new StringReader(this.result.entity());
+			}
+			this.source=null;
 			return
 				ImmutableList.
 					copyOf(
-						mediaTypeProvider().
+						MediaTypeSupport.
 							unmarshallContent(
+								mediaTypeProvider(),
 								ImmutableContext.newInstance(base),
-								this.result.entity(),
+								content,
 								this.result.mediaType()));
 		}
 
@@ -33,10 +33,15 @@ import static org.ldp4j.rdf.util.RDFModelDSL.typedLiteral;
 import static org.ldp4j.rdf.util.RDFModelDSL.uriRef;
 
 import java.net.URI;
-import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.List;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 import javax.xml.namespace.QName;
 
@@ -63,9 +68,16 @@ import org.ldp4j.application.data.ValueVisitor;
 import org.ldp4j.application.vocabulary.Term;
 import org.ldp4j.rdf.BlankNode;
 import org.ldp4j.rdf.Resource;
+import org.ldp4j.rdf.Triple;
 import org.ldp4j.rdf.URIRef;
-import org.ldp4j.rdf.util.TripleSet;
 
+/**
+ * Translates the individuals of a data set into triples. The individuals
+ * reachable from a given individual are traversed using an explicit work
+ * queue, so that arbitrarily deep chains of individuals can be processed
+ * without exhausting the stack. Triples are returned in the order in which
+ * they are generated unless sorted output is requested.
+ */
 final class TripleSetBuilder {
 
 	/**
@@ -86,7 +98,7 @@ final class TripleSetBuilder {
 			if(indirectId!=null) {
 				id=ManagedIndividualId.createId(id.name(),id.managerId());
 			}
-			URI path=TripleSetBuilder.this.resourceResolver.resolveResource(id);
+			URI path=resolveResource(id);
 			if(path==null) {
 				return null;
 			} else if(indirectId!=null) {
@@ -120,7 +132,7 @@ final class TripleSetBuilder {
 
 		@Override
 		public void visitNewIndividual(NewIndividual individual) {
-			// Nothing to do
+			this.resource=null;
 		}
 	}
 
@@ -172,11 +184,29 @@ final class TripleSetBuilder {
 
 	}
 
+	private static final class PendingIndividual {
+
+		private final Individual<?,?> individual;
+		private final Resource<?> resource;
+
+		private PendingIndividual(Individual<?,?> individual, Resource<?> resource) {
+			this.individual=individual;
+			this.resource=resource;
+		}
+
+	}
+
+	/**
+	 * Reusable generator for the triples of the values of a property. Object
+	 * individuals are not traversed recursively but queued for later
+	 * processing.
+	 */
 	private final class TripleGenerator implements ValueVisitor {
 
-		class LiteralTranslator implements LiteralVisitor {
+		private final class LiteralTranslator implements LiteralVisitor {
+
 			private void append(org.ldp4j.rdf.Literal<?> object) {
-				TripleSetBuilder.this.triples.add(
+				TripleSetBuilder.this.sink.add(
 					triple(
 						TripleGenerator.this.subject,
 						TripleGenerator.this.predicate,
@@ -184,10 +214,12 @@ final class TripleSetBuilder {
 					)
 				);
 			}
+
 			@Override
 			public void visitLiteral(Literal<?> literal) {
 				append(literal(literal.get()));
 			}
+
 			@Override
 			public void visitTypedLiteral(TypedLiteral<?> literal) {
 				Object value = literal.get();
@@ -198,73 +230,110 @@ final class TripleSetBuilder {
 				}
 				append(typedLiteral(value,literal.type()));
 			}
+
 			@Override
 			public void visitLanguageLiteral(LanguageLiteral literal) {
 				append(literal(literal.get(),literal.language()));
 			}
+
 		}
 
-		private final Resource<?> subject;
-		private final URI predicate;
+		private final LiteralTranslator literalTranslator=new LiteralTranslator();
 
-		private TripleGenerator(Resource<?> resource, Property property) {
-			this.subject = resource;
-			this.predicate = property.predicate();
+		private Resource<?> subject;
+		private URI predicate;
+
+		private void reset(Resource<?> subject, URI predicate) {
+			this.subject=subject;
+			this.predicate=predicate;
 		}
 
 		@Override
 		public void visitIndividual(Individual<?,?> individual) {
-			// Individual is a NewIndividual, ignore
-			if(this.subject==null) {
-				return;
-			}
 			Resource<?> object = toResource(individual);
 			if(object==null) {
 				// Object individual is a NewIndividual or an unknown Managed Individual
 				return;
 			}
-			TripleSetBuilder.this.triples.add(
-				triple(
-					this.subject,
-					this.predicate,
-					object
-				)
-			);
-			TripleSetBuilder.this.generateTriples(individual);
+			TripleSetBuilder.this.sink.add(triple(this.subject,this.predicate,object));
+			enqueue(individual,object);
 		}
 
 		@Override
 		public void visitLiteral(Literal<?> literal) {
-			// Individual is a NewIndividual, ignore
-			if(this.subject==null) {
-				return;
-			}
-			literal.accept(new LiteralTranslator());
+			literal.accept(this.literalTranslator);
 		}
+
 	}
 
 	private final ResourceResolver resourceResolver;
+	private final Map<ManagedIndividualId,URI> resolvedResources;
 	private final Map<Object,Resource<?>> localResources;
-	private final List<Object> visitedIndividuals;
+	private final Set<Object> visitedIndividuals;
+	private final Deque<PendingIndividual> pendingIndividuals;
+	private final IndividualTranslator translator;
+	private final TripleGenerator generator;
+	private final boolean sorted;
 
 	private final URI base;
-	private TripleSet triples;
+	private Collection<Triple> sink;
 	private final TimeUtils timeUtils;
 
 	TripleSetBuilder(ResourceResolver resourceResolver, URI base) {
+		this(resourceResolver,base,false);
+	}
+
+	/**
+	 * Create a builder whose triples will be returned either in the order in
+	 * which they are generated or sorted.
+	 */
+	TripleSetBuilder(ResourceResolver resourceResolver, URI base, boolean sorted) {
 		this.resourceResolver=resourceResolver;
+		this.resolvedResources=new HashMap<ManagedIndividualId,URI>();
 		this.base = base;
+		this.sorted=sorted;
 		this.localResources=new HashMap<Object,Resource<?>>();
-		this.visitedIndividuals=new ArrayList<Object>();
-		this.triples=new TripleSet();
+		this.visitedIndividuals=new HashSet<Object>();
+		this.pendingIndividuals=new ArrayDeque<PendingIndividual>();
+		this.translator=new IndividualTranslator();
+		this.generator=new TripleGenerator();
+		this.sink=newSink();
 		// TODO: Make this configurable --> See Literals class
 		this.timeUtils=TimeUtils.newInstance();
 	}
 
+	private Collection<Triple> newSink() {
+		if(this.sorted) {
+			return new TreeSet<Triple>();
+		}
+		return new LinkedHashSet<Triple>();
+	}
+
+	private URI resolveResource(ManagedIndividualId id) {
+		URI path=this.resolvedResources.get(id);
+		if(path==null && !this.resolvedResources.containsKey(id)) {
+			path=this.resourceResolver.resolveResource(id);
+			this.resolvedResources.put(id,path);
+		}
+		return path;
+	}
+
+	private static ManagedIndividualId resolvableId(Object id) {
+		ManagedIndividualId result=null;
+		if(id instanceof ManagedIndividualId) {
+			result=(ManagedIndividualId)id;
+		} else if(id instanceof RelativeIndividualId) {
+			result=((RelativeIndividualId)id).parentId();
+		}
+		if(result!=null && result.indirectId()!=null) {
+			result=ManagedIndividualId.createId(result.name(),result.managerId());
+		}
+		return result;
+	}
+
 	private Resource<?> toResource(Individual<?,?> individual) {
-		IndividualTranslator translator = new IndividualTranslator();
-		individual.accept(translator);
-		return translator.getResource();
+		individual.accept(this.translator);
+		return this.translator.getResource();
 	}
 
 	private Resource<?> toSessionResource(Name<?> id) {
@@ -277,29 +346,65 @@ final class TripleSetBuilder {
 		return local;
 	}
 
-	TripleSet build() {
-		TripleSet result = triples;
+	private void enqueue(Individual<?,?> individual, Resource<?> resource) {
+		if(this.visitedIndividuals.add(individual.id())) {
+			this.pendingIndividuals.add(new PendingIndividual(individual,resource));
+		}
+	}
+
+	/**
+	 * Resolve at once the managed individuals of the specified individuals,
+	 * if the resource resolver supports batch resolution. Otherwise, each
+	 * managed individual will be resolved (once) when first found.
+	 */
+	void prefetch(Iterable<? extends Individual<?,?>> individuals) {
+		if(!(this.resourceResolver instanceof BatchResourceResolver)) {
+			return;
+		}
+		Set<ManagedIndividualId> pending=new LinkedHashSet<ManagedIndividualId>();
+		for(Individual<?,?> individual:individuals) {
+			ManagedIndividualId id=resolvableId(individual.id());
+			if(id!=null && !this.resolvedResources.containsKey(id)) {
+				pending.add(id);
+			}
+		}
+		if(pending.isEmpty()) {
+			return;
+		}
+		Map<ManagedIndividualId,URI> resolved=((BatchResourceResolver)this.resourceResolver).resolveAll(pending);
+		for(ManagedIndividualId id:pending) {
+			this.resolvedResources.put(id,resolved.get(id));
+		}
+	}
+
+	Iterable<Triple> build() {
+		Collection<Triple> result=this.sink;
 		clear();
 		return result;
 	}
 
 	void clear() {
-		triples=new TripleSet();
+		sink=newSink();
 		localResources.clear();
 		visitedIndividuals.clear();
+		pendingIndividuals.clear();
 	}
 
 	void generateTriples(Individual<?,?> individual) {
-		Object id = individual.id();
-		if(!visitedIndividuals.contains(id)) {
-			Resource<?> resource = toResource(individual);
-			if(resource==null) {
-				// Could not resolve resource, so skip processing
-				return;
-			}
-			visitedIndividuals.add(id);
-			for(Property property:individual) {
-				property.accept(new TripleGenerator(resource,property));
+		if(this.visitedIndividuals.contains(individual.id())) {
+			return;
+		}
+		Resource<?> resource = toResource(individual);
+		if(resource==null) {
+			// Could not resolve resource, so skip processing
+			return;
+		}
+		enqueue(individual,resource);
+		while(!this.pendingIndividuals.isEmpty()) {
+			PendingIndividual next=this.pendingIndividuals.poll();
+			for(Property property:next.individual) {
+				this.generator.reset(next.resource,property.predicate());
+				property.accept(this.generator);
 			}
 		}
 	}
@@ -28,16 +28,21 @@ package org.ldp4j.server.data.impl;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.util.Iterator;
 import java.util.Set;
 
 import javax.ws.rs.core.MediaType;
 
-import org.ldp4j.server.data.spi.MediaTypeProvider;
+import org.ldp4j.rdf.Triple;
+import org.ldp4j.server.data.spi.ContentTransformationException;
+import org.ldp4j.server.data.spi.Context;
+import org.ldp4j.server.data.spi.StreamingMediaTypeProvider;
 
 import com.google.common.collect.ImmutableSet;
 
-abstract class AbstractMediaTypeProvider implements MediaTypeProvider {
+abstract class AbstractMediaTypeProvider implements StreamingMediaTypeProvider {
 
 	private final Set<MediaType> supportedMediaTypes;
 
@@ -60,4 +65,16 @@ abstract class AbstractMediaTypeProvider implements MediaTypeProvider {
 		return supported;
 	}
 
-}
\ No newline at end of file
+	@Override
+	public final Iterable<Triple> unmarshallContent(Context context, String content, MediaType type) throws ContentTransformationException {
+		return unmarshallContent(context,new StringReader(content),type);
+	}
+
+	@Override
+	public final String marshallContent(Context context, Iterable<Triple> content, MediaType type) throws ContentTransformationException {
+		StringWriter writer=new StringWriter();
+		marshallContent(context,content,type,writer);
+		return writer.toString();
+	}
+
+}
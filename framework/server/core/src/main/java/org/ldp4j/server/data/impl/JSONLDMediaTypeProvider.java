@@ -27,7 +27,8 @@
 package org.ldp4j.server.data.impl;
 
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.Reader;
+import java.io.Writer;
 
 import javax.ws.rs.core.MediaType;
 
@@ -47,7 +48,7 @@ public class JSONLDMediaTypeProvider extends AbstractMediaTypeProvider {
 	}
 
 	@Override
-	public Iterable<Triple> unmarshallContent(Context context, String content, MediaType type) throws ContentTransformationException {
+	public Iterable<Triple> unmarshallContent(Context context, Reader content, MediaType type) throws ContentTransformationException {
 		try {
 			RDFContext rdfContext = RDFContext.createContext(context.getBase());
 			rdfContext.setOption(UnmarshallOptions.TRIPLE_ORDERING, UnmarshallOptions.Ordering.KEEP_TRIPLE_ORDER);
@@ -58,13 +59,11 @@ public class JSONLDMediaTypeProvider extends AbstractMediaTypeProvider {
 	}
 
 	@Override
-	public String marshallContent(Context context, Iterable<Triple> content, MediaType type) throws ContentTransformationException {
+	public void marshallContent(Context context, Iterable<Triple> content, MediaType type, Writer writer) throws ContentTransformationException {
 		try {
 			RDFContext rdfContext = RDFContext.createContext(context.getBase());
 			rdfContext.setNamespaces(context.getNamespaces());
-			StringWriter writer = new StringWriter();
 			rdfContext.serialize(content, Format.JSON_LD, writer);
-			return writer.toString();
 		} catch (IOException e) {
 			throw new ContentTransformationException("Could not marshall contents",e);
 		}
@@ -0,0 +1,125 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:0.2.2
+ *   Bundle      : ldp4j-server-core-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.frontend;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import javax.ws.rs.core.MediaType;
+
+import org.ldp4j.server.controller.EntityTooLargeException;
+import org.ldp4j.server.controller.RequestEntity;
+
+/**
+ * Utility class for reading request entities, enforcing a maximum size while
+ * reading so that oversized entities are rejected without having to buffer
+ * them completely.
+ */
+final class EntityReader {
+
+	private final long maxSize;
+	private final int captureSize;
+
+	private EntityReader(long maxSize, int captureSize) {
+		this.maxSize=maxSize;
+		this.captureSize=captureSize;
+	}
+
+	private Charset charset(MediaType mediaType) {
+		Charset charset=StandardCharsets.UTF_8;
+		if(mediaType!=null) {
+			String charsetName=mediaType.getParameters().get(MediaType.CHARSET_PARAMETER);
+			if(charsetName!=null && !charsetName.isEmpty() && Charset.isSupported(charsetName)) {
+				charset=Charset.forName(charsetName);
+			}
+		}
+		return charset;
+	}
+
+	/**
+	 * Open the entity so that it is decoded, using the charset specified in
+	 * the media type (or UTF-8 if none is specified), while it is being read.
+	 * The maximum size is enforced while the entity is read.
+	 *
+	 * @param entity
+	 *            the raw entity to read
+	 * @param mediaType
+	 *            the media type of the entity
+	 * @param contentLength
+	 *            the declared length of the entity, or a negative value if
+	 *            unknown
+	 * @return the request entity, or {@code null} if no entity is available
+	 * @throws EntityTooLargeException
+	 *             if the declared length of the entity is larger than the
+	 *             maximum allowed size
+	 */
+	RequestEntity open(InputStream entity, MediaType mediaType, long contentLength) throws EntityTooLargeException {
+		if(entity==null) {
+			return null;
+		}
+		if(contentLength>this.maxSize) {
+			throw new EntityTooLargeException(this.maxSize);
+		}
+		return RequestEntity.of(entity,charset(mediaType),this.maxSize,this.captureSize);
+	}
+
+	/**
+	 * Read the entity using the charset specified in the media type (or UTF-8
+	 * if none is specified).
+	 *
+	 * @param entity
+	 *            the raw entity to read
+	 * @param mediaType
+	 *            the media type of the entity
+	 * @param contentLength
+	 *            the declared length of the entity, or a negative value if
+	 *            unknown
+	 * @return the entity contents, or {@code null} if no entity is available
+	 * @throws EntityTooLargeException
+	 *             if the entity is larger than the maximum allowed size
+	 * @throws IOException
+	 *             if the entity cannot be read
+	 */
+	String read(InputStream entity, MediaType mediaType, long contentLength) throws IOException {
+		RequestEntity result=open(entity,mediaType,contentLength);
+		if(result==null) {
+			return null;
+		}
+		return result.content();
+	}
+
+	static EntityReader newInstance(long maxSize) {
+		return newInstance(maxSize,0);
+	}
+
+	static EntityReader newInstance(long maxSize, int captureSize) {
+		return new EntityReader(maxSize,captureSize);
+	}
+
+}
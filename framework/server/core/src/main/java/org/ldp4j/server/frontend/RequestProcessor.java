@@ -0,0 +1,176 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:0.2.2
+ *   Bundle      : ldp4j-server-core-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.frontend;
+
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.ldp4j.server.config.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Processes the requests received by the {@link ServerFrontend}, either
+ * synchronously, using the thread of the servlet container that received the
+ * request, or asynchronously, using a dedicated bounded executor. In the
+ * latter case the servlet container thread is released as soon as the request
+ * has been dispatched, and requests that cannot be queued are rejected with a
+ * {@code 503 Service Unavailable} response.
+ */
+public final class RequestProcessor {
+
+	private static final Logger LOGGER=LoggerFactory.getLogger(RequestProcessor.class);
+
+	private static final String RETRY_AFTER = "Retry-After";
+
+	private static final long TERMINATION_TIMEOUT_SECONDS = 30;
+
+	private final ExecutorService executor;
+
+	private RequestProcessor(ExecutorService executor) {
+		this.executor=executor;
+	}
+
+	private static void complete(AsyncResponse response, Callable<Response> task) {
+		try {
+			response.resume(task.call());
+		} catch (Exception e) {
+			response.resume(e);
+		} catch (Error e) {
+			response.resume(e);
+			throw e;
+		}
+	}
+
+	private static Response rejection() {
+		return
+			Response.
+				status(Status.SERVICE_UNAVAILABLE).
+				header(RETRY_AFTER,1).
+				type(MediaType.TEXT_PLAIN).
+				language(Locale.ENGLISH).
+				entity("Server is too busy to process the request").
+				build();
+	}
+
+	boolean isAsynchronous() {
+		return this.executor!=null;
+	}
+
+	/**
+	 * Process a request and resume the suspended response with the result of
+	 * the processing.
+	 *
+	 * @param response
+	 *            the suspended response of the request
+	 * @param task
+	 *            the task that processes the request
+	 */
+	public void process(final AsyncResponse response, final Callable<Response> task) {
+		if(this.executor==null) {
+			complete(response,task);
+			return;
+		}
+		try {
+			this.executor.execute(
+				new Runnable() {
+					@Override
+					public void run() {
+						complete(response,task);
+					}
+				}
+			);
+		} catch (RejectedExecutionException e) {
+			LOGGER.debug("Rejected request: {}",e.getMessage());
+			response.resume(rejection());
+		}
+	}
+
+	/**
+	 * Stop accepting requests and wait for the termination of the requests
+	 * being processed.
+	 */
+	public void shutdown() {
+		if(this.executor==null) {
+			return;
+		}
+		this.executor.shutdown();
+		try {
+			if(!this.executor.awaitTermination(TERMINATION_TIMEOUT_SECONDS,TimeUnit.SECONDS)) {
+				LOGGER.warn("Request processing did not finish in {} seconds",TERMINATION_TIMEOUT_SECONDS);
+				this.executor.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			this.executor.shutdownNow();
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	static RequestProcessor create(int threads, int queueSize) {
+		if(threads==0) {
+			return new RequestProcessor(null);
+		}
+		ThreadPoolExecutor executor=
+			new ThreadPoolExecutor(
+				threads,
+				threads,
+				0,TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(queueSize),
+				new ThreadFactoryBuilder().
+					setNameFormat("ldp4j-request-%d").
+					setDaemon(true).
+					build());
+		return new RequestProcessor(executor);
+	}
+
+	/**
+	 * Create a request processor using the current configuration.
+	 *
+	 * @return a new request processor
+	 * @see Configuration#requestProcessingThreads()
+	 * @see Configuration#requestQueueSize()
+	 */
+	public static RequestProcessor newInstance() {
+		return
+			create(
+				Configuration.requestProcessingThreads(),
+				Configuration.requestQueueSize());
+	}
+
+}
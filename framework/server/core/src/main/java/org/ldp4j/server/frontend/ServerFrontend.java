@@ -26,7 +26,9 @@
  */
 package org.ldp4j.server.frontend;
 
+import java.io.InputStream;
 import java.util.Locale;
+import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicReference;
 
 import javax.servlet.ServletContext;
@@ -38,11 +40,14 @@ import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
 import javax.ws.rs.core.UriInfo;
 
 import org.ldp4j.application.engine.ApplicationEngine;
@@ -50,9 +55,14 @@ import org.ldp4j.application.engine.context.ApplicationContext;
 import org.ldp4j.application.engine.context.HttpRequest.HttpMethod;
 import org.ldp4j.application.engine.lifecycle.ApplicationEngineLifecycleListener;
 import org.ldp4j.application.engine.lifecycle.ApplicationEngineState;
+import org.ldp4j.server.controller.EndpointController;
 import org.ldp4j.server.controller.EndpointControllerFactory;
+import org.ldp4j.server.controller.EntityTooLargeException;
 import org.ldp4j.server.controller.OperationContext;
+import org.ldp4j.server.config.Configuration;
 import org.ldp4j.server.controller.OperationContextBuilder;
+import org.ldp4j.server.controller.RepresentationCache;
+import org.ldp4j.server.controller.RequestEntity;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -84,12 +94,58 @@ public final class ServerFrontend {
 
 	}
 
+	/**
+	 * The operations whose processing is carried out by the
+	 * {@link RequestProcessor}, as they may require invoking the application
+	 * handlers.
+	 */
+	private enum Operation {
+		GET {
+			@Override
+			Response execute(EndpointController controller, OperationContext context) {
+				return controller.getResource(context);
+			}
+		},
+		PUT {
+			@Override
+			Response execute(EndpointController controller, OperationContext context) {
+				return controller.modifyResource(context);
+			}
+		},
+		POST {
+			@Override
+			Response execute(EndpointController controller, OperationContext context) {
+				return controller.createResource(context);
+			}
+		},
+		DELETE {
+			@Override
+			Response execute(EndpointController controller, OperationContext context) {
+				return controller.deleteResource(context);
+			}
+		},
+		PATCH {
+			@Override
+			Response execute(EndpointController controller, OperationContext context) {
+				return controller.patchResource(context);
+			}
+		},
+		;
+
+		abstract Response execute(EndpointController controller, OperationContext context);
+
+	}
+
 	private static final Logger LOGGER=LoggerFactory.getLogger(ServerFrontend.class);
 
+	private static final RequestProcessor SYNCHRONOUS_PROCESSOR=RequestProcessor.create(0,0);
+
 	private static final String ENDPOINT_PATH_PARAM = "path";
 	private static final String ENDPOINT_PATH       = "/{"+ENDPOINT_PATH_PARAM+":.*}";
 
 	public static final String LDP4J_APPLICATION_CONTEXT = "ldp4jApplicationContext";
+	public static final String LDP4J_REQUEST_PROCESSOR   = "ldp4jRequestProcessor";
+	public static final String LDP4J_REPRESENTATION_CACHE= "ldp4jRepresentationCache";
 	public static final String PATH                      = "/";
 
 	private final LocalApplicationEngineLifecycleListener lifecyleListener;
@@ -130,6 +186,69 @@ public final class ServerFrontend {
 		return currentContext;
 	}
 
+	private RequestProcessor currentProcessor() {
+		RequestProcessor processor=(RequestProcessor)this.servletContext.getAttribute(LDP4J_REQUEST_PROCESSOR);
+		if(processor==null) {
+			processor=SYNCHRONOUS_PROCESSOR;
+		}
+		return processor;
+	}
+
+	private RepresentationCache currentCache() {
+		return (RepresentationCache)this.servletContext.getAttribute(LDP4J_REPRESENTATION_CACHE);
+	}
+
+	private void process(AsyncResponse response, final Operation operation, final OperationContext context) {
+		// The servlet context may not be available from the processing threads
+		final RepresentationCache cache=currentCache();
+		currentProcessor().
+			process(
+				response,
+				new Callable<Response>() {
+					@Override
+					public Response call() {
+						return
+							operation.
+								execute(
+									EndpointControllerFactory.newController(cache),
+									context);
+					}
+				}
+			);
+	}
+
+	private long contentLength(HttpHeaders headers) {
+		String rawLength=headers.getHeaderString(HttpHeaders.CONTENT_LENGTH);
+		long length=-1;
+		if(rawLength!=null) {
+			try {
+				length=Long.parseLong(rawLength.trim());
+			} catch (NumberFormatException e) {
+				LOGGER.debug("Ignored invalid content length '{}'",rawLength,e);
+			}
+		}
+		return length;
+	}
+
+	private RequestEntity openEntity(HttpHeaders headers, InputStream entity) {
+		try {
+			return
+				EntityReader.
+					newInstance(Configuration.maxEntitySize(),Configuration.requestBodyCaptureSize()).
+						open(entity,headers.getMediaType(),contentLength(headers));
+		} catch (EntityTooLargeException e) {
+			LOGGER.debug("Rejected request entity: {}",e.getMessage());
+			Response failure =
+				Response.
+					status(Status.REQUEST_ENTITY_TOO_LARGE).
+					type(MediaType.TEXT_PLAIN).
+					language(Locale.ENGLISH).
+					entity(e.getMessage()).
+					build();
+			throw new WebApplicationException(failure);
+		}
+	}
+
 	private OperationContextBuilder newOperationBuilder(HttpMethod operation) {
 		checkApplicationEngineAvailable();
 		return
@@ -167,7 +286,7 @@ public final class ServerFrontend {
 				build();
 		return
 			EndpointControllerFactory.
-				newController().
+				newController(currentCache()).
 					options(context);
 	}
 
@@ -195,17 +314,18 @@ public final class ServerFrontend {
 				build();
 		return
 			EndpointControllerFactory.
-				newController().
+				newController(currentCache()).
 					head(context);
 	}
 
 	@GET
 	@Path(ENDPOINT_PATH)
-	public Response get(
+	public void get(
 		@Context UriInfo uriInfo,
 		@PathParam(ENDPOINT_PATH_PARAM) String path,
 		@Context HttpHeaders headers,
-		@Context Request request) {
+		@Context Request request,
+		@Suspended AsyncResponse response) {
 		OperationContext context =
 			newOperationBuilder(HttpMethod.GET).
 				withEndpointPath(path).
@@ -213,63 +333,57 @@ public final class ServerFrontend {
 				withHeaders(headers).
 				withRequest(request).
 				build();
-		return
-			EndpointControllerFactory.
-				newController().
-					getResource(context);
+		process(response,Operation.GET,context);
 	}
 
 	@PUT
 	@Path(ENDPOINT_PATH)
-	public Response put(
+	public void put(
 		@Context UriInfo uriInfo,
 		@PathParam(ENDPOINT_PATH_PARAM) String path,
 		@Context HttpHeaders headers,
 		@Context Request request,
-		String entity) {
+		InputStream entity,
+		@Suspended AsyncResponse response) {
 		OperationContext context =
 			newOperationBuilder(HttpMethod.PUT).
 				withEndpointPath(path).
 				withUriInfo(uriInfo).
 				withHeaders(headers).
 				withRequest(request).
-				withEntity(entity).
+				withEntity(openEntity(headers,entity)).
 				build();
-		return
-			EndpointControllerFactory.
-				newController().
-					modifyResource(context);
+		process(response,Operation.PUT,context);
 	}
 
 	@POST
 	@Path(ENDPOINT_PATH)
-	public Response post(
+	public void post(
 		@Context UriInfo uriInfo,
 		@PathParam(ENDPOINT_PATH_PARAM) String path,
 		@Context HttpHeaders headers,
 		@Context Request request,
-		String entity) {
+		InputStream entity,
+		@Suspended AsyncResponse response) {
 		OperationContext context =
 			newOperationBuilder(HttpMethod.POST).
 				withEndpointPath(path).
 				withUriInfo(uriInfo).
 				withHeaders(headers).
 				withRequest(request).
-				withEntity(entity).
+				withEntity(openEntity(headers,entity)).
 				build();
-		return
-			EndpointControllerFactory.
-				newController().
-					createResource(context);
+		process(response,Operation.POST,context);
 	}
 
 	@DELETE
 	@Path(ENDPOINT_PATH)
-	public Response delete(
+	public void delete(
 		@Context UriInfo uriInfo,
 		@PathParam(ENDPOINT_PATH_PARAM) String path,
 		@Context HttpHeaders headers,
-		@Context Request request) {
+		@Context Request request,
+		@Suspended AsyncResponse response) {
 		OperationContext context =
 			newOperationBuilder(HttpMethod.DELETE).
 				withEndpointPath(path).
@@ -277,32 +391,27 @@ public final class ServerFrontend {
 				withHeaders(headers).
 				withRequest(request).
 				build();
-		return
-			EndpointControllerFactory.
-				newController().
-					deleteResource(context);
+		process(response,Operation.DELETE,context);
 	}
 
 	@PATCH
 	@Path(ENDPOINT_PATH)
-	public Response patch(
+	public void patch(
 		@Context UriInfo uriInfo,
 		@PathParam(ENDPOINT_PATH_PARAM) String path,
 		@Context HttpHeaders headers,
 		@Context Request request,
-		String entity) {
+		InputStream entity,
+		@Suspended AsyncResponse response) {
 		OperationContext context =
 			newOperationBuilder(HttpMethod.PATCH).
 				withEndpointPath(path).
 				withUriInfo(uriInfo).
 				withHeaders(headers).
 				withRequest(request).
-				withEntity(entity).
+				withEntity(openEntity(headers,entity)).
 				build();
-		return
-			EndpointControllerFactory.
-				newController().
-					patchResource(context);
+		process(response,Operation.PATCH,context);
 	}
 
 }
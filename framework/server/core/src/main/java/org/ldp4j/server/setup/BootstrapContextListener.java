@@ -42,6 +42,9 @@ import org.ldp4j.application.engine.ApplicationEngine;
 import org.ldp4j.application.engine.ApplicationEngineLifecycleException;
 import org.ldp4j.application.engine.ApplicationEngineRuntimeException;
 import org.ldp4j.application.engine.context.ApplicationContext;
+import org.ldp4j.server.config.Configuration;
+import org.ldp4j.server.controller.RepresentationCache;
+import org.ldp4j.server.frontend.RequestProcessor;
 import org.ldp4j.server.frontend.ServerFrontend;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -90,6 +93,8 @@ public final class BootstrapContextListener implements ServletContextListener {
 		}
 
 		registerCXFServlet(servletContext);
+		servletContext.setAttribute(ServerFrontend.LDP4J_REQUEST_PROCESSOR,RequestProcessor.newInstance());
+		servletContext.setAttribute(ServerFrontend.LDP4J_REPRESENTATION_CACHE,RepresentationCache.newInstance(Configuration.representationCacheSize()));
 
 		if(isEnabled(SERVER_INITIALIZATION_LOGGING)) {
 			LOGGER.info(BootstrapUtil.dumpContext("Context initialization started",servletContext));
@@ -119,6 +124,8 @@ public final class BootstrapContextListener implements ServletContextListener {
 		}
 		try {
 			ApplicationContext applicationContext = (ApplicationContext)servletContext.getAttribute(ServerFrontend.LDP4J_APPLICATION_CONTEXT);
+			disposeRequestProcessor(servletContext);
+			disposeRepresentationCache(servletContext);
 			disposeApplicationContext(servletContext, applicationContext);
 			ApplicationEngine.engine().shutdown();
 		} catch (ApplicationEngineRuntimeException e) {
@@ -142,6 +149,8 @@ public final class BootstrapContextListener implements ServletContextListener {
 		dynamic.setInitParameter("static-welcome-file","/index.html");
 		dynamic.setInitParameter("static-resources-list","/index.html");
 		dynamic.setLoadOnStartup(1);
+		/** Required for releasing the container threads while processing requests */
+		dynamic.setAsyncSupported(true);
 		LOGGER.info("CXF servlet registered.");
 	}
 
@@ -160,6 +169,25 @@ public final class BootstrapContextListener implements ServletContextListener {
 		}
 	}
 
+	private static void disposeRequestProcessor(ServletContext servletContext) {
+		RequestProcessor processor=(RequestProcessor)servletContext.getAttribute(ServerFrontend.LDP4J_REQUEST_PROCESSOR);
+		if(processor==null) {
+			return;
+		}
+		servletContext.removeAttribute(ServerFrontend.LDP4J_REQUEST_PROCESSOR);
+		processor.shutdown();
+	}
+
+	private static void disposeRepresentationCache(ServletContext servletContext) {
+		RepresentationCache cache=(RepresentationCache)servletContext.getAttribute(ServerFrontend.LDP4J_REPRESENTATION_CACHE);
+		if(cache==null) {
+			return;
+		}
+		servletContext.removeAttribute(ServerFrontend.LDP4J_REPRESENTATION_CACHE);
+		LOGGER.info("Representation cache shutdown ({} representations cached, {}).",cache.size(),cache.stats());
+		cache.invalidateAll();
+	}
+
 	private static void disposeApplicationContext(ServletContext servletContext, ApplicationContext applicationContext) {
 		if(applicationContext==null) {
 			return;
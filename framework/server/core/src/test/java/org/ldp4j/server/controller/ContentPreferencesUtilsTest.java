@@ -139,6 +139,38 @@ public class ContentPreferencesUtilsTest {
 		ContentPreferencesUtils.fromPreferenceHeader("return=representation; omit=\"http://www.w3.org/ns/ldp#PreferMinimalContainer http://www.w3.org/ns/ldp#Unknown\"");
 	}
 
+	@Test
+	public void testFromPreferenceHeader$maxMemberCount() throws Exception {
+		ContentPreferences preferences=ContentPreferencesUtils.fromPreferenceHeader("return=representation; max-member-count=\"10\"");
+		assertThat(preferences.isPagingRequired(),equalTo(true));
+		assertThat(preferences.maxMemberCount(),equalTo(10));
+		assertThat(preferences.isEmpty(),equalTo(true));
+		ContentPreferences composite=ContentPreferencesUtils.fromPreferenceHeader(MULTIPLE_OMIT_PREFERENCES+"; max-member-count=\"5\"");
+		assertThat(composite.omits(),equalTo(MULTIPLE_OMITS.omits()));
+		assertThat(composite.maxMemberCount(),equalTo(5));
+	}
+
+	@Test(expected=InvalidPreferenceHeaderException.class)
+	public void testFromPreferenceHeader$invalidValues$maxMemberCount$not_a_number() throws Exception {
+		ContentPreferencesUtils.fromPreferenceHeader("return=representation; max-member-count=\"ten\"");
+	}
+
+	@Test(expected=InvalidPreferenceHeaderException.class)
+	public void testFromPreferenceHeader$invalidValues$maxMemberCount$not_positive() throws Exception {
+		ContentPreferencesUtils.fromPreferenceHeader("return=representation; max-member-count=\"0\"");
+	}
+
+	@Test
+	public void testRoundtrip$maxMemberCount() throws Exception {
+		ContentPreferences preferences=
+			ContentPreferences.
+				builder().
+					withOmit(Preference.MEMBERSHIP_TRIPLES).
+					withMaxMemberCount(25).
+					build();
+		assertThat(ContentPreferencesUtils.fromPreferenceHeader(ContentPreferencesUtils.asPreferenceHeader(preferences)),equalTo(preferences));
+	}
+
 	@Test
 	public void testRoundtrip() throws Exception {
 		assertThat(ContentPreferencesUtils.fromPreferenceHeader(ContentPreferencesUtils.asPreferenceHeader(COMPOSITE_PREFERENCES)),equalTo(COMPOSITE_PREFERENCES));
@@ -0,0 +1,260 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:0.2.2
+ *   Bundle      : ldp4j-server-core-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.controller;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Request;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.UriInfo;
+import javax.ws.rs.core.Variant;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ldp4j.application.data.DataSet;
+import org.ldp4j.application.engine.context.ApplicationContext;
+import org.ldp4j.application.engine.context.ApplicationContextOperation;
+import org.ldp4j.application.engine.context.Capabilities;
+import org.ldp4j.application.engine.context.ContentPreferences;
+import org.ldp4j.application.engine.context.EntityTag;
+import org.ldp4j.application.engine.context.HttpRequest;
+import org.ldp4j.application.engine.context.HttpRequest.HttpMethod;
+import org.ldp4j.application.engine.context.PublicContainer;
+import org.ldp4j.application.engine.context.PublicResource;
+import org.ldp4j.application.vocabulary.LDP;
+
+import com.google.common.collect.Lists;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class ExistingEndpointControllerTest {
+
+	private static final String BASE = "http://www.example.org/ldp4j/api";
+	private static final String PATH = "resource/";
+	private static final URI ENDPOINT = URI.create(BASE+"/"+PATH);
+
+	private static final EntityTag ENTITY_TAG = EntityTag.createStrong("1");
+
+	private static final Variant TURTLE = new Variant(new MediaType("text","turtle","UTF-8"),(String)null,null);
+
+	private static final String PATCH =
+		"@prefix ex: <http://www.example.org/vocab#> .\n"+
+		"Delete { <> ex:name \"Alice\" } .\n"+
+		"Add { <> ex:name \"Bob\" } .\n";
+
+	private ApplicationContext applicationContext;
+	private ApplicationContextOperation operation;
+	private Capabilities capabilities;
+	private PublicResource resource;
+	private RepresentationCache cache;
+
+	@Before
+	public void setUp() throws Exception {
+		this.capabilities=mock(Capabilities.class);
+		when(this.capabilities.isPatchable()).thenReturn(true);
+
+		this.resource=mock(PublicResource.class);
+		when(this.resource.path()).thenReturn(PATH);
+		when(this.resource.capabilities()).thenReturn(this.capabilities);
+		when(this.resource.entityTag()).thenReturn(ENTITY_TAG);
+		when(this.resource.lastModified()).thenReturn(new Date());
+
+		this.operation=mock(ApplicationContextOperation.class);
+		when(this.operation.findResource(PATH)).thenReturn(this.resource);
+
+		this.applicationContext=mock(ApplicationContext.class);
+		when(this.applicationContext.createOperation(any(HttpRequest.class))).thenReturn(this.operation);
+
+		this.cache=RepresentationCache.newInstance(1024*1024);
+	}
+
+	private OperationContext context(HttpMethod method, MediaType mediaType, String entity, String prefer, MultivaluedMap<String,String> query) {
+		UriInfo uriInfo=mock(UriInfo.class);
+		when(uriInfo.getBaseUri()).thenReturn(URI.create(BASE));
+		when(uriInfo.getAbsolutePath()).thenReturn(ENDPOINT);
+		when(uriInfo.getQueryParameters()).thenReturn(query);
+
+		HttpHeaders headers=mock(HttpHeaders.class);
+		when(headers.getMediaType()).thenReturn(mediaType);
+		when(headers.getRequestHeader(anyString())).thenReturn(Collections.<String>emptyList());
+		if(prefer!=null) {
+			when(headers.getRequestHeader(ContentPreferencesUtils.PREFER_HEADER)).thenReturn(Collections.singletonList(prefer));
+		}
+		when(headers.getRequestHeaders()).thenReturn(new MultivaluedHashMap<String,String>());
+
+		Request request=mock(Request.class);
+		when(request.selectVariant(anyListOf(Variant.class))).thenReturn(TURTLE);
+
+		OperationContext context=
+			new OperationContextBuilder().
+				withApplicationContext(this.applicationContext).
+				withEndpointPath(PATH).
+				withOperation(method).
+				withUriInfo(uriInfo).
+				withHeaders(headers).
+				withRequest(request).
+				withEntity(entity).
+				build();
+		context.startOperation();
+		// Resolved by the DefaultEndpointController before delegating
+		context.resource();
+		return context;
+	}
+
+	private OperationContext context(MediaType mediaType, String entity) {
+		return context(HttpMethod.PATCH,mediaType,entity,null,new MultivaluedHashMap<String,String>());
+	}
+
+	private PublicContainer container() {
+		PublicContainer container=mock(PublicContainer.class);
+		when(container.path()).thenReturn(PATH);
+		when(container.capabilities()).thenReturn(this.capabilities);
+		when(container.entityTag()).thenReturn(ENTITY_TAG);
+		when(container.lastModified()).thenReturn(new Date());
+		when(this.operation.findResource(PATH)).thenReturn(container);
+		return container;
+	}
+
+	private static List<String> links(Response response) {
+		List<String> links=Lists.newArrayList();
+		for(Object link:response.getMetadata().get(HttpHeaders.LINK)) {
+			links.add(link.toString());
+		}
+		return links;
+	}
+
+	private void cacheRepresentation() {
+		this.cache.put(this.cache.key(ENDPOINT,ENTITY_TAG,TURTLE,ContentPreferences.defaultPreferences()),PATCH.getBytes());
+	}
+
+	private byte[] cachedRepresentation() {
+		return this.cache.get(this.cache.key(ENDPOINT,ENTITY_TAG,TURTLE,ContentPreferences.defaultPreferences()));
+	}
+
+	@Test
+	public void testPatchRespondsWithNoContent() throws Exception {
+		ExistingEndpointController sut=new ExistingEndpointController(this.cache);
+		Response response=sut.patchResource(context(LDPatchParser.MEDIA_TYPE,PATCH));
+		assertThat(response.getStatus(),equalTo(Status.NO_CONTENT.getStatusCode()));
+		verify(this.resource).patch(any(DataSet.class),any(DataSet.class));
+	}
+
+	@Test
+	public void testPatchInvalidatesCachedRepresentations() throws Exception {
+		cacheRepresentation();
+		assertThat(cachedRepresentation(),notNullValue());
+		ExistingEndpointController sut=new ExistingEndpointController(this.cache);
+		sut.patchResource(context(LDPatchParser.MEDIA_TYPE,PATCH));
+		assertThat(cachedRepresentation(),nullValue());
+	}
+
+	@Test
+	public void testHeadDoesNotRetrieveTheRepresentationWhenCachingIsDisabled() throws Exception {
+		PublicContainer container=container();
+		when(container.nextMemberCursor(any(ContentPreferences.class))).thenReturn(10L);
+		ExistingEndpointController sut=new ExistingEndpointController(RepresentationCache.newInstance(0));
+		Response response=
+			sut.head(
+				context(
+					HttpMethod.HEAD,
+					null,
+					null,
+					"return=representation; max-member-count=\"10\"",
+					new MultivaluedHashMap<String,String>()));
+		assertThat(response.getStatus(),equalTo(Status.OK.getStatusCode()));
+		assertThat(response.getEntity(),nullValue());
+		assertThat(response.getHeaderString(MoreHttp.CONTENT_LENGTH_HEADER),nullValue());
+		assertThat(response.getHeaderString(ContentPreferencesUtils.PREFERENCE_APPLIED_HEADER),equalTo("return=representation; max-member-count=\"10\""));
+		assertThat(response.getHeaderString(HttpHeaders.ETAG),notNullValue());
+		assertThat(
+			links(response),
+			hasItems(
+				MoreHttp.createLink(LDP.PAGE,"type"),
+				MoreHttp.createLink(RetrievalScenario.pageLink(context(null,null),0,10),"first"),
+				MoreHttp.createLink(RetrievalScenario.pageLink(context(null,null),10,10),"next")));
+		verify(container,never()).entity(any(ContentPreferences.class));
+	}
+
+	@Test
+	public void testHeadOfAPageDoesNotRetrieveTheRepresentationWhenCachingIsDisabled() throws Exception {
+		PublicContainer container=container();
+		when(container.previousMemberCursor(any(ContentPreferences.class))).thenReturn(0L);
+		MultivaluedMap<String,String> query=new MultivaluedHashMap<String,String>();
+		query.add(RetrievalScenario.PAGE_QUERY_PARAMETER,"5");
+		query.add(RetrievalScenario.PAGE_SIZE_QUERY_PARAMETER,"5");
+		ExistingEndpointController sut=new ExistingEndpointController(RepresentationCache.newInstance(0));
+		Response response=sut.head(context(HttpMethod.HEAD,null,null,null,query));
+		assertThat(response.getStatus(),equalTo(Status.OK.getStatusCode()));
+		assertThat(response.getHeaderString(ContentPreferencesUtils.PREFERENCE_APPLIED_HEADER),nullValue());
+		assertThat(
+			links(response),
+			hasItems(
+				MoreHttp.createLink(LDP.PAGE,"type"),
+				MoreHttp.createLink(RetrievalScenario.pageLink(context(null,null),0,5),"prev")));
+		verify(container,never()).entity(any(ContentPreferences.class));
+	}
+
+	@Test
+	public void testHeadIsServedFromTheCacheWithTheExactContentLength() throws Exception {
+		cacheRepresentation();
+		ExistingEndpointController sut=new ExistingEndpointController(this.cache);
+		Response response=sut.head(context(HttpMethod.HEAD,null,null,null,new MultivaluedHashMap<String,String>()));
+		assertThat(response.getStatus(),equalTo(Status.OK.getStatusCode()));
+		assertThat(response.getEntity(),nullValue());
+		assertThat(response.getHeaderString(MoreHttp.CONTENT_LENGTH_HEADER),equalTo(Integer.toString(PATCH.getBytes().length)));
+		verify(this.resource,never()).entity(any(ContentPreferences.class));
+	}
+
+	@Test
+	public void testPatchRejectsOtherMediaTypes() throws Exception {
+		cacheRepresentation();
+		ExistingEndpointController sut=new ExistingEndpointController(this.cache);
+		try {
+			sut.patchResource(context(new MediaType("text","turtle"),"<> <http://www.example.org/vocab#name> \"Bob\" ."));
+			fail("Patches must be rejected unless they are sent as "+LDPatchParser.MEDIA_TYPE);
+		} catch(UnsupportedContentException e) {
+			assertThat(e.getDiagnosis().statusCode(),equalTo(Status.UNSUPPORTED_MEDIA_TYPE.getStatusCode()));
+		}
+		verify(this.resource,never()).patch(any(DataSet.class),any(DataSet.class));
+		assertThat(cachedRepresentation(),notNullValue());
+	}
+
+}
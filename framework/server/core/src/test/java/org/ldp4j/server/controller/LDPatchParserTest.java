@@ -0,0 +1,129 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:0.2.2
+ *   Bundle      : ldp4j-server-core-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.controller;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+public class LDPatchParserTest {
+
+	private static final String PREFIX="@prefix ex: <http://example.org/vocab#> .";
+
+	@Test
+	public void testAdditionsAndRemovalsShareDirectives() throws Exception {
+		LDPatchParser parser=
+			LDPatchParser.parse(
+				PREFIX+"\n"+
+				"Delete { <#me> ex:name \"Alice\" } .\n"+
+				"Add { <#me> ex:name \"Bob\" } .\n");
+		assertThat(parser.removals(),equalTo(PREFIX+"\n<#me> ex:name \"Alice\" .\n"));
+		assertThat(parser.additions(),equalTo(PREFIX+"\n<#me> ex:name \"Bob\" .\n"));
+	}
+
+	@Test
+	public void testAbbreviatedOperationsAreAccumulated() throws Exception {
+		LDPatchParser parser=
+			LDPatchParser.parse(
+				"A { <a> <b> <c> . } .\n"+
+				"# Comment with { braces }\n"+
+				"A { <a> <b> <d> } .\n"+
+				"D { } .");
+		assertThat(parser.additions(),equalTo("<a> <b> <c> .\n<a> <b> <d> .\n"));
+		assertThat(parser.removals(),equalTo(""));
+	}
+
+	@Test
+	public void testBracesInLiteralsAndIRIsDoNotCloseBlocks() throws Exception {
+		LDPatchParser parser=
+			LDPatchParser.parse(
+				"Add { <urn:x?q={}> <urn:p> \"}\", '{', \"\"\"multi\n} line\"\"\" } .");
+		assertThat(parser.additions(),containsString("\"}\""));
+		assertThat(parser.additions(),containsString("\"\"\"multi\n} line\"\"\""));
+		assertThat(parser.removals(),not(containsString("urn:x")));
+	}
+
+	@Test
+	public void testDirectivesAreKeptInDocumentOrder() throws Exception {
+		LDPatchParser parser=
+			LDPatchParser.parse(
+				"@prefix ex: <http://example.org/v1#> .\n"+
+				"Delete { <#me> ex:name \"Alice\" } .\n"+
+				"@prefix ex: <http://example.org/v2#> .\n"+
+				"Add { <#me> ex:name \"Bob\" } .\n");
+		String first="@prefix ex: <http://example.org/v1#> .\n";
+		String second="@prefix ex: <http://example.org/v2#> .\n";
+		assertThat(parser.removals(),equalTo(first+"<#me> ex:name \"Alice\" .\n"+second));
+		assertThat(parser.additions(),equalTo(first+second+"<#me> ex:name \"Bob\" .\n"));
+	}
+
+	@Test(expected=IOException.class)
+	public void testLabeledBlankNodesAreRejectedInDeletions() throws Exception {
+		LDPatchParser.parse("Delete { _:b1 <urn:p> \"value\" } .");
+	}
+
+	@Test(expected=IOException.class)
+	public void testAnonymousBlankNodesAreRejectedInDeletions() throws Exception {
+		LDPatchParser.parse("D { <urn:s> <urn:p> [ <urn:q> \"value\" ] } .");
+	}
+
+	@Test
+	public void testBlankNodesAreAllowedInAdditions() throws Exception {
+		LDPatchParser parser=LDPatchParser.parse("Add { _:b1 <urn:p> [ <urn:q> \"value\" ] } .");
+		assertThat(parser.additions(),equalTo("_:b1 <urn:p> [ <urn:q> \"value\" ] .\n"));
+	}
+
+	@Test
+	public void testBlankNodeLookalikesAreAllowedInDeletions() throws Exception {
+		LDPatchParser parser=
+			LDPatchParser.parse(
+				"@prefix ex_: <http://example.org/vocab#> .\n"+
+				"Delete { <urn:x?_:[> ex_:name \"_:b1 [ ]\" } .");
+		assertThat(parser.removals(),containsString("<urn:x?_:[> ex_:name \"_:b1 [ ]\" ."));
+	}
+
+	@Test(expected=IOException.class)
+	public void testUnsupportedOperationsAreRejected() throws Exception {
+		LDPatchParser.parse("Bind ?x <#me> .");
+	}
+
+	@Test(expected=IOException.class)
+	public void testUnterminatedBlocksAreRejected() throws Exception {
+		LDPatchParser.parse("Add { <a> <b> <c> .");
+	}
+
+	@Test(expected=IOException.class)
+	public void testMissingOperationTerminatorIsRejected() throws Exception {
+		LDPatchParser.parse("Add { <a> <b> <c> }");
+	}
+
+}
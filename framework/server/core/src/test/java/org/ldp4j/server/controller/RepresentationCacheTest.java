@@ -0,0 +1,174 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:0.2.2
+ *   Bundle      : ldp4j-server-core-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.core.Variant;
+
+import org.junit.Test;
+import org.ldp4j.application.engine.context.ContentPreferences;
+import org.ldp4j.application.engine.context.ContentPreferences.Preference;
+import org.ldp4j.application.engine.context.EntityTag;
+
+import static org.hamcrest.MatcherAssert.*;
+import static org.hamcrest.Matchers.*;
+
+public class RepresentationCacheTest {
+
+	private static final URI ENDPOINT = URI.create("http://www.example.org/ldp4j/api/resource/");
+	private static final URI OTHER_ENDPOINT = URI.create("http://www.example.org/ldp4j/api/other/");
+
+	private static final EntityTag ENTITY_TAG = EntityTag.createStrong("1");
+	private static final EntityTag NEW_ENTITY_TAG = EntityTag.createStrong("2");
+
+	private static final Variant TURTLE = new Variant(new MediaType("text","turtle","UTF-8"),(String)null,null);
+	private static final Variant RDF_XML = new Variant(new MediaType("application","rdf+xml","UTF-8"),(String)null,null);
+
+	private static final long CAPACITY = 1024*1024;
+
+	private static final byte[] REPRESENTATION = "<> a <http://www.w3.org/ns/ldp#Resource> .".getBytes();
+
+	private ContentPreferences preferences() {
+		return ContentPreferences.defaultPreferences();
+	}
+
+	private StreamingOutput output(final byte[] representation) {
+		return new StreamingOutput() {
+			@Override
+			public void write(OutputStream output) throws IOException {
+				output.write(representation);
+			}
+		};
+	}
+
+	@Test
+	public void testCachesRepresentations() {
+		RepresentationCache sut=RepresentationCache.newInstance(CAPACITY);
+		assertThat(sut.get(sut.key(ENDPOINT,ENTITY_TAG,TURTLE,preferences())),nullValue());
+		sut.put(sut.key(ENDPOINT,ENTITY_TAG,TURTLE,preferences()),REPRESENTATION);
+		assertThat(sut.get(sut.key(ENDPOINT,ENTITY_TAG,TURTLE,preferences())),sameInstance(REPRESENTATION));
+		assertThat(sut.stats().hitCount(),equalTo(1L));
+		assertThat(sut.stats().missCount(),equalTo(1L));
+	}
+
+	@Test
+	public void testRepresentationsAreBoundToEntityTagVariantAndPreferences() {
+		RepresentationCache sut=RepresentationCache.newInstance(CAPACITY);
+		sut.put(sut.key(ENDPOINT,ENTITY_TAG,TURTLE,preferences()),REPRESENTATION);
+		ContentPreferences minimal=
+			ContentPreferences.
+				builder().
+					withInclude(Preference.MINIMAL_CONTAINER).
+					build();
+		assertThat(sut.get(sut.key(ENDPOINT,NEW_ENTITY_TAG,TURTLE,preferences())),nullValue());
+		assertThat(sut.get(sut.key(ENDPOINT,ENTITY_TAG,RDF_XML,preferences())),nullValue());
+		assertThat(sut.get(sut.key(ENDPOINT,ENTITY_TAG,TURTLE,minimal)),nullValue());
+		assertThat(sut.get(sut.key(OTHER_ENDPOINT,ENTITY_TAG,TURTLE,preferences())),nullValue());
+	}
+
+	@Test
+	public void testInvalidationDiscardsAllTheRepresentationsOfAnEndpoint() {
+		RepresentationCache sut=RepresentationCache.newInstance(CAPACITY);
+		sut.put(sut.key(ENDPOINT,ENTITY_TAG,TURTLE,preferences()),REPRESENTATION);
+		sut.put(sut.key(ENDPOINT,ENTITY_TAG,RDF_XML,preferences()),REPRESENTATION);
+		sut.put(sut.key(OTHER_ENDPOINT,ENTITY_TAG,TURTLE,preferences()),REPRESENTATION);
+		sut.invalidate(ENDPOINT);
+		assertThat(sut.size(),equalTo(1L));
+		assertThat(sut.get(sut.key(OTHER_ENDPOINT,ENTITY_TAG,TURTLE,preferences())),sameInstance(REPRESENTATION));
+	}
+
+	@Test
+	public void testCacheIsBoundedByTheSizeOfTheRepresentations() {
+		byte[] representation=new byte[44];
+		RepresentationCache sut=RepresentationCache.newInstance(2400);
+		for(int i=0;i<100;i++) {
+			sut.put(sut.key(ENDPOINT,EntityTag.createStrong(Integer.toString(i)),TURTLE,preferences()),representation);
+		}
+		assertThat(sut.size(),lessThanOrEqualTo(8L));
+		assertThat(sut.stats().evictionCount(),greaterThanOrEqualTo(92L));
+	}
+
+	@Test
+	public void testLargeRepresentationsAreNotCached() {
+		RepresentationCache sut=RepresentationCache.newInstance(80);
+		sut.put(sut.key(ENDPOINT,ENTITY_TAG,TURTLE,preferences()),REPRESENTATION);
+		assertThat(sut.size(),equalTo(0L));
+	}
+
+	@Test
+	public void testCapturesStreamedRepresentations() throws IOException {
+		RepresentationCache sut=RepresentationCache.newInstance(CAPACITY);
+		ByteArrayOutputStream out=new ByteArrayOutputStream();
+		sut.capture(sut.key(ENDPOINT,ENTITY_TAG,TURTLE,preferences()),output(REPRESENTATION)).write(out);
+		assertThat(out.toByteArray(),equalTo(REPRESENTATION));
+		assertThat(sut.get(sut.key(ENDPOINT,ENTITY_TAG,TURTLE,preferences())),equalTo(REPRESENTATION));
+	}
+
+	@Test
+	public void testDoesNotCaptureLargeStreamedRepresentations() throws IOException {
+		RepresentationCache sut=RepresentationCache.newInstance(80);
+		ByteArrayOutputStream out=new ByteArrayOutputStream();
+		sut.capture(sut.key(ENDPOINT,ENTITY_TAG,TURTLE,preferences()),output(REPRESENTATION)).write(out);
+		assertThat(out.toByteArray(),equalTo(REPRESENTATION));
+		assertThat(sut.size(),equalTo(0L));
+	}
+
+	@Test
+	public void testInvalidationAfterEviction() {
+		byte[] representation=new byte[44];
+		RepresentationCache sut=RepresentationCache.newInstance(2400);
+		for(int i=0;i<100;i++) {
+			sut.put(sut.key(ENDPOINT,EntityTag.createStrong(Integer.toString(i)),TURTLE,preferences()),representation);
+		}
+		sut.put(sut.key(OTHER_ENDPOINT,ENTITY_TAG,TURTLE,preferences()),representation);
+		sut.invalidate(ENDPOINT);
+		assertThat(sut.size(),equalTo(1L));
+	}
+
+	@Test
+	public void testDisabledCacheDoesNotCache() {
+		RepresentationCache sut=RepresentationCache.newInstance(0);
+		sut.put(sut.key(ENDPOINT,ENTITY_TAG,TURTLE,preferences()),REPRESENTATION);
+		assertThat(sut.isEnabled(),equalTo(false));
+		assertThat(sut.get(sut.key(ENDPOINT,ENTITY_TAG,TURTLE,preferences())),nullValue());
+		assertThat(sut.size(),equalTo(0L));
+	}
+
+	@Test
+	public void testRepresentationsWithoutEntityTagAreNotCached() {
+		RepresentationCache sut=RepresentationCache.newInstance(CAPACITY);
+		sut.put(sut.key(ENDPOINT,null,TURTLE,preferences()),REPRESENTATION);
+		assertThat(sut.size(),equalTo(0L));
+	}
+
+}
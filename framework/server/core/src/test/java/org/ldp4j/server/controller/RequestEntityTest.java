@@ -0,0 +1,111 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:0.2.2
+ *   Bundle      : ldp4j-server-core-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.controller;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+import com.google.common.io.CharStreams;
+
+public class RequestEntityTest {
+
+	private static final String CONTENT = "<> a <http://www.w3.org/ns/ldp#Resource> ; <http://www.example.org/vocab#label> \"año\" .";
+
+	private RequestEntity entity(String content, long maxSize, int captureSize) {
+		InputStream stream=new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+		return RequestEntity.of(stream,StandardCharsets.UTF_8,maxSize,captureSize);
+	}
+
+	@Test
+	public void testMissingEntities() {
+		assertThat(RequestEntity.of((String)null),nullValue());
+		assertThat(RequestEntity.of(null,StandardCharsets.UTF_8,1,1),nullValue());
+	}
+
+	@Test
+	public void testEmptyEntity() throws IOException {
+		RequestEntity sut=entity("",Long.MAX_VALUE,16);
+		assertThat(sut.isEmpty(),equalTo(true));
+		assertThat(sut.content(),equalTo(""));
+	}
+
+	@Test
+	public void testCheckingEmptinessDoesNotConsumeTheEntity() throws IOException {
+		RequestEntity sut=entity(CONTENT,Long.MAX_VALUE,16);
+		assertThat(sut.isEmpty(),equalTo(false));
+		assertThat(CharStreams.toString(sut.reader()),equalTo(CONTENT));
+	}
+
+	@Test
+	public void testOnlyCapturesPrefixWhileStreaming() throws IOException {
+		RequestEntity sut=entity(CONTENT,Long.MAX_VALUE,16);
+		assertThat(sut.body(),equalTo(""));
+		Reader reader=sut.reader();
+		char[] buffer=new char[4];
+		assertThat(reader.read(buffer),equalTo(4));
+		assertThat(sut.body(),equalTo(CONTENT.substring(0,4)));
+		CharStreams.toString(reader);
+		assertThat(sut.body(),equalTo(CONTENT.substring(0,16)));
+	}
+
+	@Test
+	public void testBuffersContentWhenRequested() throws IOException {
+		RequestEntity sut=entity(CONTENT,Long.MAX_VALUE,0);
+		assertThat(sut.content(),equalTo(CONTENT));
+		assertThat(sut.body(),equalTo(CONTENT));
+		assertThat(CharStreams.toString(sut.reader()),equalTo(CONTENT));
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void testStreamedEntityCanOnlyBeReadOnce() throws IOException {
+		RequestEntity sut=entity(CONTENT,Long.MAX_VALUE,0);
+		CharStreams.toString(sut.reader());
+		sut.reader();
+	}
+
+	@Test
+	public void testAcceptsEntityOfMaximumSize() throws IOException {
+		int size=CONTENT.getBytes(StandardCharsets.UTF_8).length;
+		assertThat(entity(CONTENT,size,0).content(),equalTo(CONTENT));
+	}
+
+	@Test(expected=EntityTooLargeException.class)
+	public void testRejectsEntitiesLargerThanAllowedWhileReading() throws IOException {
+		int size=CONTENT.getBytes(StandardCharsets.UTF_8).length;
+		CharStreams.toString(entity(CONTENT,size-1,0).reader());
+	}
+
+}
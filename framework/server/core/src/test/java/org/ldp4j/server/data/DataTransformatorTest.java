@@ -27,12 +27,16 @@
 package org.ldp4j.server.data;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.notNullValue;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.StringReader;
 import java.net.URI;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 import javax.ws.rs.core.MediaType;
 
@@ -109,6 +113,38 @@ public class DataTransformatorTest {
 		assertThat(data,notNullValue());
 	}
 
+	@Test
+	public void testUnmarshallFromReader() throws Exception {
+		String entity=loadResource("/data/relative-managed-individuals.ttl");
+		DataSet dataSet = sut.unmarshall(new StringReader(entity));
+		assertThat(dataSet.numberOfIndividuals(),equalTo(sut.unmarshall(entity).numberOfIndividuals()));
+		assertThat(dataSet.individualOfId(NANDANA_ME_ID),notNullValue());
+	}
+
+	@Test
+	public void testSurrogateUnmarshallFromReader() throws Exception {
+		DataTransformator sut =
+			DataTransformator.
+				create(URI.create("http://localhost:8080/ldp4j-server-tckf/ldp4j/")).
+				surrogateEndpoint(URI.create("api/basic_container/")).
+				enableResolution(
+					new ResourceResolver() {
+						@Override
+						public URI resolveResource(ManagedIndividualId id) {
+							return null;
+						}
+						@Override
+						public ManagedIndividualId resolveLocation(URI path) {
+							return null;
+						}
+					}
+				).
+				mediaType(new MediaType("text","turtle"));
+		String entity=loadResource("/data/public-uri-clash.ttl");
+		DataSet dataSet=sut.unmarshall(new StringReader(entity));
+		assertThat(dataSet.numberOfIndividuals(),equalTo(sut.unmarshall(entity).numberOfIndividuals()));
+	}
+
 	@Test
 	public void testCornerCase() throws Exception {
 		DataTransformator sut =
@@ -172,6 +208,14 @@ public class DataTransformatorTest {
 		System.out.println(marshall);
 	}
 
+	@Test
+	public void testStreamingMarshallMatchesInMemoryMarshall() throws Exception {
+		DataSet dataSet = sut.unmarshall(loadResource("/data/relative-managed-individuals.ttl"));
+		ByteArrayOutputStream out=new ByteArrayOutputStream();
+		sut.marshall(dataSet,StandardCharsets.UTF_8).write(out);
+		assertThat(new String(out.toByteArray(),StandardCharsets.UTF_8),equalTo(sut.marshall(dataSet)));
+	}
+
 	private Name<String> name(String id) {
 		return NamingScheme.getDefault().name(id);
 	}
@@ -26,16 +26,30 @@
  */
 package org.ldp4j.server.data;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
+
 import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.Charset;
+import java.util.List;
 
 import javax.ws.rs.core.MediaType;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.Before;
 import org.junit.Test;
+import org.ldp4j.rdf.BlankNode;
+import org.ldp4j.rdf.Node;
+import org.ldp4j.rdf.Triple;
+import org.ldp4j.rdf.URIRef;
 import org.ldp4j.server.data.spi.ContentTransformationException;
+import org.ldp4j.server.data.spi.MediaTypeProvider;
+import org.ldp4j.server.data.spi.RuntimeDelegate;
+
+import com.google.common.collect.ImmutableList;
 
 public class TripleResolverTest {
 
@@ -98,6 +112,70 @@ public class TripleResolverTest {
 		}
 	}
 
+	@Test
+	public void testSinglePassResolutionMatchesDoubleParsing() throws ContentTransformationException {
+		URI application = URI.create("http://www.example.org/target/");
+		URI endpoint = application.resolve("resource/");
+		URI alternative = URI.create("http://www.ldp4j.org/target/resource/");
+
+		String rawEntity = loadResource("/data/example_without_base.ttl");
+		List<TripleResolution> resolutions=
+			TripleResolver.
+				builder().
+					withApplication(application).
+					withEndpoint(endpoint).
+					withAlternative(alternative).
+					withEntity(rawEntity,this.mediaType).
+					build().
+						tripleResolutions();
+
+		List<Triple> endpointTriples=parse(rawEntity,endpoint);
+		List<Triple> alternativeTriples=parse(rawEntity,alternative);
+		URIResolver resolver=URIResolver.newInstance(endpoint,alternative);
+		URIDescriber describer=URIDescriber.newInstance(application,endpoint);
+
+		assertThat(resolutions,hasSize(endpointTriples.size()));
+		for(int i=0;i<resolutions.size();i++) {
+			TripleResolution resolution=resolutions.get(i);
+			Triple expected=endpointTriples.get(i);
+			Triple alternativeTriple=alternativeTriples.get(i);
+			assertEquivalent(resolution.triple().getSubject(),expected.getSubject());
+			assertEquivalent(resolution.triple().getPredicate(),expected.getPredicate());
+			assertEquivalent(resolution.triple().getObject(),expected.getObject());
+			assertThat(
+				resolution.subjectResolution().toString(),
+				equalTo(resolve(resolver,describer,expected.getSubject(),alternativeTriple.getSubject())));
+			assertThat(
+				resolution.objectResolution().toString(),
+				equalTo(resolve(resolver,describer,expected.getObject(),alternativeTriple.getObject())));
+		}
+	}
+
+	/**
+	 * Blank node identifiers are generated by the parser, so they cannot be
+	 * compared across parsing runs.
+	 */
+	private void assertEquivalent(Node actual, Node expected) {
+		if(expected instanceof BlankNode) {
+			assertThat(actual,instanceOf(BlankNode.class));
+		} else {
+			assertThat(actual.toString(),equalTo(expected.toString()));
+		}
+	}
+
+	private List<Triple> parse(String rawEntity, URI base) throws ContentTransformationException {
+		MediaTypeProvider provider=RuntimeDelegate.getInstance().getMediaTypeProvider(this.mediaType);
+		return ImmutableList.copyOf(provider.unmarshallContent(ImmutableContext.newInstance(base),rawEntity,this.mediaType));
+	}
+
+	private String resolve(URIResolver resolver, URIDescriber describer, Node endpointNode, Node alternativeNode) {
+		if(!(endpointNode instanceof URIRef)) {
+			return ResourceResolutionFactory.nullResolution().toString();
+		}
+		URI uri=resolver.resolve(((URIRef)endpointNode).getIdentity(),((URIRef)alternativeNode).getIdentity());
+		return ResourceResolutionFactory.customResolution(uri,describer.describe(uri)).toString();
+	}
+
 	private String loadResource(String resourceName) {
 		try {
 			return IOUtils.toString(getClass().getResourceAsStream(resourceName), Charset.forName("UTF-8"));
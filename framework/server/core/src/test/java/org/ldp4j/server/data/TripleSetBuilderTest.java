@@ -0,0 +1,156 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:0.2.2
+ *   Bundle      : ldp4j-server-core-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.data;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ldp4j.application.data.DataSet;
+import org.ldp4j.application.data.DataSets;
+import org.ldp4j.application.data.ExternalIndividual;
+import org.ldp4j.application.data.Individual;
+import org.ldp4j.application.data.Literals;
+import org.ldp4j.application.data.LocalIndividual;
+import org.ldp4j.application.data.ManagedIndividual;
+import org.ldp4j.application.data.ManagedIndividualId;
+import org.ldp4j.application.data.Name;
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.rdf.Triple;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+public class TripleSetBuilderTest {
+
+	private static final URI BASE = URI.create("http://www.example.org/");
+	private static final URI NEXT = URI.create("urn:next");
+	private static final URI VALUE = URI.create("urn:value");
+
+	private DataSet dataSet;
+
+	@Before
+	public void setUp() {
+		this.dataSet=DataSets.createDataSet(NamingScheme.getDefault().name("dataSet"));
+	}
+
+	@SuppressWarnings("rawtypes")
+	private LocalIndividual local(int i) {
+		return this.dataSet.individual((Name)NamingScheme.getDefault().name("node"+i),LocalIndividual.class);
+	}
+
+	private ManagedIndividual managed(String name) {
+		return this.dataSet.individual(ManagedIndividualId.createId(NamingScheme.getDefault().name(name),"template"),ManagedIndividual.class);
+	}
+
+	private List<Triple> generate(boolean sorted) {
+		TripleSetBuilder sut=new TripleSetBuilder(null,BASE,sorted);
+		for(Individual<?,?> individual:this.dataSet) {
+			sut.generateTriples(individual);
+		}
+		return Lists.newArrayList(sut.build());
+	}
+
+	@Test
+	public void testDeepChainsDoNotExhaustTheStack() throws Exception {
+		int depth=50000;
+		LocalIndividual current=local(0);
+		for(int i=1;i<depth;i++) {
+			LocalIndividual next=local(i);
+			current.addValue(NEXT,next);
+			current=next;
+		}
+		assertThat(generate(false).size(),equalTo(depth-1));
+	}
+
+	@Test
+	public void testIndividualsAreOnlyTranslatedOnce() throws Exception {
+		ExternalIndividual a=this.dataSet.individual(URI.create("urn:a"),ExternalIndividual.class);
+		ExternalIndividual b=this.dataSet.individual(URI.create("urn:b"),ExternalIndividual.class);
+		a.addValue(NEXT,b);
+		b.addValue(NEXT,a);
+		b.addValue(VALUE,Literals.newLiteral("b"));
+		assertThat(generate(false).size(),equalTo(3));
+	}
+
+	@Test
+	public void testManagedIndividualsAreResolvedInBatch() throws Exception {
+		final int members=100;
+		ManagedIndividual container=managed("container");
+		for(int i=0;i<members;i++) {
+			container.addValue(NEXT,managed("member"+i));
+		}
+		final List<Collection<ManagedIndividualId>> batches=Lists.newArrayList();
+		BatchResourceResolver resolver=new BatchResourceResolver() {
+			@Override
+			public URI resolveResource(ManagedIndividualId id) {
+				throw new AssertionError("Individual "+id+" should have been resolved in batch");
+			}
+			@Override
+			public ManagedIndividualId resolveLocation(URI path) {
+				return null;
+			}
+			@Override
+			public Map<ManagedIndividualId,URI> resolveAll(Collection<ManagedIndividualId> ids) {
+				batches.add(Lists.newArrayList(ids));
+				Map<ManagedIndividualId,URI> result=Maps.newHashMap();
+				for(ManagedIndividualId id:ids) {
+					result.put(id,URI.create(id.name().id()+"/"));
+				}
+				return result;
+			}
+		};
+		TripleSetBuilder sut=new TripleSetBuilder(resolver,BASE);
+		sut.prefetch(this.dataSet);
+		for(Individual<?,?> individual:this.dataSet) {
+			sut.generateTriples(individual);
+		}
+		assertThat(Lists.newArrayList(sut.build()).size(),equalTo(members));
+		assertThat(batches.size(),equalTo(1));
+		assertThat(batches.get(0).size(),equalTo(members+1));
+	}
+
+	@Test
+	public void testTriplesAreSortedOnlyOnDemand() throws Exception {
+		ExternalIndividual b=this.dataSet.individual(URI.create("urn:b"),ExternalIndividual.class);
+		ExternalIndividual a=this.dataSet.individual(URI.create("urn:a"),ExternalIndividual.class);
+		b.addValue(VALUE,Literals.newLiteral("b"));
+		a.addValue(VALUE,Literals.newLiteral("a"));
+		List<Triple> generated=generate(false);
+		List<Triple> sorted=generate(true);
+		assertThat(generated.get(0).getSubject().toString(),equalTo("<urn:b>"));
+		assertThat(sorted,contains(generated.get(1),generated.get(0)));
+	}
+
+}
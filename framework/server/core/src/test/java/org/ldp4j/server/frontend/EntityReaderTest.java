@@ -0,0 +1,103 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:0.2.2
+ *   Bundle      : ldp4j-server-core-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.frontend;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.ws.rs.core.MediaType;
+
+import org.junit.Test;
+import org.ldp4j.server.controller.EntityTooLargeException;
+import org.ldp4j.server.controller.RequestEntity;
+
+import com.google.common.io.CharStreams;
+
+public class EntityReaderTest {
+
+	private static final String CONTENT = "<> a <http://www.w3.org/ns/ldp#Resource> ; <http://www.example.org/vocab#label> \"año\" .";
+
+	private InputStream stream(String content, String charset) throws IOException {
+		return new ByteArrayInputStream(content.getBytes(charset));
+	}
+
+	@Test
+	public void testReadsEntityWithDefaultCharset() throws IOException {
+		String result=EntityReader.newInstance(Long.MAX_VALUE).read(stream(CONTENT,"UTF-8"),new MediaType("text","turtle"),-1);
+		assertThat(result,equalTo(CONTENT));
+	}
+
+	@Test
+	public void testReadsEntityWithDeclaredCharset() throws IOException {
+		MediaType mediaType=new MediaType("text","turtle").withCharset(StandardCharsets.ISO_8859_1.name());
+		String result=EntityReader.newInstance(Long.MAX_VALUE).read(stream(CONTENT,"ISO-8859-1"),mediaType,-1);
+		assertThat(result,equalTo(CONTENT));
+	}
+
+	@Test
+	public void testReadsEntityOfMaximumSize() throws IOException {
+		byte[] bytes=CONTENT.getBytes(StandardCharsets.UTF_8);
+		String result=EntityReader.newInstance(bytes.length).read(new ByteArrayInputStream(bytes),null,-1);
+		assertThat(result,equalTo(CONTENT));
+	}
+
+	@Test
+	public void testNullEntityIsNotRead() throws IOException {
+		assertThat(EntityReader.newInstance(1).read(null,null,-1),nullValue());
+	}
+
+	@Test(expected=EntityTooLargeException.class)
+	public void testRejectsEntitiesLargerThanAllowedWhileReading() throws IOException {
+		byte[] bytes=CONTENT.getBytes(StandardCharsets.UTF_8);
+		EntityReader.newInstance(bytes.length-1).read(new ByteArrayInputStream(bytes),null,-1);
+	}
+
+	@Test(expected=EntityTooLargeException.class)
+	public void testRejectsEntitiesDeclaredLargerThanAllowed() throws IOException {
+		EntityReader.newInstance(10).read(stream(CONTENT,"UTF-8"),null,11);
+	}
+
+	@Test(expected=EntityTooLargeException.class)
+	public void testRejectsEntitiesDeclaredLargerThanAllowedWhenOpening() throws IOException {
+		EntityReader.newInstance(10).open(stream(CONTENT,"UTF-8"),null,11);
+	}
+
+	@Test
+	public void testOpenedEntityIsDecodedWithDeclaredCharset() throws IOException {
+		MediaType mediaType=new MediaType("text","turtle").withCharset(StandardCharsets.ISO_8859_1.name());
+		RequestEntity entity=EntityReader.newInstance(Long.MAX_VALUE,16).open(stream(CONTENT,"ISO-8859-1"),mediaType,-1);
+		assertThat(CharStreams.toString(entity.reader()),equalTo(CONTENT));
+		assertThat(entity.body(),equalTo(CONTENT.substring(0,16)));
+	}
+
+}
@@ -0,0 +1,161 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014-2016 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:0.2.2
+ *   Bundle      : ldp4j-server-core-0.2.2.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.frontend;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.junit.Test;
+
+public class RequestProcessorTest {
+
+	private static final class ResponseRecorder implements InvocationHandler {
+
+		private final CountDownLatch resumed=new CountDownLatch(1);
+		private volatile Object result;
+		private volatile Thread thread;
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) {
+			if("resume".equals(method.getName())) {
+				this.result=args[0];
+				this.thread=Thread.currentThread();
+				this.resumed.countDown();
+			}
+			return null;
+		}
+
+		AsyncResponse response() {
+			return
+				(AsyncResponse)Proxy.newProxyInstance(
+					AsyncResponse.class.getClassLoader(),
+					new Class<?>[]{AsyncResponse.class},
+					this);
+		}
+
+		Object await() throws InterruptedException {
+			assertThat(this.resumed.await(5,TimeUnit.SECONDS),equalTo(true));
+			return this.result;
+		}
+
+	}
+
+	private static Callable<Response> returning(final Response response) {
+		return new Callable<Response>() {
+			@Override
+			public Response call() {
+				return response;
+			}
+		};
+	}
+
+	@Test
+	public void testSynchronousProcessingUsesCallingThread() throws Exception {
+		RequestProcessor sut=RequestProcessor.create(0,0);
+		ResponseRecorder recorder=new ResponseRecorder();
+		Response response=Response.ok().build();
+		sut.process(recorder.response(),returning(response));
+		assertThat(sut.isAsynchronous(),equalTo(false));
+		assertThat(recorder.await(),sameInstance((Object)response));
+		assertThat(recorder.thread,sameInstance(Thread.currentThread()));
+	}
+
+	@Test
+	public void testAsynchronousProcessingUsesDedicatedThreads() throws Exception {
+		RequestProcessor sut=RequestProcessor.create(1,1);
+		try {
+			ResponseRecorder recorder=new ResponseRecorder();
+			Response response=Response.ok().build();
+			sut.process(recorder.response(),returning(response));
+			assertThat(sut.isAsynchronous(),equalTo(true));
+			assertThat(recorder.await(),sameInstance((Object)response));
+			assertThat(recorder.thread,not(sameInstance(Thread.currentThread())));
+		} finally {
+			sut.shutdown();
+		}
+	}
+
+	@Test
+	public void testFailuresResumeTheResponse() throws Exception {
+		RequestProcessor sut=RequestProcessor.create(1,1);
+		try {
+			ResponseRecorder recorder=new ResponseRecorder();
+			sut.process(
+				recorder.response(),
+				new Callable<Response>() {
+					@Override
+					public Response call() {
+						throw new IllegalStateException("Failure");
+					}
+				});
+			assertThat(recorder.await(),instanceOf(IllegalStateException.class));
+		} finally {
+			sut.shutdown();
+		}
+	}
+
+	@Test
+	public void testRejectsRequestsWhenQueueIsFull() throws Exception {
+		RequestProcessor sut=RequestProcessor.create(1,1);
+		final CountDownLatch release=new CountDownLatch(1);
+		try {
+			Callable<Response> blocking=new Callable<Response>() {
+				@Override
+				public Response call() throws InterruptedException {
+					release.await();
+					return Response.ok().build();
+				}
+			};
+			sut.process(new ResponseRecorder().response(),blocking);
+			sut.process(new ResponseRecorder().response(),blocking);
+			ResponseRecorder recorder=new ResponseRecorder();
+			sut.process(recorder.response(),blocking);
+			Object result=recorder.await();
+			assertThat(result,instanceOf(Response.class));
+			assertThat(((Response)result).getStatus(),equalTo(Status.SERVICE_UNAVAILABLE.getStatusCode()));
+			assertThat(recorder.thread,sameInstance(Thread.currentThread()));
+		} finally {
+			release.countDown();
+			sut.shutdown();
+		}
+	}
+
+}